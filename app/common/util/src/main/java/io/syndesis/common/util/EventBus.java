@@ -61,6 +61,18 @@ public interface EventBus {
      */
     Subscription subscribe(String subscriberId, Subscription handler);
 
+    /**
+     * Adds the subscription of a remote client, like a browser, to the event
+     * bus. Unlike {@link #subscribe(String, Subscription)} the bus MAY drop
+     * events for, or remove, client subscriptions that are not keeping up.
+     * @param subscriberId unique id for the subscription.
+     * @param handler the callback that will receive the events.
+     * @return the previously registered subscription with that id or null.
+     */
+    default Subscription subscribeClient(String subscriberId, Subscription handler) {
+        return subscribe(subscriberId, handler);
+    }
+
     /**
      * Removes a subscription from the event bus.
      * @param subscriberId unique id for the subscription.
@@ -41,11 +41,22 @@ public final class KeyGenerator {
     private static final AtomicLong LAST_TIMESTAMP = new AtomicLong(clock.getAsLong());
     static byte randomnessByte;
     private static final AtomicLong RANDOMNESS_LONG;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final ThreadLocal<Stripe> STRIPES = ThreadLocal.withInitial(Stripe::new);
 
     static {
-        final SecureRandom random = new SecureRandom();
-        randomnessByte = (byte) random.nextInt();
-        RANDOMNESS_LONG = new AtomicLong(random.nextLong());
+        randomnessByte = (byte) RANDOM.nextInt();
+        RANDOMNESS_LONG = new AtomicLong(RANDOM.nextLong());
+    }
+
+    /**
+     * Per thread state of {@link #createThreadLocalKey()}, the random part is
+     * seeded independently for each thread.
+     */
+    private static final class Stripe {
+        final byte[] buffer = new byte[8 + 1 + 8];
+        long randomness = RANDOM.nextLong();
     }
 
     private KeyGenerator() {
@@ -66,6 +77,25 @@ public final class KeyGenerator {
         return encodeKey(buffer.array());
     }
 
+    /**
+     * Generates a new key without coordinating with the other threads. Keys
+     * are strictly increasing within the generating thread, but keys created
+     * by different threads within the same millisecond are in no particular
+     * order. Meant for high volume keys that only need to be unique and
+     * roughly time ordered, like the activity tracking ids.
+     */
+    public static String createThreadLocalKey() {
+        final long now = clock.getAsLong();
+
+        final Stripe stripe = STRIPES.get();
+        final byte[] buffer = stripe.buffer;
+        putLong(buffer, 0, now);
+        buffer[8] = randomnessByte;
+        putLong(buffer, 9, ++stripe.randomness);
+
+        return encodeKey(buffer);
+    }
+
     static long getRandomPart(final long timeStamp) {
         return RANDOMNESS_LONG.updateAndGet(randomVal -> {
             long current;
@@ -117,6 +147,12 @@ public final class KeyGenerator {
     }
 
 
+    private static void putLong(byte[] buffer, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            buffer[offset + 7 - i] = (byte) (value >>> (i * 8));
+        }
+    }
+
     private static String stripPreAndSuffix(String key) {
         if (key.length() >= 3) {
             return key.substring(1, key.length() - 1);
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Tokens of the form {@code <subject>.<signature>} the server hands out to
+ * the integrations it deploys; the signature is a HMAC-SHA256 of the subject
+ * for the given purpose so a token can be verified without looking anything
+ * up and a token issued for one purpose is not valid for another.
+ */
+public final class SignedTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final char SEPARATOR = '.';
+
+    private SignedTokens() {
+        // utility class
+    }
+
+    public static String sign(String key, String purpose, String subject) {
+        if (subject.indexOf(SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Token subjects cannot contain `" + SEPARATOR + "`: " + subject);
+        }
+
+        return subject + SEPARATOR + Base64.getUrlEncoder().withoutPadding().encodeToString(signature(key, purpose, subject));
+    }
+
+    /**
+     * Returns the subject of the token, or empty if the token is not signed
+     * with the given key for the given purpose.
+     */
+    public static Optional<String> verify(String key, String purpose, String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+
+        final int separator = token.lastIndexOf(SEPARATOR);
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+
+        final String subject = token.substring(0, separator);
+        final byte[] given;
+        try {
+            given = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException ignored) {
+            return Optional.empty();
+        }
+
+        if (!MessageDigest.isEqual(signature(key, purpose, subject), given)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(subject);
+    }
+
+    private static byte[] signature(String key, String purpose, String subject) {
+        if (Strings.isEmptyOrBlank(key)) {
+            throw new IllegalArgumentException("A key is needed for signing tokens");
+        }
+
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            mac.update(purpose.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+
+            return mac.doFinal(subject.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute the signature of a token", e);
+        }
+    }
+}
@@ -25,6 +25,19 @@ public final class Strings {
     private Strings() {
     }
 
+    /**
+     * Lower case hexadecimal representation of the given bytes, two
+     * characters per byte.
+     */
+    public static String hex(final byte[] data) {
+        final StringBuilder hex = new StringBuilder(data.length * 2);
+        for (final byte b : data) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+
     public static boolean isEmptyOrBlank(final String given) {
         if (given == null || given.isEmpty()) {
             return true;
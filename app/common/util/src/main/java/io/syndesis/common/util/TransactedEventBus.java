@@ -77,6 +77,11 @@ public class TransactedEventBus implements EventBus {
         return delegate.subscribe(subscriberId, handler);
     }
 
+    @Override
+    public Subscription subscribeClient(final String subscriberId, final Subscription handler) {
+        return delegate.subscribeClient(subscriberId, handler);
+    }
+
     @Override
     public Subscription unsubscribe(final String subscriberId) {
         return delegate.unsubscribe(subscriberId);
@@ -17,6 +17,7 @@ package io.syndesis.common.util.cache;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * The interface for a cache.
@@ -25,6 +26,21 @@ public interface Cache<K, V> {
 
     V get(K key);
 
+    /**
+     * Returns the cached value or loads it using the given function and
+     * caches it if the loaded value is not {@code null}.
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
     Set<K> keySet();
 
     Collection<V> values();
@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.common.util.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * A cache based on {@code ConcurrentHashMap} that evicts the least recently
+ * accessed entries once the maximum number of elements or the maximum weight
+ * is exceeded.
+ *
+ * The recency of the entries is kept in an access ordered
+ * {@code LinkedHashMap} guarded by a lock. Readers do not take the lock, they
+ * record the keys they read in a buffer striped by thread, the buffered reads
+ * are replayed on the order before each write, or by a reader once its stripe
+ * fills up, so no access is lost. Writers hold the lock and evict the eldest
+ * entries in constant time.
+ *
+ * A value for which the given predicate does not hold anymore, like a cleared
+ * reference, is removed when it is read and the read counts as a miss.
+ */
+public class ConcurrentLRUCache<K, V> implements Cache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<V>> map = new ConcurrentHashMap<>();
+
+    private final int maxElements;
+
+    private final long maxWeight;
+
+    private final ToLongFunction<? super V> weigher;
+
+    private final Predicate<? super V> present;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ReadBuffer<K>[] readBuffers;
+
+    // least recently used first, guarded by the lock
+    private final Map<K, Node<V>> order = new LinkedHashMap<K, Node<V>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Node<V>> eldest) {
+            if (size() <= maxElements) {
+                return false;
+            }
+
+            evicted(eldest);
+            return true;
+        }
+    };
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder loadTime = new LongAdder();
+
+    // keys read by the threads of a stripe, not yet replayed on the order
+    private static final class ReadBuffer<K> {
+        static final int DRAIN_THRESHOLD = 32;
+
+        static final int CAPACITY = 128;
+
+        final Queue<K> keys = new ConcurrentLinkedQueue<>();
+
+        final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * Returns the number of keys buffered, including the given one.
+         */
+        int add(K key) {
+            keys.add(key);
+            return size.incrementAndGet();
+        }
+
+        void drainTo(Map<K, ?> order) {
+            K key;
+            while ((key = keys.poll()) != null) {
+                size.decrementAndGet();
+                order.get(key);
+            }
+        }
+    }
+
+    private static final class Node<V> {
+        final V value;
+        final long weight;
+
+        Node(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    public ConcurrentLRUCache(int maxElements) {
+        this(maxElements, Long.MAX_VALUE, v -> 0);
+    }
+
+    public ConcurrentLRUCache(int maxElements, long maxWeight, ToLongFunction<? super V> weigher) {
+        this(maxElements, maxWeight, weigher, v -> true);
+    }
+
+    /**
+     * @param maxElements maximum number of entries
+     * @param maxWeight maximum sum of the weights of all entries
+     * @param weigher computes the weight of a value, for instance its size
+     *            in bytes
+     * @param present tells if a cached value is still usable, for instance
+     *            that a reference has not been cleared
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentLRUCache(int maxElements, long maxWeight, ToLongFunction<? super V> weigher, Predicate<? super V> present) {
+        this.maxElements = maxElements;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.present = present;
+
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors()) {
+            stripes <<= 1;
+        }
+        readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        final Node<V> node = map.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (!present.test(node.value)) {
+            misses.increment();
+            removeNode(key, node);
+            return null;
+        }
+
+        recordAccess(key);
+
+        hits.increment();
+        return node.value;
+    }
+
+    private void recordAccess(K key) {
+        final ReadBuffer<K> buffer = readBuffers[(int) Thread.currentThread().getId() & (readBuffers.length - 1)];
+        final int buffered = buffer.add(key);
+        if (buffered >= ReadBuffer.CAPACITY) {
+            // the writers did not keep up, wait for the lock instead of
+            // letting the buffer grow
+            lock.lock();
+        } else if (buffered < ReadBuffer.DRAIN_THRESHOLD || !lock.tryLock()) {
+            return;
+        }
+
+        try {
+            drainReadBuffers();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called with the lock held
+    private void drainReadBuffers() {
+        for (ReadBuffer<K> buffer : readBuffers) {
+            buffer.drainTo(order);
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        final V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final long start = System.nanoTime();
+        final V loaded = loader.apply(key);
+        loadTime.add(System.nanoTime() - start);
+        loads.increment();
+
+        if (loaded != null) {
+            put(key, loaded);
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        return map.values().stream()
+            .map(n -> n.value)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void put(K key, V value) {
+        final Node<V> node = new Node<>(value, maxWeight == Long.MAX_VALUE ? 0 : weigher.applyAsLong(value));
+
+        lock.lock();
+        try {
+            drainReadBuffers();
+
+            map.put(key, node);
+            final Node<V> previous = order.put(key, node);
+            weight.addAndGet(previous == null ? node.weight : node.weight - previous.weight);
+
+            final Iterator<Map.Entry<K, Node<V>>> eldest = order.entrySet().iterator();
+            while (weight.get() > maxWeight && eldest.hasNext()) {
+                final Map.Entry<K, Node<V>> entry = eldest.next();
+                eldest.remove();
+                evicted(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        lock.lock();
+        try {
+            final Node<V> removed = order.remove(key);
+            if (removed == null) {
+                return null;
+            }
+
+            map.remove(key);
+            weight.addAndGet(-removed.weight);
+            return removed.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // removes the node if it is still the one cached for the key
+    private void removeNode(K key, Node<V> node) {
+        lock.lock();
+        try {
+            if (map.remove(key, node)) {
+                order.remove(key);
+                weight.addAndGet(-node.weight);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            order.clear();
+            map.clear();
+            weight.set(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), loads.sum(), loadTime.sum(), weight.get());
+    }
+
+    // called with the lock held for an entry removed from the order
+    private void evicted(Map.Entry<K, Node<V>> entry) {
+        map.remove(entry.getKey());
+        weight.addAndGet(-entry.getValue().weight);
+        evictions.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentLRUCache{" +
+            "size=" + map.size() +
+            ", stats=" + stats() +
+            '}';
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.common.util.cache;
+
+import java.lang.ref.Reference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CacheManager} creating {@link ConcurrentLRUCache} instances, reads
+ * from those do not contend on a shared lock. Caches can optionally be limited
+ * by weight, e.g. the size in bytes of the cached values, by configuring the
+ * maximum weight for the name of the cache.
+ */
+public class ConcurrentLRUCacheManager implements CacheManager {
+    private static final Logger LOG = LoggerFactory.getLogger(CacheManager.class);
+    private static final CacheStats EMPTY_STATS = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    private final ConcurrentMap<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentLRUCache<?, ?>> backingCaches = new ConcurrentHashMap<>();
+    private final int maxElements;
+    private final Map<String, Long> maxWeights;
+    private final ToLongFunction<Object> weigher;
+
+    public ConcurrentLRUCacheManager(final int maxElements) {
+        this(maxElements, Collections.emptyMap(), v -> 0);
+    }
+
+    /**
+     * @param maxElements maximum number of elements in each cache
+     * @param maxWeights maximum weight per cache name, caches not listed are
+     *            limited only by the number of elements
+     * @param weigher computes the weight of a cached value
+     */
+    public ConcurrentLRUCacheManager(final int maxElements, final Map<String, Long> maxWeights, final ToLongFunction<Object> weigher) {
+        this.maxElements = maxElements;
+        this.maxWeights = maxWeights;
+        this.weigher = weigher;
+    }
+
+    @Override
+    public void evictAll() {
+        caches.clear();
+        backingCaches.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <K, V> Cache<K, V> getCache(final String name, boolean soft) {
+        Cache<K, V> cache = (Cache<K, V>) caches.computeIfAbsent(name, n -> this.newCache(n, soft));
+        if ((soft && !(cache instanceof LRUSoftCache)) || (!soft && (cache instanceof LRUSoftCache))) {
+            LOG.warn("Cache {} is being used in mixed 'soft' and 'hard' mode", name);
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the statistics of the cache with the given name, empty ones if
+     * the cache has not been created.
+     */
+    public CacheStats stats(String name) {
+        final ConcurrentLRUCache<?, ?> cache = backingCaches.get(name);
+        return cache == null ? EMPTY_STATS : cache.stats();
+    }
+
+    /**
+     * Returns the statistics of all caches by name.
+     */
+    public Map<String, CacheStats> stats() {
+        final Map<String, CacheStats> stats = new TreeMap<>();
+        backingCaches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+
+    private <K, V> Cache<K, V> newCache(String name, boolean soft) {
+        final long maxWeight = maxWeights.getOrDefault(name, Long.MAX_VALUE);
+
+        if (soft) {
+            final ConcurrentLRUCache<K, Reference<V>> backing = new ConcurrentLRUCache<>(maxElements, maxWeight, ref -> weigher.applyAsLong(ref.get()), ref -> ref.get() != null);
+            backingCaches.put(name, backing);
+            return new LRUSoftCache<>(backing);
+        }
+
+        final ConcurrentLRUCache<K, V> cache = new ConcurrentLRUCache<>(maxElements, maxWeight, weigher::applyAsLong);
+        backingCaches.put(name, cache);
+        return cache;
+    }
+}
@@ -17,9 +17,12 @@ package io.syndesis.common.util.cache;
 
 import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -31,16 +34,52 @@ public class LRUSoftCache<K, V> implements Cache<K, V> {
     private final Cache<K, Reference<V>> cache;
 
     public LRUSoftCache(int maxElements) {
-        this.cache = new LRUDefaultCache<>(maxElements);
+        this(new LRUDefaultCache<>(maxElements));
+    }
+
+    public LRUSoftCache(Cache<K, Reference<V>> cache) {
+        this.cache = cache;
     }
 
     @Override
     public V get(K key) {
         Reference<V> ref = cache.get(key);
-        if (ref != null) {
-            return ref.get();
+        if (ref == null) {
+            return null;
+        }
+
+        V value = ref.get();
+        if (value == null) {
+            // reclaimed by the garbage collector
+            cache.remove(key);
+        }
+        return value;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        // keeps the loaded value reachable until it is returned
+        final List<V> loaded = new ArrayList<>(1);
+        Reference<V> ref = cache.computeIfAbsent(key, k -> {
+            V value = loader.apply(k);
+            if (value == null) {
+                return null;
+            }
+            loaded.add(value);
+            return new SoftReference<>(value);
+        });
+
+        if (!loaded.isEmpty()) {
+            return loaded.get(0);
+        }
+
+        V value = ref != null ? ref.get() : null;
+        if (value == null && ref != null) {
+            // reclaimed after the lookup
+            cache.remove(key);
+            return computeIfAbsent(key, loader);
         }
-        return null;
+        return value;
     }
 
     @Override
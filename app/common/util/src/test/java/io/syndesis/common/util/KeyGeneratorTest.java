@@ -85,6 +85,30 @@ public class KeyGeneratorTest {
             + " of distinct keys");
     }
 
+    @Test
+    public void testCreateThreadLocalKey() throws IOException {
+        String last = KeyGenerator.createThreadLocalKey();
+        for (int i = 0; i < 1000000; i++) {
+            final String lastKey = last;
+            final String key = KeyGenerator.createThreadLocalKey();
+            assertThat(key).is(new Condition<>((other) -> lastKey.compareTo(other) < 0, "greater than " + lastKey));
+            last = key;
+        }
+
+        assertThat(KeyGenerator.getKeyTimeMillis(last)).isCloseTo(System.currentTimeMillis(), Offset.offset(500L));
+    }
+
+    @Test
+    public void testCreateThreadLocalKeyMultithreaded() {
+        final int count = 100000;
+
+        final Set<String> keys = IntStream.range(0, count).parallel()
+            .mapToObj(i -> KeyGenerator.createThreadLocalKey())
+            .collect(Collectors.toSet());
+
+        Assertions.assertEquals(count, keys.size(), "If " + count + " key generations are performed in parallel, it should yield " + count
+            + " of distinct keys");
+    }
 
     @Test
     public void testGetKeyTimeMillis() throws IOException {
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SignedTokensTest {
+
+    @Test
+    public void shouldVerifySignedTokens() {
+        final String token = SignedTokens.sign("key", "purpose", "i-subject");
+
+        assertThat(token).startsWith("i-subject.");
+        assertThat(SignedTokens.verify("key", "purpose", token)).contains("i-subject");
+    }
+
+    @Test
+    public void shouldRejectTamperedOrForeignTokens() {
+        final String token = SignedTokens.sign("key", "purpose", "i-subject");
+
+        assertThat(SignedTokens.verify("other key", "purpose", token)).isEmpty();
+        assertThat(SignedTokens.verify("key", "other purpose", token)).isEmpty();
+        assertThat(SignedTokens.verify("key", "purpose", token.replace("i-subject", "i-other"))).isEmpty();
+        assertThat(SignedTokens.verify("key", "purpose", "i-subject")).isEmpty();
+        assertThat(SignedTokens.verify("key", "purpose", "i-subject.not base64")).isEmpty();
+        assertThat(SignedTokens.verify("key", "purpose", null)).isEmpty();
+    }
+
+    @Test
+    public void shouldNotSignWithoutKey() {
+        assertThatThrownBy(() -> SignedTokens.sign("", "purpose", "i-subject")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SignedTokens.sign("key", "purpose", "i.subject")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
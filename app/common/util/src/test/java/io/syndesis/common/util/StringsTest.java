@@ -41,6 +41,12 @@ public class StringsTest {
         assertThat(Strings.isEmptyOrBlank(" \na\t")).isFalse();
     }
 
+    @Test
+    public void shouldConvertBytesToHex() {
+        assertThat(Strings.hex(new byte[] {0x00, 0x0f, 0x10, (byte) 0xab, (byte) 0xff})).isEqualTo("000f10abff");
+        assertThat(Strings.hex(new byte[0])).isEmpty();
+    }
+
     @Test
     public void shouldFindNullStringsAsEmpty() {
         assertThat(Strings.isEmptyOrBlank(null)).isTrue();
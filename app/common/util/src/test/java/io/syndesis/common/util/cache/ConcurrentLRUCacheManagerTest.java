@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.common.util.cache;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentLRUCacheManagerTest {
+
+    @ParameterizedTest(name = "ConcurrentLRUCacheManagerTest(soft={0})")
+    @ValueSource(booleans = {true, false})
+    public void testEvictsLeastRecentlyUsed(final boolean soft) {
+        CacheManager manager = new ConcurrentLRUCacheManager(2);
+        Cache<String, Object> cache = manager.getCache("cache", soft);
+
+        cache.put("1", "1");
+        cache.put("2", "2");
+        // make 1 the most recently used one
+        assertThat(cache.get("1")).isNotNull();
+        cache.put("3", "3");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("1")).isNotNull();
+        assertThat(cache.get("2")).isNull();
+        assertThat(cache.get("3")).isNotNull();
+    }
+
+    @ParameterizedTest(name = "ConcurrentLRUCacheManagerTest(soft={0})")
+    @ValueSource(booleans = {true, false})
+    public void testIdentity(final boolean soft) {
+        CacheManager manager = new ConcurrentLRUCacheManager(2);
+        Cache<String, String> cache1 = manager.getCache("cache", soft);
+        Cache<String, String> cache2 = manager.getCache("cache", soft);
+        Cache<String, String> cache3 = manager.getCache("cache", !soft);
+
+        assertThat(cache1).isEqualTo(cache2);
+        assertThat(cache1).isEqualTo(cache3);
+    }
+
+    @Test
+    public void testWeightLimit() {
+        ConcurrentLRUCacheManager manager = new ConcurrentLRUCacheManager(100, Collections.singletonMap("weighted", 10L), v -> ((String) v).length());
+        Cache<String, String> weighted = manager.getCache("weighted", false);
+        Cache<String, String> unweighted = manager.getCache("unweighted", false);
+
+        weighted.put("1", "aaaa");
+        weighted.put("2", "bbbb");
+        weighted.put("3", "cccc");
+        unweighted.put("1", "aaaa");
+        unweighted.put("2", "bbbb");
+        unweighted.put("3", "cccc");
+
+        assertThat(weighted.size()).isEqualTo(2);
+        assertThat(unweighted.size()).isEqualTo(3);
+        assertThat(manager.stats().get("weighted").getWeight()).isEqualTo(8);
+        assertThat(manager.stats().get("weighted").getEvictions()).isEqualTo(1);
+
+        weighted.remove("3");
+        assertThat(manager.stats().get("weighted").getWeight()).isEqualTo(4);
+    }
+
+    @Test
+    public void testStats() {
+        ConcurrentLRUCacheManager manager = new ConcurrentLRUCacheManager(10);
+        Cache<String, String> cache = manager.getCache("cache", false);
+
+        assertThat(cache.computeIfAbsent("1", k -> "one")).isEqualTo("one");
+        assertThat(cache.computeIfAbsent("1", k -> "uno")).isEqualTo("one");
+        assertThat(cache.computeIfAbsent("2", k -> null)).isNull();
+
+        CacheStats stats = manager.stats().get("cache");
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(2);
+        assertThat(stats.getLoads()).isEqualTo(2);
+        assertThat(stats.getHitRatio()).isEqualTo(1.0 / 3);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSoftCacheStats() {
+        ConcurrentLRUCacheManager manager = new ConcurrentLRUCacheManager(10);
+        Cache<String, String> cache = manager.getCache("cache", true);
+
+        assertThat(cache.computeIfAbsent("1", k -> "one")).isEqualTo("one");
+        assertThat(cache.computeIfAbsent("1", k -> "uno")).isEqualTo("one");
+
+        CacheStats stats = manager.stats("cache");
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getLoads()).isEqualTo(1);
+        assertThat(manager.stats("unknown").getHits()).isZero();
+    }
+
+    @Test
+    public void testClearedReferenceIsAMiss() {
+        ConcurrentLRUCache<String, Reference<String>> backing = new ConcurrentLRUCache<>(10, Long.MAX_VALUE, ref -> 0, ref -> ref.get() != null);
+        Cache<String, String> cache = new LRUSoftCache<>(backing);
+
+        cache.put("1", "one");
+        backing.values().forEach(Reference::clear);
+
+        assertThat(cache.get("1")).isNull();
+        assertThat(backing.size()).isZero();
+        assertThat(backing.stats().getHits()).isZero();
+        assertThat(backing.stats().getMisses()).isEqualTo(1);
+
+        assertThat(cache.computeIfAbsent("1", k -> "uno")).isEqualTo("uno");
+        assertThat(backing.stats().getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNoAccessIsLostUnderContention() throws Exception {
+        final int max = 100;
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(max);
+        for (int i = 0; i < max; i++) {
+            cache.put(String.valueOf(i), "value");
+        }
+
+        // the first half is read concurrently, after the second half was written
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        assertThat(cache.get(String.valueOf(i % (max / 2)))).isNotNull();
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = max; i < max + max / 2; i++) {
+            cache.put(String.valueOf(i), "value");
+        }
+
+        for (int i = 0; i < max / 2; i++) {
+            assertThat(cache.keySet()).contains(String.valueOf(i));
+        }
+        assertThat(cache.stats().getEvictions()).isEqualTo(max / 2);
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        final int max = 100;
+        ConcurrentLRUCacheManager manager = new ConcurrentLRUCacheManager(max);
+        Cache<String, String> cache = manager.getCache("cache", false);
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 64; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String key = String.valueOf((i * 31 + thread) % (max * 2));
+                        String value = cache.computeIfAbsent(key, k -> "value-" + k);
+                        assertThat(value).isEqualTo("value-" + key);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(max);
+        CacheStats stats = manager.stats().get("cache");
+        assertThat(stats.getHits() + stats.getMisses()).isEqualTo(64 * 10_000);
+    }
+}
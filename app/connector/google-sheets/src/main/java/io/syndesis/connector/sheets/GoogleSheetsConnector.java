@@ -23,16 +23,26 @@ import java.util.Optional;
 
 import io.syndesis.integration.component.proxy.ComponentDefinition;
 import io.syndesis.integration.component.proxy.ComponentProxyComponent;
+import io.syndesis.integration.component.proxy.ComponentProxyEndpoint;
+import io.syndesis.integration.component.proxy.ComponentProxyProducer;
 import org.apache.camel.Component;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Processor;
+import org.apache.camel.Producer;
 import org.apache.camel.component.google.sheets.GoogleSheetsClientFactory;
 import org.apache.camel.component.google.sheets.GoogleSheetsComponent;
+import org.apache.camel.component.google.sheets.GoogleSheetsEndpoint;
+import org.apache.camel.component.google.sheets.internal.GoogleSheetsApiName;
 import org.apache.camel.component.google.sheets.stream.GoogleSheetsStreamComponent;
+import org.apache.camel.processor.Pipeline;
 
 public class GoogleSheetsConnector extends ComponentProxyComponent {
 
     private String rootUrl;
     private String serverCertificate;
     private boolean validateCertificates = true;
+    private int batchSize = 1;
+    private long batchTimeout = 1000L;
 
     public GoogleSheetsConnector(String componentId, String componentScheme) {
         super(componentId, componentScheme);
@@ -63,6 +73,33 @@ public class GoogleSheetsConnector extends ComponentProxyComponent {
         }
     }
 
+    @Override
+    protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) {
+        final Endpoint endpoint = super.createEndpoint(uri, remaining, parameters);
+        if (batchSize <= 1 || !(endpoint instanceof ComponentProxyEndpoint)) {
+            return endpoint;
+        }
+
+        final ComponentProxyEndpoint proxy = (ComponentProxyEndpoint) endpoint;
+        if (!(proxy.getEndpoint() instanceof GoogleSheetsEndpoint)) {
+            return endpoint;
+        }
+
+        final GoogleSheetsEndpoint delegate = (GoogleSheetsEndpoint) proxy.getEndpoint();
+        final String methodName = delegate.getMethodName();
+        if (delegate.getApiName() != GoogleSheetsApiName.DATA || !("update".equals(methodName) || "append".equals(methodName))) {
+            return endpoint;
+        }
+
+        final BatchingEndpoint answer = new BatchingEndpoint(uri, this, delegate, "append".equals(methodName));
+        answer.setBeforeProducer(proxy.getBeforeProducer());
+        answer.setAfterProducer(proxy.getAfterProducer());
+        answer.setBeforeConsumer(proxy.getBeforeConsumer());
+        answer.setAfterConsumer(proxy.getAfterConsumer());
+
+        return answer;
+    }
+
     public String getRootUrl() {
         return rootUrl;
     }
@@ -95,4 +132,51 @@ public class GoogleSheetsConnector extends ComponentProxyComponent {
     public void setValidateCertificates(boolean validateCertificates) {
         this.validateCertificates = validateCertificates;
     }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Specifies the number of rows written to a spreadsheet in a single call,
+     * values are written as they come when not greater than one.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    /**
+     * Specifies the time in milliseconds to wait for more rows before writing
+     * an incomplete batch.
+     */
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    /**
+     * Endpoint writing values through a {@link GoogleSheetsValuesBatcher}
+     * instead of the producer of the delegate endpoint.
+     */
+    private final class BatchingEndpoint extends ComponentProxyEndpoint {
+        private final GoogleSheetsEndpoint delegate;
+        private final boolean append;
+
+        BatchingEndpoint(String endpointUri, ComponentProxyComponent component, GoogleSheetsEndpoint delegate, boolean append) {
+            super(endpointUri, component, delegate);
+            this.delegate = delegate;
+            this.append = append;
+        }
+
+        @Override
+        public Producer createProducer() throws Exception {
+            final GoogleSheetsValuesBatcher batcher = new GoogleSheetsValuesBatcher(getCamelContext(), delegate::getClient, append, batchSize, batchTimeout);
+            final Processor pipeline = Pipeline.newInstance(getCamelContext(), getBeforeProducer(), batcher, getAfterProducer());
+
+            return new ComponentProxyProducer(delegate, pipeline);
+        }
+    }
 }
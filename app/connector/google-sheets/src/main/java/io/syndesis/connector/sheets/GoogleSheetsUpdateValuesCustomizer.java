@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.module.jsonSchema.JsonSchema;
 import com.fasterxml.jackson.module.jsonSchema.types.ArraySchema;
@@ -49,6 +50,7 @@ public class GoogleSheetsUpdateValuesCustomizer implements ComponentProxyCustomi
     private String[] columnNames;
     private String majorDimension;
     private String valueInputOption;
+    private List<String> columnKeys;
 
     @Override
     public void customize(ComponentProxyComponent component, Map<String, Object> options) {
@@ -68,6 +70,10 @@ public class GoogleSheetsUpdateValuesCustomizer implements ComponentProxyCustomi
 
         Arrays.parallelSetAll(columnNames, (i) -> columnNames[i].trim());
 
+        if (ObjectHelper.isNotEmpty(range)) {
+            columnKeys = getColumnKeys();
+        }
+
         options.put("apiName",
                 GoogleSheetsApiCollection.getCollection().getApiName(SheetsSpreadsheetsValuesApiMethod.class).getName());
         options.put("methodName", getApiMethodName());
@@ -96,43 +102,56 @@ public class GoogleSheetsUpdateValuesCustomizer implements ComponentProxyCustomi
             }
         }
 
-        ValueRange valueRange = new ValueRange();
+        // per message values, the customizer is shared by concurrent exchanges
+        String targetSpreadsheetId = spreadsheetId;
         List<List<Object>> values = new ArrayList<>();
 
         if (ObjectHelper.isNotEmpty(jsonBeans)) {
-            final ObjectSchema spec = getItemSchema(GoogleSheetsMetaDataHelper.createSchema(range, majorDimension, columnNames));
+            final List<String> keys = columnKeys != null ? columnKeys : getColumnKeys();
 
             for (String json : jsonBeans) {
                 Map<String, Object> dataShape = JsonUtils.reader().forType(Map.class).readValue(json);
 
                 if (dataShape.containsKey("spreadsheetId")) {
-                    spreadsheetId = Optional.ofNullable(dataShape.remove("spreadsheetId"))
+                    targetSpreadsheetId = Optional.ofNullable(dataShape.remove("spreadsheetId"))
                             .map(Object::toString)
-                            .orElse(spreadsheetId);
+                            .orElse(targetSpreadsheetId);
                 }
 
-                List<Object> rangeValues = new ArrayList<>();
-                spec.getProperties()
-                        .entrySet()
-                        .stream()
-                        .filter(specEntry -> !Objects.equals("spreadsheetId", specEntry.getKey()))
-                        .forEach(specEntry -> rangeValues.add(Optional.ofNullable(dataShape.get(specEntry.getKey()))
-                                                                      .orElse("")));
+                List<Object> rangeValues = new ArrayList<>(keys.size());
+                for (String key : keys) {
+                    rangeValues.add(Optional.ofNullable(dataShape.get(key)).orElse(""));
+                }
 
                 values.add(rangeValues);
             }
         }
 
+        ValueRange valueRange = new ValueRange();
         valueRange.setMajorDimension(majorDimension);
         valueRange.setValues(values);
 
-        in.setHeader(GoogleSheetsStreamConstants.SPREADSHEET_ID, spreadsheetId);
+        in.setHeader(GoogleSheetsStreamConstants.SPREADSHEET_ID, targetSpreadsheetId);
         in.setHeader(GoogleSheetsStreamConstants.RANGE, range);
         in.setHeader(GoogleSheetsStreamConstants.MAJOR_DIMENSION, majorDimension);
         in.setHeader(GoogleSheetsConstants.PROPERTY_PREFIX + "values", valueRange);
         in.setHeader(GoogleSheetsConstants.PROPERTY_PREFIX + "valueInputOption", valueInputOption);
     }
 
+    /**
+     * Names of the data shape properties that hold the values of the range, in
+     * column order.
+     */
+    private List<String> getColumnKeys() {
+        final ObjectSchema spec = getItemSchema(GoogleSheetsMetaDataHelper.createSchema(range, majorDimension, columnNames));
+
+        return spec.getProperties()
+                .keySet()
+                .stream()
+                .filter(key -> !Objects.equals("spreadsheetId", key))
+                .collect(Collectors.toList());
+    }
+
     private static ObjectSchema getItemSchema(JsonSchema spec) {
         ObjectSchema itemSpec = null;
         if (spec.isObjectSchema()) {
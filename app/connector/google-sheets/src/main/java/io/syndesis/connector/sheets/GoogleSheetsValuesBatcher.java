@@ -0,0 +1,385 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sheets;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.component.google.sheets.internal.GoogleSheetsConstants;
+import org.apache.camel.component.google.sheets.stream.GoogleSheetsStreamConstants;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.AsyncProcessorHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the values prepared by {@link GoogleSheetsUpdateValuesCustomizer}
+ * in batches instead of issuing one Google Sheets API call per exchange.
+ * <p>
+ * Values for the same spreadsheet are merged into a single
+ * {@code values.batchUpdate} call, values appended to the same range into a
+ * single {@code values.append} call. A batch is written once it holds
+ * {@code batchSize} rows or {@code batchTimeout} milliseconds after its first
+ * row was added, whichever comes first. Batches are written in order by a
+ * single background thread. An exchange is pending until the batch holding
+ * its values is written and fails if the batch could not be written, so only
+ * the rows of exchanges processed concurrently, by a parallel split or by
+ * concurrent consumers, are batched together. The exchanges of a written
+ * batch continue on a separate thread pool, so neither a slow step further
+ * down the route nor an exchange waiting to buffer its values hold up the
+ * writing thread. When the per project quota is exceeded the write is
+ * retried with an exponential backoff, and exchanges block while too many
+ * rows are waiting to be written.
+ */
+final class GoogleSheetsValuesBatcher extends ServiceSupport implements AsyncProcessor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GoogleSheetsValuesBatcher.class);
+
+    private static final long MAX_BACKOFF = TimeUnit.SECONDS.toMillis(32);
+
+    private static final int MAX_ATTEMPTS = 8;
+
+    private static final int MAX_PENDING_BATCHES = 10;
+
+    private final CamelContext context;
+
+    private final Supplier<Sheets> clientSupplier;
+
+    private final boolean append;
+
+    private final int batchSize;
+
+    private final long batchTimeout;
+
+    private final long initialBackoff;
+
+    private final Map<Key, Batch> pending = new LinkedHashMap<>();
+
+    private int pendingRows;
+
+    private boolean stopping;
+
+    private Sheets client;
+
+    private ScheduledExecutorService executor;
+
+    private ExecutorService callbackExecutor;
+
+    GoogleSheetsValuesBatcher(CamelContext context, Supplier<Sheets> clientSupplier, boolean append, int batchSize, long batchTimeout) {
+        this(context, clientSupplier, append, batchSize, batchTimeout, TimeUnit.SECONDS.toMillis(1));
+    }
+
+    GoogleSheetsValuesBatcher(CamelContext context, Supplier<Sheets> clientSupplier, boolean append, int batchSize, long batchTimeout, long initialBackoff) {
+        this.context = context;
+        this.clientSupplier = clientSupplier;
+        this.append = append;
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+        this.initialBackoff = initialBackoff;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        AsyncProcessorHelper.process(this, exchange);
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        final Message in = exchange.getIn();
+        final ValueRange values = in.getHeader(GoogleSheetsConstants.PROPERTY_PREFIX + "values", ValueRange.class);
+        if (values == null || values.getValues() == null || values.getValues().isEmpty()) {
+            callback.done(true);
+            return true;
+        }
+
+        final String range = in.getHeader(GoogleSheetsStreamConstants.RANGE, String.class);
+        final Key key = new Key(in.getHeader(GoogleSheetsStreamConstants.SPREADSHEET_ID, String.class),
+            in.getHeader(GoogleSheetsConstants.PROPERTY_PREFIX + "valueInputOption", String.class),
+            append ? range : null,
+            append ? values.getMajorDimension() : null);
+
+        final ValueRange copy = new ValueRange()
+            .setRange(range)
+            .setMajorDimension(values.getMajorDimension())
+            .setValues(values.getValues());
+
+        final Batch full;
+        synchronized (this) {
+            try {
+                while (pendingRows >= batchSize * MAX_PENDING_BATCHES && !stopping) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.setException(new CamelExchangeException("Interrupted while waiting to buffer values for Google Sheets", exchange, e));
+                callback.done(true);
+                return true;
+            }
+
+            if (stopping) {
+                exchange.setException(new CamelExchangeException("Values are not written to Google Sheets while stopping", exchange));
+                callback.done(true);
+                return true;
+            }
+
+            Batch batch = pending.get(key);
+            if (batch == null) {
+                batch = new Batch(key);
+                pending.put(key, batch);
+
+                final Batch scheduled = batch;
+                batch.timeout = executor.schedule(() -> flushIfPending(scheduled), batchTimeout, TimeUnit.MILLISECONDS);
+            }
+
+            batch.add(copy, exchange, callback);
+            pendingRows += copy.getValues().size();
+
+            full = batch.rows >= batchSize ? pending.remove(key) : null;
+        }
+
+        if (full != null) {
+            full.timeout.cancel(false);
+            executor.execute(() -> flush(full));
+        }
+
+        // completed once the batch is written
+        return false;
+    }
+
+    /**
+     * Number of rows buffered or being written.
+     */
+    synchronized int getPendingRows() {
+        return pendingRows;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        synchronized (this) {
+            stopping = false;
+        }
+        client = clientSupplier.get();
+        executor = context.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "GoogleSheetsValuesBatcher");
+        // not bounded, a saturated pool would run the callbacks on the
+        // writing thread, the buffered rows bound the pending callbacks
+        callbackExecutor = context.getExecutorServiceManager().newCachedThreadPool(this, "GoogleSheetsValuesBatcherCallback");
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        final List<Batch> remaining;
+        synchronized (this) {
+            stopping = true;
+            remaining = new ArrayList<>(pending.values());
+            pending.clear();
+            // fails the exchanges waiting for the pending rows to be written
+            notifyAll();
+        }
+
+        for (Batch batch : remaining) {
+            batch.timeout.cancel(false);
+            executor.execute(() -> flush(batch));
+        }
+
+        context.getExecutorServiceManager().shutdownGraceful(executor);
+        context.getExecutorServiceManager().shutdownGraceful(callbackExecutor);
+    }
+
+    private void flushIfPending(Batch batch) {
+        synchronized (this) {
+            if (pending.get(batch.key) != batch) {
+                return;
+            }
+
+            pending.remove(batch.key);
+        }
+
+        flush(batch);
+    }
+
+    private void flush(Batch batch) {
+        try {
+            if (append) {
+                final ValueRange merged = new ValueRange()
+                    .setRange(batch.key.range)
+                    .setMajorDimension(batch.key.majorDimension)
+                    .setValues(batch.values());
+
+                execute(client.spreadsheets().values()
+                    .append(batch.key.spreadsheetId, batch.key.range, merged)
+                    .setValueInputOption(batch.key.valueInputOption));
+            } else {
+                final BatchUpdateValuesRequest request = new BatchUpdateValuesRequest()
+                    .setValueInputOption(batch.key.valueInputOption)
+                    .setData(batch.ranges);
+
+                execute(client.spreadsheets().values()
+                    .batchUpdate(batch.key.spreadsheetId, request));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Unable to write {} row(s) to spreadsheet {}", batch.rows, batch.key.spreadsheetId, e);
+            for (Exchange exchange : batch.exchanges) {
+                exchange.setException(new CamelExchangeException("Unable to write values to Google Sheets", exchange, e));
+            }
+        } finally {
+            synchronized (this) {
+                pendingRows -= batch.rows;
+                notifyAll();
+            }
+        }
+
+        for (AsyncCallback callback : batch.callbacks) {
+            complete(callback);
+        }
+    }
+
+    private void complete(AsyncCallback callback) {
+        try {
+            callbackExecutor.execute(() -> callback.done(false));
+        } catch (RejectedExecutionException e) {
+            // only once stopped, the exchange is continued by the writing
+            // thread instead of being lost
+            callback.done(false);
+        }
+    }
+
+    private void execute(AbstractGoogleClientRequest<?> request) throws IOException {
+        long backoff = initialBackoff;
+        for (int attempt = 1;; attempt++) {
+            try {
+                request.execute();
+                return;
+            } catch (GoogleJsonResponseException e) {
+                if (!isQuotaExceeded(e) || attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+
+                final long delay = backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                LOG.warn("Google Sheets quota exceeded, retrying in {} ms", delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for the Google Sheets quota");
+                }
+
+                backoff = Math.min(backoff * 2, MAX_BACKOFF);
+            }
+        }
+    }
+
+    static boolean isQuotaExceeded(GoogleJsonResponseException e) {
+        if (e.getStatusCode() == 429) {
+            return true;
+        }
+
+        final GoogleJsonError details = e.getDetails();
+        if (e.getStatusCode() != 403 || details == null || details.getErrors() == null) {
+            return false;
+        }
+
+        return details.getErrors().stream()
+            .anyMatch(error -> "rateLimitExceeded".equals(error.getReason()) || "userRateLimitExceeded".equals(error.getReason()));
+    }
+
+    private static final class Key {
+        final String spreadsheetId;
+        final String valueInputOption;
+        final String range;
+        final String majorDimension;
+
+        Key(String spreadsheetId, String valueInputOption, String range, String majorDimension) {
+            this.spreadsheetId = spreadsheetId;
+            this.valueInputOption = valueInputOption;
+            this.range = range;
+            this.majorDimension = majorDimension;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+            return Objects.equals(spreadsheetId, other.spreadsheetId)
+                && Objects.equals(valueInputOption, other.valueInputOption)
+                && Objects.equals(range, other.range)
+                && Objects.equals(majorDimension, other.majorDimension);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(spreadsheetId, valueInputOption, range, majorDimension);
+        }
+    }
+
+    private static final class Batch {
+        final Key key;
+        final List<ValueRange> ranges = new ArrayList<>();
+        final List<Exchange> exchanges = new ArrayList<>();
+        final List<AsyncCallback> callbacks = new ArrayList<>();
+        int rows;
+        ScheduledFuture<?> timeout;
+
+        Batch(Key key) {
+            this.key = key;
+        }
+
+        void add(ValueRange values, Exchange exchange, AsyncCallback callback) {
+            ranges.add(values);
+            exchanges.add(exchange);
+            callbacks.add(callback);
+            rows += values.getValues().size();
+        }
+
+        List<List<Object>> values() {
+            final List<List<Object>> all = new ArrayList<>(rows);
+            for (ValueRange values : ranges) {
+                all.addAll(values.getValues());
+            }
+
+            return all;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sheets;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.syndesis.common.util.json.JsonUtils;
+import io.syndesis.connector.sheets.model.RangeCoordinate;
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.google.sheets.internal.GoogleSheetsConstants;
+import org.apache.camel.component.google.sheets.stream.GoogleSheetsStreamConstants;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GoogleSheetsValuesBatcherTest extends AbstractGoogleSheetsCustomizerTestSupport {
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Queue<Integer> statusCodes = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch responding = new CountDownLatch(1);
+    private volatile CountDownLatch release;
+
+    private HttpServer server;
+    private Sheets client;
+    private CamelContext context;
+    private GoogleSheetsValuesBatcher batcher;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        client = new Sheets.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance(), null)
+                .setRootUrl("http://localhost:" + server.getAddress().getPort() + "/")
+                .setApplicationName("syndesis-test")
+                .build();
+        context = createCamelContext();
+    }
+
+    @AfterEach
+    public void stopServer() throws Exception {
+        if (batcher != null) {
+            batcher.stop();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testAppendRowsInSingleCall() throws Exception {
+        batcher = start(true, 3, TimeUnit.MINUTES.toMillis(1));
+
+        CompletableFuture<Exchange> a1 = send(exchange("A:A", "a1"));
+        CompletableFuture<Exchange> a2 = send(exchange("A:A", "a2"));
+        Assertions.assertTrue(requests.isEmpty(), "Rows are buffered until the batch is full");
+        Assertions.assertFalse(a1.isDone(), "Exchanges are pending until their batch is written");
+
+        CompletableFuture<Exchange> a3 = send(exchange("A:A", "a3"));
+        awaitRequests(1);
+        assertSucceeded(a1, a2, a3);
+
+        Assertions.assertTrue(requests.get(0).contains(":append"));
+        Map<?, ?> body = JsonUtils.reader().forType(Map.class).readValue(body(0));
+        Assertions.assertEquals(Arrays.asList(
+                Collections.singletonList("a1"),
+                Collections.singletonList("a2"),
+                Collections.singletonList("a3")), body.get("values"));
+    }
+
+    @Test
+    public void testUpdateRangesInSingleCall() throws Exception {
+        batcher = start(false, 2, TimeUnit.MINUTES.toMillis(1));
+
+        CompletableFuture<Exchange> a1 = send(exchange("A1", "a1"));
+        CompletableFuture<Exchange> b5 = send(exchange("B5", "b5"));
+        awaitRequests(1);
+        assertSucceeded(a1, b5);
+
+        Assertions.assertTrue(requests.get(0).contains("values:batchUpdate"));
+        Map<?, ?> body = JsonUtils.reader().forType(Map.class).readValue(body(0));
+        Assertions.assertEquals("RAW", body.get("valueInputOption"));
+        Assertions.assertEquals(2, ((List<?>) body.get("data")).size());
+    }
+
+    @Test
+    public void testWriteIncompleteBatchAfterTimeout() throws Exception {
+        batcher = start(true, 100, 50);
+
+        assertSucceeded(send(exchange("A:A", "a1")));
+        awaitRequests(1);
+
+        Assertions.assertEquals(0, batcher.getPendingRows());
+    }
+
+    @Test
+    public void testRetryWhenQuotaExceeded() throws Exception {
+        statusCodes.add(429);
+        statusCodes.add(429);
+        batcher = start(true, 1, TimeUnit.MINUTES.toMillis(1));
+
+        assertSucceeded(send(exchange("A:A", "a1")));
+        awaitRequests(3);
+    }
+
+    @Test
+    public void testFailedBatchFailsItsExchanges() throws Exception {
+        statusCodes.add(400);
+        batcher = start(true, 2, TimeUnit.MINUTES.toMillis(1));
+
+        CompletableFuture<Exchange> a1 = send(exchange("A:A", "a1"));
+        CompletableFuture<Exchange> a2 = send(exchange("A:A", "a2"));
+        assertFailed(a1, a2);
+
+        // the failure is not reported on the exchanges of the next batch
+        CompletableFuture<Exchange> a3 = send(exchange("A:A", "a3"));
+        CompletableFuture<Exchange> a4 = send(exchange("A:A", "a4"));
+        assertSucceeded(a3, a4);
+        awaitRequests(2);
+    }
+
+    @Test
+    public void testFlushOnStop() throws Exception {
+        batcher = start(true, 100, TimeUnit.MINUTES.toMillis(1));
+
+        CompletableFuture<Exchange> a1 = send(exchange("A:A", "a1"));
+        CompletableFuture<Exchange> a2 = send(exchange("A:A", "a2"));
+        Assertions.assertTrue(requests.isEmpty());
+
+        batcher.stop();
+
+        awaitRequests(1);
+        assertSucceeded(a1, a2);
+        Map<?, ?> body = JsonUtils.reader().forType(Map.class).readValue(body(0));
+        Assertions.assertEquals(2, ((List<?>) body.get("values")).size());
+    }
+
+    @Test
+    public void testStopFailsExchangesWaitingForPendingRows() throws Exception {
+        release = new CountDownLatch(1);
+        batcher = start(true, 1, TimeUnit.MINUTES.toMillis(1));
+
+        // the first batch is being written, all other rows wait for it
+        CompletableFuture<Exchange> first = send(exchange("A:A", "a0"));
+        Assertions.assertTrue(responding.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 10; i++) {
+            send(exchange("A:A", "a" + i));
+        }
+
+        CompletableFuture<Exchange> waiting = CompletableFuture.supplyAsync(() -> send(exchange("A:A", "a10"))).thenCompose(f -> f);
+        Thread.sleep(100);
+        Assertions.assertFalse(waiting.isDone(), "The exchange is waiting for pending rows to be written");
+
+        Thread stopping = new Thread(() -> {
+            try {
+                batcher.stop();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        stopping.start();
+
+        assertFailed(waiting);
+        release.countDown();
+        stopping.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertSucceeded(first);
+    }
+
+    @Test
+    public void testSlowExchangeDoesNotHoldUpWriting() throws Exception {
+        batcher = start(true, 1, TimeUnit.MINUTES.toMillis(1));
+
+        CountDownLatch slow = new CountDownLatch(1);
+        CompletableFuture<Exchange> a1 = new CompletableFuture<>();
+        Exchange exchange = exchange("A:A", "a1");
+        batcher.process(exchange, doneSync -> {
+            try {
+                // a slow step further down the route
+                slow.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            a1.complete(exchange);
+        });
+        awaitRequests(1);
+
+        assertSucceeded(send(exchange("A:A", "a2")));
+        awaitRequests(2);
+        Assertions.assertFalse(a1.isDone());
+
+        slow.countDown();
+        assertSucceeded(a1);
+    }
+
+    @Test
+    public void testExchangeWaitingForPendingRowsDoesNotBlockWriting() throws Exception {
+        batcher = start(true, 1, TimeUnit.MINUTES.toMillis(1));
+
+        // the route continued by the callback buffers more rows than may be
+        // pending, so it waits for them to be written
+        CompletableFuture<Void> continued = new CompletableFuture<>();
+        batcher.process(exchange("A:A", "a0"), doneSync -> {
+            for (int i = 1; i <= 15; i++) {
+                batcher.process(exchange("A:A", "a" + i), d -> { });
+            }
+            continued.complete(null);
+        });
+
+        continued.get(5, TimeUnit.SECONDS);
+        awaitRequests(16);
+    }
+
+    private GoogleSheetsValuesBatcher start(boolean append, int batchSize, long batchTimeout) throws Exception {
+        GoogleSheetsValuesBatcher answer = new GoogleSheetsValuesBatcher(context, () -> client, append, batchSize, batchTimeout, 10L);
+        answer.start();
+        return answer;
+    }
+
+    private CompletableFuture<Exchange> send(Exchange exchange) {
+        CompletableFuture<Exchange> done = new CompletableFuture<>();
+        batcher.process(exchange, doneSync -> done.complete(exchange));
+        return done;
+    }
+
+    @SafeVarargs
+    private static void assertSucceeded(CompletableFuture<Exchange>... exchanges) throws Exception {
+        for (CompletableFuture<Exchange> exchange : exchanges) {
+            Assertions.assertNull(exchange.get(5, TimeUnit.SECONDS).getException());
+        }
+    }
+
+    @SafeVarargs
+    private static void assertFailed(CompletableFuture<Exchange>... exchanges) throws Exception {
+        for (CompletableFuture<Exchange> exchange : exchanges) {
+            Assertions.assertTrue(exchange.get(5, TimeUnit.SECONDS).getException() instanceof CamelExchangeException);
+        }
+    }
+
+    private Exchange exchange(String range, Object value) {
+        ValueRange valueRange = new ValueRange();
+        valueRange.setMajorDimension(RangeCoordinate.DIMENSION_ROWS);
+        valueRange.setValues(Collections.singletonList(Collections.singletonList(value)));
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader(GoogleSheetsStreamConstants.SPREADSHEET_ID, getSpreadsheetId());
+        exchange.getIn().setHeader(GoogleSheetsStreamConstants.RANGE, range);
+        exchange.getIn().setHeader(GoogleSheetsConstants.PROPERTY_PREFIX + "values", valueRange);
+        exchange.getIn().setHeader(GoogleSheetsConstants.PROPERTY_PREFIX + "valueInputOption", "RAW");
+        return exchange;
+    }
+
+    private String body(int index) {
+        String request = requests.get(index);
+        return request.substring(request.indexOf('\n') + 1);
+    }
+
+    private void awaitRequests(int count) throws InterruptedException {
+        long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (requests.size() < count && System.currentTimeMillis() < until) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(count, requests.size());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body;
+        // the client compresses the request content by default
+        boolean gzip = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+        try (InputStream in = gzip ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+            body = new String(readAll(in), StandardCharsets.UTF_8);
+        }
+        requests.add(exchange.getRequestURI().getPath() + "\n" + body);
+
+        responding.countDown();
+        CountDownLatch latch = release;
+        if (latch != null) {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Integer status = statusCodes.poll();
+        byte[] response = (status == null ? "{}" : "{\"error\":{\"code\":" + status + ",\"message\":\"Failed\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status == null ? 200 : status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -16,9 +16,9 @@
 
 package io.syndesis.connector.kudu;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import io.syndesis.common.util.SyndesisServerException;
 import io.syndesis.connector.kudu.common.KuduSupport;
+import io.syndesis.connector.support.util.ConnectorOptions;
 import io.syndesis.integration.component.proxy.ComponentProxyComponent;
 import io.syndesis.integration.component.proxy.ComponentProxyCustomizer;
 import org.apache.camel.Exchange;
@@ -30,71 +30,132 @@ import org.apache.kudu.client.KuduScanner;
 import org.apache.kudu.client.RowResult;
 import org.apache.kudu.client.RowResultIterator;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 public class KuduScanCustomizer implements ComponentProxyCustomizer {
+    private boolean streaming;
+
     @Override
     public void customize(ComponentProxyComponent component, Map<String, Object> options) {
         setOptions(options);
-        component.setBeforeConsumer(KuduScanCustomizer::processBody);
-        component.setAfterProducer(KuduScanCustomizer::processBody);
+        component.setBeforeConsumer(this::processBody);
+        component.setAfterProducer(this::processBody);
     }
 
-    private static void setOptions(Map<String, Object> options) {
+    private void setOptions(Map<String, Object> options) {
+        streaming = ConnectorOptions.extractOptionAndMap(options, "streaming", Boolean::valueOf, false);
+
         options.put("operation", KuduDbOperations.SCAN);
         options.put("type", KuduDbOperations.SCAN);
     }
 
-    private static void processBody(Exchange exchange) throws KuduException, JsonProcessingException {
+    private void processBody(Exchange exchange) {
         final Message in = exchange.getIn();
-        final KuduScanner scanner = in.getBody(KuduScanner.class);
+        final RowIterator rows = new RowIterator(in.getBody(KuduScanner.class));
+
+        if (streaming) {
+            in.setBody(rows);
+            return;
+        }
 
         final List<String> answer = new ArrayList<>();
-        while(scanner.hasMoreRows()) {
-            RowResultIterator results = scanner.nextRows();
-
-            while (results.hasNext()) {
-                Map<String, Object> row = new HashMap<>();
-                RowResult result = results.next();
-
-                for (int i = 0; i < result.getSchema().getColumnCount(); i++) {
-                    String key = result.getSchema().getColumnByIndex(i).getName();
-                    Type type = result.getColumnType(i);
-
-                    switch (type.getName()) {
-                        case "string":
-                            row.put(key, result.getString(i));
-                            break;
-                        case "bool":
-                            row.put(key, result.getBoolean(i));
-                            break;
-                        case "int8":
-                        case "int16":
-                        case "int32":
-                            row.put(key, result.getInt(i));
-                            break;
-                        case "int64":
-                            row.put(key, result.getLong(i));
-                            break;
-                        case "double":
-                            row.put(key, result.getDouble(i));
-                            break;
-                        case "float":
-                            row.put(key, result.getFloat(i));
-                            break;
-                        default:
-                            throw new SyndesisServerException("The column schema type " + type.getName()
-                                    + " for column " + key
-                                    + " is not supported at the moment");
+        while (rows.hasNext()) {
+            answer.add(rows.next());
+        }
+
+        in.setBody(answer);
+    }
+
+    private static String toJSONBean(RowResult result) {
+        Map<String, Object> row = new HashMap<>();
+
+        for (int i = 0; i < result.getSchema().getColumnCount(); i++) {
+            String key = result.getSchema().getColumnByIndex(i).getName();
+            Type type = result.getColumnType(i);
+
+            switch (type.getName()) {
+                case "string":
+                    row.put(key, result.getString(i));
+                    break;
+                case "bool":
+                    row.put(key, result.getBoolean(i));
+                    break;
+                case "int8":
+                case "int16":
+                case "int32":
+                    row.put(key, result.getInt(i));
+                    break;
+                case "int64":
+                    row.put(key, result.getLong(i));
+                    break;
+                case "double":
+                    row.put(key, result.getDouble(i));
+                    break;
+                case "float":
+                    row.put(key, result.getFloat(i));
+                    break;
+                default:
+                    throw new SyndesisServerException("The column schema type " + type.getName()
+                            + " for column " + key
+                            + " is not supported at the moment");
+            }
+        }
+
+        return KuduSupport.toJSONBean(row);
+    }
+
+    /**
+     * Converts the rows of the scanner to JSON beans fetching the next batch
+     * of rows from kudu only once the previous one has been consumed. The
+     * scanner is closed when all rows have been read.
+     */
+    private static final class RowIterator implements Iterator<String>, Closeable {
+        private final KuduScanner scanner;
+        private RowResultIterator batch;
+        private boolean closed;
+
+        RowIterator(KuduScanner scanner) {
+            this.scanner = scanner;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while ((batch == null || !batch.hasNext()) && !closed) {
+                    if (scanner.hasMoreRows()) {
+                        batch = scanner.nextRows();
+                    } else {
+                        close();
                     }
                 }
-                answer.add(KuduSupport.toJSONBean(row));
+            } catch (KuduException e) {
+                throw new SyndesisServerException("Unable to read rows from kudu", e);
             }
+
+            return batch != null && batch.hasNext();
         }
 
-        in.setBody(answer);
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return toJSONBean(batch.next());
+        }
+
+        @Override
+        public void close() throws KuduException {
+            if (!closed) {
+                closed = true;
+                scanner.close();
+            }
+        }
     }
 }
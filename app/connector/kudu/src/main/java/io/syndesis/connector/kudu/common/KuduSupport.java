@@ -18,6 +18,7 @@ package io.syndesis.connector.kudu.common;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.syndesis.common.util.SyndesisServerException;
 import io.syndesis.connector.support.util.ConnectorOptions;
 import org.apache.kudu.client.KuduClient;
@@ -27,6 +28,8 @@ import java.util.Map;
 
 public final class KuduSupport {
 
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper().writer();
+
     private KuduSupport() {
         // utility class
     }
@@ -56,7 +59,6 @@ public final class KuduSupport {
      * @return JSON bean String
      */
     public static String toJSONBean(final Map<String, Object> map) {
-        ObjectMapper mapper = new ObjectMapper();
         final Map<String, Object> data = new HashMap<>(map.size());
 
         for (final Map.Entry<String, Object> entry : map.entrySet()) {
@@ -68,7 +70,7 @@ public final class KuduSupport {
         }
 
         try {
-            return mapper.writeValueAsString(data);
+            return JSON_WRITER.writeValueAsString(data);
         } catch (final JsonProcessingException e) {
             throw new IllegalArgumentException("Unable to serialize to JSON", e);
         }
@@ -64,7 +64,8 @@ public class KuduConsumer extends ScheduledPollConsumer {
     }
 
     private KuduScanner doScan(String tableName) throws KuduException {
-        KuduTable table = connection.openTable(tableName);
+        // a scan projects every column, so it always reads the current schema
+        KuduTable table = endpoint.reopenTable(tableName);
 
         List<String> projectColumns = new ArrayList<>(1);
         Iterator<ColumnSchema> columns = table.getSchema().getColumns().iterator();
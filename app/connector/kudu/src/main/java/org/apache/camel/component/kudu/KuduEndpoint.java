@@ -24,10 +24,16 @@ import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.UriEndpoint;
 import org.apache.camel.spi.UriParam;
 import org.apache.camel.spi.UriPath;
+import org.apache.kudu.client.AsyncKuduClient;
 import org.apache.kudu.client.KuduClient;
+import org.apache.kudu.client.KuduException;
+import org.apache.kudu.client.KuduTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Represents a Kudu endpoint. A kudu endpoint allows you to interact with
  * <a href="https://kudu.apache.org/">Apache Kudu</a>,  a free and open source
@@ -41,7 +47,9 @@ import org.slf4j.LoggerFactory;
 public class KuduEndpoint extends DefaultEndpoint {
 
     private static final Logger LOG = LoggerFactory.getLogger(KuduEndpoint.class);
+    private AsyncKuduClient asyncKuduClient;
     private KuduClient kuduClient;
+    private final Map<String, KuduTable> tables = new ConcurrentHashMap<>();
 
     @UriPath
     @Metadata(required = "true")
@@ -61,6 +69,15 @@ public class KuduEndpoint extends DefaultEndpoint {
     @UriParam
     private String tableName;
 
+    @UriParam(label = "producer,advanced", defaultValue = "false")
+    private boolean backgroundFlush;
+
+    @UriParam(label = "producer,advanced", defaultValue = "1000")
+    private int flushBufferSize = 1000;
+
+    @UriParam(label = "producer,advanced", defaultValue = "1000")
+    private int flushInterval = 1000;
+
     public KuduEndpoint(String uri, KuduComponent component) {
         super(uri, component);
     }
@@ -68,7 +85,10 @@ public class KuduEndpoint extends DefaultEndpoint {
     @Override
     protected void doStart() throws Exception {
         LOG.debug("Connection: {}, {}", host, port);
-        kuduClient = new KuduClient.KuduClientBuilder(host + ":" + port).build();
+        if (asyncKuduClient == null) {
+            asyncKuduClient = new AsyncKuduClient.AsyncKuduClientBuilder(host + ":" + port).build();
+        }
+        kuduClient = asyncKuduClient.syncClient();
         LOG.debug("Resolved the host with the name {} as {}", host, kuduClient);
         super.doStart();
     }
@@ -81,9 +101,53 @@ public class KuduEndpoint extends DefaultEndpoint {
             LOG.error("Unable to shutdown kudu client", e);
         }
 
+        asyncKuduClient = null;
+        tables.clear();
+
         super.doStop();
     }
 
+    /**
+     * Returns the handle of the table, opening it only the first time it is
+     * requested so that the table metadata is not looked up for each
+     * exchange. The handle holds the schema of the table as it was when it
+     * was opened, see {@link #reopenTable(String)} and
+     * {@link #invalidateTable(String)}.
+     */
+    public KuduTable getTable(String name) throws KuduException {
+        KuduTable table = tables.get(name);
+        if (table == null) {
+            table = kuduClient.openTable(name);
+            tables.put(name, table);
+        }
+
+        return table;
+    }
+
+    /**
+     * Opens the table again, replacing the cached handle, for the operations
+     * that must see the current schema of the table.
+     */
+    public KuduTable reopenTable(String name) throws KuduException {
+        KuduTable table = kuduClient.openTable(name);
+        tables.put(name, table);
+
+        return table;
+    }
+
+    void cacheTable(KuduTable table) {
+        tables.put(table.getName(), table);
+    }
+
+    /**
+     * Forgets the cached handle of the table so that the next
+     * {@link #getTable(String)} opens it again, picking up any change made
+     * to its schema in the meantime.
+     */
+    void invalidateTable(String name) {
+        tables.remove(name);
+    }
+
     @Override
     public Producer createProducer() throws Exception {
         return new KuduProducer(this);
@@ -110,6 +174,18 @@ public class KuduEndpoint extends DefaultEndpoint {
         return host;
     }
 
+    public AsyncKuduClient getAsyncKuduClient() {
+        return asyncKuduClient;
+    }
+
+    /**
+     * Set the asynchronous client to connect to a kudu resource, used by the
+     * producer to learn the outcome of each row it writes
+     */
+    public void setAsyncKuduClient(AsyncKuduClient asyncKuduClient) {
+        this.asyncKuduClient = asyncKuduClient;
+    }
+
     public KuduClient getKuduClient() {
         return kuduClient;
     }
@@ -164,4 +240,42 @@ public class KuduEndpoint extends DefaultEndpoint {
     public void setType(String type) {
         this.type = type;
     }
+
+    public boolean isBackgroundFlush() {
+        return backgroundFlush;
+    }
+
+    /**
+     * Buffer the inserted rows and send them to kudu in the background, instead
+     * of sending each row as it is inserted. Rows of a split are sent together,
+     * the last row of a split and rows not part of a split are sent right away
+     */
+    public void setBackgroundFlush(boolean backgroundFlush) {
+        this.backgroundFlush = backgroundFlush;
+    }
+
+    public int getFlushBufferSize() {
+        return flushBufferSize;
+    }
+
+    /**
+     * Number of rows the producer buffers before sending them to kudu, when
+     * flushing in the background
+     */
+    public void setFlushBufferSize(int flushBufferSize) {
+        this.flushBufferSize = flushBufferSize;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Maximum time in milliseconds buffered rows wait before they are sent to kudu,
+     * when flushing in the background. An insert is completed only once its row
+     * has been sent
+     */
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
 }
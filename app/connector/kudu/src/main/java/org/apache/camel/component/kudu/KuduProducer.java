@@ -16,35 +16,59 @@
 
 package org.apache.camel.component.kudu;
 
+import com.stumbleupon.async.Deferred;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelExchangeException;
 import org.apache.camel.Exchange;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.impl.DefaultAsyncProducer;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.kudu.ColumnSchema;
 import org.apache.kudu.Schema;
+import org.apache.kudu.client.AsyncKuduSession;
 import org.apache.kudu.client.CreateTableOptions;
 import org.apache.kudu.client.KuduScanner;
+import org.apache.kudu.client.OperationResponse;
 import org.apache.kudu.client.PartialRow;
+import org.apache.kudu.client.PleaseThrottleException;
 import org.apache.kudu.client.Insert;
 import org.apache.kudu.client.KuduClient;
 import org.apache.kudu.client.KuduException;
 import org.apache.kudu.client.KuduTable;
+import org.apache.kudu.client.RowError;
+import org.apache.kudu.client.SessionConfiguration;
+import org.apache.kudu.client.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * The Kudu producer.
+ * <p>
+ * Rows are inserted through a single session. By default each row is sent to
+ * kudu as it is inserted, with {@link KuduEndpoint#isBackgroundFlush()} the
+ * rows of a split are buffered and sent in batches. The exchange of an insert
+ * is completed asynchronously, on a thread of the producer and not on the
+ * kudu I/O thread, once its row has been written. If kudu rejected the row the
+ * error is reported on that exchange, in the {@link #ROW_ERRORS} header and as
+ * the exchange exception.
  */
-public class KuduProducer extends DefaultProducer {
+public class KuduProducer extends DefaultAsyncProducer {
+
+    public static final String ROW_ERRORS = "CamelKuduRowErrors";
 
     private static final Logger LOG = LoggerFactory.getLogger(KuduProducer.class);
 
     private final KuduEndpoint endpoint;
     private final KuduClient connection;
+    private AsyncKuduSession session;
+    private ExecutorService executor;
 
     public KuduProducer(KuduEndpoint endpoint) {
         super(endpoint);
@@ -58,31 +82,149 @@ public class KuduProducer extends DefaultProducer {
     }
 
     @Override
-    public void process(Exchange exchange) throws Exception {
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        session = endpoint.getAsyncKuduClient().newSession();
+        if (endpoint.isBackgroundFlush()) {
+            session.setFlushMode(SessionConfiguration.FlushMode.AUTO_FLUSH_BACKGROUND);
+            session.setMutationBufferSpace(endpoint.getFlushBufferSize());
+            session.setFlushInterval(endpoint.getFlushInterval());
+        } else {
+            session.setFlushMode(SessionConfiguration.FlushMode.AUTO_FLUSH_SYNC);
+        }
+
+        // the rest of the route must not run on the kudu I/O thread
+        executor = endpoint.getCamelContext().getExecutorServiceManager().newDefaultThreadPool(this, "KuduProducer");
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (session != null) {
+            try {
+                // flushes the rows still buffered, completing their exchanges
+                session.close().join();
+            } catch (Exception e) {
+                LOG.error("Unable to close kudu session", e);
+            }
+
+            session = null;
+        }
+
+        if (executor != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownGraceful(executor);
+            executor = null;
+        }
+
+        super.doStop();
+    }
+
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
         String table = endpoint.getTableName();
-        switch (endpoint.getOperation()) {
-            case KuduDbOperations.INSERT:
-                doInsert(exchange, table);
-                break;
-            case KuduDbOperations.CREATE_TABLE:
-                doCreateTable(exchange, table);
-                break;
-            case KuduDbOperations.SCAN:
-                doScan(exchange, table);
-                break;
-            default:
-                throw new IllegalArgumentException("The operation " + endpoint.getOperation() + " is not supported");
+        try {
+            switch (endpoint.getOperation()) {
+                case KuduDbOperations.INSERT:
+                    doInsert(exchange, table, callback);
+                    return false;
+                case KuduDbOperations.CREATE_TABLE:
+                    doCreateTable(exchange, table);
+                    break;
+                case KuduDbOperations.SCAN:
+                    doScan(exchange, table);
+                    break;
+                default:
+                    throw new IllegalArgumentException("The operation " + endpoint.getOperation() + " is not supported");
+            }
+        } catch (Exception e) {
+            exchange.setException(e);
         }
+
+        callback.done(true);
+        return true;
     }
 
-    private void doInsert(Exchange exchange, String tableName) throws KuduException {
-        KuduTable table = connection.openTable(tableName);
+    private void doInsert(Exchange exchange, String tableName, AsyncCallback callback) throws Exception {
+        Map<?, ?> rows = exchange.getIn().getBody(Map.class);
 
+        Insert insert;
+        try {
+            insert = newInsert(endpoint.getTable(tableName), rows);
+        } catch (IllegalArgumentException e) {
+            // the cached table might not know about columns added since it was opened
+            endpoint.invalidateTable(tableName);
+            insert = newInsert(endpoint.getTable(tableName), rows);
+        }
+
+        apply(insert, !isPartOfBatch(exchange)).addCallbacks(
+            response -> {
+                if (response.hasRowError()) {
+                    onRowError(exchange, tableName, response.getRowError());
+                }
+                complete(exchange, callback);
+                return null;
+            },
+            (Exception e) -> {
+                endpoint.invalidateTable(tableName);
+                exchange.setException(new CamelExchangeException("Unable to write row to kudu", exchange, e));
+                complete(exchange, callback);
+                return null;
+            });
+    }
+
+    private Deferred<OperationResponse> apply(Insert insert, boolean flush) throws Exception {
+        synchronized (session) {
+            while (true) {
+                try {
+                    final Deferred<OperationResponse> response = session.apply(insert);
+                    if (flush && endpoint.isBackgroundFlush()) {
+                        // nothing else will fill the buffer, do not wait for the flush interval
+                        session.flush();
+                    }
+
+                    return response;
+                } catch (PleaseThrottleException e) {
+                    // the buffers are full, wait for them to be flushed
+                    e.getDeferred().join();
+                }
+            }
+        }
+    }
+
+    private void complete(Exchange exchange, AsyncCallback callback) {
+        try {
+            executor.execute(() -> callback.done(false));
+        } catch (RejectedExecutionException e) {
+            // the producer is stopping, complete on the calling thread
+            LOG.debug("Completing exchange {} on the calling thread", exchange.getExchangeId(), e);
+            callback.done(false);
+        }
+    }
+
+    /**
+     * An exchange of a split other than the last one, more rows are about to
+     * be inserted.
+     */
+    private static boolean isPartOfBatch(Exchange exchange) {
+        return exchange.getProperty(Exchange.SPLIT_INDEX) != null
+            && !exchange.getProperty(Exchange.SPLIT_COMPLETE, false, Boolean.class);
+    }
+
+    private void onRowError(Exchange exchange, String tableName, RowError error) {
+        Status status = error.getErrorStatus();
+        if (status.isNotFound() || status.isInvalidArgument()) {
+            // the row may have been built for a schema the table no longer has
+            endpoint.invalidateTable(tableName);
+        }
+
+        exchange.getIn().setHeader(ROW_ERRORS, Collections.singletonList(error.toString()));
+        exchange.setException(new CamelExchangeException("Unable to write row to kudu: " + error, exchange));
+    }
+
+    private static Insert newInsert(KuduTable table, Map<?, ?> rows) {
         Insert insert = table.newInsert();
         PartialRow row = insert.getRow();
 
-        Map<?, ?> rows = exchange.getIn().getBody(Map.class);
-
         for (Map.Entry<?, ?> entry : rows.entrySet()) {
             String key = (String) entry.getKey();
             Object value = entry.getValue();
@@ -107,7 +249,7 @@ public class KuduProducer extends DefaultProducer {
             }
         }
 
-        connection.newSession().apply(insert);
+        return insert;
     }
 
     private KuduTable doCreateTable(Exchange exchange, String tableName) throws KuduException {
@@ -115,11 +257,15 @@ public class KuduProducer extends DefaultProducer {
 
         Schema schema = (Schema) exchange.getIn().getHeader("Schema");
         CreateTableOptions builder = (CreateTableOptions) exchange.getIn().getHeader("TableOptions");
-        return connection.createTable(tableName, schema, builder);
+        KuduTable table = connection.createTable(tableName, schema, builder);
+        endpoint.cacheTable(table);
+
+        return table;
     }
 
     private KuduScanner doScan(Exchange exchange, String tableName) throws KuduException {
-        KuduTable table = connection.openTable(tableName);
+        // a scan projects every column, so it always reads the current schema
+        KuduTable table = endpoint.reopenTable(tableName);
 
         List<String> projectColumns = new ArrayList<>(1);
         Iterator<ColumnSchema> columns = table.getSchema().getColumns().iterator();
@@ -16,15 +16,43 @@
 
 package io.syndesis.connector.kudu;
 
+import com.stumbleupon.async.Deferred;
 import io.syndesis.common.util.json.JsonUtils;
+import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
+import org.apache.camel.component.kudu.KuduComponent;
+import org.apache.camel.component.kudu.KuduEndpoint;
+import org.apache.camel.component.kudu.KuduProducer;
 import org.apache.camel.impl.DefaultExchange;
+import org.apache.kudu.client.AsyncKuduClient;
+import org.apache.kudu.client.AsyncKuduSession;
+import org.apache.kudu.client.Insert;
+import org.apache.kudu.client.KuduClient;
+import org.apache.kudu.client.KuduTable;
+import org.apache.kudu.client.OperationResponse;
+import org.apache.kudu.client.PartialRow;
+import org.apache.kudu.client.RowError;
+import org.apache.kudu.client.SessionConfiguration;
+import org.apache.kudu.client.Status;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class KuduInsertCustomizerTest extends AbstractKuduCustomizerTestSupport {
     private KuduInsertCustomizer customizer;
@@ -84,4 +112,198 @@ public class KuduInsertCustomizerTest extends AbstractKuduCustomizerTestSupport
         Assertions.assertEquals(5, modelMap.get("id"), "First element is the id");
         Assertions.assertEquals("Samuel", modelMap.get("name"), "Third element is the name");
     }
+
+    @Test
+    public void testRowsAreSentAsTheyAreInsertedByDefault() throws Exception {
+        final AsyncKuduClient client = mockClient();
+        final AsyncKuduSession session = mock(AsyncKuduSession.class);
+        when(client.newSession()).thenReturn(session);
+        when(session.close()).thenReturn(Deferred.fromResult(Collections.emptyList()));
+
+        final KuduProducer producer = startProducer(client, false);
+
+        verify(session).setFlushMode(SessionConfiguration.FlushMode.AUTO_FLUSH_SYNC);
+        verify(session, never()).setFlushInterval(anyInt());
+        verify(session, times(0)).close();
+
+        producer.stop();
+
+        verify(session).close();
+    }
+
+    @Test
+    public void testSessionIsFlushedInTheBackgroundWhenEnabled() throws Exception {
+        final AsyncKuduClient client = mockClient();
+        final AsyncKuduSession session = mock(AsyncKuduSession.class);
+        when(client.newSession()).thenReturn(session);
+
+        startProducer(client, true);
+
+        verify(session).setFlushMode(SessionConfiguration.FlushMode.AUTO_FLUSH_BACKGROUND);
+        verify(session).setMutationBufferSpace(1000);
+        verify(session).setFlushInterval(1000);
+    }
+
+    @Test
+    public void testOnlyRowsOfAnUnfinishedSplitWaitForTheBackgroundFlush() throws Exception {
+        final AsyncKuduClient client = mockClient();
+        final AsyncKuduSession session = mock(AsyncKuduSession.class);
+        when(client.newSession()).thenReturn(session);
+        when(session.apply(any())).thenAnswer(invocation -> new Deferred<>());
+
+        final KuduProducer producer = startProducer(client, true);
+
+        final Exchange split = rowExchange(producer, 1);
+        split.setProperty(Exchange.SPLIT_INDEX, 0);
+        split.setProperty(Exchange.SPLIT_COMPLETE, false);
+        producer.process(split, doneSync -> { });
+        verify(session, never()).flush();
+
+        final Exchange lastOfSplit = rowExchange(producer, 2);
+        lastOfSplit.setProperty(Exchange.SPLIT_INDEX, 1);
+        lastOfSplit.setProperty(Exchange.SPLIT_COMPLETE, true);
+        producer.process(lastOfSplit, doneSync -> { });
+        verify(session, times(1)).flush();
+
+        producer.process(rowExchange(producer, 3), doneSync -> { });
+        verify(session, times(2)).flush();
+    }
+
+    @Test
+    public void testInsertCompletesOnceItsRowIsWritten() throws Exception {
+        final AsyncKuduClient client = mockClient();
+        final AsyncKuduSession session = mock(AsyncKuduSession.class);
+        when(client.newSession()).thenReturn(session);
+
+        final Deferred<OperationResponse> written = new Deferred<>();
+        when(session.apply(any())).thenReturn(written);
+
+        final KuduProducer producer = startProducer(client);
+
+        final Exchange exchange = rowExchange(producer, 1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Thread> completedOn = new AtomicReference<>();
+        Assertions.assertFalse(producer.process(exchange, doneSync -> {
+            completedOn.set(Thread.currentThread());
+            done.countDown();
+        }), "The insert is completed asynchronously");
+        Assertions.assertEquals(1, done.getCount(), "The insert is not completed before its row is written");
+
+        // kudu completes the row on its I/O thread
+        final Thread io = new Thread(() -> written.callback(mock(OperationResponse.class)));
+        io.start();
+        io.join();
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS), "The insert is completed once its row is written");
+        Assertions.assertNotSame(io, completedOn.get(), "The insert is not completed on the kudu I/O thread");
+        Assertions.assertNull(exchange.getException(), "The insert succeeded");
+    }
+
+    @Test
+    public void testRowErrorIsReportedOnTheExchangeThatWroteTheRow() throws Exception {
+        final AsyncKuduClient client = mockClient();
+        final AsyncKuduSession session = mock(AsyncKuduSession.class);
+        when(client.newSession()).thenReturn(session);
+
+        final Deferred<OperationResponse> failedRow = new Deferred<>();
+        final Deferred<OperationResponse> writtenRow = new Deferred<>();
+        when(session.apply(any())).thenReturn(failedRow, writtenRow);
+
+        final KuduProducer producer = startProducer(client);
+
+        final Exchange failing = rowExchange(producer, 1);
+        final Exchange succeeding = rowExchange(producer, 2);
+        producer.process(failing, doneSync -> { });
+        producer.process(succeeding, doneSync -> { });
+
+        // both rows are flushed together, the first one is rejected
+        final RowError error = mock(RowError.class);
+        when(error.getErrorStatus()).thenReturn(Status.AlreadyPresent("key already present"));
+        final OperationResponse rejected = mock(OperationResponse.class);
+        when(rejected.hasRowError()).thenReturn(true);
+        when(rejected.getRowError()).thenReturn(error);
+
+        failedRow.callback(rejected);
+        writtenRow.callback(mock(OperationResponse.class));
+
+        Assertions.assertNotNull(failing.getException(), "The exchange of the rejected row failed");
+        Assertions.assertEquals(1, failing.getIn().getHeader(KuduProducer.ROW_ERRORS, List.class).size(), "The row error is in the header");
+        Assertions.assertNull(succeeding.getException(), "The exchange of the written row succeeded");
+        Assertions.assertNull(succeeding.getIn().getHeader(KuduProducer.ROW_ERRORS), "The written row has no errors");
+    }
+
+    @Test
+    public void testTableIsReopenedWhenTheRowDoesNotMatchItsSchema() throws Exception {
+        final AsyncKuduClient client = mockClient();
+        final AsyncKuduSession session = mock(AsyncKuduSession.class);
+        when(client.newSession()).thenReturn(session);
+
+        final Deferred<OperationResponse> failedRow = new Deferred<>();
+        when(session.apply(any())).thenReturn(failedRow, new Deferred<>());
+
+        final KuduProducer producer = startProducer(client);
+        final KuduClient syncClient = client.syncClient();
+
+        producer.process(rowExchange(producer, 1), doneSync -> { });
+        verify(syncClient, times(1)).openTable("table");
+
+        // the table was altered after it was opened
+        final RowError error = mock(RowError.class);
+        when(error.getErrorStatus()).thenReturn(Status.InvalidArgument("column not found"));
+        final OperationResponse rejected = mock(OperationResponse.class);
+        when(rejected.hasRowError()).thenReturn(true);
+        when(rejected.getRowError()).thenReturn(error);
+        failedRow.callback(rejected);
+
+        producer.process(rowExchange(producer, 2), doneSync -> { });
+        verify(syncClient, times(2)).openTable("table");
+    }
+
+    private static AsyncKuduClient mockClient() throws Exception {
+        final AsyncKuduClient client = mock(AsyncKuduClient.class);
+        final KuduClient syncClient = mock(KuduClient.class);
+        when(client.syncClient()).thenReturn(syncClient);
+
+        final KuduTable table = mock(KuduTable.class);
+        when(syncClient.openTable("table")).thenReturn(table);
+        final Insert insert = mock(Insert.class);
+        when(table.newInsert()).thenReturn(insert);
+        when(insert.getRow()).thenReturn(mock(PartialRow.class));
+
+        return client;
+    }
+
+    private static KuduProducer startProducer(AsyncKuduClient client) throws Exception {
+        return startProducer(client, false);
+    }
+
+    private static KuduProducer startProducer(AsyncKuduClient client, boolean backgroundFlush) throws Exception {
+        final CamelContext context = createCamelContext();
+        final KuduComponent component = new KuduComponent();
+        component.setCamelContext(context);
+
+        final KuduEndpoint endpoint = new KuduEndpoint("kudu:insert", component);
+        endpoint.setHost("localhost");
+        endpoint.setPort("7051");
+        endpoint.setTableName("table");
+        endpoint.setAsyncKuduClient(client);
+        endpoint.setBackgroundFlush(backgroundFlush);
+        endpoint.start();
+
+        final KuduProducer producer = (KuduProducer) endpoint.createProducer();
+        producer.start();
+
+        return producer;
+    }
+
+    private static Exchange rowExchange(KuduProducer producer, int id) {
+        final Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", "Samuel");
+
+        final Exchange exchange = producer.getEndpoint().createExchange();
+        exchange.getIn().setBody(row);
+
+        return exchange;
+    }
 }
@@ -17,6 +17,7 @@
 package io.syndesis.connector.kudu;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -27,13 +28,25 @@ import io.syndesis.connector.kudu.common.KuduSupport;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.kudu.ColumnSchema;
+import org.apache.kudu.Schema;
+import org.apache.kudu.Type;
 import org.apache.kudu.client.KuduClient;
 import org.apache.kudu.client.KuduException;
 import org.apache.kudu.client.KuduScanner;
 import org.apache.kudu.client.KuduTable;
+import org.apache.kudu.client.RowResult;
+import org.apache.kudu.client.RowResultIterator;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class KuduScanCustomizerTest extends AbstractKuduCustomizerTestSupport {
     private static final String HOST = "quickstart.cloudera";
@@ -79,4 +92,81 @@ public class KuduScanCustomizerTest extends AbstractKuduCustomizerTestSupport {
         inbound.getIn().setBody(scanner);
         getComponent().getBeforeConsumer().process(inbound);
     }
+
+    @Test
+    public void testRowsAreReadBeforeTheNextStepsWhenNotStreaming() throws Exception {
+        customizer.customize(getComponent(), new HashMap<>());
+
+        final KuduScanner scanner = scannerOf(batchOf(1, 2), batchOf(3));
+
+        final Exchange inbound = new DefaultExchange(createCamelContext());
+        inbound.getIn().setBody(scanner);
+        getComponent().getBeforeConsumer().process(inbound);
+
+        Assertions.assertEquals(Arrays.asList("{\"id\":1}", "{\"id\":2}", "{\"id\":3}"), inbound.getIn().getBody(),
+            "All rows are read");
+        verify(scanner).close();
+    }
+
+    @Test
+    public void testRowsAreReadWhileTheNextStepsConsumeThemWhenStreaming() throws Exception {
+        final Map<String, Object> options = new HashMap<>();
+        options.put("streaming", "true");
+        customizer.customize(getComponent(), options);
+
+        final KuduScanner scanner = scannerOf(batchOf(1, 2), batchOf(3));
+
+        final Exchange inbound = new DefaultExchange(createCamelContext());
+        inbound.getIn().setBody(scanner);
+        getComponent().getBeforeConsumer().process(inbound);
+
+        verify(scanner, never()).nextRows();
+
+        final Iterator<?> rows = inbound.getIn().getBody(Iterator.class);
+        Assertions.assertEquals("{\"id\":1}", rows.next(), "First row of the first batch");
+        Assertions.assertEquals("{\"id\":2}", rows.next(), "Second row of the first batch");
+        verify(scanner, times(1)).nextRows();
+
+        Assertions.assertEquals("{\"id\":3}", rows.next(), "The second batch is fetched once the first is consumed");
+        verify(scanner, times(2)).nextRows();
+        verify(scanner, never()).close();
+
+        Assertions.assertFalse(rows.hasNext(), "All rows were read");
+        verify(scanner).close();
+    }
+
+    private static KuduScanner scannerOf(RowResultIterator... batches) throws KuduException {
+        final KuduScanner scanner = mock(KuduScanner.class);
+
+        final Boolean[] moreRows = new Boolean[batches.length];
+        Arrays.fill(moreRows, Boolean.TRUE);
+        moreRows[batches.length - 1] = Boolean.FALSE;
+        when(scanner.hasMoreRows()).thenReturn(true, moreRows);
+
+        final RowResultIterator[] nextBatches = Arrays.copyOfRange(batches, 1, batches.length);
+        when(scanner.nextRows()).thenReturn(batches[0], nextBatches);
+
+        return scanner;
+    }
+
+    private static RowResultIterator batchOf(int... ids) {
+        final Schema schema = new Schema(Arrays.asList(
+            new ColumnSchema.ColumnSchemaBuilder("id", Type.INT32).key(true).build()));
+
+        final List<RowResult> results = new ArrayList<>();
+        for (int id : ids) {
+            final RowResult result = mock(RowResult.class);
+            when(result.getSchema()).thenReturn(schema);
+            when(result.getColumnType(0)).thenReturn(Type.INT32);
+            when(result.getInt(0)).thenReturn(id);
+            results.add(result);
+        }
+
+        final Iterator<RowResult> iterator = results.iterator();
+        final RowResultIterator batch = mock(RowResultIterator.class);
+        when(batch.hasNext()).then(invocation -> iterator.hasNext());
+        when(batch.next()).then(invocation -> iterator.next());
+
+        return batch;
+    }
 }
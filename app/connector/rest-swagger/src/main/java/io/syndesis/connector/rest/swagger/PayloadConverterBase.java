@@ -15,7 +15,15 @@
  */
 package io.syndesis.connector.rest.swagger;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+
+import javax.xml.stream.XMLEventFactory;
 import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import io.syndesis.common.model.DataShapeKinds;
 
@@ -23,13 +31,28 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.Processor;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 abstract class PayloadConverterBase implements Processor {
     static final ObjectMapper MAPPER = new ObjectMapper();
 
+    static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+
     static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
 
+    static final XMLOutputFactory XML_OUTPUT_FACTORY;
+
+    static final XMLEventFactory XML_EVENT_FACTORY = XMLEventFactory.newInstance();
+
+    static {
+        XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+        // payload elements can use prefixes declared on the elements that
+        // are filtered out
+        XML_OUTPUT_FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+    }
+
     private final DataShapeKinds kind;
 
     PayloadConverterBase(final DataShapeKinds kind) {
@@ -65,12 +88,52 @@ abstract class PayloadConverterBase implements Processor {
 
     abstract void convertAsXml(Message in);
 
-    static String bodyAsString(final Message in) {
-        final String body = in.getBody(String.class);
+    /**
+     * Parser reading the body without converting it to a {@link String}
+     * first, returns {@code null} if there is no body.
+     */
+    static JsonParser jsonParser(final Message in) throws IOException {
+        final Object body = in.getBody();
         if (body == null) {
             return null;
         }
-        return body;
+
+        if (body instanceof String) {
+            return JSON_FACTORY.createParser((String) body);
+        }
+
+        if (body instanceof byte[]) {
+            return JSON_FACTORY.createParser((byte[]) body);
+        }
+
+        final InputStream stream = in.getBody(InputStream.class);
+        if (stream == null) {
+            return null;
+        }
+
+        return JSON_FACTORY.createParser(stream);
+    }
+
+    /**
+     * Reader reading the body without converting it to a {@link String}
+     * first, returns {@code null} if there is no body.
+     */
+    static XMLStreamReader xmlReader(final Message in) throws XMLStreamException {
+        final Object body = in.getBody();
+        if (body == null) {
+            return null;
+        }
+
+        if (body instanceof String) {
+            return XML_INPUT_FACTORY.createXMLStreamReader(new StringReader((String) body));
+        }
+
+        final InputStream stream = in.getBody(InputStream.class);
+        if (stream == null) {
+            return null;
+        }
+
+        return XML_INPUT_FACTORY.createXMLStreamReader(stream);
     }
 
 }
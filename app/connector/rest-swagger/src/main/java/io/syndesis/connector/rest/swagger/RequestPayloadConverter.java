@@ -15,23 +15,19 @@
  */
 package io.syndesis.connector.rest.swagger;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.transform.stax.StAXSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.events.XMLEvent;
 
 import io.syndesis.common.model.DataShape;
 import io.syndesis.common.model.DataShapeKinds;
@@ -40,7 +36,9 @@ import org.apache.camel.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 
 public final class RequestPayloadConverter extends PayloadConverterBase {
@@ -57,69 +55,81 @@ public final class RequestPayloadConverter extends PayloadConverterBase {
 
     @Override
     void convertAsJson(final Message in) {
-        final String body = bodyAsString(in);
-        if (body == null) {
-            return;
-        }
+        // the unified payload is split while it's read, only the parameters
+        // are read into a tree, the body is copied as is
+        final Map<String, Object> headers = new LinkedHashMap<>();
+        String requestBody = null;
+        try (JsonParser parser = jsonParser(in)) {
+            if (parser == null) {
+                return;
+            }
 
-        final JsonNode payload;
-        try {
-            payload = MAPPER.readTree(body);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                LOG.warn("Unable to parse payload, expecting a JSON object, continuing without conversion");
+
+                return;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+
+                if ("parameters".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    readParameters(MAPPER.readTree(parser), headers);
+                } else if ("body".equals(field)) {
+                    requestBody = copy(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
         } catch (final IOException e) {
             LOG.warn("Unable to parse payload, continuing without conversion", e);
 
             return;
         }
 
-        payload.with("parameters").fields().forEachRemaining(e -> {
-            final String name = e.getKey();
-            final JsonNode value = e.getValue();
-
-            if (value.isArray()) {
-                final List<String> values = new ArrayList<>(value.size());
-                value.elements().forEachRemaining(n -> values.add(n.asText()));
-                in.setHeader(name, values);
-            } else {
-                in.setHeader(name, value.asText());
-            }
-        });
-
-        final JsonNode requestBody = payload.get("body");
-        if (requestBody == null) {
-            in.setBody(null);
-        } else {
-            try {
-                in.setBody(MAPPER.writeValueAsString(requestBody));
-            } catch (final JsonProcessingException e) {
-                LOG.warn("Unable to parse payload, continuing without conversion", e);
-
-                return;
-            }
-        }
+        headers.forEach(in::setHeader);
+        in.setBody(requestBody);
     }
 
     @Override
     void convertAsXml(final Message in) {
-        final String body = bodyAsString(in);
-        if (body == null) {
-            return;
-        }
-
         try {
-            final XMLStreamReader bodyReader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(body));
-
-            final XMLStreamReader eventReader = XML_INPUT_FACTORY.createFilteredReader(bodyReader, new XmlPayloadProcessor(in.getHeaders()));
-
-            final Source source = new StAXSource(eventReader);
-            final ByteArrayOutputStream out = new ByteArrayOutputStream(body.length());
-            final Result result = new StreamResult(out);
+            final XMLStreamReader bodyReader = xmlReader(in);
+            if (bodyReader == null) {
+                return;
+            }
 
-            final TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            final Transformer transformer = transformerFactory.newTransformer();
-            transformer.transform(source, result);
+            final XMLStreamReader filteredReader = XML_INPUT_FACTORY.createFilteredReader(bodyReader, new XmlPayloadProcessor(in.getHeaders()));
+            final XMLEventReader eventReader = XML_INPUT_FACTORY.createXMLEventReader(filteredReader);
+
+            final StringWriter out = new StringWriter();
+            final XMLEventWriter writer = XML_OUTPUT_FACTORY.createXMLEventWriter(out);
+            int depth = 0;
+            while (eventReader.hasNext()) {
+                final XMLEvent event = eventReader.nextEvent();
+                if (event.isStartDocument()) {
+                    // the declared encoding of the original payload no
+                    // longer applies
+                    writer.add(XML_EVENT_FACTORY.createStartDocument(StandardCharsets.UTF_8.name()));
+                } else if (event.isStartElement()) {
+                    depth++;
+                    writer.add(event);
+                } else if (event.isEndElement()) {
+                    // the end of the filtered out request element is passed
+                    // through by the filter
+                    if (depth > 0) {
+                        depth--;
+                        writer.add(event);
+                    }
+                } else if (depth > 0 || !event.isCharacters()) {
+                    writer.add(event);
+                }
+            }
+            writer.close();
 
-            in.setBody(new String(out.toByteArray(), StandardCharsets.UTF_8));
-        } catch (XMLStreamException | TransformerFactoryConfigurationError | TransformerException e) {
+            in.setBody(out.toString());
+        } catch (final XMLStreamException e) {
             LOG.warn("Unable to parse payload, continuing without conversion", e);
 
             return;
@@ -127,4 +137,28 @@ public final class RequestPayloadConverter extends PayloadConverterBase {
 
     }
 
+    private static String copy(final JsonParser parser) throws IOException {
+        final StringWriter out = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.copyCurrentStructure(parser);
+        }
+
+        return out.toString();
+    }
+
+    private static void readParameters(final JsonNode parameters, final Map<String, Object> headers) {
+        parameters.fields().forEachRemaining(e -> {
+            final String name = e.getKey();
+            final JsonNode value = e.getValue();
+
+            if (value.isArray()) {
+                final List<String> values = new ArrayList<>(value.size());
+                value.elements().forEachRemaining(n -> values.add(n.asText()));
+                headers.put(name, values);
+            } else {
+                headers.put(name, value.asText());
+            }
+        });
+    }
+
 }
@@ -16,6 +16,7 @@
 package io.syndesis.connector.rest.swagger;
 
 import java.io.IOException;
+import java.io.StringWriter;
 
 import io.syndesis.common.model.DataShape;
 import io.syndesis.common.model.DataShapeKinds;
@@ -25,9 +26,8 @@ import org.apache.camel.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 
 public final class ResponsePayloadConverter extends PayloadConverterBase {
 
@@ -43,35 +43,44 @@ public final class ResponsePayloadConverter extends PayloadConverterBase {
 
     @Override
     void convertAsJson(final Message in) {
-        final ObjectNode replacement = MAPPER.createObjectNode();
-        final ObjectNode parameters = replacement.putObject("parameters");
-        final Integer status = in.getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class);
-
-        if (status != null) {
-            parameters.put("Status", status);
-        }
+        // the response is copied into the unified payload while it's read,
+        // without building a tree of it
+        final StringWriter replacement = new StringWriter();
+        try (JsonParser parser = jsonParser(in);
+            JsonGenerator generator = JSON_FACTORY.createGenerator(replacement)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("parameters");
+
+            final Integer status = in.getHeader(Exchange.HTTP_RESPONSE_CODE, Integer.class);
+            if (status != null) {
+                generator.writeNumberField("Status", status);
+            }
 
-        final String contentType = in.getHeader(Exchange.CONTENT_TYPE, String.class);
-        if (contentType != null) {
-            parameters.put("Content-Type", contentType);
-        }
+            final String contentType = in.getHeader(Exchange.CONTENT_TYPE, String.class);
+            if (contentType != null) {
+                generator.writeStringField("Content-Type", contentType);
+            }
 
-        final String body = bodyAsString(in);
-        if (body != null) {
-            final JsonNode payload;
-            try {
-                payload = MAPPER.readTree(body);
-            } catch (final IOException e) {
-                LOG.warn("Unable to parse response payload, continuing without conversion: ", e.getMessage());
-                LOG.debug("Unable to parse `{}` to JSON", body, e);
+            generator.writeEndObject();
 
-                return;
+            if (parser != null) {
+                generator.writeFieldName("body");
+                if (parser.nextToken() == null) {
+                    generator.writeNull();
+                } else {
+                    generator.copyCurrentStructure(parser);
+                }
             }
 
-            replacement.set("body", payload);
+            generator.writeEndObject();
+        } catch (final IOException e) {
+            LOG.warn("Unable to parse response payload, continuing without conversion: {}", e.getMessage());
+            LOG.debug("Unable to parse response payload to JSON", e);
+
+            return;
         }
 
-        replaceBodyWith(in, replacement);
+        in.setBody(replacement.toString());
     }
 
     @Override
@@ -79,13 +88,4 @@ public final class ResponsePayloadConverter extends PayloadConverterBase {
         // we don't modify XML responses
     }
 
-    static void replaceBodyWith(final Message in, final ObjectNode replacement) {
-        try {
-            in.setBody(MAPPER.writeValueAsString(replacement));
-        } catch (final JsonProcessingException e) {
-            LOG.warn("Unable to replace payload, continuing without conversion: ", e.getMessage());
-            LOG.debug("Unable to serialize `{}` to JSON", replacement, e);
-        }
-    }
-
 }
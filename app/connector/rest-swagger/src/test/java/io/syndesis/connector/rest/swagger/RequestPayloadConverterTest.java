@@ -15,6 +15,9 @@
  */
 package io.syndesis.connector.rest.swagger;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import io.syndesis.common.model.DataShapeKinds;
@@ -69,6 +72,63 @@ public class RequestPayloadConverterTest {
         assertThat(exchange.getIn().getBody()).isEqualTo("{\"description\":\"hello\"}");
     }
 
+    @Test
+    public void shouldConvertUnifiedJsonWithBodyBeforeParameters() {
+        final RequestPayloadConverter converter = new RequestPayloadConverter(DataShapeKinds.JSON_SCHEMA);
+
+        final Exchange exchange = createExhangeWithBody("application/json",
+            "{\"body\":{\"items\":[1,2.5,{\"nested\":null}]},\"ignored\":{\"a\":1},\"parameters\":{\"slug\":\"1\"}}");
+
+        converter.process(exchange);
+
+        assertThat(exchange.getIn().getHeader("slug")).isEqualTo("1");
+        assertThat(exchange.getIn().getHeader("ignored")).isNull();
+        assertThat(exchange.getIn().getBody()).isEqualTo("{\"items\":[1,2.5,{\"nested\":null}]}");
+    }
+
+    @Test
+    public void shouldConvertUnifiedJsonFromStream() {
+        final RequestPayloadConverter converter = new RequestPayloadConverter(DataShapeKinds.JSON_SCHEMA);
+
+        final Exchange exchange = createExhangeWithBody("application/json", null);
+        exchange.getIn().setBody(stream("{\"parameters\":{\"slug\":\"1\"},\"body\":{\"description\":\"h\u00e9llo\"}}"));
+
+        converter.process(exchange);
+
+        assertThat(exchange.getIn().getHeader("slug")).isEqualTo("1");
+        assertThat(exchange.getIn().getBody()).isEqualTo("{\"description\":\"h\u00e9llo\"}");
+    }
+
+    @Test
+    public void shouldNotConvertMalformedJson() {
+        final RequestPayloadConverter converter = new RequestPayloadConverter(DataShapeKinds.JSON_SCHEMA);
+
+        final Exchange exchange = createExhangeWithBody("application/json", "{\"parameters\":{\"slug\":\"1\"},\"body\":{");
+
+        converter.process(exchange);
+
+        assertThat(exchange.getIn().getHeader("slug")).isNull();
+        assertThat(exchange.getIn().getBody()).isEqualTo("{\"parameters\":{\"slug\":\"1\"},\"body\":{");
+    }
+
+    @Test
+    public void shouldConvertUnifiedXmlFromStream() {
+        final RequestPayloadConverter converter = new RequestPayloadConverter(DataShapeKinds.XML_SCHEMA);
+
+        final Exchange exchange = createExhangeWithBody("application/xml", null);
+        exchange.getIn().setBody(stream("<r:request xmlns:r=\"http://syndesis.io/v1/swagger-connector-template/request\" "
+            + "xmlns:x=\"urn:example\">"
+            + "<p:parameters xmlns:p=\"http://syndesis.io/v1/swagger-connector-template/parameters\"><p:slug>1</p:slug></p:parameters>"
+            + "<r:body><x:description>h\u00e9llo</x:description></r:body>"
+            + "</r:request>"));
+
+        converter.process(exchange);
+
+        assertThat(exchange.getIn().getHeader("slug")).isEqualTo("1");
+        assertThat((String) exchange.getIn().getBody())
+            .isXmlEqualTo("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<x:description xmlns:x=\"urn:example\">h\u00e9llo</x:description>");
+    }
+
     @Test
     public void shouldConvertUnifiedXmlToHeadersAndBody() {
         final RequestPayloadConverter converter = new RequestPayloadConverter(DataShapeKinds.XML_SCHEMA);
@@ -92,4 +152,8 @@ public class RequestPayloadConverterTest {
         assertThat((String) exchange.getIn().getBody()).isXmlEqualTo("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<description>hello</description>");
     }
 
+    private static InputStream stream(final String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
@@ -15,6 +15,9 @@
  */
 package io.syndesis.connector.rest.swagger;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
 import io.syndesis.common.model.DataShapeKinds;
 
 import org.apache.camel.Exchange;
@@ -48,4 +51,29 @@ public class ResponsePayloadConverterTest {
 
         assertThat(exchange.getIn().getBody()).isEqualTo("{\"parameters\":{\"Content-Type\":\"application/json\"},\"body\":{\"hello\":\"world\"}}");
     }
+
+    @Test
+    public void shouldConvertStreamedResponse() {
+        final ResponsePayloadConverter converter = new ResponsePayloadConverter(DataShapeKinds.JSON_SCHEMA);
+
+        final Exchange exchange = createExhangeWithBody("application/json", null);
+        exchange.getIn().setHeader(Exchange.HTTP_RESPONSE_CODE, 200);
+        exchange.getIn().setBody(new ByteArrayInputStream("[{\"hello\":\"w\u00f6rld\"}]".getBytes(StandardCharsets.UTF_8)));
+
+        converter.process(exchange);
+
+        assertThat(exchange.getIn().getBody())
+            .isEqualTo("{\"parameters\":{\"Status\":200,\"Content-Type\":\"application/json\"},\"body\":[{\"hello\":\"w\u00f6rld\"}]}");
+    }
+
+    @Test
+    public void shouldNotConvertMalformedResponse() {
+        final ResponsePayloadConverter converter = new ResponsePayloadConverter(DataShapeKinds.JSON_SCHEMA);
+
+        final Exchange exchange = createExhangeWithBody("application/json", "{\"hello\":");
+
+        converter.process(exchange);
+
+        assertThat(exchange.getIn().getBody()).isEqualTo("{\"hello\":");
+    }
 }
@@ -15,14 +15,10 @@
  */
 package io.syndesis.connector.soap.cxf.payload;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.List;
 import javax.xml.soap.Node;
 import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLEventWriter;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
@@ -53,10 +49,10 @@ public final class RequestSoapPayloadConverter extends AbstractSoapPayloadConver
             final SoapPayloadReaderFilter payloadFilter = new SoapPayloadReaderFilter(soapVersion);
             final XMLEventReader eventReader = XML_INPUT_FACTORY.createFilteredReader(bodyReader, payloadFilter);
 
-            // all the work is done in the filter, so we ignore the event writer output
-            try (OutputStream bos = new ByteArrayOutputStream()) {
-                XMLEventWriter target = XML_OUTPUT_FACTORY.createXMLEventWriter(bos);
-                target.add(eventReader);
+            // all the work is done in the filter, which accepts none of the
+            // events, so reading through them is enough
+            while (eventReader.hasNext()) {
+                eventReader.nextEvent();
             }
 
             // convert filtered parts to CxfPayload
@@ -78,7 +74,7 @@ public final class RequestSoapPayloadConverter extends AbstractSoapPayloadConver
 
             in.setBody(cxfPayload);
 
-        } catch (XMLStreamException | InvalidPayloadException | IOException e) {
+        } catch (XMLStreamException | InvalidPayloadException e) {
             throw new RuntimeCamelException("Error creating SOAP message from request message: " + e.getMessage(), e);
         }
     }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+
+import io.syndesis.integration.component.proxy.ComponentDefinition;
+import io.syndesis.integration.component.proxy.ComponentProxyComponent;
+import org.apache.camel.Endpoint;
+import org.apache.camel.component.sql.DefaultSqlPrepareStatementStrategy;
+import org.apache.camel.component.sql.SqlEndpoint;
+import org.apache.camel.component.sql.SqlOutputType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class SqlConnector extends ComponentProxyComponent {
+
+    private int fetchSize;
+
+    private int maxRows;
+
+    public SqlConnector(String componentId, String componentScheme) {
+        super(componentId, componentScheme);
+    }
+
+    @Override
+    protected void configureDelegateEndpoint(ComponentDefinition definition, Endpoint endpoint, Map<String, Object> options) {
+        super.configureDelegateEndpoint(definition, endpoint, options);
+
+        if (endpoint instanceof SqlEndpoint) {
+            // pooled prepared statements keep the settings of their previous
+            // use, for instance the maximum of one row set while reading the
+            // statement metadata, so the settings are applied each time the
+            // statement is populated, which streamed queries not run through
+            // the JdbcTemplate do as well
+            final SqlEndpoint sqlEndpoint = (SqlEndpoint) endpoint;
+            sqlEndpoint.setPrepareStatementStrategy(new StatementSettingsPrepareStatementStrategy(fetchSize, maxRows));
+            sqlEndpoint.setAlwaysPopulateStatement(true);
+
+            if (sqlEndpoint.getOutputType() == SqlOutputType.StreamList) {
+                final JdbcTemplate jdbcTemplate = sqlEndpoint.getJdbcTemplate();
+                jdbcTemplate.setDataSource(new StreamingQueryDataSource(jdbcTemplate.getDataSource()));
+            }
+        }
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Number of rows fetched from the database at a time, {@code 0} keeps
+     * the driver default.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Maximum number of rows a query returns, {@code 0} for no limit.
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    private static final class StatementSettingsPrepareStatementStrategy extends DefaultSqlPrepareStatementStrategy {
+        private final int fetchSize;
+        private final int maxRows;
+
+        StatementSettingsPrepareStatementStrategy(int fetchSize, int maxRows) {
+            this.fetchSize = fetchSize;
+            this.maxRows = maxRows;
+        }
+
+        @Override
+        public void populateStatement(PreparedStatement ps, Iterator<?> iterator, int expectedParams) throws SQLException {
+            // some drivers refuse a fetch size above the maximum rows
+            ps.setMaxRows(maxRows);
+            ps.setFetchSize(fetchSize);
+            super.populateStatement(ps, iterator, expectedParams);
+        }
+    }
+}
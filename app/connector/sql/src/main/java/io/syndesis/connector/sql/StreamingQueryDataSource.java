@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sql;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Hands out connections with auto-commit turned off for the queries whose
+ * result set is streamed. Drivers such as PostgreSQL ignore the fetch size
+ * in auto-commit mode and read the whole result set into memory. Closing
+ * the connection, which the iterator over the result set does when it is
+ * closed, commits the transaction and turns auto-commit back on before the
+ * connection is returned to the pool.
+ */
+final class StreamingQueryDataSource extends DelegatingDataSource {
+
+    StreamingQueryDataSource(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withoutAutoCommit(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withoutAutoCommit(super.getConnection(username, password));
+    }
+
+    private static Connection withoutAutoCommit(Connection connection) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            return connection;
+        }
+
+        connection.setAutoCommit(false);
+
+        return (Connection) Proxy.newProxyInstance(StreamingQueryDataSource.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+                    return proxy == args[0];
+                }
+
+                if ("close".equals(method.getName()) && !connection.isClosed()) {
+                    try {
+                        connection.commit();
+                        connection.setAutoCommit(true);
+                    } finally {
+                        connection.close();
+                    }
+
+                    return null;
+                }
+
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
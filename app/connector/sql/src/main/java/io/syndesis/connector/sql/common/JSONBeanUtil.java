@@ -15,13 +15,16 @@
  */
 package io.syndesis.connector.sql.common;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Properties;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -189,6 +192,17 @@ public final class JSONBeanUtil {
 
     }
 
+    /**
+     * Lazily converts the rows of a streamed result set to JSON Bean Strings,
+     * or to lists of up to {@code chunkSize} JSON Bean Strings when the chunk
+     * size is greater than one. Rows are read from the underlying iterator
+     * only as the returned iterator is consumed, closing it closes the
+     * underlying iterator.
+     */
+    public static Iterator<Object> toJSONBeans(final Iterator<?> rows, final int chunkSize) {
+        return new JSONBeanIterator(rows, chunkSize);
+    }
+
     /**
      * Converts Camel Generated Key output to a list of JSON Bean Strings.
      * @param autoIncrementColumnName the name of the auto increment column name
@@ -206,4 +220,49 @@ public final class JSONBeanUtil {
         }
         return jsonBeans;
     }
+
+    private static final class JSONBeanIterator implements Iterator<Object>, Closeable {
+        private final Iterator<?> rows;
+        private final int chunkSize;
+
+        JSONBeanIterator(final Iterator<?> rows, final int chunkSize) {
+            this.rows = rows;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            if (chunkSize <= 1) {
+                return nextBean();
+            }
+
+            final List<String> chunk = new ArrayList<>(chunkSize);
+            do {
+                chunk.add(nextBean());
+            } while (chunk.size() < chunkSize && rows.hasNext());
+
+            return chunk;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (rows instanceof Closeable) {
+                ((Closeable) rows).close();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private String nextBean() {
+            if (!rows.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return toJSONBean((Map<String, Object>) rows.next());
+        }
+    }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sql.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+/**
+ * Highest value of a monotonically increasing column seen by a periodic
+ * query, so that each poll fetches only the rows added since the previous
+ * one. The query references the value as the {@value #PARAMETER} named
+ * parameter, for example
+ * {@code SELECT * FROM ORDERS WHERE ID > :#watermark ORDER BY ID}.
+ * <p>
+ * The value is stored in the {@value #TABLE} table of the queried database,
+ * created on first use, so that it survives restarts and redeployments of
+ * the integration. It is only advanced once the rows of a poll have been
+ * processed.
+ */
+public final class SqlWatermark {
+
+    public static final String PARAMETER = "watermark";
+
+    static final String TABLE = "SYNDESIS_SQL_WATERMARK";
+
+    private static final String CREATE_TABLE = "CREATE TABLE " + TABLE + " (WATERMARK_KEY VARCHAR(36) NOT NULL PRIMARY KEY, WATERMARK_VALUE VARCHAR(255))";
+
+    private static final String SELECT = "SELECT WATERMARK_VALUE FROM " + TABLE + " WHERE WATERMARK_KEY = ?";
+
+    private static final String UPDATE = "UPDATE " + TABLE + " SET WATERMARK_VALUE = ? WHERE WATERMARK_KEY = ?";
+
+    private static final String INSERT = "INSERT INTO " + TABLE + " (WATERMARK_KEY, WATERMARK_VALUE) VALUES (?, ?)";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqlWatermark.class);
+
+    private final DataSource dataSource;
+
+    private final String key;
+
+    private final String column;
+
+    private final int jdbcType;
+
+    private volatile String value;
+
+    SqlWatermark(DataSource dataSource, String key, String column, int jdbcType, String initialValue) {
+        this.dataSource = dataSource;
+        this.key = key;
+        this.column = column;
+        this.jdbcType = jdbcType;
+
+        value = load(initialValue);
+    }
+
+    /**
+     * Watermark of the given column of the query run by a step of an
+     * integration, the owner identifies the integration and the step.
+     */
+    public static SqlWatermark of(DataSource dataSource, String owner, String query, String column, int jdbcType, String initialValue) {
+        final String key = UUID.nameUUIDFromBytes((owner + '\n' + query + '\n' + column).getBytes(StandardCharsets.UTF_8)).toString();
+
+        return new SqlWatermark(dataSource, key, column, jdbcType, initialValue);
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * The current value as the {@value #PARAMETER} query parameter.
+     */
+    public SqlParameterValue toParameter() {
+        return new SqlParameterValue(jdbcType, value);
+    }
+
+    public Poll newPoll() {
+        return new Poll();
+    }
+
+    /**
+     * Moves the watermark to the highest value seen by the poll, if the
+     * poll returned any rows.
+     */
+    public synchronized void advance(Poll poll) {
+        if (poll.highest == null) {
+            return;
+        }
+
+        value = poll.highest.toString();
+
+        try (Connection connection = dataSource.getConnection()) {
+            final int updated;
+            try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+                update.setString(1, value);
+                update.setString(2, key);
+                updated = update.executeUpdate();
+            }
+
+            if (updated == 0) {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                    insert.setString(1, key);
+                    insert.setString(2, value);
+                    insert.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warn("Unable to store the watermark of column {} in table {}: {}", column, TABLE, e.getMessage());
+        }
+    }
+
+    private String load(String initialValue) {
+        try (Connection connection = dataSource.getConnection()) {
+            createTableIfMissing(connection);
+
+            try (PreparedStatement select = connection.prepareStatement(SELECT)) {
+                select.setString(1, key);
+
+                try (ResultSet result = select.executeQuery()) {
+                    if (result.next()) {
+                        return result.getString(1);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warn("Unable to read the watermark of column {} from table {}, starting from {}: {}", column, TABLE, initialValue, e.getMessage());
+        }
+
+        return initialValue;
+    }
+
+    private static void createTableIfMissing(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try {
+                statement.executeQuery("SELECT 1 FROM " + TABLE + " WHERE 1 = 0").close();
+            } catch (SQLException ignored) {
+                LOG.info("Creating table {} to store the watermarks of periodic queries", TABLE);
+                statement.execute(CREATE_TABLE);
+            }
+        }
+    }
+
+    /**
+     * Highest value of the watermark column in the rows of one poll.
+     */
+    public final class Poll {
+        private Comparable<Object> highest;
+
+        Poll() {
+            // created by the watermark
+        }
+
+        @SuppressWarnings("unchecked")
+        public void observe(Map<String, Object> row) {
+            Object current = row.get(column);
+            if (current == null) {
+                current = row.entrySet().stream()
+                    .filter(e -> column.equalsIgnoreCase(e.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(null);
+            }
+
+            if (current instanceof Comparable && (highest == null || highest.compareTo(current) < 0)) {
+                highest = (Comparable<Object>) current;
+            }
+        }
+
+        /**
+         * Observes the rows as they are iterated, closing the returned
+         * iterator closes the given one.
+         */
+        public Iterator<Object> observe(Iterator<?> rows) {
+            return new ObservingIterator(rows);
+        }
+
+        private final class ObservingIterator implements Iterator<Object>, Closeable {
+            private final Iterator<?> rows;
+
+            ObservingIterator(Iterator<?> rows) {
+                this.rows = rows;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object next() {
+                final Object row = rows.next();
+                if (row instanceof Map) {
+                    observe((Map<String, Object>) row);
+                }
+
+                return row;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (rows instanceof Closeable) {
+                    ((Closeable) rows).close();
+                }
+            }
+        }
+    }
+}
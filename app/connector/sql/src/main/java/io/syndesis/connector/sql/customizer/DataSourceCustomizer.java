@@ -17,6 +17,7 @@ package io.syndesis.connector.sql.customizer;
 
 import java.util.Map;
 
+import io.syndesis.connector.support.util.ConnectorOptions;
 import io.syndesis.integration.component.proxy.ComponentProxyComponent;
 import io.syndesis.integration.component.proxy.ComponentProxyCustomizer;
 import org.apache.camel.CamelContext;
@@ -28,6 +29,9 @@ import org.slf4j.LoggerFactory;
 public class DataSourceCustomizer implements ComponentProxyCustomizer, CamelContextAware {
     private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceCustomizer.class);
 
+    // prepared statements cached per pooled connection unless configured
+    private static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 20;
+
     private CamelContext camelContext;
 
     @Override
@@ -44,11 +48,18 @@ public class DataSourceCustomizer implements ComponentProxyCustomizer, CamelCont
     public void customize(ComponentProxyComponent component, Map<String, Object> options) {
         if (!options.containsKey("dataSource")) {
             if (options.containsKey("user") && options.containsKey("password") && options.containsKey("url")) {
-                BasicDataSource ds = new BasicDataSource();
+                BasicDataSource ds = new SqlErrorUnwrappingDataSource();
 
                 consumeOption(camelContext, options, "user", String.class, ds::setUsername);
                 consumeOption(camelContext, options, "password", String.class, ds::setPassword);
                 consumeOption(camelContext, options, "url", String.class, ds::setUrl);
+                configurePool(ds, options);
+
+                try {
+                    camelContext.addService(new DataSourcePoolMBean(component.getComponentId(), ds));
+                } catch (Exception e) {
+                    LOGGER.warn("Unable to register the connection pool metrics of {}", component.getComponentId(), e);
+                }
 
                 options.put("dataSource", ds);
             } else {
@@ -56,4 +67,22 @@ public class DataSourceCustomizer implements ComponentProxyCustomizer, CamelCont
             }
         }
     }
+
+    private void configurePool(BasicDataSource ds, Map<String, Object> options) {
+        consumeOption(camelContext, options, "maxPoolSize", Integer.class, maxPoolSize -> {
+            ds.setMaxActive(maxPoolSize);
+            // keep the connections around instead of closing the ones
+            // exceeding the default of 8 idle connections
+            ds.setMaxIdle(maxPoolSize);
+        });
+        consumeOption(camelContext, options, "minIdle", Integer.class, ds::setMinIdle);
+        consumeOption(camelContext, options, "maxWait", Long.class, ds::setMaxWait);
+
+        final int cacheSize = ConnectorOptions.extractOptionAndMap(options, "preparedStatementCacheSize", Integer::valueOf, DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
+        options.remove("preparedStatementCacheSize");
+        if (cacheSize > 0) {
+            ds.setPoolPreparedStatements(true);
+            ds.setMaxOpenPreparedStatements(cacheSize);
+        }
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sql.customizer;
+
+import javax.management.ObjectName;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.Service;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exposes the connection pool usage of a SQL connection as an mbean, so that
+ * it is exported along with the other integration metrics.
+ */
+@ManagedResource(description = "Syndesis SQL connection pool")
+public class DataSourcePoolMBean implements Service, CamelContextAware {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataSourcePoolMBean.class);
+
+    private final String name;
+    private final BasicDataSource dataSource;
+
+    private CamelContext camelContext;
+
+    public DataSourcePoolMBean(String name, BasicDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    @ManagedAttribute(description = "Number of connections in use")
+    public int getNumActive() {
+        return dataSource.getNumActive();
+    }
+
+    @ManagedAttribute(description = "Number of idle connections")
+    public int getNumIdle() {
+        return dataSource.getNumIdle();
+    }
+
+    @ManagedAttribute(description = "Maximum number of connections")
+    public int getMaxActive() {
+        return dataSource.getMaxActive();
+    }
+
+    @ManagedAttribute(description = "Maximum number of cached prepared statements per connection")
+    public int getMaxOpenPreparedStatements() {
+        return dataSource.isPoolPreparedStatements() ? dataSource.getMaxOpenPreparedStatements() : 0;
+    }
+
+    @Override
+    public void start() throws Exception {
+        final String contextName = camelContext.getName();
+        final ObjectName instance = ObjectName.getInstance(
+            String.format("io.syndesis.camel:context=%s,type=dataSource,name=%s", contextName, ObjectName.quote(name)));
+
+        camelContext.getManagementStrategy().manageNamedObject(this, instance);
+        LOG.info("Registered mbean {}", instance);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        camelContext.getManagementStrategy().unmanageObject(this);
+        dataSource.close();
+    }
+
+    @Override
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @Override
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+}
@@ -21,6 +21,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -58,6 +59,8 @@ public final class SqlConnectorCustomizer implements ComponentProxyCustomizer {
 
     private boolean isBatch;
     private boolean isRaiseErrorOnNotFound;
+    private boolean isStreaming;
+    private int chunkSize;
 
     @Override
     public void customize(ComponentProxyComponent component, Map<String, Object> options) {
@@ -110,6 +113,11 @@ public final class SqlConnectorCustomizer implements ComponentProxyCustomizer {
                     ErrorCategory.CONNECTOR_ERROR, exchange.getException());
         }
         final Message in = exchange.getIn();
+        if (isStreaming) {
+            streamResults(in);
+            return;
+        }
+
         //converting SQL Map or List results to JSON Beans
         List<String> list = null;
         if (isRetrieveGeneratedKeys) {
@@ -121,11 +129,31 @@ public final class SqlConnectorCustomizer implements ComponentProxyCustomizer {
             in.setBody(list);
         }
         if (isRaiseErrorOnNotFound && !isRecordsFound(in))  {
-            String detailedMsg = "SQL " + statementType.name() + " did not " + statementType +  " any records";
-            throw new SyndesisConnectorException(ErrorCategory.ENTITY_NOT_FOUND_ERROR, detailedMsg);
+            throw notFound();
         }
     }
 
+    /**
+     * With streaming the body is the iterator over the open result set, rows
+     * are converted to JSON beans only as the next step consumes them.
+     */
+    private void streamResults(Message in) {
+        final Object body = in.getBody();
+        final boolean hasRows = body instanceof Iterator && ((Iterator<?>) body).hasNext();
+        if (isRaiseErrorOnNotFound && !hasRows) {
+            throw notFound();
+        }
+
+        if (body instanceof Iterator) {
+            in.setBody(JSONBeanUtil.toJSONBeans((Iterator<?>) body, chunkSize));
+        }
+    }
+
+    private SyndesisConnectorException notFound() {
+        String detailedMsg = "SQL " + statementType.name() + " did not " + statementType +  " any records";
+        return new SyndesisConnectorException(ErrorCategory.ENTITY_NOT_FOUND_ERROR, detailedMsg);
+    }
+
     private boolean isRecordsFound(Message in) {
 
         switch (statementType) {
@@ -157,6 +185,10 @@ public final class SqlConnectorCustomizer implements ComponentProxyCustomizer {
                     .extractOptionAndMap(options, "batch", Boolean::valueOf, false);
             isRaiseErrorOnNotFound = ConnectorOptions
                     .extractOptionAndMap(options, "raiseErrorOnNotFound", Boolean::valueOf, false);
+            final boolean streaming = ConnectorOptions
+                    .extractOptionAndMap(options, "streaming", Boolean::valueOf, false);
+            chunkSize = ConnectorOptions
+                    .extractOptionAndMap(options, "chunkSize", Integer::valueOf, 1);
 
             final String sql =  ConnectorOptions.extractOption(options, "query");
             final DataSource dataSource = ConnectorOptions.extractOptionAsType(
@@ -182,6 +214,13 @@ public final class SqlConnectorCustomizer implements ComponentProxyCustomizer {
                 statementType = statementInfo.getStatementType();
                 options.put("batch", isBatch);
 
+                // only queries can be streamed, the rows are read from the
+                // open result set while the exchange is being routed
+                isStreaming = streaming && statementType == StatementType.SELECT;
+                if (isStreaming) {
+                    options.put("outputType", "StreamList");
+                }
+
             } catch (SQLException e){
                 LOGGER.error(e.getMessage(),e);
             }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sql.customizer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.commons.dbcp.BasicDataSource;
+import org.apache.commons.dbcp.SQLNestedException;
+
+/**
+ * Pool that hands out connections reporting the errors of preparing a
+ * statement as the driver raised them. When prepared statements are cached
+ * DBCP wraps those errors in an exception without SQL state or error code,
+ * so a statement with a syntax error could not be told apart from a broken
+ * connection anymore.
+ */
+final class SqlErrorUnwrappingDataSource extends BasicDataSource {
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return unwrappingErrors(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String user, String pass) throws SQLException {
+        return unwrappingErrors(super.getConnection(user, pass));
+    }
+
+    private static Connection unwrappingErrors(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SqlErrorUnwrappingDataSource.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+                    return proxy == args[0];
+                }
+
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof SQLNestedException && cause.getCause() instanceof SQLException) {
+                        throw cause.getCause();
+                    }
+
+                    throw cause;
+                }
+            });
+    }
+}
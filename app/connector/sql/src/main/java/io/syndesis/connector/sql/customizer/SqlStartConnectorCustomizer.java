@@ -17,6 +17,9 @@ package io.syndesis.connector.sql.customizer;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -30,12 +33,16 @@ import io.syndesis.common.util.SyndesisConnectorException;
 import io.syndesis.connector.sql.common.JSONBeanUtil;
 import io.syndesis.connector.sql.common.SqlStatementMetaData;
 import io.syndesis.connector.sql.common.SqlStatementParser;
+import io.syndesis.connector.sql.common.SqlWatermark;
+import io.syndesis.connector.sql.common.StatementType;
 import io.syndesis.connector.support.util.ConnectorOptions;
 import io.syndesis.integration.component.proxy.ComponentProxyComponent;
 import io.syndesis.integration.component.proxy.ComponentProxyCustomizer;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.component.sql.SqlConstants;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,12 +53,15 @@ public final class SqlStartConnectorCustomizer implements ComponentProxyCustomiz
     private static final Logger LOGGER = LoggerFactory.getLogger(SqlStartConnectorCustomizer.class);
     private String autoIncrementColumnName;
     private boolean isRetrieveGeneratedKeys;
+    private boolean isStreaming;
+    private int chunkSize;
+    private SqlWatermark watermark;
 
     @Override
     public void customize(ComponentProxyComponent component, Map<String, Object> options) {
         component.setBeforeProducer(this::doBeforeProducer);
         component.setAfterProducer(this::doAfterProducer);
-        init(options);
+        init(component, options);
     }
 
     private void doBeforeProducer(Exchange exchange) {
@@ -60,6 +70,9 @@ public final class SqlStartConnectorCustomizer implements ComponentProxyCustomiz
             final Properties properties = JSONBeanUtil.parsePropertiesFromJSONBean(body);
             exchange.getIn().setBody(properties);
         }
+        if (watermark != null) {
+            exchange.getIn().setBody(Collections.singletonMap(SqlWatermark.PARAMETER, watermark.toParameter()));
+        }
         if (isRetrieveGeneratedKeys) {
             exchange.getIn().setHeader(SqlConstants.SQL_RETRIEVE_GENERATED_KEYS, true);
         }
@@ -71,6 +84,16 @@ public final class SqlStartConnectorCustomizer implements ComponentProxyCustomiz
             throw SyndesisConnectorException.wrap(ErrorCategory.CONNECTOR_ERROR, e);
         }
         final Message in = exchange.getIn();
+        if (watermark != null) {
+            observeWatermark(exchange);
+        }
+
+        if (isStreaming && in.getBody() instanceof Iterator) {
+            // rows are converted as the next step consumes them
+            in.setBody(JSONBeanUtil.toJSONBeans(in.getBody(Iterator.class), chunkSize));
+            return;
+        }
+
         List<String> list = null;
         if (isRetrieveGeneratedKeys) {
             list = JSONBeanUtil.toJSONBeansFromHeader(in, autoIncrementColumnName);
@@ -82,10 +105,42 @@ public final class SqlStartConnectorCustomizer implements ComponentProxyCustomiz
         }
     }
 
-    private void init(Map<String, Object> options) {
+    /**
+     * Tracks the highest watermark of the polled rows, the watermark is only
+     * advanced once the rows have been processed successfully so that they
+     * are polled again otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private void observeWatermark(Exchange exchange) {
+        final SqlWatermark.Poll poll = watermark.newPoll();
+
+        final Message in = exchange.getIn();
+        if (in.getBody() instanceof Iterator) {
+            in.setBody(poll.observe(in.getBody(Iterator.class)));
+        } else if (in.getBody() instanceof List) {
+            ((List<Map<String, Object>>) in.getBody(List.class)).forEach(poll::observe);
+        }
+
+        exchange.addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onComplete(Exchange completed) {
+                watermark.advance(poll);
+            }
+        });
+    }
+
+    private void init(ComponentProxyComponent component, Map<String, Object> options) {
         if (!isInit) {
             final String sql =  ConnectorOptions.extractOption(options, "query");
             final DataSource dataSource = ConnectorOptions.extractOptionAsType(options, "dataSource", DataSource.class);
+            final boolean streaming = ConnectorOptions.extractOptionAndMap(options, "streaming", Boolean::valueOf, false);
+            chunkSize = ConnectorOptions.extractOptionAndMap(options, "chunkSize", Integer::valueOf, 1);
+            final String watermarkColumn = ConnectorOptions.extractOption(options, "watermarkColumn");
+            final String watermarkInitialValue = ConnectorOptions.extractOption(options, "watermarkInitialValue");
+            if (ObjectHelper.isNotEmpty(watermarkColumn) && ObjectHelper.isEmpty(watermarkInitialValue)) {
+                // a NULL watermark would match no rows at all
+                throw new IllegalArgumentException("The watermark initial value is required when polling with the watermark column " + watermarkColumn);
+            }
             try (Connection connection = dataSource.getConnection()) {
                 DbMetaDataHelper dbHelper = new DbMetaDataHelper(connection);
                 final String defaultSchema = dbHelper.getDefaultSchema(ConnectorOptions.extractOption(options, "user", ""));
@@ -96,6 +151,23 @@ public final class SqlStartConnectorCustomizer implements ComponentProxyCustomiz
                     isRetrieveGeneratedKeys = true;
                     autoIncrementColumnName = statementInfo.getAutoIncrementColumnName();
                 }
+
+                if (ObjectHelper.isNotEmpty(watermarkColumn)) {
+                    final int jdbcType = statementInfo.getInParams().stream()
+                        .filter(p -> SqlWatermark.PARAMETER.equals(p.getName()) && p.getJdbcType() != null)
+                        .map(p -> p.getJdbcType().getVendorTypeNumber())
+                        .findFirst()
+                        .orElse(Types.VARCHAR);
+
+                    // the integration name and the step identify the watermark across deployments
+                    final String owner = component.getCamelContext().getName() + '/' + component.getComponentId();
+                    watermark = SqlWatermark.of(dataSource, owner, sql, watermarkColumn, jdbcType, watermarkInitialValue);
+                }
+
+                isStreaming = streaming && statementInfo.getStatementType() == StatementType.SELECT;
+                if (isStreaming) {
+                    options.put("outputType", "StreamList");
+                }
             } catch (SQLException e){
                 LOGGER.error(e.getMessage(),e);
             }
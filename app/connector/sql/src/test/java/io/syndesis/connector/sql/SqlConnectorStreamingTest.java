@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import io.syndesis.common.model.integration.Step;
+import io.syndesis.common.model.integration.StepKind;
+import io.syndesis.connector.sql.common.JSONBeanUtil;
+import io.syndesis.connector.sql.common.SqlTest.ConnectionInfo;
+import io.syndesis.connector.sql.common.SqlTest.Setup;
+import io.syndesis.connector.sql.common.SqlTest.Teardown;
+import io.syndesis.connector.sql.util.SqlConnectorTestSupport;
+
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.component.sql.SqlEndpoint;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Setup({"CREATE TABLE ADDRESS (street VARCHAR(255), number INTEGER)",
+    "INSERT INTO ADDRESS VALUES ('East Davie Street', 100)",
+    "INSERT INTO ADDRESS VALUES ('Am Treptower Park', 75)",
+    "INSERT INTO ADDRESS VALUES ('Werner-von-Siemens-Ring', 14)",
+    "INSERT INTO ADDRESS VALUES ('Hauptstrasse', 7)",
+    "INSERT INTO ADDRESS VALUES ('Avenue des Champs-Elysees', 1)"})
+@Teardown("DROP TABLE ADDRESS")
+public class SqlConnectorStreamingTest extends SqlConnectorTestSupport {
+
+    public SqlConnectorStreamingTest(final ConnectionInfo info) {
+        super(info);
+    }
+
+    @Test
+    public void shouldCreateTheSqlConnectorComponent() {
+        final List<SqlConnector> connectors = context().getComponentNames().stream()
+            .map(context()::getComponent)
+            .filter(SqlConnector.class::isInstance)
+            .map(SqlConnector.class::cast)
+            .collect(Collectors.toList());
+
+        assertThat(connectors).hasSize(1);
+        assertThat(connectors.get(0).getFetchSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldStreamRowsInChunks() {
+        template().sendBody("direct:start", null);
+
+        final List<List<String>> streets = result().getReceivedExchanges().stream()
+            .map(exchange -> exchange.getIn().getBody(List.class))
+            .map(chunk -> ((List<?>) chunk).stream()
+                .map(Object::toString)
+                .map(JSONBeanUtil::parsePropertiesFromJSONBean)
+                .map(row -> row.getProperty("STREET"))
+                .collect(Collectors.toList()))
+            .collect(Collectors.toList());
+
+        assertThat(streets).containsExactly(
+            Arrays.asList("East Davie Street", "Am Treptower Park"),
+            Arrays.asList("Werner-von-Siemens-Ring", "Hauptstrasse"),
+            Arrays.asList("Avenue des Champs-Elysees"));
+    }
+
+    @Test
+    public void shouldApplyTheFetchSize() throws SQLException {
+        final SqlEndpoint endpoint = sqlEndpoint();
+        assertThat(endpoint.isAlwaysPopulateStatement()).isTrue();
+
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        endpoint.getPrepareStatementStrategy().populateStatement(statement, Collections.emptyIterator(), 0);
+
+        final InOrder order = inOrder(statement);
+        order.verify(statement).setMaxRows(0);
+        order.verify(statement).setFetchSize(2);
+    }
+
+    @Test
+    public void shouldConfigureTheConnectionPool() {
+        final BasicDataSource dataSource = pool();
+
+        assertThat(dataSource.getMaxActive()).isEqualTo(3);
+        assertThat(dataSource.getMaxIdle()).isEqualTo(3);
+        assertThat(dataSource.getMinIdle()).isEqualTo(1);
+        assertThat(dataSource.getMaxWait()).isEqualTo(5000L);
+        assertThat(dataSource.isPoolPreparedStatements()).isTrue();
+        assertThat(dataSource.getMaxOpenPreparedStatements()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldStreamWithoutAutoCommit() throws SQLException {
+        final Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        final DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        final Connection streaming = new StreamingQueryDataSource(dataSource).getConnection();
+        verify(connection).setAutoCommit(false);
+        verify(connection, never()).commit();
+
+        streaming.close();
+
+        final InOrder order = inOrder(connection);
+        order.verify(connection).commit();
+        order.verify(connection).setAutoCommit(true);
+        order.verify(connection).close();
+    }
+
+    @Test
+    public void shouldReturnCommittedConnectionsToThePool() throws SQLException {
+        assertThat(sqlEndpoint().getJdbcTemplate().getDataSource()).isInstanceOf(StreamingQueryDataSource.class);
+
+        template().sendBody("direct:start", null);
+
+        final BasicDataSource dataSource = pool();
+        assertThat(dataSource.getNumActive()).isZero();
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.getAutoCommit()).isTrue();
+        }
+    }
+
+    @Test
+    public void shouldNotLimitRowsOfCachedStatements() {
+        // the statement metadata was read with a maximum of one row when the
+        // route was created, the query reuses that cached statement
+        template().sendBody("direct:start", null);
+
+        final int rows = result().getReceivedExchanges().stream()
+            .mapToInt(exchange -> exchange.getIn().getBody(List.class).size())
+            .sum();
+
+        assertThat(rows).isEqualTo(5);
+    }
+
+    @Override
+    protected List<Step> createSteps() {
+        return Arrays.asList(
+            newSimpleEndpointStep(
+                "direct",
+                builder -> builder.putConfiguredProperty("name", "start")),
+            newSqlEndpointStep(
+                "sql-connector",
+                builder -> builder.putConfiguredProperty("query", "SELECT * FROM ADDRESS ORDER BY number DESC")
+                    .putConfiguredProperty("streaming", "true")
+                    .putConfiguredProperty("chunkSize", "2")
+                    .putConfiguredProperty("fetchSize", "2")
+                    .putConfiguredProperty("maxPoolSize", "3")
+                    .putConfiguredProperty("minIdle", "1")
+                    .putConfiguredProperty("maxWait", "5000")
+                    .putConfiguredProperty("preparedStatementCacheSize", "5")),
+            new Step.Builder()
+                .stepKind(StepKind.split)
+                .putConfiguredProperty("streaming", "true")
+                .build(),
+            newSimpleEndpointStep(
+                "mock",
+                builder -> builder.putConfiguredProperty("name", "result")));
+    }
+
+    private MockEndpoint result() {
+        return context().getEndpoint("mock:result", MockEndpoint.class);
+    }
+
+    private BasicDataSource pool() {
+        return (BasicDataSource) ((DelegatingDataSource) sqlEndpoint().getJdbcTemplate().getDataSource()).getTargetDataSource();
+    }
+
+    private SqlEndpoint sqlEndpoint() {
+        return context().getEndpoints().stream()
+            .filter(SqlEndpoint.class::isInstance)
+            .map(SqlEndpoint.class::cast)
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No SQL endpoint in the route"));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.syndesis.common.model.integration.Step;
+import io.syndesis.connector.sql.common.DbEnum;
+import io.syndesis.connector.sql.common.JSONBeanUtil;
+import io.syndesis.connector.sql.common.SqlTest.ConnectionInfo;
+import io.syndesis.connector.sql.common.SqlTest.Setup;
+import io.syndesis.connector.sql.common.SqlTest.Teardown;
+import io.syndesis.connector.sql.common.SqlTest.Variant;
+import io.syndesis.connector.sql.util.SqlConnectorTestSupport;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Setup(
+    value = {
+        "INSERT INTO NAME (firstname, lastname) VALUES ('Joe', 'Jackson')",
+        "INSERT INTO NAME (firstname, lastname) VALUES ('Roger', 'Waters')",
+        "INSERT INTO NAME (firstname, lastname) VALUES ('Kurt', 'Cobain')"
+    },
+    variants = {
+        @Variant(type = DbEnum.POSTGRESQL, value = "CREATE TABLE NAME (ID SERIAL PRIMARY KEY, firstName VARCHAR(255), lastName VARCHAR(255))"),
+        @Variant(type = DbEnum.MYSQL, value = "CREATE TABLE NAME (ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY, firstName VARCHAR(255), lastName VARCHAR(255))"),
+        @Variant(type = DbEnum.APACHE_DERBY,
+            value = "CREATE TABLE NAME (ID INTEGER NOT NULL GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1), firstName VARCHAR(255), lastName VARCHAR(255))"),
+        @Variant(type = DbEnum.STANDARD, value = "CREATE TABLE NAME (ID NUMBER GENERATED ALWAYS AS IDENTITY, firstName VARCHAR(255), lastName VARCHAR(255))"),
+    })
+@Teardown({"DROP TABLE NAME", "DROP TABLE SYNDESIS_SQL_WATERMARK"})
+public class SqlStartConnectorWatermarkTest extends SqlConnectorTestSupport {
+
+    public SqlStartConnectorWatermarkTest(final ConnectionInfo info) {
+        super(info);
+    }
+
+    @Test
+    @Teardown("DELETE FROM SYNDESIS_SQL_WATERMARK")
+    public void shouldPollFromInitialValue() {
+        // at most two rows per poll
+        assertThat(poll()).containsExactly("1", "2");
+    }
+
+    @Test
+    @Teardown("DELETE FROM SYNDESIS_SQL_WATERMARK")
+    public void shouldAdvanceWatermarkOnceRowsAreProcessed() {
+        assertThat(poll()).containsExactly("1", "2");
+        assertThat(poll()).containsExactly("3");
+        assertThat(poll()).isEmpty();
+    }
+
+    @Test
+    @Teardown({"DELETE FROM SYNDESIS_SQL_WATERMARK", "DELETE FROM NAME WHERE firstname = 'Kirk'"})
+    public void shouldPollOnlyNewRows(final Connection connection) throws SQLException {
+        assertThat(poll()).containsExactly("1", "2");
+        assertThat(poll()).containsExactly("3");
+
+        try (Connection c = connection; Statement statement = c.createStatement()) {
+            statement.execute("INSERT INTO NAME (firstname, lastname) VALUES ('Kirk', 'Hammett')");
+        }
+
+        assertThat(poll()).containsExactly("4");
+    }
+
+    @Test
+    @Teardown("DELETE FROM SYNDESIS_SQL_WATERMARK")
+    public void shouldKeepWatermarkWhenProcessingFails() {
+        result().whenExchangeReceived(1, exchange -> {
+            throw new IllegalStateException("Processing failed");
+        });
+
+        assertThatThrownBy(this::poll).isInstanceOf(CamelExecutionException.class);
+
+        assertThat(poll()).containsExactly("1", "2");
+    }
+
+    @Test
+    @Teardown("DELETE FROM SYNDESIS_SQL_WATERMARK")
+    public void shouldResumeFromStoredWatermark() throws Exception {
+        assertThat(poll()).containsExactly("1", "2");
+
+        // a new deployment of the same integration
+        stop();
+        setupAndStart();
+
+        assertThat(poll()).containsExactly("3");
+    }
+
+    @Override
+    protected CamelContext createCamelContext() {
+        final DefaultCamelContext context = (DefaultCamelContext) super.createCamelContext();
+        context.setName("watermark-integration");
+
+        return context;
+    }
+
+    @Override
+    protected List<Step> createSteps() {
+        return Arrays.asList(
+            newSimpleEndpointStep(
+                "direct",
+                builder -> builder.putConfiguredProperty("name", "start")),
+            newSqlEndpointStep(
+                "sql-start-connector",
+                builder -> builder.putConfiguredProperty("query", "SELECT * FROM NAME WHERE ID > :#watermark ORDER BY ID")
+                    .putConfiguredProperty("watermarkColumn", "ID")
+                    .putConfiguredProperty("watermarkInitialValue", "0")
+                    .putConfiguredProperty("maxRows", "2")),
+            newSimpleEndpointStep(
+                "mock",
+                builder -> builder.putConfiguredProperty("name", "result")));
+    }
+
+    private List<String> poll() {
+        @SuppressWarnings("unchecked")
+        final List<String> rows = template().requestBody("direct:start", null, List.class);
+
+        return rows.stream()
+            .map(JSONBeanUtil::parsePropertiesFromJSONBean)
+            .map(row -> row.getProperty("ID"))
+            .collect(Collectors.toList());
+    }
+
+    private MockEndpoint result() {
+        return context().getEndpoint("mock:result", MockEndpoint.class);
+    }
+}
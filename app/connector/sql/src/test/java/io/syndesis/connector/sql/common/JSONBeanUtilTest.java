@@ -15,10 +15,18 @@
  */
 package io.syndesis.connector.sql.common;
 
+import java.io.Closeable;
 import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -124,4 +132,56 @@ public class JSONBeanUtilTest {
             throw new AssertionError("Should not throw exception when json parameter is empty", ex);
         }
     }
+
+    @Test
+    public void streamedRowsToJsonBeans() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Iterator<Object> beans = JSONBeanUtil.toJSONBeans(new ClosableRows(closed, rows(3)), 1);
+
+        assertThat(beans).toIterable().containsExactly("{\"c\":0}", "{\"c\":1}", "{\"c\":2}");
+
+        ((Closeable) beans).close();
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    public void streamedRowsToJsonBeanChunks() {
+        final Iterator<Object> chunks = JSONBeanUtil.toJSONBeans(rows(5).iterator(), 2);
+
+        assertThat(chunks).toIterable().containsExactly(
+            Arrays.asList("{\"c\":0}", "{\"c\":1}"),
+            Arrays.asList("{\"c\":2}", "{\"c\":3}"),
+            Collections.singletonList("{\"c\":4}"));
+    }
+
+    private static List<Map<String, Object>> rows(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> Collections.<String, Object>singletonMap("c", i))
+            .collect(Collectors.toList());
+    }
+
+    private static final class ClosableRows implements Iterator<Map<String, Object>>, Closeable {
+        private final AtomicBoolean closed;
+        private final Iterator<Map<String, Object>> rows;
+
+        ClosableRows(AtomicBoolean closed, List<Map<String, Object>> rows) {
+            this.closed = closed;
+            this.rows = rows.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            return rows.next();
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.sql.common;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+import io.syndesis.connector.sql.common.SqlTest.ConnectionInfo;
+import io.syndesis.connector.sql.common.SqlTest.Teardown;
+
+import org.apache.commons.dbcp.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SqlTest.class)
+@Teardown("DROP TABLE SYNDESIS_SQL_WATERMARK")
+public class SqlWatermarkTest {
+
+    private static final String QUERY = "SELECT * FROM NAME WHERE ID > :#watermark ORDER BY ID";
+
+    private final ConnectionInfo info;
+
+    private BasicDataSource dataSource;
+
+    public SqlWatermarkTest(final ConnectionInfo info) {
+        this.info = info;
+    }
+
+    @BeforeEach
+    public void createDataSource() {
+        dataSource = new BasicDataSource();
+        dataSource.setUrl(info.url);
+        dataSource.setUsername(info.username);
+        dataSource.setPassword(info.password);
+    }
+
+    @AfterEach
+    public void closeDataSource() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM SYNDESIS_SQL_WATERMARK");
+        }
+
+        dataSource.close();
+    }
+
+    @Test
+    public void shouldStartFromInitialValue() {
+        final SqlWatermark watermark = watermark("integration/sql-0-0", QUERY);
+
+        assertThat(watermark.getValue()).isEqualTo("0");
+        assertThat(watermark.toParameter().getSqlType()).isEqualTo(Types.INTEGER);
+        assertThat(watermark.toParameter().getValue()).isEqualTo("0");
+    }
+
+    @Test
+    public void shouldAdvanceToHighestPolledValue() {
+        final SqlWatermark watermark = watermark("integration/sql-0-0", QUERY);
+
+        final SqlWatermark.Poll poll = watermark.newPoll();
+        poll.observe(row("ID", 3));
+        poll.observe(row("id", 7));
+        poll.observe(row("ID", 5));
+        watermark.advance(poll);
+
+        assertThat(watermark.getValue()).isEqualTo("7");
+
+        // polls without rows keep the watermark
+        watermark.advance(watermark.newPoll());
+        assertThat(watermark.getValue()).isEqualTo("7");
+    }
+
+    @Test
+    public void shouldObserveStreamedRows() {
+        final SqlWatermark watermark = watermark("integration/sql-0-0", QUERY);
+
+        final SqlWatermark.Poll poll = watermark.newPoll();
+        final Iterator<Object> rows = poll.observe(Arrays.asList(row("ID", 1), row("ID", 2)).iterator());
+
+        // rows not yet consumed are not observed
+        rows.next();
+        watermark.advance(poll);
+        assertThat(watermark.getValue()).isEqualTo("1");
+
+        rows.next();
+        watermark.advance(poll);
+        assertThat(watermark.getValue()).isEqualTo("2");
+    }
+
+    @Test
+    public void shouldStoreWatermarkInDatabase() {
+        final SqlWatermark watermark = watermark("integration/sql-0-0", QUERY);
+
+        final SqlWatermark.Poll first = watermark.newPoll();
+        first.observe(row("ID", 42));
+        watermark.advance(first);
+
+        assertThat(watermark("integration/sql-0-0", QUERY).getValue()).isEqualTo("42");
+
+        final SqlWatermark.Poll second = watermark.newPoll();
+        second.observe(row("ID", 43));
+        watermark.advance(second);
+
+        assertThat(watermark("integration/sql-0-0", QUERY).getValue()).isEqualTo("43");
+    }
+
+    @Test
+    public void shouldKeepWatermarksOfOtherStepsApart() {
+        final SqlWatermark watermark = watermark("integration/sql-0-0", QUERY);
+        final SqlWatermark.Poll poll = watermark.newPoll();
+        poll.observe(row("ID", 42));
+        watermark.advance(poll);
+
+        assertThat(watermark("integration/sql-1-0", QUERY).getValue()).isEqualTo("0");
+        assertThat(watermark("other/sql-0-0", QUERY).getValue()).isEqualTo("0");
+        assertThat(watermark("integration/sql-0-0", "SELECT * FROM OTHER WHERE ID > :#watermark").getValue()).isEqualTo("0");
+    }
+
+    private SqlWatermark watermark(final String owner, final String query) {
+        return SqlWatermark.of(dataSource, owner, query, "ID", Types.INTEGER, "0");
+    }
+
+    private static Map<String, Object> row(String column, Object value) {
+        return Collections.singletonMap(column, value);
+    }
+}
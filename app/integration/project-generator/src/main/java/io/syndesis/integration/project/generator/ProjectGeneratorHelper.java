@@ -37,6 +37,10 @@ import org.slf4j.LoggerFactory;
 public final class ProjectGeneratorHelper {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProjectGeneratorHelper.class);
 
+    // entries are timestamped with a fixed time so that generating the same
+    // project twice results in the same bytes
+    private static final long ENTRY_MOD_TIME = 0L;
+
     private ProjectGeneratorHelper() {
     }
 
@@ -49,6 +53,7 @@ public final class ProjectGeneratorHelper {
 
     public static void addTarEntry(TarArchiveOutputStream tos, String path, byte[] content) throws IOException {
         TarArchiveEntry entry = new TarArchiveEntry(path);
+        entry.setModTime(ENTRY_MOD_TIME);
         entry.setSize(content.length);
         tos.putArchiveEntry(entry);
         tos.write(content);
@@ -16,6 +16,7 @@
 package io.syndesis.integration.project.generator;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -320,6 +321,50 @@ public class ProjectGeneratorTest {
         );
     }
 
+    @Test
+    public void testGenerateSameProjectTwice() throws IOException {
+        TestResourceManager resourceManager = new TestResourceManager();
+
+        Integration integration = resourceManager.newIntegration(
+            new Step.Builder()
+                .stepKind(StepKind.endpoint)
+                .connection(new Connection.Builder()
+                    .id("timer-connection")
+                    .connector(TestConstants.TIMER_CONNECTOR)
+                    .build())
+                .putConfiguredProperty("period", "5000")
+                .action(TestConstants.PERIODIC_TIMER_ACTION)
+                .build(),
+            new Step.Builder()
+                .stepKind(StepKind.mapper)
+                .putConfiguredProperty("atlasmapping", "{}")
+                .build()
+        );
+
+        final IntegrationProjectGenerator generator = new ProjectGenerator(new ProjectGeneratorConfiguration(), resourceManager, TestConstants.MAVEN_PROPERTIES);
+        final List<Throwable> errors = new ArrayList<>();
+
+        final byte[] first;
+        try (InputStream is = generator.generate(integration, errors::add)) {
+            first = IOUtils.toByteArray(is);
+        }
+
+        final byte[] second;
+        try (InputStream is = generator.generate(integration, errors::add)) {
+            second = IOUtils.toByteArray(is);
+        }
+
+        assertThat(errors).isEmpty();
+        assertThat(second).isEqualTo(first);
+
+        // timestamps do not depend on when the project was generated
+        try (TarArchiveInputStream tis = new TarArchiveInputStream(new ByteArrayInputStream(first))) {
+            for (TarArchiveEntry entry = tis.getNextTarEntry(); entry != null; entry = tis.getNextTarEntry()) {
+                assertThat(entry.getModTime().getTime()).as(entry.getName()).isZero();
+            }
+        }
+    }
+
     @Test
     public void testGenerateApplicationPropertiesOldStyle() throws IOException {
 
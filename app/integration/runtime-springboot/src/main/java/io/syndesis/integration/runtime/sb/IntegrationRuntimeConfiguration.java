@@ -29,6 +29,11 @@ public class IntegrationRuntimeConfiguration {
      */
     private String configurationLocation = "classpath:syndesis/integration/integration.json";
 
+    /**
+     * Capture the out messages of all steps, not only the ones used by data mapper steps.
+     */
+    private boolean captureAllOutMessages;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -44,4 +49,12 @@ public class IntegrationRuntimeConfiguration {
     public void setConfigurationLocation(String configurationLocation) {
         this.configurationLocation = configurationLocation;
     }
+
+    public boolean isCaptureAllOutMessages() {
+        return captureAllOutMessages;
+    }
+
+    public void setCaptureAllOutMessages(boolean captureAllOutMessages) {
+        this.captureAllOutMessages = captureAllOutMessages;
+    }
 }
@@ -15,9 +15,14 @@
  */
 package io.syndesis.integration.runtime.sb.logging;
 
+import java.net.MalformedURLException;
+import java.net.URL;
+
 import io.syndesis.integration.runtime.ActivityTrackingPolicyFactory;
 import io.syndesis.integration.runtime.logging.ActivityTracker;
 import io.syndesis.integration.runtime.logging.ActivityTrackingInterceptStrategy;
+import io.syndesis.integration.runtime.logging.AsyncActivityTracker;
+import io.syndesis.integration.runtime.logging.BatchingActivityTracker;
 import io.syndesis.integration.runtime.logging.BodyLogger;
 import io.syndesis.integration.runtime.logging.IntegrationActivityTrackingPolicyFactory;
 import io.syndesis.integration.runtime.logging.FlowActivityTrackingPolicyFactory;
@@ -38,10 +43,20 @@ import org.springframework.context.annotation.Configuration;
 @ConditionalOnProperty(prefix = "syndesis.integration.runtime.logging", name = "enabled", matchIfMissing = true)
 @EnableConfigurationProperties(IntegrationLoggingConfiguration.class)
 public class IntegrationLoggingAutoConfiguration {
-    @Bean
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean(ActivityTracker.class)
+    @ConditionalOnProperty(prefix = "syndesis.integration.runtime.logging.tracker", name = "endpoint")
+    public BatchingActivityTracker batchingActivityTracker(IntegrationLoggingConfiguration configuration) throws MalformedURLException {
+        final IntegrationLoggingConfiguration.Tracker tracker = configuration.getTracker();
+        final BatchingActivityTracker.Transport transport = BatchingActivityTracker.http(new URL(tracker.getEndpoint()), tracker.getToken(), (int) tracker.getTimeout().toMillis());
+
+        return new BatchingActivityTracker(transport, tracker.getBatchSize(), tracker.getFlushInterval().toMillis(), tracker.getQueueSize());
+    }
+
+    @Bean(destroyMethod = "close")
     @ConditionalOnMissingBean(ActivityTracker.class)
-    public ActivityTracker activityTracker() {
-        return new ActivityTracker.SysOut();
+    public AsyncActivityTracker activityTracker(IntegrationLoggingConfiguration configuration) {
+        return new AsyncActivityTracker(System.out, configuration.getBufferSize());
     }
 
     @Bean
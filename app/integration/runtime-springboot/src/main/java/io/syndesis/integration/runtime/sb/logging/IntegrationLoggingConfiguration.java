@@ -15,6 +15,8 @@
  */
 package io.syndesis.integration.runtime.sb.logging;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "syndesis.integration.runtime.logging")
@@ -24,6 +26,18 @@ public class IntegrationLoggingConfiguration {
      */
     private boolean enabled = true;
 
+    /**
+     * Maximum number of activity tracking events waiting to be logged on
+     * STDOUT, events are dropped when exceeded.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Ship activity tracking events in batches to the server instead of
+     * logging them on STDOUT.
+     */
+    private final Tracker tracker = new Tracker();
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -31,4 +45,99 @@ public class IntegrationLoggingConfiguration {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public Tracker getTracker() {
+        return tracker;
+    }
+
+    public static class Tracker {
+        /**
+         * URL of the server activity ingestion endpoint, including the pod
+         * name, if not set activities are logged on STDOUT.
+         */
+        private String endpoint;
+
+        /**
+         * Token the server issued to the integration for authenticating
+         * to the ingestion endpoint.
+         */
+        private String token;
+
+        /**
+         * Maximum number of events sent in one batch.
+         */
+        private int batchSize = 500;
+
+        /**
+         * How long to wait for a batch to fill up before sending it.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of events waiting to be sent, events are dropped
+         * when exceeded.
+         */
+        private int queueSize = 10_000;
+
+        /**
+         * Connect and read timeout when sending a batch.
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public void setToken(String token) {
+            this.token = token;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
 }
@@ -37,7 +37,6 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Handler;
 import org.apache.camel.Message;
 import org.apache.camel.ProducerTemplate;
-import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.component.mock.MockEndpoint;
 import org.apache.camel.spring.SpringCamelContext;
 import org.junit.jupiter.api.Test;
@@ -74,7 +73,7 @@ public class OutMessageCaptureProcessorTest extends IntegrationTestSupport {
         final CamelContext context = new SpringCamelContext(applicationContext);
 
         try {
-            final RouteBuilder routes = newIntegrationRouteBuilder(
+            final IntegrationRouteBuilder routes = newIntegrationRouteBuilder(
                 new Step.Builder()
                     .id("s1")
                     .stepKind(StepKind.endpoint)
@@ -117,6 +116,8 @@ public class OutMessageCaptureProcessorTest extends IntegrationTestSupport {
                     .build()
             );
 
+            routes.setCaptureAllOutMessages(true);
+
             // Set up the camel context
             context.addRoutes(routes);
             context.start();
@@ -148,7 +149,7 @@ public class OutMessageCaptureProcessorTest extends IntegrationTestSupport {
         final CamelContext context = new SpringCamelContext(applicationContext);
 
         try {
-            final RouteBuilder routes = newIntegrationRouteBuilder(
+            final IntegrationRouteBuilder routes = newIntegrationRouteBuilder(
                 new Step.Builder()
                     .id("s1")
                     .stepKind(StepKind.endpoint)
@@ -199,6 +200,8 @@ public class OutMessageCaptureProcessorTest extends IntegrationTestSupport {
                     .build()
             );
 
+            routes.setCaptureAllOutMessages(true);
+
             // Set up the camel context
             context.addRoutes(routes);
             context.start();
@@ -285,6 +288,7 @@ public class OutMessageCaptureProcessorTest extends IntegrationTestSupport {
                 .build();
 
             IntegrationRouteBuilder routes = newIntegrationRouteBuilder(integration);
+            routes.setCaptureAllOutMessages(true);
             routes.from("direct:getdata").bean(new Bean3());
 
             // Set up the camel context
@@ -28,6 +28,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import io.syndesis.integration.runtime.logging.ActivityTracker;
+import io.syndesis.integration.runtime.logging.AsyncActivityTracker;
 import io.syndesis.integration.runtime.logging.IntegrationLoggingListener;
 import io.syndesis.integration.runtime.sb.IntegrationRuntimeAutoConfiguration;
 
@@ -56,7 +57,7 @@ public class IntegrationLoggingEnabledTest {
     public void testContextConfiguration() {
         assertThat(applicationContext.getBeansOfType(CamelContextConfiguration.class)).hasSize(2);
         assertThat(applicationContext.getBeansOfType(ActivityTracker.class)).hasSize(1);
-        assertThat(applicationContext.getBeansOfType(ActivityTracker.class).values()).hasAtLeastOneElementOfType(ActivityTracker.SysOut.class);
+        assertThat(applicationContext.getBeansOfType(ActivityTracker.class).values()).hasAtLeastOneElementOfType(AsyncActivityTracker.class);
         assertThat(camelContext.getLogListeners()).hasAtLeastOneElementOfType(IntegrationLoggingListener.class);
         assertThat(camelContext.getUuidGenerator()).isNotInstanceOf(DefaultUuidGenerator.class);
     }
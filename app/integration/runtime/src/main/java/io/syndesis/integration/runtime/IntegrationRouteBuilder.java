@@ -43,7 +43,9 @@ import io.syndesis.common.util.Properties;
 import io.syndesis.common.util.KeyGenerator;
 import io.syndesis.common.util.Resources;
 import io.syndesis.common.util.json.JsonUtils;
+import io.syndesis.integration.runtime.capture.OutMessageCaptureDependencies;
 import io.syndesis.integration.runtime.capture.OutMessageCaptureProcessor;
+import io.syndesis.integration.runtime.capture.OutMessageReleaseProcessor;
 import io.syndesis.integration.runtime.logging.IntegrationLoggingConstants;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Processor;
@@ -76,7 +78,8 @@ public class IntegrationRouteBuilder extends RouteBuilder {
     private final List<IntegrationStepHandler> stepHandlerList;
     private final Set<String> resources;
     private final List<ActivityTrackingPolicyFactory> activityTrackingPolicyFactories;
-
+    private boolean captureAllOutMessages;
+    private OutMessageCaptureDependencies captureDependencies = OutMessageCaptureDependencies.all();
 
     public IntegrationRouteBuilder(String configurationUri) {
         this(configurationUri, Resources.loadServices(IntegrationStepHandler.class));
@@ -108,6 +111,14 @@ public class IntegrationRouteBuilder extends RouteBuilder {
         this.activityTrackingPolicyFactories = activityTrackingPolicyFactories;
     }
 
+    /**
+     * Captures the out messages of all steps instead of only the ones read by
+     * data mapper steps, for extensions that use the captured messages.
+     */
+    public void setCaptureAllOutMessages(boolean captureAllOutMessages) {
+        this.captureAllOutMessages = captureAllOutMessages;
+    }
+
     protected Integration loadIntegration() throws IOException {
         final Integration integration;
 
@@ -139,6 +150,8 @@ public class IntegrationRouteBuilder extends RouteBuilder {
         final Integration integration = loadIntegration();
         final List<Flow> flows = integration.getFlows();
 
+        captureDependencies = captureAllOutMessages ? OutMessageCaptureDependencies.all() : OutMessageCaptureDependencies.of(integration);
+
         for (int f = 0; f < flows.size(); f++) {
             configureFlow(flows.get(f), String.valueOf(f));
         }
@@ -261,10 +274,11 @@ public class IntegrationRouteBuilder extends RouteBuilder {
     }
 
     /**
-     * Adds out message capture message processor to save current message to memory for later usage.
+     * Adds out message capture message processor to save current message to memory for later usage, if a later
+     * step uses it. Releases the captured messages the step was the last one to use.
      */
     private ProcessorDefinition<?> captureOutMessage(final ProcessorDefinition<?> parent, String stepId) {
-        ProcessorDefinition<?> definition;
+        ProcessorDefinition<?> definition = parent;
         if (parent instanceof PipelineDefinition &&
                 ObjectHelper.isNotEmpty(parent.getOutputs())) {
             ProcessorDefinition<?> lastInPipeline = parent.getOutputs().get(parent.getOutputs().size() - 1);
@@ -277,11 +291,26 @@ public class IntegrationRouteBuilder extends RouteBuilder {
             definition = parent.setHeader(IntegrationLoggingConstants.STEP_ID, constant(stepId));
         }
 
-        definition = parent.process(OutMessageCaptureProcessor.INSTANCE)
-                        .id(String.format("capture-out:%s", stepId));
+        // a pipeline holding nothing but the step id header is not seen by activity tracking,
+        // so steps that did not add processors of their own are still captured
+        if (captureDependencies.isCaptured(stepId) || isStepIdHeaderOnly(parent)) {
+            definition = parent.process(OutMessageCaptureProcessor.INSTANCE)
+                            .id(String.format("capture-out:%s", stepId));
+        }
+
+        final List<String> released = captureDependencies.releasedAfter(stepId);
+        if (!released.isEmpty()) {
+            definition = parent.process(new OutMessageReleaseProcessor(released))
+                            .id(String.format("release-out:%s", stepId));
+        }
+
         return definition;
     }
 
+    private static boolean isStepIdHeaderOnly(ProcessorDefinition<?> definition) {
+        return definition instanceof PipelineDefinition && definition.getOutputs().size() == 1;
+    }
+
     private ProcessorDefinition<?> configureRouteDefinition(ProcessorDefinition<?> definition, Flow flow, String flowId, String stepId) {
         if (definition instanceof RouteDefinition) {
             final RouteDefinition rd = (RouteDefinition)definition;
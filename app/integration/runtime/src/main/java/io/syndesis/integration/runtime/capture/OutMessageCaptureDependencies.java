@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.capture;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.syndesis.common.model.integration.Flow;
+import io.syndesis.common.model.integration.Integration;
+import io.syndesis.common.model.integration.Step;
+import io.syndesis.common.model.integration.StepKind;
+import io.syndesis.common.util.json.JsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Determines from the data mapper steps of an integration which step out
+ * messages need to be captured by the {@link OutMessageCaptureProcessor} and
+ * when they can be released again.
+ * <p>
+ * Captured messages are read by data mappings with more than one source
+ * document, the source documents are looked up by step id in the captured
+ * messages map. A mapping with a single source document maps the current
+ * message, so it does not need any captures. If the mapping of a data mapper
+ * step cannot be read, all step out messages are captured.
+ * <p>
+ * A captured message is released after the last data mapper step that reads
+ * it, if that step is in the same flow and in the same split as the step
+ * producing the message. Exchanges created by a split share the captured
+ * messages map with the exchange that was split, so messages captured
+ * outside of a split are not released from within it.
+ */
+public final class OutMessageCaptureDependencies {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutMessageCaptureDependencies.class);
+
+    private static final OutMessageCaptureDependencies ALL = new OutMessageCaptureDependencies(true, Collections.emptySet(), Collections.emptyMap());
+
+    private final boolean captureAll;
+
+    private final Set<String> captured;
+
+    private final Map<String, List<String>> released;
+
+    private OutMessageCaptureDependencies(boolean captureAll, Set<String> captured, Map<String, List<String>> released) {
+        this.captureAll = captureAll;
+        this.captured = captured;
+        this.released = released;
+    }
+
+    /**
+     * Dependencies that capture the out messages of all steps and never
+     * release them.
+     */
+    public static OutMessageCaptureDependencies all() {
+        return ALL;
+    }
+
+    public static OutMessageCaptureDependencies of(Integration integration) {
+        final Map<String, Location> producers = new HashMap<>();
+        final Map<String, List<Location>> consumers = new HashMap<>();
+
+        final List<Flow> flows = integration.getFlows();
+        for (int f = 0; f < flows.size(); f++) {
+            final List<Step> steps = flows.get(f).getSteps();
+            final Deque<String> splits = new ArrayDeque<>();
+            splits.push(String.valueOf(f));
+
+            for (int s = 0; s < steps.size(); s++) {
+                final Step step = steps.get(s);
+                final String stepId = step.getId().orElse(null);
+
+                if (StepKind.aggregate == step.getStepKind() && splits.size() > 1) {
+                    splits.pop();
+                } else if (StepKind.split == step.getStepKind()) {
+                    splits.push(f + "-" + s);
+                }
+
+                final Location location = new Location(stepId, f, s, splits.peek());
+                if (stepId != null) {
+                    producers.put(stepId, location);
+                }
+
+                if (StepKind.mapper == step.getStepKind()) {
+                    final Optional<List<String>> sources = sourceIdsOf(step);
+                    if (!sources.isPresent()) {
+                        return ALL;
+                    }
+
+                    if (sources.get().size() > 1) {
+                        for (String sourceId : sources.get()) {
+                            consumers.computeIfAbsent(sourceId, id -> new ArrayList<>()).add(location);
+                        }
+                    }
+                }
+            }
+        }
+
+        final Map<String, List<String>> released = new HashMap<>();
+        for (Map.Entry<String, List<Location>> entry : consumers.entrySet()) {
+            final Location producer = producers.get(entry.getKey());
+            final List<Location> readers = entry.getValue();
+            final Location last = readers.get(readers.size() - 1);
+
+            if (producer != null && last.stepId != null && readers.stream().allMatch(reader -> reader.flow == producer.flow)
+                && last.position > producer.position && last.split.equals(producer.split)) {
+                released.computeIfAbsent(last.stepId, id -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        return new OutMessageCaptureDependencies(false, new HashSet<>(consumers.keySet()), released);
+    }
+
+    /**
+     * Whether the out message of the step with the given id needs to be
+     * captured.
+     */
+    public boolean isCaptured(String stepId) {
+        return captureAll || captured.contains(stepId);
+    }
+
+    /**
+     * Ids of the captured out messages that are no longer needed once the
+     * step with the given id has run.
+     */
+    public List<String> releasedAfter(String stepId) {
+        return released.getOrDefault(stepId, Collections.emptyList());
+    }
+
+    /**
+     * Reads the source document ids from the atlas mapping configured on the
+     * data mapper step, empty if the mapping cannot be read.
+     */
+    static Optional<List<String>> sourceIdsOf(Step step) {
+        final String mapping = step.getConfiguredProperties().get("atlasmapping");
+        if (mapping == null) {
+            return Optional.empty();
+        }
+
+        final List<String> ids = new ArrayList<>();
+        try {
+            final JsonNode tree = JsonUtils.reader().readTree(mapping);
+            final JsonNode dataSources = tree == null ? null : tree.path("AtlasMapping").path("dataSource");
+            if (dataSources == null || !dataSources.isArray()) {
+                return Optional.empty();
+            }
+
+            for (JsonNode dataSource : dataSources) {
+                if (!"SOURCE".equals(dataSource.path("dataSourceType").asText())) {
+                    continue;
+                }
+
+                final JsonNode id = dataSource.get("id");
+                if (id == null || !id.isTextual()) {
+                    return Optional.empty();
+                }
+
+                ids.add(id.asText());
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to read atlas mapping definition of step {}, capturing all out messages", step.getId().orElse(""), e);
+            return Optional.empty();
+        }
+
+        return Optional.of(ids);
+    }
+
+    private static final class Location {
+        final String stepId;
+
+        final int flow;
+
+        final int position;
+
+        final String split;
+
+        Location(String stepId, int flow, int position, String split) {
+            this.stepId = stepId;
+            this.flow = flow;
+            this.position = position;
+            this.split = split;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.capture;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+
+/**
+ * Removes out messages captured by the {@link OutMessageCaptureProcessor}
+ * that no later step reads, so they are not kept in memory for the remainder
+ * of the exchange.
+ */
+public class OutMessageReleaseProcessor implements Processor {
+    private final List<String> stepIds;
+
+    public OutMessageReleaseProcessor(List<String> stepIds) {
+        this.stepIds = stepIds;
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        @SuppressWarnings("unchecked")
+        final Map<String, Message> outMessagesMap = exchange.getProperty(OutMessageCaptureProcessor.CAPTURED_OUT_MESSAGES_MAP, Map.class);
+
+        if (outMessagesMap != null) {
+            for (String stepId : stepIds) {
+                outMessagesMap.remove(stepId);
+            }
+        }
+    }
+}
@@ -37,6 +37,8 @@ abstract class AbstractFilterStepHandler implements IntegrationStepHandler {
         final CamelContext context = builder.getContext();
         final Predicate predicate = new JsonSimplePredicate(expression, context);
         final FilterDefinition filter = route.filter(predicate);
+        // the body parsed by the predicate is not needed by the steps that follow
+        filter.removeProperty(JsonSimplePredicate.PARSED_BODY);
 
         return Optional.of(filter);
     }
@@ -64,6 +64,7 @@ public class ChoiceStepHandler implements IntegrationStepHandler {
             for (FlowOption flowOption : flows) {
                 choice.when(getPredicate(flowOption.getConditionExpression(), builder.getContext()))
                         .description(flowOption.getConditionExpression())
+                        .removeProperty(JsonSimplePredicate.PARSED_BODY)
                         .process(new EnrichActivityIdHeader())
                         .to(getEndpointUri(routingScheme, flowOption.getFlow()))
                         .end();
@@ -71,12 +72,19 @@ public class ChoiceStepHandler implements IntegrationStepHandler {
 
             if (ObjectHelper.isNotEmpty(defaultFlow)) {
                 choice.otherwise()
+                        .removeProperty(JsonSimplePredicate.PARSED_BODY)
                         .process(new EnrichActivityIdHeader())
                         .to(getEndpointUri(routingScheme, defaultFlow))
                         .end();
             }
 
             route = choice.end();
+
+            if (ObjectHelper.isEmpty(defaultFlow)) {
+                // no flow was picked, the body parsed by the conditions is
+                // not needed anymore
+                route = route.removeProperty(JsonSimplePredicate.PARSED_BODY);
+            }
         }
 
         return Optional.of(route);
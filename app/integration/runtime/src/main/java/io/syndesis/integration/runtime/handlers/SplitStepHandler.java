@@ -15,10 +15,12 @@
  */
 package io.syndesis.integration.runtime.handlers;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import io.syndesis.common.model.integration.Step;
@@ -27,17 +29,24 @@ import io.syndesis.common.util.SyndesisServerException;
 import io.syndesis.common.util.json.JsonUtils;
 import io.syndesis.integration.runtime.IntegrationRouteBuilder;
 import io.syndesis.integration.runtime.IntegrationStepHandler;
+import io.syndesis.integration.runtime.util.JsonArrayIterator;
 import org.apache.camel.Exchange;
 import org.apache.camel.Expression;
+import org.apache.camel.ThreadPoolRejectedPolicy;
 import org.apache.camel.TypeConverter;
 import org.apache.camel.builder.Builder;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
 import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.model.SplitDefinition;
 import org.apache.camel.spi.Language;
 import org.apache.camel.support.ExpressionAdapter;
 import org.apache.camel.util.ObjectHelper;
 
 public class SplitStepHandler implements IntegrationStepHandler {
 
+    // bytes looked at for the start of a JSON array when streaming
+    private static final int ARRAY_START_LOOKAHEAD = 8192;
+
     /* Types that need conversion to String in order to perform a split operation */
     private enum AutoConvertTypes {
         INPUT_STREAM(InputStream.class),
@@ -76,13 +85,18 @@ public class SplitStepHandler implements IntegrationStepHandler {
     public Optional<ProcessorDefinition<?>> handle(Step step, ProcessorDefinition<?> route, IntegrationRouteBuilder builder, String flowIndex, String stepIndex) {
         ObjectHelper.notNull(route, "route");
 
+        final boolean streaming = Boolean.parseBoolean(step.getConfiguredProperties().get("streaming"));
+        final int parallelism = Optional.ofNullable(step.getConfiguredProperties().get("parallelism"))
+            .map(Integer::parseInt)
+            .orElse(1);
+
         SplitExpression splitExpression;
         String languageName = step.getConfiguredProperties().get("language");
         String expressionDefinition = step.getConfiguredProperties().get("expression");
 
         if (step.hasUnifiedJsonSchemaOutputShape()) {
             // we have to split the nested unified body property by default.
-            splitExpression = new SplitExpression(new UnifiedJsonBodyExpression(Builder.body()));
+            splitExpression = new SplitExpression(new UnifiedJsonBodyExpression(Builder.body()), streaming);
         } else if (ObjectHelper.isNotEmpty(expressionDefinition)) {
             if (ObjectHelper.isEmpty(languageName)) {
                 languageName = "simple";
@@ -96,18 +110,36 @@ public class SplitStepHandler implements IntegrationStepHandler {
             }
 
             final Language language = builder.getContext().resolveLanguage(languageName);
-            splitExpression = new SplitExpression(language.createExpression(expressionDefinition));
+            splitExpression = new SplitExpression(language.createExpression(expressionDefinition), streaming);
         } else {
-            splitExpression = new SplitExpression(Builder.body());
+            splitExpression = new SplitExpression(Builder.body(), streaming);
         }
 
         AggregateStepHandler.AggregationOption aggregation = Optional.ofNullable(step.getConfiguredProperties().get("aggregationStrategy"))
                 .map(AggregateStepHandler.AggregationOption::valueOf)
                 .orElse(AggregateStepHandler.AggregationOption.body);
 
-        route = route.split(splitExpression).aggregationStrategy(aggregation.getStrategy(step.getConfiguredProperties()));
+        final SplitDefinition split = route.split(splitExpression).aggregationStrategy(aggregation.getStrategy(step.getConfiguredProperties()));
+
+        if (streaming) {
+            split.streaming();
+        }
+
+        if (parallelism > 1) {
+            // bounded queue and caller runs policy so that a streaming split
+            // does not read ahead more elements than can be processed
+            final ExecutorService executor = builder.getContext().getExecutorServiceManager().newThreadPool(split, "Split-" + flowIndex + "-" + stepIndex,
+                new ThreadPoolProfileBuilder("split")
+                    .poolSize(parallelism)
+                    .maxPoolSize(parallelism)
+                    .maxQueueSize(parallelism)
+                    .rejectedPolicy(ThreadPoolRejectedPolicy.CallerRuns)
+                    .build());
+
+            split.parallelProcessing().executorService(executor);
+        }
 
-        return Optional.of(route);
+        return Optional.of(split);
     }
 
     /**
@@ -117,33 +149,90 @@ public class SplitStepHandler implements IntegrationStepHandler {
      * default this is a simple body expression.
      * When delegate expression evaluates to something else that a Json array or list of Json beans nothing is performed on top of
      * the delegate expression.
+     * When streaming, Json arrays are split while being parsed instead of being read into memory as a whole.
      */
     private static class SplitExpression extends ExpressionAdapter {
         private final Expression delegate;
+        private final boolean streaming;
 
-        SplitExpression(Expression delegate) {
+        SplitExpression(Expression delegate, boolean streaming) {
             this.delegate = delegate;
+            this.streaming = streaming;
         }
 
         @Override
         public Object evaluate(Exchange exchange) {
             try {
-                Object value = convert(delegate.evaluate(exchange, Object.class), exchange);
-
-                if (value instanceof String && JsonUtils.isJson(value.toString())) {
-                    JsonNode json = JsonUtils.reader().readTree(value.toString());
-                    if (json.isArray()) {
-                        return JsonUtils.arrayToJsonBeans(json);
-                    }
+                if (streaming) {
+                    return stream(delegate.evaluate(exchange, Object.class), exchange);
                 }
 
-                return value;
+                return splitJsonArray(convert(delegate.evaluate(exchange, Object.class), exchange));
             } catch (IOException e) {
                 throw SyndesisServerException.launderThrowable(e);
             }
         }
     }
 
+    /**
+     * Converts a Json array String representation to the list of its elements, returns any other value as is.
+     */
+    private static Object splitJsonArray(Object value) throws IOException {
+        if (value instanceof String && JsonUtils.isJson(value.toString())) {
+            JsonNode json = JsonUtils.reader().readTree(value.toString());
+            if (json.isArray()) {
+                return JsonUtils.arrayToJsonBeans(json);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Streams Json arrays, be it a String or any of the auto converted types, to the splitter element by element.
+     * Any other value is handled like when not streaming.
+     */
+    private static Object stream(Object value, Exchange exchange) throws IOException {
+        if (value instanceof String) {
+            return JsonUtils.isJsonArray((String) value) ? JsonArrayIterator.of((String) value) : value;
+        }
+
+        if (Arrays.stream(AutoConvertTypes.values()).noneMatch(type -> type.isInstance(value))) {
+            return value;
+        }
+
+        final InputStream stream = exchange.getContext().getTypeConverter().tryConvertTo(InputStream.class, exchange, value);
+        if (stream == null) {
+            return splitJsonArray(convert(value, exchange));
+        }
+
+        final BufferedInputStream buffered = new BufferedInputStream(stream, ARRAY_START_LOOKAHEAD);
+        if (startsWithArray(buffered)) {
+            return JsonArrayIterator.of(buffered);
+        }
+
+        return splitJsonArray(convert(buffered, exchange));
+    }
+
+    /**
+     * Checks if the first non whitespace character is the start of a Json array, the stream is reset to its start.
+     */
+    private static boolean startsWithArray(BufferedInputStream stream) throws IOException {
+        stream.mark(ARRAY_START_LOOKAHEAD);
+        try {
+            for (int i = 0; i < ARRAY_START_LOOKAHEAD; i++) {
+                final int ch = stream.read();
+                if (ch != ' ' && ch != '\t' && ch != '\r' && ch != '\n') {
+                    return ch == '[';
+                }
+            }
+
+            return false;
+        } finally {
+            stream.reset();
+        }
+    }
+
     /**
      * Expression extracts body property from unified Json schema typed input. The unified Json holds the actual body in
      * a nested property. This property is extracted and set as expression result so follow up expressions can operate on the body.
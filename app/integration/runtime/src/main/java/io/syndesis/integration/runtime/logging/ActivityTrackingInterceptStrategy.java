@@ -87,7 +87,7 @@ public class ActivityTrackingInterceptStrategy implements InterceptStrategy {
                 tracker.track(
                     "exchange", activityId,
                     "step", stepId,
-                    "id", KeyGenerator.createKey(),
+                    "id", KeyGenerator.createThreadLocalKey(),
                     "duration", 0L,
                     "failure", null
                 );
@@ -110,7 +110,7 @@ public class ActivityTrackingInterceptStrategy implements InterceptStrategy {
 
         @Override
         public boolean process(final Exchange exchange, final AsyncCallback callback) {
-            final String trackerId = KeyGenerator.createKey();
+            final String trackerId = KeyGenerator.createThreadLocalKey();
             final long createdAt = System.nanoTime();
             final Message in = exchange.getIn();
             in.setHeader(IntegrationLoggingConstants.STEP_TRACKER_ID, trackerId);
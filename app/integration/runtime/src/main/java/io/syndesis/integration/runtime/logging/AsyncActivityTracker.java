@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.syndesis.integration.runtime.util.JsonSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.syndesis.common.util.thread.Threads.newThreadFactory;
+
+/**
+ * Activity tracker that writes the activity events on STDOUT, in the same
+ * format as {@link ActivityTracker.SysOut}, from a single background thread.
+ * <p>
+ * Tracking only copies the event fields into a slot of a preallocated ring
+ * buffer, the background thread serializes each event with one reused
+ * {@link JsonGenerator} into a reused buffer and writes the complete line,
+ * with its line separator, in a single write so that it is not interleaved
+ * with other output, like the logs, on the same stream. The output is flushed
+ * when the writer has caught up. Events are dropped when the ring buffer is
+ * full, tracking never blocks the integration.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class AsyncActivityTracker implements ActivityTracker, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncActivityTracker.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    // the step events, the largest ones tracked, have 10 fields
+    private static final int SLOT_FIELDS = 12;
+
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final Slot[] ring;
+    private final int mask;
+    private final OutputStream out;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+    private final Thread writer;
+
+    private JsonGenerator generator;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile long consumed;
+    private volatile boolean closed;
+
+    private static final class Slot {
+        final Object[] fields = new Object[SLOT_FIELDS];
+
+        // events with more fields than fit the slot are kept as they are
+        Object[] overflow;
+
+        volatile long sequence = -1;
+    }
+
+    public AsyncActivityTracker(OutputStream out, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size needs to be positive");
+        }
+
+        final int size = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        ring = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+        }
+        mask = size - 1;
+
+        this.out = out;
+        generator = newGenerator(line);
+
+        writer = newThreadFactory("Activity Tracker").newThread(this::run);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void track(Object... fields) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (closed || sequence - consumed >= ring.length) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        final Slot slot = ring[(int) sequence & mask];
+        if (fields.length > SLOT_FIELDS) {
+            slot.overflow = fields;
+        } else {
+            System.arraycopy(fields, 0, slot.fields, 0, fields.length);
+        }
+
+        // publishes the event to the writer thread
+        slot.sequence = sequence;
+    }
+
+    /**
+     * Writes the events still buffered and stops the background thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Number of events buffered for writing.
+     */
+    public long getTracked() {
+        return claimed.get();
+    }
+
+    /**
+     * Number of events dropped because the buffer was full, the tracker was
+     * closed or the events could not be written.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void run() {
+        long next = 0;
+        boolean pending = false;
+
+        while (true) {
+            final Slot slot = ring[(int) next & mask];
+            if (slot.sequence == next) {
+                final boolean rendered = render(slot);
+                // the slot can be reused while the line is written
+                consumed = ++next;
+                if (rendered) {
+                    write();
+                }
+                pending = true;
+                continue;
+            }
+
+            if (pending) {
+                flush();
+                pending = false;
+            }
+
+            if (closed && claimed.get() == next) {
+                return;
+            }
+
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    private boolean render(Slot slot) {
+        line.reset();
+        try {
+            JsonSupport.writeJsonObject(generator, slot.overflow != null ? slot.overflow : slot.fields);
+            generator.flush();
+            line.write(LINE_SEPARATOR);
+
+            return true;
+        } catch (IOException | RuntimeException e) {
+            dropped.incrementAndGet();
+            LOG.warn("Unable to write activity tracking event: {}", e.getMessage());
+            LOG.debug("Unable to write activity tracking event", e);
+
+            // the generator might be left in the middle of an object
+            generator = newGenerator(line);
+
+            return false;
+        } finally {
+            slot.overflow = null;
+            Arrays.fill(slot.fields, null);
+        }
+    }
+
+    private void write() {
+        try {
+            // the whole line at once
+            line.writeTo(out);
+        } catch (IOException e) {
+            dropped.incrementAndGet();
+            LOG.warn("Unable to write activity tracking event: {}", e.getMessage());
+            LOG.debug("Unable to write activity tracking event", e);
+        }
+    }
+
+    private static JsonGenerator newGenerator(OutputStream out) {
+        try {
+            final JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null);
+
+            return generator;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            LOG.warn("Unable to write activity tracking events: {}", e.getMessage());
+            LOG.debug("Unable to write activity tracking events", e);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.syndesis.integration.runtime.util.JsonSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.syndesis.common.util.thread.Threads.newThreadFactory;
+
+/**
+ * Activity tracker that ships the activity events to the server in batches,
+ * instead of printing them on STDOUT for the server to scrape them from the
+ * pod log.
+ * <p>
+ * Tracking only timestamps the event and queues it, a single background
+ * thread formats the queued events in the same format as the pod log lines,
+ * {@code <timestamp> <json>}, one per line, compresses them with gzip and
+ * hands the batch over to the {@link Transport}. Events are dropped when the
+ * queue is full or the batch could not be sent, tracking never slows down
+ * the integration.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class BatchingActivityTracker implements ActivityTracker, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchingActivityTracker.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // same format as the timestamps Kubernetes prefixes pod log lines with
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSSSSS'Z'")
+        .withZone(ZoneOffset.UTC);
+
+    private final Transport transport;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Clock clock;
+    private final BlockingQueue<Event> queue;
+    private final Thread sender;
+
+    private final AtomicLong tracked = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Sends a batch of gzip compressed, new line delimited, activity events.
+     */
+    @FunctionalInterface
+    public interface Transport {
+        void send(byte[] batch) throws IOException;
+    }
+
+    private static final class Event {
+        final long time;
+        final Object[] fields;
+
+        Event(long time, Object[] fields) {
+            this.time = time;
+            this.fields = fields;
+        }
+    }
+
+    public BatchingActivityTracker(Transport transport, int batchSize, long flushIntervalMillis, int queueSize) {
+        this(transport, batchSize, flushIntervalMillis, queueSize, Clock.systemUTC());
+    }
+
+    BatchingActivityTracker(Transport transport, int batchSize, long flushIntervalMillis, int queueSize, Clock clock) {
+        if (batchSize <= 0 || flushIntervalMillis <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("Batch size, flush interval and queue size need to be positive");
+        }
+
+        this.transport = transport;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+
+        sender = newThreadFactory("Activity Tracker").newThread(this::run);
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Transport that POSTs the batches to the given URL, the server endpoint
+     * identifies the integration by the pod name in the URL and authenticates
+     * it by the bearer token issued to the integration.
+     */
+    public static Transport http(URL endpoint, String token, int timeoutMillis) {
+        return batch -> {
+            final HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setFixedLengthStreamingMode(batch.length);
+            connection.setRequestProperty("Content-Type", "application/x-ndjson");
+            connection.setRequestProperty("Content-Encoding", "gzip");
+            if (token != null) {
+                connection.setRequestProperty("Authorization", "Bearer " + token);
+            }
+
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(batch);
+            }
+
+            final int status = connection.getResponseCode();
+            if (status / 100 != 2) {
+                connection.disconnect();
+                throw new IOException("Activity tracking endpoint " + endpoint + " responded with status: " + status);
+            }
+
+            try (InputStream is = connection.getInputStream()) {
+                // drain the response so that the connection can be kept alive
+                while (is.read() >= 0) {
+                    // nothing to do
+                }
+            }
+        };
+    }
+
+    @Override
+    public void track(Object... fields) {
+        if (closed || !queue.offer(new Event(clock.millis(), fields))) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        tracked.incrementAndGet();
+    }
+
+    /**
+     * Sends the events still queued and stops the background thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        try {
+            sender.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) * 2 + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Number of events queued for sending.
+     */
+    public long getTracked() {
+        return tracked.get();
+    }
+
+    /**
+     * Number of events dropped because the queue was full, the tracker was
+     * closed or the batch containing them could not be sent.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Number of batches sent.
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * Number of compressed bytes sent.
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Total time spent formatting, compressing and sending batches.
+     */
+    public long getSendNanos() {
+        return sendNanos.get();
+    }
+
+    private void run() {
+        final List<Event> batch = new ArrayList<>(batchSize);
+
+        try {
+            while (!closed || !queue.isEmpty()) {
+                final Event first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                // linger for the flush interval to fill up the batch
+                batch.add(first);
+                final long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    final long remaining = closed ? 0 : deadline - System.nanoTime();
+                    final Event next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                send(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("Activity tracking interrupted, dropping {} events", queue.size() + batch.size());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(List<Event> batch) {
+        final long start = System.nanoTime();
+        try {
+            final byte[] data = encode(batch);
+            transport.send(data);
+            batches.incrementAndGet();
+            bytes.addAndGet(data.length);
+        } catch (IOException | RuntimeException e) {
+            dropped.addAndGet(batch.size());
+            LOG.warn("Unable to send {} activity tracking events: {}", batch.size(), e.getMessage());
+            LOG.debug("Unable to send activity tracking events", e);
+        } finally {
+            sendNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private static byte[] encode(List<Event> batch) throws IOException {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+        try (JsonGenerator jg = JSON_FACTORY.createGenerator(new GZIPOutputStream(data), JsonEncoding.UTF8)) {
+            jg.setRootValueSeparator(null);
+
+            for (Event event : batch) {
+                jg.writeRaw(TIMESTAMP.format(Instant.ofEpochMilli(event.time)));
+                jg.writeRaw(' ');
+                JsonSupport.writeJsonObject(jg, event.fields);
+                jg.writeRaw('\n');
+            }
+        }
+
+        return data.toByteArray();
+    }
+}
@@ -43,7 +43,7 @@ public class IntegrationLoggingListener implements LogListener {
             final Message in = exchange.getIn();
             String stepTrackerId = in.getHeader(IntegrationLoggingConstants.STEP_TRACKER_ID, String.class);
             if( stepTrackerId == null ) {
-                stepTrackerId = KeyGenerator.createKey();
+                stepTrackerId = KeyGenerator.createThreadLocalKey();
             }
 
             tracker.track(
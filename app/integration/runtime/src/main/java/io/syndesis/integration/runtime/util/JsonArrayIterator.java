@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.syndesis.common.util.SyndesisServerException;
+import io.syndesis.common.util.json.JsonUtils;
+
+/**
+ * Iterates over the elements of a JSON array while parsing it, each element
+ * is returned as JSON string. Only the element being returned is held in
+ * memory, so arrays that do not fit in memory can be split. Camel's splitter
+ * closes the iterator once done, the iterator also closes the source once
+ * the end of the array is reached.
+ */
+public final class JsonArrayIterator implements Iterator<String>, Closeable {
+
+    private final JsonParser parser;
+
+    private final Closeable source;
+
+    private final StringWriter element = new StringWriter();
+
+    private final JsonGenerator generator;
+
+    private JsonToken next;
+
+    private boolean closed;
+
+    private JsonArrayIterator(JsonParser parser, Closeable source) throws IOException {
+        this.parser = parser;
+        this.source = source;
+
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            close();
+            throw new IOException("Expected JSON array, found: " + parser.getCurrentToken());
+        }
+
+        generator = JsonUtils.reader().getFactory().createGenerator(element);
+        generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Iterates over the elements of the JSON array read from the given
+     * stream, which needs to start with the array.
+     */
+    public static JsonArrayIterator of(InputStream stream) throws IOException {
+        return new JsonArrayIterator(JsonUtils.reader().getFactory().createParser(stream), stream);
+    }
+
+    /**
+     * Iterates over the elements of the given JSON array.
+     */
+    public static JsonArrayIterator of(String json) throws IOException {
+        return new JsonArrayIterator(JsonUtils.reader().getFactory().createParser(json), null);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+
+        if (next == null) {
+            try {
+                next = parser.nextToken();
+            } catch (IOException e) {
+                closeQuietly();
+                throw SyndesisServerException.launderThrowable(e);
+            }
+        }
+
+        if (next == null || next == JsonToken.END_ARRAY) {
+            closeQuietly();
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            element.getBuffer().setLength(0);
+            generator.copyCurrentStructure(parser);
+            generator.flush();
+            next = null;
+
+            return element.toString();
+        } catch (IOException e) {
+            closeQuietly();
+            throw SyndesisServerException.launderThrowable(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            parser.close();
+        } finally {
+            if (source != null) {
+                source.close();
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // nothing more to read from the source
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A simple language expression of the form {@code ${body.a.b[0]} op literal}
+ * compiled to a lookup on the JSON tree, so that it can be evaluated without
+ * converting the JSON to maps and lists and going through OGNL.
+ * <p>
+ * Only the comparisons that have the same outcome as the simple language
+ * type coercion are evaluated: strings compared for (in)equality with quoted
+ * literals, numbers with numeric literals and booleans with {@code true} or
+ * {@code false}. For anything else, including missing properties,
+ * {@link #test(JsonNode)} returns {@code null} and the expression needs to
+ * be evaluated by the simple language.
+ */
+final class JsonPathComparison {
+
+    private static final Pattern EXPRESSION = Pattern.compile(
+        "\\s*\\$\\{body((?:\\.[A-Za-z_][A-Za-z0-9_]*|\\[\\d+\\])+)\\}\\s*(==|!=|>=|<=|>|<)\\s*('[^']*'|\"[^\"]*\"|-?\\d+(?:\\.\\d+)?|true|false)\\s*");
+
+    private static final Pattern SEGMENT = Pattern.compile("\\.([A-Za-z_][A-Za-z0-9_]*)|\\[(\\d+)\\]");
+
+    private enum Operator {
+        EQ, NE, GT, GE, LT, LE;
+
+        static Operator of(String op) {
+            switch (op) {
+            case "==":
+                return EQ;
+            case "!=":
+                return NE;
+            case ">":
+                return GT;
+            case ">=":
+                return GE;
+            case "<":
+                return LT;
+            default:
+                return LE;
+            }
+        }
+
+        boolean isEquality() {
+            return this == EQ || this == NE;
+        }
+
+        boolean test(int comparison) {
+            switch (this) {
+            case EQ:
+                return comparison == 0;
+            case NE:
+                return comparison != 0;
+            case GT:
+                return comparison > 0;
+            case GE:
+                return comparison >= 0;
+            case LT:
+                return comparison < 0;
+            default:
+                return comparison <= 0;
+            }
+        }
+    }
+
+    // property names, or Integer array indexes
+    private final Object[] path;
+
+    private final Operator operator;
+
+    private final String text;
+
+    private final Boolean bool;
+
+    private final Long integral;
+
+    private final Double decimal;
+
+    private JsonPathComparison(Object[] path, Operator operator, String literal) {
+        this.path = path;
+        this.operator = operator;
+
+        if (literal.charAt(0) == '\'' || literal.charAt(0) == '"') {
+            text = literal.substring(1, literal.length() - 1);
+            bool = null;
+            integral = null;
+            decimal = null;
+        } else if ("true".equals(literal) || "false".equals(literal)) {
+            text = null;
+            bool = Boolean.valueOf(literal);
+            integral = null;
+            decimal = null;
+        } else {
+            text = null;
+            bool = null;
+            integral = literal.indexOf('.') < 0 ? Long.valueOf(literal) : null;
+            decimal = Double.valueOf(literal);
+        }
+    }
+
+    /**
+     * Returns the compiled expression, or {@code null} if the expression is
+     * not a single comparison of a body property with a literal.
+     */
+    static JsonPathComparison compile(String expression) {
+        final Matcher matcher = EXPRESSION.matcher(expression);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        final List<Object> path = new ArrayList<>();
+        final Matcher segment = SEGMENT.matcher(matcher.group(1));
+        while (segment.find()) {
+            if (segment.group(1) != null) {
+                path.add(segment.group(1));
+            } else {
+                try {
+                    path.add(Integer.valueOf(segment.group(2)));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+
+        try {
+            return new JsonPathComparison(path.toArray(), Operator.of(matcher.group(2)), matcher.group(3));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Evaluates the comparison on the given JSON, returns {@code null} if it
+     * cannot be evaluated on the JSON tree.
+     */
+    Boolean test(JsonNode json) {
+        JsonNode node = json;
+        for (Object segment : path) {
+            if (segment instanceof Integer) {
+                node = node.isArray() ? node.get((Integer) segment) : null;
+            } else {
+                node = node.isObject() ? node.get((String) segment) : null;
+            }
+
+            if (node == null) {
+                return null;
+            }
+        }
+
+        if (text != null) {
+            return node.isTextual() && operator.isEquality() ? operator.test(node.textValue().equals(text) ? 0 : 1) : null;
+        }
+
+        if (bool != null) {
+            return node.isBoolean() && operator.isEquality() ? operator.test(node.booleanValue() == bool ? 0 : 1) : null;
+        }
+
+        if (node.isIntegralNumber() && node.canConvertToLong() && integral != null) {
+            return operator.test(Long.compare(node.longValue(), integral));
+        }
+
+        if (node.isFloatingPointNumber()) {
+            return operator.test(Double.compare(node.doubleValue(), decimal));
+        }
+
+        return null;
+    }
+}
@@ -47,8 +47,19 @@ import org.slf4j.LoggerFactory;
 /**
  * Predicate which tries to convert a JSON message to a map first before
  * applying
+ * <p>
+ * The parsed JSON is kept in an exchange property for as long as the message
+ * body stays the same, so that several predicates, for instance the branches
+ * of a choice, parse the body only once. The filter and choice steps remove
+ * that property once their predicates ran. Simple comparisons of a body
+ * property with a literal are evaluated directly on the JSON tree.
  */
 public final class JsonSimplePredicate implements Predicate {
+    /**
+     * Exchange property holding the parsed JSON of the message body.
+     */
+    public static final String PARSED_BODY = "Syndesis.JSON_SIMPLE_PREDICATE_BODY";
+
     private static final Pattern SIMPLE_EXPRESSION = Pattern.compile("\\$\\{([^}]+)\\}");
 
     private static final Logger LOG = LoggerFactory.getLogger(JsonSimplePredicate.class);
@@ -61,12 +72,22 @@ public final class JsonSimplePredicate implements Predicate {
 
     private final Predicate predicate;
 
+    private final JsonPathComparison comparison;
+
+    private final boolean usesBody;
+
     public JsonSimplePredicate(final String expression, final CamelContext context) {
+        this(expression, context, true);
+    }
+
+    JsonSimplePredicate(final String expression, final CamelContext context, final boolean compile) {
         final Language language = ObjectHelper.notNull(context.resolveLanguage("simple"), "simple language");
         final String ognlExpression = convertSimpleToOGNLForMaps(expression);
 
         predicate = language.createPredicate(expression);
         ognlPredicate = language.createPredicate(ognlExpression);
+        comparison = compile ? JsonPathComparison.compile(expression) : null;
+        usesBody = expression.contains("body");
 
         final Registry registry = context.getRegistry();
         final Set<ObjectMapper> mappers = registry.findByType(ObjectMapper.class);
@@ -78,8 +99,40 @@ public final class JsonSimplePredicate implements Predicate {
         }
     }
 
+    /**
+     * The JSON parsed from a message body, {@code json} is {@code null} when
+     * the body is not a JSON object or array.
+     */
+    private static final class ParsedBody {
+        final Object body;
+        final JsonNode json;
+        Object converted;
+
+        ParsedBody(Object body, JsonNode json) {
+            this.body = body;
+            this.json = json;
+        }
+    }
+
     @Override
     public boolean matches(final Exchange exchange) {
+        if (!usesBody) {
+            // the outcome does not depend on the message body format
+            return predicate.matches(exchange);
+        }
+
+        final ParsedBody parsed = parse(exchange);
+        if (parsed.json == null) {
+            return predicate.matches(exchange);
+        }
+
+        if (comparison != null) {
+            final Boolean result = comparison.test(parsed.json);
+            if (result != null) {
+                return result;
+            }
+        }
+
         // Clone the exchange and set the JSON message converted to a Map /
         // List as in message.
         // The intention is that only this predicate acts on the converted
@@ -90,62 +143,118 @@ public final class JsonSimplePredicate implements Predicate {
         final Exchange exchangeForProcessing = ExchangeHelper.createCopy(exchange, true);
         final Message payload = exchangeForProcessing.getIn();
 
-        if (payload.getBody() instanceof List) {
-            List<?> jsonBeans = payload.getBody(List.class);
-            payload.setBody("[" + jsonBeans.stream().map(Object::toString).collect(Collectors.joining(",")) + "]");
+        if (parsed.json.isArray()) {
+            if (parsed.converted == null) {
+                parsed.converted = mapper.convertValue(parsed.json, List.class);
+            }
+            payload.setBody(parsed.converted);
+            try {
+                return ognlPredicate.matches(exchangeForProcessing);
+            } catch (RuntimeBeanExpressionException e) {
+                if (Optional.ofNullable(e.getCause())
+                            .map(Object::getClass)
+                            .map(IndexOutOfBoundsException.class::equals)
+                            .orElse(false)) {
+                    LOG.debug("Try to match array item out of bounds");
+                    // we do not need to dump on the logs so log it at trace level.
+                    LOG.trace("Try to match array item out of bounds ", e);
+                    return false;
+                }
+
+                throw e;
+            }
         }
 
-        try (InputStream stream = payload.getBody(InputStream.class)) {
-            if (stream == null) {
-                return predicate.matches(exchange);
+        if (parsed.converted == null) {
+            parsed.converted = mapper.convertValue(parsed.json, Map.class);
+        }
+        payload.setBody(parsed.converted);
+        return ognlPredicate.matches(exchangeForProcessing);
+    }
+
+    private ParsedBody parse(final Exchange exchange) {
+        final Message in = exchange.getIn();
+        final Object body = in.getBody();
+
+        final ParsedBody cached = exchange.getProperty(PARSED_BODY, ParsedBody.class);
+        if (cached != null && cached.body == body && body != null) {
+            return cached;
+        }
+
+        final ParsedBody parsed = parse(exchange, body);
+
+        // only immutable bodies, or the stream we have buffered, are known
+        // not to change without being replaced
+        if (parsed.body instanceof String || parsed.body instanceof ResetAfterCloseInputStream) {
+            exchange.setProperty(PARSED_BODY, parsed);
+        } else if (cached != null) {
+            exchange.removeProperty(PARSED_BODY);
+        }
+
+        return parsed;
+    }
+
+    private ParsedBody parse(final Exchange exchange, final Object body) {
+        final Message in = exchange.getIn();
+
+        Object source = body;
+        if (body instanceof List) {
+            List<?> jsonBeans = (List<?>) body;
+            source = "[" + jsonBeans.stream().map(Object::toString).collect(Collectors.joining(",")) + "]";
+        }
+
+        try {
+            if (source instanceof String) {
+                return new ParsedBody(body, jsonStructure(mapper.readTree((String) source)));
             }
 
-            ResetAfterCloseInputStream resetAfterCloseInputStream = new ResetAfterCloseInputStream(stream);
-            if (exchange.getIn().getBody() instanceof InputStream) {
-                exchange.getIn().setBody(resetAfterCloseInputStream);
+            final InputStream stream = body == source ? in.getBody(InputStream.class) : exchange.getContext().getTypeConverter().convertTo(InputStream.class, exchange, source);
+            if (stream == null) {
+                return new ParsedBody(body, null);
             }
 
-            // If it is a JSON document, suppose that this is a document which
-            // needs to be parsed as JSON, therefore we set a map instead of the
-            // string
-            final JsonNode json = mapper.readTree(resetAfterCloseInputStream);
-
-            if (json != null) {
-                if (json.isArray()) {
-                    payload.setBody(mapper.convertValue(json, List.class));
-                    try {
-                        return ognlPredicate.matches(exchangeForProcessing);
-                    } catch (RuntimeBeanExpressionException e) {
-                        if (Optional.ofNullable(e.getCause())
-                                    .map(Object::getClass)
-                                    .map(IndexOutOfBoundsException.class::equals)
-                                    .orElse(false)) {
-                            LOG.debug("Try to match array item out of bounds");
-                            // we do not need to dump on the logs so log it at trace level.
-                            LOG.trace("Try to match array item out of bounds ", e);
-                            return false;
-                        }
-
-                        throw e;
-                    }
-                } else if (json.isObject()) {
-                    payload.setBody(mapper.convertValue(json, Map.class));
-                    return ognlPredicate.matches(exchangeForProcessing);
+            Object key = body;
+            try (ResetAfterCloseInputStream resetAfterCloseInputStream = new ResetAfterCloseInputStream(stream)) {
+                if (body instanceof InputStream) {
+                    in.setBody(resetAfterCloseInputStream);
+                    key = resetAfterCloseInputStream;
                 }
+
+                // If it is a JSON document, suppose that this is a document which
+                // needs to be parsed as JSON, therefore we set a map instead of the
+                // string
+                return new ParsedBody(key, jsonStructure(mapper.readTree(resetAfterCloseInputStream)));
+            } catch (final IOException e) {
+                return notJson(key, e);
+            } finally {
+                stream.close();
             }
-        } catch (final JsonParseException e) {
+        } catch (final IOException e) {
+            return notJson(body, e);
+        }
+    }
+
+    private static ParsedBody notJson(Object body, IOException e) {
+        if (e instanceof JsonParseException) {
             LOG.debug("Incoming message is not a json, try to match using simple language");
             // in case the body is not convertible to a map, the json converter
             // may throw an exception we do not need to dump on the logs so log
             // it at trace level.
             LOG.trace("Unable to parse incoming message body as JSON ", e);
-        } catch (final IOException e) {
+        } else {
             LOG.warn("Unable to apply simple filter to the given payload");
             LOG.debug("Unable to parse incoming message body as JSON needed for simple filtering", e);
         }
 
-        // if above fails
-        return predicate.matches(exchange);
+        return new ParsedBody(body, null);
+    }
+
+    private static JsonNode jsonStructure(JsonNode json) {
+        if (json != null && (json.isArray() || json.isObject())) {
+            return json;
+        }
+
+        return null;
     }
 
     static String convertSimpleToOGNLForMaps(final String simple) {
@@ -26,30 +26,17 @@ import java.io.StringWriter;
  */
 public final class JsonSupport {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private JsonSupport(){
     }
 
     public static String toJsonObject(Object... fields) {
         try {
             StringWriter w = new StringWriter();
-            JsonGenerator jg = new JsonFactory().createGenerator(w);
-
-            jg.writeStartObject();
-            for (int i = 0; i + 1 < fields.length; i += 2) {
-                Object key = fields[i];
-                Object value = fields[i+1];
-                if (key != null && value != null) {
-                    jg.writeFieldName(key.toString());
-                    if (value instanceof Boolean ) {
-                        jg.writeBoolean((Boolean) value);
-                    } else if (value instanceof Number ) {
-                        jg.writeNumber(((Number) value).longValue());
-                    } else {
-                        jg.writeString(value.toString());
-                    }
-                }
-            }
-            jg.writeEndObject();
+            JsonGenerator jg = JSON_FACTORY.createGenerator(w);
+
+            writeJsonObject(jg, fields);
 
             jg.close();
             return w.toString();
@@ -58,4 +45,27 @@ public final class JsonSupport {
         }
     }
 
+    /**
+     * Writes the key/value pairs as a json object to the given generator,
+     * pairs with a {@code null} key or value are skipped.
+     */
+    public static void writeJsonObject(JsonGenerator jg, Object... fields) throws java.io.IOException {
+        jg.writeStartObject();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            Object key = fields[i];
+            Object value = fields[i+1];
+            if (key != null && value != null) {
+                jg.writeFieldName(key.toString());
+                if (value instanceof Boolean ) {
+                    jg.writeBoolean((Boolean) value);
+                } else if (value instanceof Number ) {
+                    jg.writeNumber(((Number) value).longValue());
+                } else {
+                    jg.writeString(value.toString());
+                }
+            }
+        }
+        jg.writeEndObject();
+    }
+
 }
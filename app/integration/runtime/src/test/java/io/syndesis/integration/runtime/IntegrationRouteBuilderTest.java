@@ -29,7 +29,6 @@ import org.apache.camel.impl.DefaultCamelContext;
 import org.apache.camel.model.ChoiceDefinition;
 import org.apache.camel.model.LogDefinition;
 import org.apache.camel.model.PipelineDefinition;
-import org.apache.camel.model.ProcessDefinition;
 import org.apache.camel.model.RouteDefinition;
 import org.apache.camel.model.RoutesDefinition;
 import org.apache.camel.model.SetHeaderDefinition;
@@ -76,15 +75,13 @@ public class IntegrationRouteBuilderTest {
         assertThat(getOutput(route, 0).getOutputs().get(0)).isInstanceOf(SetHeaderDefinition.class);
         assertThat(getOutput(route, 0).getOutputs().get(1)).isInstanceOf(SetHeaderDefinition.class);
         assertThat(getOutput(route, 1)).isInstanceOf(SplitDefinition.class);
-        assertThat(getOutput(route, 1).getOutputs()).hasSize(3);
+        assertThat(getOutput(route, 1).getOutputs()).hasSize(2);
         assertThat(getOutput(route, 1, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 1, 1)).isInstanceOf(ProcessDefinition.class);
-        assertThat(getOutput(route, 1, 2)).isInstanceOf(PipelineDefinition.class);
-        assertThat(getOutput(route, 1, 2).getOutputs()).hasSize(3);
-        assertThat(getOutput(route, 1, 2, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 1, 2, 1)).isInstanceOf(ToDefinition.class);
-        assertThat(getOutput(route, 1, 2, 1)).hasFieldOrPropertyWithValue("uri", "mock:expression");
-        assertThat(getOutput(route, 1, 2, 2)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(route, 1, 1)).isInstanceOf(PipelineDefinition.class);
+        assertThat(getOutput(route, 1, 1).getOutputs()).hasSize(2);
+        assertThat(getOutput(route, 1, 1, 0)).isInstanceOf(SetHeaderDefinition.class);
+        assertThat(getOutput(route, 1, 1, 1)).isInstanceOf(ToDefinition.class);
+        assertThat(getOutput(route, 1, 1, 1)).hasFieldOrPropertyWithValue("uri", "mock:expression");
     }
 
     @Test
@@ -116,24 +113,22 @@ public class IntegrationRouteBuilderTest {
         assertThat(getOutput(primaryRoute, 0).getOutputs().get(0)).isInstanceOf(SetHeaderDefinition.class);
         assertThat(getOutput(primaryRoute, 0).getOutputs().get(1)).isInstanceOf(SetHeaderDefinition.class);
         assertThat(getOutput(primaryRoute, 1)).isInstanceOf(SplitDefinition.class);
-        assertThat(getOutput(primaryRoute, 1).getOutputs()).hasSize(5);
+        assertThat(getOutput(primaryRoute, 1).getOutputs()).hasSize(4);
         assertThat(getOutput(primaryRoute, 1, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 1)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(primaryRoute, 1, 1)).isInstanceOf(PipelineDefinition.class);
+        assertThat(getOutput(primaryRoute, 1, 1).getOutputs()).hasSize(2);
+        assertThat(getOutput(primaryRoute, 1, 1, 0)).isInstanceOf(SetHeaderDefinition.class);
+        assertThat(getOutput(primaryRoute, 1, 1, 1)).isInstanceOf(LogDefinition.class);
+        assertThat(getOutput(primaryRoute, 1, 1, 1)).hasFieldOrPropertyWithValue("message", "Body: [${bean:bodyLogger}] Before");
         assertThat(getOutput(primaryRoute, 1, 2)).isInstanceOf(PipelineDefinition.class);
         assertThat(getOutput(primaryRoute, 1, 2).getOutputs()).hasSize(2);
         assertThat(getOutput(primaryRoute, 1, 2, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 2, 1)).isInstanceOf(LogDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 2, 1)).hasFieldOrPropertyWithValue("message", "Body: [${bean:bodyLogger}] Before");
+        assertThat(getOutput(primaryRoute, 1, 2, 1)).isInstanceOf(ChoiceDefinition.class);
         assertThat(getOutput(primaryRoute, 1, 3)).isInstanceOf(PipelineDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 3).getOutputs()).hasSize(3);
+        assertThat(getOutput(primaryRoute, 1, 3).getOutputs()).hasSize(2);
         assertThat(getOutput(primaryRoute, 1, 3, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 3, 1)).isInstanceOf(ChoiceDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 3, 2)).isInstanceOf(ProcessDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 4)).isInstanceOf(PipelineDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 4).getOutputs()).hasSize(2);
-        assertThat(getOutput(primaryRoute, 1, 4, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 4, 1)).isInstanceOf(LogDefinition.class);
-        assertThat(getOutput(primaryRoute, 1, 4, 1)).hasFieldOrPropertyWithValue("message", "Body: [${bean:bodyLogger}] Finished");
+        assertThat(getOutput(primaryRoute, 1, 3, 1)).isInstanceOf(LogDefinition.class);
+        assertThat(getOutput(primaryRoute, 1, 3, 1)).hasFieldOrPropertyWithValue("message", "Body: [${bean:bodyLogger}] Finished");
 
         RouteDefinition conditionalRoute = routes.getRoutes().get(1);
 
@@ -142,23 +137,21 @@ public class IntegrationRouteBuilderTest {
 
         assertThat(conditionalRoute.getInputs()).hasSize(1);
         assertThat(conditionalRoute.getInputs().get(0)).hasFieldOrPropertyWithValue("uri", "direct");
-        assertThat(conditionalRoute.getOutputs()).hasSize(5);
+        assertThat(conditionalRoute.getOutputs()).hasSize(4);
         assertThat(getOutput(conditionalRoute, 0)).isInstanceOf(PipelineDefinition.class);
         assertThat(getOutput(conditionalRoute, 0).getOutputs()).hasSize(2);
         assertThat(getOutput(conditionalRoute, 0).getOutputs().get(0)).isInstanceOf(SetHeaderDefinition.class);
         assertThat(getOutput(conditionalRoute, 0).getOutputs().get(1)).isInstanceOf(SetHeaderDefinition.class);
         assertThat(getOutput(conditionalRoute, 1)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(conditionalRoute, 2)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(conditionalRoute, 2)).isInstanceOf(PipelineDefinition.class);
+        assertThat(getOutput(conditionalRoute, 2).getOutputs()).hasSize(2);
+        assertThat(getOutput(conditionalRoute, 2, 0)).isInstanceOf(SetHeaderDefinition.class);
+        assertThat(getOutput(conditionalRoute, 2, 1)).isInstanceOf(LogDefinition.class);
+        assertThat(getOutput(conditionalRoute, 2, 1)).hasFieldOrPropertyWithValue("message", "Body: [${bean:bodyLogger}] Found <Play>");
         assertThat(getOutput(conditionalRoute, 3)).isInstanceOf(PipelineDefinition.class);
         assertThat(getOutput(conditionalRoute, 3).getOutputs()).hasSize(2);
         assertThat(getOutput(conditionalRoute, 3, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(conditionalRoute, 3, 1)).isInstanceOf(LogDefinition.class);
-        assertThat(getOutput(conditionalRoute, 3, 1)).hasFieldOrPropertyWithValue("message", "Body: [${bean:bodyLogger}] Found <Play>");
-        assertThat(getOutput(conditionalRoute, 4)).isInstanceOf(PipelineDefinition.class);
-        assertThat(getOutput(conditionalRoute, 4).getOutputs()).hasSize(3);
-        assertThat(getOutput(conditionalRoute, 4, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(conditionalRoute, 4, 1)).isInstanceOf(ToDefinition.class);
-        assertThat(getOutput(conditionalRoute, 4, 1)).hasFieldOrPropertyWithValue("uri", "bean:io.syndesis.connector.flow.NoOpBean?method=process");
-        assertThat(getOutput(conditionalRoute, 4, 2)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(conditionalRoute, 3, 1)).isInstanceOf(ToDefinition.class);
+        assertThat(getOutput(conditionalRoute, 3, 1)).hasFieldOrPropertyWithValue("uri", "bean:io.syndesis.connector.flow.NoOpBean?method=process");
     }
 }
@@ -99,7 +99,7 @@ public class IntegrationRouteTest {
         // Timer
         assertThat(route.getInputs()).hasSize(1);
         assertThat(route.getInputs().get(0)).hasFieldOrPropertyWithValue("uri", "timer:integration?period=1s");
-        assertThat(route.getOutputs()).hasSize(5);
+        assertThat(route.getOutputs()).hasSize(4);
         assertThat(getOutput(route, 0)).isInstanceOf(PipelineDefinition.class);
         assertThat(getOutput(route, 0).getOutputs()).hasSize(2);
         assertThat(getOutput(route, 0, 0)).isInstanceOf(SetHeaderDefinition.class);
@@ -107,13 +107,11 @@ public class IntegrationRouteTest {
         assertThat(getOutput(route, 1)).isInstanceOf(ToDefinition.class);
         assertThat(getOutput(route, 1)).hasFieldOrPropertyWithValue("uri", "log:timer");
         assertThat(getOutput(route, 2)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 3)).isInstanceOf(ProcessDefinition.class);
-        assertThat(getOutput(route, 4)).isInstanceOf(PipelineDefinition.class);
-        assertThat(getOutput(route, 4).getOutputs()).hasSize(3);
-        assertThat(getOutput(route, 4, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 4, 1)).isInstanceOf(ToDefinition.class);
-        assertThat(getOutput(route, 4, 1)).hasFieldOrPropertyWithValue("uri", "mock:timer");
-        assertThat(getOutput(route, 4, 2)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(route, 3)).isInstanceOf(PipelineDefinition.class);
+        assertThat(getOutput(route, 3).getOutputs()).hasSize(2);
+        assertThat(getOutput(route, 3, 0)).isInstanceOf(SetHeaderDefinition.class);
+        assertThat(getOutput(route, 3, 1)).isInstanceOf(ToDefinition.class);
+        assertThat(getOutput(route, 3, 1)).hasFieldOrPropertyWithValue("uri", "mock:timer");
     }
 
     @Test
@@ -173,19 +171,17 @@ public class IntegrationRouteTest {
 
         assertThat(route.getInputs()).hasSize(1);
         assertThat(route.getInputs().get(0)).hasFieldOrPropertyWithValue("uri", "direct:start");
-        assertThat(route.getOutputs()).hasSize(4);
+        assertThat(route.getOutputs()).hasSize(3);
         assertThat(getOutput(route, 0)).isInstanceOf(PipelineDefinition.class);
         assertThat(getOutput(route, 0).getOutputs()).hasSize(2);
         assertThat(getOutput(route, 0).getOutputs().get(0)).isInstanceOf(SetHeaderDefinition.class);
         assertThat(getOutput(route, 0).getOutputs().get(1)).isInstanceOf(SetHeaderDefinition.class);
         assertThat(getOutput(route, 1)).isInstanceOf(SplitDefinition.class);
-        assertThat(getOutput(route, 1).getOutputs()).hasSize(4);
+        assertThat(getOutput(route, 1).getOutputs()).hasSize(3);
         assertThat(getOutput(route, 1, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 1, 1)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(route, 1, 1)).isInstanceOf(PipelineDefinition.class);
         assertThat(getOutput(route, 1, 2)).isInstanceOf(PipelineDefinition.class);
-        assertThat(getOutput(route, 1, 3)).isInstanceOf(PipelineDefinition.class);
         assertThat(getOutput(route, 2)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 3)).isInstanceOf(ProcessDefinition.class);
     }
 
     @Test
@@ -248,7 +244,7 @@ public class IntegrationRouteTest {
 
         assertThat(route.getInputs()).hasSize(1);
         assertThat(route.getInputs().get(0)).hasFieldOrPropertyWithValue("uri", "timer:integration?period=1s");
-        assertThat(route.getOutputs()).hasSize(5);
+        assertThat(route.getOutputs()).hasSize(4);
         assertThat(getOutput(route, 0)).isInstanceOf(PipelineDefinition.class);
         assertThat(getOutput(route, 0).getOutputs()).hasSize(2);
         assertThat(getOutput(route, 0, 0)).isInstanceOf(SetHeaderDefinition.class);
@@ -256,16 +252,87 @@ public class IntegrationRouteTest {
         assertThat(getOutput(route, 1)).isInstanceOf(ToDefinition.class);
         assertThat(getOutput(route, 1)).hasFieldOrPropertyWithValue("uri", "log:timer");
         assertThat(getOutput(route, 2)).isInstanceOf(SplitDefinition.class);
-        assertThat(getOutput(route, 2).getOutputs()).hasSize(3);
+        assertThat(getOutput(route, 2).getOutputs()).hasSize(2);
         assertThat(getOutput(route, 2, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 2, 1)).isInstanceOf(ProcessDefinition.class);
-        assertThat(getOutput(route, 2, 2)).isInstanceOf(PipelineDefinition.class);
-        assertThat(getOutput(route, 2, 2).getOutputs()).hasSize(3);
-        assertThat(getOutput(route, 2, 2, 0)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 2, 2, 1)).isInstanceOf(ToDefinition.class);
-        assertThat(getOutput(route, 2, 2, 1)).hasFieldOrPropertyWithValue("uri", "mock:timer");
-        assertThat(getOutput(route, 2, 2, 2)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(route, 2, 1)).isInstanceOf(PipelineDefinition.class);
+        assertThat(getOutput(route, 2, 1).getOutputs()).hasSize(2);
+        assertThat(getOutput(route, 2, 1, 0)).isInstanceOf(SetHeaderDefinition.class);
+        assertThat(getOutput(route, 2, 1, 1)).isInstanceOf(ToDefinition.class);
+        assertThat(getOutput(route, 2, 1, 1)).hasFieldOrPropertyWithValue("uri", "mock:timer");
         assertThat(getOutput(route, 3)).isInstanceOf(SetHeaderDefinition.class);
-        assertThat(getOutput(route, 4)).isInstanceOf(ProcessDefinition.class);
+    }
+
+    @Test
+    public void integrationWithMultiSourceMappingTest() throws Exception {
+        final String mapping = "{\"AtlasMapping\":{\"dataSource\":["
+            + "{\"jsonType\":\"io.atlasmap.v2.DataSource\",\"id\":\"step-1\",\"dataSourceType\":\"SOURCE\"},"
+            + "{\"jsonType\":\"io.atlasmap.v2.DataSource\",\"id\":\"step-2\",\"dataSourceType\":\"SOURCE\"},"
+            + "{\"jsonType\":\"io.atlasmap.v2.DataSource\",\"id\":\"target\",\"dataSourceType\":\"TARGET\"}"
+            + "],\"mappings\":{}}}";
+
+        final RouteBuilder routeBuilder = new IntegrationRouteBuilder("", Resources.loadServices(IntegrationStepHandler.class)) {
+            @Override
+            protected Integration loadIntegration() {
+                return newIntegration(
+                    new Step.Builder()
+                        .id("step-1")
+                        .stepKind(StepKind.endpoint)
+                        .action(new ConnectorAction.Builder()
+                            .descriptor(new ConnectorDescriptor.Builder()
+                                .componentScheme("direct")
+                                .putConfiguredProperty("name", "start")
+                                .build())
+                            .build())
+                        .build(),
+                    new Step.Builder()
+                        .id("step-2")
+                        .stepKind(StepKind.endpoint)
+                        .action(new ConnectorAction.Builder()
+                            .descriptor(new ConnectorDescriptor.Builder()
+                                .componentScheme("mock")
+                                .putConfiguredProperty("name", "enrich")
+                                .build())
+                            .build())
+                        .build(),
+                    new Step.Builder()
+                        .id("step-3")
+                        .stepKind(StepKind.mapper)
+                        .putConfiguredProperty("atlasmapping", mapping)
+                        .build(),
+                    new Step.Builder()
+                        .id("step-4")
+                        .stepKind(StepKind.endpoint)
+                        .action(new ConnectorAction.Builder()
+                            .descriptor(new ConnectorDescriptor.Builder()
+                                .componentScheme("mock")
+                                .putConfiguredProperty("name", "result")
+                                .build())
+                            .build())
+                        .build());
+            }
+        };
+
+        // initialize routes
+        routeBuilder.configure();
+
+        dumpRoutes(new DefaultCamelContext(), routeBuilder.getRouteCollection());
+
+        RoutesDefinition routes = routeBuilder.getRouteCollection();
+        assertThat(routes.getRoutes()).hasSize(1);
+
+        RouteDefinition route = routes.getRoutes().get(0);
+
+        assertThat(route.getOutputs()).hasSize(6);
+        assertThat(getOutput(route, 1)).isInstanceOf(SetHeaderDefinition.class);
+        assertThat(getOutput(route, 2)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(route, 2).getId()).isEqualTo("capture-out:step-1");
+        assertThat(getOutput(route, 3).getOutputs()).hasSize(3);
+        assertThat(getOutput(route, 3, 1)).hasFieldOrPropertyWithValue("uri", "mock:enrich");
+        assertThat(getOutput(route, 3, 2).getId()).isEqualTo("capture-out:step-2");
+        assertThat(getOutput(route, 4).getOutputs()).hasSize(3);
+        assertThat(getOutput(route, 4, 2)).isInstanceOf(ProcessDefinition.class);
+        assertThat(getOutput(route, 4, 2).getId()).isEqualTo("release-out:step-3");
+        assertThat(getOutput(route, 5).getOutputs()).hasSize(2);
+        assertThat(getOutput(route, 5, 1)).hasFieldOrPropertyWithValue("uri", "mock:result");
     }
 }
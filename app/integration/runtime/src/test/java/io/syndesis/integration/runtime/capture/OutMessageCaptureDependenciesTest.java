@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.capture;
+
+import io.syndesis.common.model.integration.Flow;
+import io.syndesis.common.model.integration.Integration;
+import io.syndesis.common.model.integration.Step;
+import io.syndesis.common.model.integration.StepKind;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutMessageCaptureDependenciesTest {
+
+    @Test
+    public void shouldNotCaptureForSingleSourceMappings() {
+        final OutMessageCaptureDependencies dependencies = OutMessageCaptureDependencies.of(integration(
+            step("s1", StepKind.endpoint),
+            mapper("m1", "s1"),
+            step("s2", StepKind.endpoint)));
+
+        assertThat(dependencies.isCaptured("s1")).isFalse();
+        assertThat(dependencies.isCaptured("m1")).isFalse();
+        assertThat(dependencies.isCaptured("s2")).isFalse();
+        assertThat(dependencies.releasedAfter("m1")).isEmpty();
+    }
+
+    @Test
+    public void shouldCaptureSourcesOfMultiSourceMappings() {
+        final OutMessageCaptureDependencies dependencies = OutMessageCaptureDependencies.of(integration(
+            step("s1", StepKind.endpoint),
+            step("s2", StepKind.endpoint),
+            step("s3", StepKind.endpoint),
+            mapper("m1", "s1", "s3"),
+            mapper("m2", "s1", "m1"),
+            step("s4", StepKind.endpoint)));
+
+        assertThat(dependencies.isCaptured("s1")).isTrue();
+        assertThat(dependencies.isCaptured("s2")).isFalse();
+        assertThat(dependencies.isCaptured("s3")).isTrue();
+        assertThat(dependencies.isCaptured("m1")).isTrue();
+        assertThat(dependencies.isCaptured("s4")).isFalse();
+        assertThat(dependencies.releasedAfter("m1")).containsOnly("s3");
+        assertThat(dependencies.releasedAfter("m2")).containsOnly("s1", "m1");
+    }
+
+    @Test
+    public void shouldNotReleaseFromWithinSplit() {
+        final OutMessageCaptureDependencies dependencies = OutMessageCaptureDependencies.of(integration(
+            step("s1", StepKind.endpoint),
+            step("split", StepKind.split),
+            step("s2", StepKind.endpoint),
+            mapper("m1", "s1", "s2"),
+            step("aggregate", StepKind.aggregate),
+            step("s3", StepKind.endpoint)));
+
+        assertThat(dependencies.isCaptured("s1")).isTrue();
+        assertThat(dependencies.isCaptured("s2")).isTrue();
+        assertThat(dependencies.releasedAfter("m1")).containsOnly("s2");
+    }
+
+    @Test
+    public void shouldNotReleaseSourcesReadByOtherFlows() {
+        final Integration integration = new Integration.Builder()
+            .id("test-integration")
+            .name("Test Integration")
+            .addFlow(new Flow.Builder()
+                .id("primary")
+                .addSteps(step("s1", StepKind.endpoint), step("s2", StepKind.endpoint), mapper("m1", "s1", "s2"))
+                .build())
+            .addFlow(new Flow.Builder()
+                .id("conditional")
+                .addSteps(step("s3", StepKind.endpoint), mapper("m2", "s1", "s3"))
+                .build())
+            .build();
+
+        final OutMessageCaptureDependencies dependencies = OutMessageCaptureDependencies.of(integration);
+
+        assertThat(dependencies.isCaptured("s1")).isTrue();
+        assertThat(dependencies.releasedAfter("m1")).containsOnly("s2");
+        assertThat(dependencies.releasedAfter("m2")).containsOnly("s3");
+    }
+
+    @Test
+    public void shouldCaptureAllForUnreadableMappings() {
+        final OutMessageCaptureDependencies dependencies = OutMessageCaptureDependencies.of(integration(
+            step("s1", StepKind.endpoint),
+            new Step.Builder()
+                .id("m1")
+                .stepKind(StepKind.mapper)
+                .putConfiguredProperty("atlasmapping", "{}")
+                .build(),
+            step("s2", StepKind.endpoint)));
+
+        assertThat(dependencies.isCaptured("s1")).isTrue();
+        assertThat(dependencies.isCaptured("s2")).isTrue();
+        assertThat(dependencies.releasedAfter("m1")).isEmpty();
+    }
+
+    private static Integration integration(Step... steps) {
+        return new Integration.Builder()
+            .id("test-integration")
+            .name("Test Integration")
+            .addFlow(new Flow.Builder()
+                .id("test-flow")
+                .addSteps(steps)
+                .build())
+            .build();
+    }
+
+    private static Step step(String id, StepKind kind) {
+        return new Step.Builder()
+            .id(id)
+            .stepKind(kind)
+            .build();
+    }
+
+    private static Step mapper(String id, String... sourceIds) {
+        final StringBuilder dataSources = new StringBuilder();
+        for (String sourceId : sourceIds) {
+            dataSources.append("{\"jsonType\":\"io.atlasmap.v2.DataSource\",\"id\":\"").append(sourceId).append("\",\"dataSourceType\":\"SOURCE\"},");
+        }
+        dataSources.append("{\"jsonType\":\"io.atlasmap.v2.DataSource\",\"id\":\"target\",\"dataSourceType\":\"TARGET\"}");
+
+        return new Step.Builder()
+            .id(id)
+            .stepKind(StepKind.mapper)
+            .putConfiguredProperty("atlasmapping", "{\"AtlasMapping\":{\"dataSource\":[" + dataSources + "],\"mappings\":{}}}")
+            .build();
+    }
+}
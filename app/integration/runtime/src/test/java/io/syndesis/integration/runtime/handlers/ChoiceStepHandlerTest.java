@@ -27,6 +27,7 @@ import io.syndesis.integration.runtime.logging.ActivityTracker;
 import io.syndesis.integration.runtime.logging.ActivityTrackingInterceptStrategy;
 import io.syndesis.integration.runtime.logging.BodyLogger;
 import io.syndesis.integration.runtime.logging.IntegrationLoggingListener;
+import io.syndesis.integration.runtime.util.JsonSimplePredicate;
 import io.syndesis.integration.runtime.util.JsonSupport;
 
 import org.apache.camel.CamelContext;
@@ -45,6 +46,7 @@ import org.slf4j.LoggerFactory;
 import static io.syndesis.integration.runtime.IntegrationTestSupport.dumpRoutes;
 import static io.syndesis.integration.runtime.IntegrationTestSupport.newIntegrationRouteBuilder;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -165,6 +167,10 @@ public class ChoiceStepHandlerTest {
             result.assertIsSatisfied();
             helloResult.assertIsSatisfied();
             byeResult.assertIsSatisfied();
+            for (MockEndpoint endpoint : Arrays.asList(result, helloResult, byeResult)) {
+                assertThat(endpoint.getReceivedExchanges())
+                    .allSatisfy(exchange -> assertThat(exchange.getProperty(JsonSimplePredicate.PARSED_BODY)).isNull());
+            }
 
             verify(activityTracker, times(3)).startTracking(any(Exchange.class));
             verifyActivityStepTracking(CHOICE_STEP, 3);
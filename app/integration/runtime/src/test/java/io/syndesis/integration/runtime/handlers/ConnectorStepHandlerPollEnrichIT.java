@@ -30,10 +30,10 @@ import io.syndesis.common.model.integration.Step;
 import io.syndesis.common.model.integration.StepKind;
 import io.syndesis.integration.component.proxy.ComponentProxyComponent;
 import io.syndesis.integration.component.proxy.ComponentProxyCustomizer;
+import io.syndesis.integration.runtime.IntegrationRouteBuilder;
 import io.syndesis.integration.runtime.capture.OutMessageCaptureProcessor;
 
 import org.apache.camel.Exchange;
-import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.component.mock.MockEndpoint;
 import org.apache.camel.component.properties.PropertiesComponent;
 import org.apache.camel.impl.DefaultCamelContext;
@@ -164,7 +164,7 @@ public class ConnectorStepHandlerPollEnrichIT {
         context.addComponent("properties", propertiesComponent);
 
         try {
-            final RouteBuilder routes = newIntegrationRouteBuilder(
+            final IntegrationRouteBuilder routes = newIntegrationRouteBuilder(
                 new Step.Builder()
                     .stepKind(StepKind.endpoint)
                     .action(TIMER_ACTION_PERIOD)
@@ -199,6 +199,7 @@ public class ConnectorStepHandlerPollEnrichIT {
                         .build())
                     .build());
 
+            routes.setCaptureAllOutMessages(true);
             context.addRoutes(routes);
             context.start();
 
@@ -232,7 +233,7 @@ public class ConnectorStepHandlerPollEnrichIT {
         context.addComponent("properties", propertiesComponent);
 
         try {
-            final RouteBuilder routes = newIntegrationRouteBuilder(
+            final IntegrationRouteBuilder routes = newIntegrationRouteBuilder(
                 new Step.Builder()
                     .stepKind(StepKind.endpoint)
                     .action(TIMER_ACTION_PERIOD)
@@ -272,6 +273,7 @@ public class ConnectorStepHandlerPollEnrichIT {
                         .build())
                     .build());
 
+            routes.setCaptureAllOutMessages(true);
             context.addRoutes(routes);
             context.start();
 
@@ -32,6 +32,7 @@ import io.syndesis.common.util.KeyGenerator;
 import io.syndesis.integration.runtime.logging.ActivityTracker;
 import io.syndesis.integration.runtime.logging.ActivityTrackingInterceptStrategy;
 import io.syndesis.integration.runtime.logging.IntegrationLoggingListener;
+import io.syndesis.integration.runtime.util.JsonSimplePredicate;
 import io.syndesis.integration.runtime.util.JsonSupport;
 
 import org.apache.camel.CamelContext;
@@ -143,6 +144,8 @@ public class FilterStepHandlerTest {
             }
 
             result.assertIsSatisfied();
+            assertThat(result.getReceivedExchanges())
+                .allSatisfy(exchange -> assertThat(exchange.getProperty(JsonSimplePredicate.PARSED_BODY)).isNull());
 
             verify(activityTracker, times(allMessages.size())).startTracking(any(Exchange.class));
             verifyActivityStepTracking(MOCK_STEP, matchingMessages.size());
@@ -339,6 +339,71 @@ public class SplitStepHandlerTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"1", "4"})
+    public void testStreamingSplitJsonArrayInputStream(final String parallelism) throws Exception {
+        final DefaultCamelContext context = new DefaultCamelContext();
+
+        try {
+            final RouteBuilder routes = newIntegrationRouteBuilder(activityTracker,
+                    new Step.Builder()
+                        .id(START_STEP)
+                        .stepKind(StepKind.endpoint)
+                        .action(new ConnectorAction.Builder()
+                            .descriptor(new ConnectorDescriptor.Builder()
+                                .componentScheme("direct")
+                                .putConfiguredProperty("name", "expression")
+                                .build())
+                            .build())
+                        .build(),
+                    new Step.Builder()
+                        .id(SPLIT_STEP)
+                        .stepKind(StepKind.split)
+                        .putConfiguredProperty("streaming", "true")
+                        .putConfiguredProperty("parallelism", parallelism)
+                        .build(),
+                    new Step.Builder()
+                        .id(MOCK_STEP)
+                        .stepKind(StepKind.endpoint)
+                        .action(new ConnectorAction.Builder()
+                            .descriptor(new ConnectorDescriptor.Builder()
+                                .componentScheme("mock")
+                                .putConfiguredProperty("name", "expression")
+                                .build())
+                            .build())
+                        .build()
+            );
+
+            // Set up the camel context
+            context.setUuidGenerator(KeyGenerator::createKey);
+            context.addLogListener(new IntegrationLoggingListener(activityTracker));
+            context.addInterceptStrategy(new ActivityTrackingInterceptStrategy(activityTracker));
+            context.addRoutes(routes);
+
+            context.start();
+
+            // Dump routes as XML for troubleshooting
+            dumpRoutes(context);
+
+            final ProducerTemplate template = context.createProducerTemplate();
+            final MockEndpoint result = context.getEndpoint("mock:expression", MockEndpoint.class);
+            final String body = " [{\"id\": 1, \"name\": \"a\"},{\"id\": 2, \"name\": \"b\"},{\"id\": 3, \"name\": \"c\"}]";
+
+            result.expectedMessageCount(3);
+            result.expectedBodiesReceivedInAnyOrder("{\"id\":1,\"name\":\"a\"}", "{\"id\":2,\"name\":\"b\"}", "{\"id\":3,\"name\":\"c\"}");
+
+            template.sendBody("direct:expression", new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+            result.assertIsSatisfied();
+
+            verify(activityTracker).startTracking(any(Exchange.class));
+            verifyActivityStepTracking(MOCK_STEP, 3);
+            verify(activityTracker).finishTracking(any(Exchange.class));
+        } finally {
+            context.stop();
+        }
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"/person-unified-schema.json",
                  "/person-unified-schema-draft-4.json",
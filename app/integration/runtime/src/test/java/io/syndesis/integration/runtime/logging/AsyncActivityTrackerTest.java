@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import io.syndesis.integration.runtime.util.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncActivityTrackerTest {
+
+    @Test
+    public void shouldWriteEventsAsJsonLines() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        final AsyncActivityTracker tracker = new AsyncActivityTracker(out, 16);
+        tracker.track("exchange", "i-L38cZ51d1L876xV4vEFz", "status", "begin");
+        tracker.track("exchange", "i-L38cZ51d1L876xV4vEFz", "step", "s2", "id", "i-L38cZ5Jd1L876xV4vEGz", "duration", 582977L, "failure", null);
+        tracker.track("exchange", "i-L38cZ51d1L876xV4vEFz", "status", "done", "failed", false);
+        tracker.track("a", 1, "b", 2, "c", 3, "d", 4, "e", 5, "f", 6, "g", 7);
+        tracker.close();
+
+        assertThat(lines(out)).containsExactly(
+            "{\"exchange\":\"i-L38cZ51d1L876xV4vEFz\",\"status\":\"begin\"}",
+            "{\"exchange\":\"i-L38cZ51d1L876xV4vEFz\",\"step\":\"s2\",\"id\":\"i-L38cZ5Jd1L876xV4vEGz\",\"duration\":582977}",
+            "{\"exchange\":\"i-L38cZ51d1L876xV4vEFz\",\"status\":\"done\",\"failed\":false}",
+            JsonSupport.toJsonObject("a", 1, "b", 2, "c", 3, "d", 4, "e", 5, "f", 6, "g", 7));
+
+        assertThat(tracker.getTracked()).isEqualTo(4);
+        assertThat(tracker.getDropped()).isZero();
+    }
+
+    @Test
+    public void shouldWriteEventsTrackedConcurrently() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        final AsyncActivityTracker tracker = new AsyncActivityTracker(out, 100_000);
+        IntStream.range(0, 50_000).parallel().forEach(i -> tracker.track("exchange", "e" + i, "status", "begin"));
+        tracker.close();
+
+        assertThat(lines(out)).hasSize(50_000).doesNotHaveDuplicates().allMatch(l -> l.startsWith("{\"exchange\":\"e"));
+        assertThat(tracker.getDropped()).isZero();
+    }
+
+    @Test
+    public void shouldDropEventsInsteadOfBlocking() throws InterruptedException {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final AsyncActivityTracker tracker = new AsyncActivityTracker(new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write(b, off, len);
+            }
+        }, 2);
+
+        tracker.track("exchange", "1");
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // the first event is being written, two fit in the buffer
+        for (int i = 0; i < 5; i++) {
+            tracker.track("exchange", "2");
+        }
+        release.countDown();
+        tracker.close();
+
+        assertThat(lines(out)).hasSize(3);
+        assertThat(tracker.getTracked()).isEqualTo(3);
+        assertThat(tracker.getDropped()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotInterleaveEventsWithOtherOutput() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // small buffer, as System.out, so that the stream is written often
+        final PrintStream out = new PrintStream(new BufferedOutputStream(bytes, 128), false, "UTF-8");
+
+        final String padding = String.join("", Collections.nCopies(100, "x"));
+        final byte[] logLine = ("INFO some log line " + padding + System.lineSeparator()).getBytes(UTF_8);
+
+        final AsyncActivityTracker tracker = new AsyncActivityTracker(out, 100_000);
+        final ExecutorService loggers = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                // as logback writes each log event
+                loggers.execute(() -> {
+                    for (int j = 0; j < 5_000; j++) {
+                        out.write(logLine, 0, logLine.length);
+                    }
+                });
+            }
+
+            IntStream.range(0, 20_000).parallel().forEach(i -> tracker.track("exchange", "e" + i, "status", "begin", "padding", padding));
+        } finally {
+            loggers.shutdown();
+            assertThat(loggers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            tracker.close();
+        }
+        out.flush();
+
+        final List<String> lines = lines(bytes);
+        assertThat(lines).hasSize(40_000);
+        assertThat(lines).filteredOn(l -> l.startsWith("INFO")).hasSize(20_000).containsOnly("INFO some log line " + padding);
+        assertThat(lines).filteredOn(l -> !l.startsWith("INFO")).hasSize(20_000).doesNotHaveDuplicates()
+            .allMatch(l -> l.matches("\\{\"exchange\":\"e\\d+\",\"status\":\"begin\",\"padding\":\"x{100}\"}"));
+        assertThat(tracker.getDropped()).isZero();
+    }
+
+    private static List<String> lines(ByteArrayOutputStream out) {
+        final String text = new String(out.toByteArray(), UTF_8);
+        assertThat(text).endsWith(System.lineSeparator());
+
+        return new ArrayList<>(Arrays.asList(text.split(System.lineSeparator())));
+    }
+}
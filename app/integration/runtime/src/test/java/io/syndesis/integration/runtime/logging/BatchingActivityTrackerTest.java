@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.logging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchingActivityTrackerTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2018-01-12T21:22:02.068Z"), ZoneOffset.UTC);
+
+    @Test
+    public void shouldSendEventsInBatches() throws IOException {
+        final List<byte[]> sent = new CopyOnWriteArrayList<>();
+
+        final BatchingActivityTracker tracker = new BatchingActivityTracker(sent::add, 2, 60_000, 100, CLOCK);
+        tracker.track("exchange", "i-L38cZ51d1L876xV4vEFz", "status", "begin");
+        tracker.track("exchange", "i-L38cZ51d1L876xV4vEFz", "step", "s2", "id", "i-L38cZ5Jd1L876xV4vEGz", "duration", 582977L, "failure", null);
+        tracker.track("exchange", "i-L38cZ51d1L876xV4vEFz", "status", "done", "failed", false);
+        tracker.close();
+
+        assertThat(sent).hasSize(2);
+        assertThat(lines(sent.get(0))).containsExactly(
+            "2018-01-12T21:22:02.068000000Z {\"exchange\":\"i-L38cZ51d1L876xV4vEFz\",\"status\":\"begin\"}",
+            "2018-01-12T21:22:02.068000000Z {\"exchange\":\"i-L38cZ51d1L876xV4vEFz\",\"step\":\"s2\",\"id\":\"i-L38cZ5Jd1L876xV4vEGz\",\"duration\":582977}");
+        assertThat(lines(sent.get(1))).containsExactly(
+            "2018-01-12T21:22:02.068000000Z {\"exchange\":\"i-L38cZ51d1L876xV4vEFz\",\"status\":\"done\",\"failed\":false}");
+
+        assertThat(tracker.getTracked()).isEqualTo(3);
+        assertThat(tracker.getDropped()).isZero();
+        assertThat(tracker.getBatches()).isEqualTo(2);
+        assertThat(tracker.getBytes()).isEqualTo(sent.get(0).length + sent.get(1).length);
+    }
+
+    @Test
+    public void shouldDropEventsInsteadOfBlocking() throws InterruptedException {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final BatchingActivityTracker tracker = new BatchingActivityTracker(batch -> {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1, 60_000, 2, CLOCK);
+
+        tracker.track("exchange", "1");
+        assertThat(sending.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // the first event is being sent, two fit in the queue
+        for (int i = 0; i < 5; i++) {
+            tracker.track("exchange", "2");
+        }
+        release.countDown();
+        tracker.close();
+
+        assertThat(tracker.getTracked()).isEqualTo(3);
+        assertThat(tracker.getDropped()).isEqualTo(3);
+        assertThat(tracker.getBatches()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldDropBatchesThatFailedToSend() {
+        final BatchingActivityTracker tracker = new BatchingActivityTracker(batch -> {
+            throw new IOException("unreachable");
+        }, 10, 10, 100, CLOCK);
+
+        tracker.track("exchange", "1");
+        tracker.track("exchange", "2");
+        tracker.close();
+
+        assertThat(tracker.getDropped()).isEqualTo(2);
+        assertThat(tracker.getBatches()).isZero();
+    }
+
+    private static List<String> lines(byte[] batch) throws IOException {
+        try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(batch))) {
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = is.read(buffer)) >= 0) {
+                os.write(buffer, 0, read);
+            }
+
+            final String text = new String(os.toByteArray(), UTF_8);
+            assertThat(text).endsWith("\n");
+            return new ArrayList<>(Arrays.asList(text.split("\n")));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.integration.runtime.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonArrayIteratorTest {
+
+    @Test
+    public void shouldIterateOverArrayElements() throws IOException {
+        final List<String> elements = new ArrayList<>();
+        JsonArrayIterator.of("[{\"id\": 1, \"tags\": [\"a\", \"b\"]}, \"text\", 2.5, null, [], {}]").forEachRemaining(elements::add);
+
+        assertThat(elements).containsExactly("{\"id\":1,\"tags\":[\"a\",\"b\"]}", "\"text\"", "2.5", "null", "[]", "{}");
+    }
+
+    @Test
+    public void shouldRejectNonArrays() {
+        assertThatThrownBy(() -> JsonArrayIterator.of("{\"id\": 1}")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void shouldReadLazilyAndCloseTheSourceAtTheEnd() throws IOException {
+        final int count = 1_000_000;
+        final GeneratedArrayInputStream stream = new GeneratedArrayInputStream(count);
+        final JsonArrayIterator iterator = JsonArrayIterator.of(stream);
+
+        assertThat(iterator.next()).isEqualTo("{\"id\":0,\"name\":\"element 0\"}");
+        // only the first buffer of the tens of megabytes has been read
+        assertThat(stream.read).isLessThan(64 * 1024);
+
+        int seen = 1;
+        while (iterator.hasNext()) {
+            assertThat(iterator.next()).isEqualTo("{\"id\":" + seen + ",\"name\":\"element " + seen + "\"}");
+            seen++;
+        }
+
+        assertThat(seen).isEqualTo(count);
+        assertThat(stream.closed).isTrue();
+    }
+
+    /**
+     * Generates a JSON array of objects while being read.
+     */
+    private static class GeneratedArrayInputStream extends InputStream {
+        private final int count;
+        private int index;
+        private InputStream current = new ByteArrayInputStream("[".getBytes(StandardCharsets.UTF_8));
+        long read;
+        boolean closed;
+
+        GeneratedArrayInputStream(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int ch = current.read();
+            while (ch < 0 && index <= count) {
+                final String next;
+                if (index == count) {
+                    next = "]";
+                } else {
+                    next = (index == 0 ? "" : ",") + "{\"id\": " + index + ", \"name\": \"element " + index + "\"}";
+                }
+                index++;
+
+                current = new ByteArrayInputStream(next.getBytes(StandardCharsets.UTF_8));
+                ch = current.read();
+            }
+
+            if (ch >= 0) {
+                read++;
+            }
+
+            return ch;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -115,6 +115,58 @@ public class JsonSimplePredicateTest {
         assertThat(predicate.matches(exchangeWith(Arrays.asList("{\"prop\": 3}", "{\"prop\": 4}")))).isEqualTo(false);
     }
 
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "{\"prop\": 1}|${body.prop} == 1",
+        "{\"prop\": 1}|${body.prop} != 1",
+        "{\"prop\": 1}|${body.prop} > 0",
+        "{\"prop\": 1}|${body.prop} <= 0",
+        "{\"prop\": 1.5}|${body.prop} >= 1.5",
+        "{\"prop\": 1.5}|${body.prop} < 1",
+        "{\"prop\": -3}|${body.prop} < -2",
+        "{\"a\": {\"b\": [{\"c\": \"x\"}]}}|${body.a.b[0].c} == 'x'",
+        "{\"a\": {\"b\": [{\"c\": \"x\"}]}}|${body.a.b[0].c} != \"x\"",
+        "[{\"prop\": true}]|${body[0].prop} == true",
+        "[{\"prop\": true}]|${body[0].prop} == false",
+        "[{\"prop\": 1}]|${body[1].prop} == 1",
+        "{\"prop\": 1}|${body.missing} == 1",
+        "{\"prop\": \"10\"}|${body.prop} > 9",
+        "{\"prop\": 1}|${body.prop} == '1'"})
+    public void shouldEvaluateComparisonsOnJsonLikeSimpleLanguage(final String payload, final String expression) {
+        final boolean expected = new JsonSimplePredicate(expression, CONTEXT, false).matches(exchangeWith(payload));
+
+        assertThat(new JsonSimplePredicate(expression, CONTEXT).matches(exchangeWith(payload))).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldParseJsonBodyOnlyOnce() {
+        final Exchange exchange = exchangeWith("{\"prop\": 2, \"name\": \"b\"}");
+
+        assertThat(new JsonSimplePredicate("${body.prop} == 1", CONTEXT).matches(exchange)).isFalse();
+        final Object parsed = exchange.getProperty(JsonSimplePredicate.PARSED_BODY);
+        assertThat(parsed).isNotNull();
+
+        assertThat(new JsonSimplePredicate("${body.name} == 'b' && ${body.prop} == 2", CONTEXT).matches(exchange)).isTrue();
+        assertThat(exchange.getProperty(JsonSimplePredicate.PARSED_BODY)).isSameAs(parsed);
+
+        // a new body is parsed again
+        exchange.getIn().setBody("{\"prop\": 1}");
+        assertThat(new JsonSimplePredicate("${body.prop} == 1", CONTEXT).matches(exchange)).isTrue();
+        assertThat(exchange.getProperty(JsonSimplePredicate.PARSED_BODY)).isNotSameAs(parsed);
+    }
+
+    @Test
+    public void shouldParseInputStreamsOnlyOnce() throws IOException {
+        final SingleReadInputStream inputStream = new SingleReadInputStream("{\"prop\": 1}");
+        final Exchange exchange = exchangeWith(inputStream);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(new JsonSimplePredicate("${body.prop} == " + i, CONTEXT).matches(exchange)).isEqualTo(i == 1);
+        }
+
+        assertThat(IOStreams.readText(exchange.getIn().getBody(InputStream.class))).isEqualTo("{\"prop\": 1}");
+    }
+
     private static Exchange exchangeWith(final Object body) {
         final DefaultExchange exchange = new DefaultExchange(CONTEXT);
         final DefaultMessage payload = new DefaultMessage(CONTEXT);
@@ -17,6 +17,7 @@ package io.syndesis.connector.meta;
 
 import javax.servlet.Filter;
 
+import io.syndesis.connector.meta.v1.MetadataCacheProperties;
 import io.syndesis.connector.support.verifier.api.MetadataRetrieval;
 import io.syndesis.connector.support.verifier.api.Verifier;
 import org.apache.camel.CamelContext;
@@ -28,6 +29,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Scope;
@@ -35,6 +37,7 @@ import org.springframework.web.filter.CommonsRequestLoggingFilter;
 
 @SuppressWarnings("PrivateConstructorForUtilityClass")
 @SpringBootApplication
+@EnableConfigurationProperties(MetadataCacheProperties.class)
 public class Application {
     private static final Logger LOGGER = LoggerFactory.getLogger(Application.class);
 
@@ -22,6 +22,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.syndesis.connector.support.verifier.api.MetadataRetrieval;
 import io.syndesis.connector.support.verifier.api.SyndesisMetadata;
@@ -46,6 +47,10 @@ public class ConnectorEndpoint {
     private ApplicationContext applicationContext;
     @Autowired
     private CamelContext camelContext;
+    @Autowired
+    private MetadataCache cache;
+
+    private final Map<String, MetadataRetrieval> adapters = new ConcurrentHashMap<>();
 
     @POST
     @Produces(MediaType.APPLICATION_JSON)
@@ -55,7 +60,8 @@ public class ConnectorEndpoint {
                                     final Map<String, Object> properties) {
         MetadataRetrieval adapter = findAdapter(connectorId);
         try {
-            return adapter.fetch(camelContext, connectorId, actionId, properties);
+            return cache.get(connectorId, "actions/" + actionId, properties,
+                () -> adapter.fetch(camelContext, connectorId, actionId, properties));
         } catch (RuntimeException e) {
             LOGGER.error("Unable to fetch and process metadata for connector: {}, action: {}", connectorId, actionId);
             LOGGER.debug("Unable to fetch and process metadata for connector: {}, action: {}, properties: {}", connectorId, actionId,
@@ -71,7 +77,8 @@ public class ConnectorEndpoint {
     public SyndesisMetadataProperties properties(@PathParam("connectorId") final String connectorId, final Map<String, Object> properties) {
         MetadataRetrieval adapter = findAdapter(connectorId);
         try {
-            return adapter.fetchProperties(camelContext, connectorId, properties);
+            return cache.get(connectorId, "properties", properties,
+                () -> adapter.fetchProperties(camelContext, connectorId, properties));
         } catch (RuntimeException e) {
             LOGGER.error("Unable to fetch and process dynamic properties for connector: {}", connectorId);
             LOGGER.debug("Unable to fetch and process dynamic properties for connector: {}, properties: {}", connectorId,
@@ -81,6 +88,12 @@ public class ConnectorEndpoint {
     }
 
     private MetadataRetrieval findAdapter(String connectorId) {
+        // adapters are stateless, apart from the metadata extensions they
+        // keep, so one instance per connector is reused
+        return adapters.computeIfAbsent(connectorId, this::resolveAdapter);
+    }
+
+    private MetadataRetrieval resolveAdapter(String connectorId) {
         MetadataRetrieval adapter = null;
         try {
             adapter = applicationContext.getBean(connectorId + "-adapter", MetadataRetrieval.class);
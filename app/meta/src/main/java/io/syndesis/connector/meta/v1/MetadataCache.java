@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.meta.v1;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.syndesis.common.util.Strings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the metadata fetched by the connector adapters for a while, so that
+ * the UI asking again for the metadata of the action being configured does
+ * not reach the remote system every time. Entries are keyed by connector, the
+ * action or dynamic properties asked for and a digest of the given
+ * properties. Concurrent requests for the same entry wait for the one fetch
+ * in flight, failed fetches are not cached.
+ */
+@Component
+public class MetadataCache {
+
+    static final String REQUESTS = "syndesis.meta.cache.requests";
+
+    static final String FETCHES = "syndesis.meta.fetch";
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final long ttlNanos;
+
+    private final int maxEntries;
+
+    private final MeterRegistry registry;
+
+    private final LongSupplier clock;
+
+    private static final class Entry {
+        private final CompletableFuture<Object> value = new CompletableFuture<>();
+
+        private final long expiresAt;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return value.isDone() && now - expiresAt >= 0;
+        }
+    }
+
+    @Autowired
+    public MetadataCache(MetadataCacheProperties properties, MeterRegistry registry) {
+        this(properties.getTtl(), properties.getMaxEntries(), registry, System::nanoTime);
+    }
+
+    MetadataCache(Duration ttl, int maxEntries, MeterRegistry registry, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.registry = registry;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached result for the connector, scope and properties, or
+     * the result of the given fetch.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String connectorId, String scope, Map<String, Object> properties, Supplier<T> fetch) {
+        final String key = connectorId + '/' + scope + '/' + digest(properties);
+        final long now = clock.getAsLong();
+
+        final Entry created = new Entry(now + ttlNanos);
+        final Entry entry = entries.compute(key, (k, existing) -> existing == null || existing.isExpired(now) ? created : existing);
+        if (entry != created) {
+            registry.counter(REQUESTS, "connector", connectorId, "result", "hit").increment();
+            return (T) await(entry);
+        }
+
+        registry.counter(REQUESTS, "connector", connectorId, "result", "miss").increment();
+        evictIfFull(now);
+
+        final Timer.Sample sample = Timer.start(registry);
+        try {
+            final T value = fetch.get();
+            created.value.complete(value);
+
+            if (ttlNanos <= 0) {
+                entries.remove(key, created);
+            }
+
+            return value;
+        } catch (RuntimeException e) {
+            entries.remove(key, created);
+            created.value.completeExceptionally(e);
+            throw e;
+        } finally {
+            sample.stop(registry.timer(FETCHES, "connector", connectorId));
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictIfFull(long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+
+        entries.values().removeIf(entry -> entry.isExpired(now));
+
+        final int excess = entries.size() - maxEntries;
+        if (excess > 0) {
+            entries.entrySet().stream()
+                .filter(e -> e.getValue().value.isDone())
+                .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt))
+                .limit(excess)
+                .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private static Object await(Entry entry) {
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Digest of the properties, the properties include credentials so only
+     * their digest is kept.
+     */
+    static String digest(Map<String, Object> properties) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported", e);
+        }
+
+        if (properties != null) {
+            for (Map.Entry<String, Object> property : new TreeMap<>(properties).entrySet()) {
+                update(digest, property.getKey());
+                update(digest, String.valueOf(property.getValue()));
+            }
+        }
+
+        return Strings.hex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.connector.meta.v1;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MetadataCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MetadataCache cache = new MetadataCache(Duration.ofSeconds(10), 2, registry, clock::get);
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Test
+    public void shouldServeCachedMetadataUntilExpired() {
+        assertThat(cache.get("sql", "actions/sql-connector", Collections.singletonMap("query", "SELECT 1"), this::fetch)).isEqualTo("1");
+        assertThat(cache.get("sql", "actions/sql-connector", Collections.singletonMap("query", "SELECT 1"), this::fetch)).isEqualTo("1");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(cache.get("sql", "actions/sql-connector", Collections.singletonMap("query", "SELECT 1"), this::fetch)).isEqualTo("2");
+        assertThat(registry.counter(MetadataCache.REQUESTS, "connector", "sql", "result", "hit").count()).isEqualTo(1);
+        assertThat(registry.counter(MetadataCache.REQUESTS, "connector", "sql", "result", "miss").count()).isEqualTo(2);
+        assertThat(registry.timer(MetadataCache.FETCHES, "connector", "sql").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldKeyByScopeAndProperties() {
+        cache.get("sql", "actions/sql-connector", Collections.singletonMap("query", "SELECT 1"), this::fetch);
+        cache.get("sql", "actions/sql-connector", Collections.singletonMap("query", "SELECT 2"), this::fetch);
+        cache.get("sql", "properties", Collections.singletonMap("query", "SELECT 1"), this::fetch);
+
+        assertThat(fetches).hasValue(3);
+        assertThat(MetadataCache.digest(Collections.singletonMap("a", "bc"))).isNotEqualTo(MetadataCache.digest(Collections.singletonMap("ab", "c")));
+    }
+
+    @Test
+    public void shouldNotCacheFailures() {
+        assertThatThrownBy(() -> cache.get("sql", "properties", null, () -> {
+            throw new IllegalStateException("unreachable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("sql", "properties", null, this::fetch)).isEqualTo("1");
+    }
+
+    @Test
+    public void shouldEvictOldestEntriesWhenFull() {
+        for (int i = 0; i < 5; i++) {
+            clock.incrementAndGet();
+            cache.get("sql", "properties", Collections.singletonMap("i", i), this::fetch);
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldShareOneFetchAmongConcurrentRequests() throws Exception {
+        final CountDownLatch fetching = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executor.submit(() -> cache.get("sql", "properties", null, () -> {
+                fetching.countDown();
+                await(release);
+                return fetch();
+            }));
+            assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+
+            final Future<String> second = executor.submit(() -> cache.get("sql", "properties", null, this::fetch));
+
+            // the second request waits for the fetch in flight
+            Thread.sleep(100);
+            assertThat(second.isDone()).isFalse();
+
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("1");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("1");
+            assertThat(fetches).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String fetch() {
+        return String.valueOf(fetches.incrementAndGet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
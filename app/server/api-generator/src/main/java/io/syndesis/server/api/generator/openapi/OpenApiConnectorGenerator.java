@@ -60,9 +60,15 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class OpenApiConnectorGenerator extends ConnectorGenerator {
 
+    /**
+     * Number of operations above which actions are created in parallel.
+     */
+    private static final int PARALLEL_ACTIONS_THRESHOLD = 50;
+
     private final Supplier<String> operationIdGenerator;
 
     private static final Oas20ParameterGenerator OAS20_PARAMETER_GENERATOR = new Oas20ParameterGenerator();
@@ -86,9 +92,14 @@ public class OpenApiConnectorGenerator extends ConnectorGenerator {
 
     @Override
     public final Connector generate(final ConnectorTemplate connectorTemplate, final ConnectorSettings connectorSettings) {
-        final Connector connector = basicConnector(connectorTemplate, connectorSettings);
+        // the specification is parsed once and the model is shared by all
+        // generation steps
+        final OpenApiModelInfo info = parseSpecification(connectorSettings, APIValidationContext.NONE);
+        requireNoErrors(info);
+
+        final Connector connector = basicConnector(connectorTemplate, connectorSettings, info);
 
-        return configureConnector(connectorTemplate, connector, connectorSettings);
+        return configureConnector(connector, info);
     }
 
     @Override
@@ -109,7 +120,7 @@ public class OpenApiConnectorGenerator extends ConnectorGenerator {
         }
 
         // No matter if the validation fails, try to process the swagger
-        final Connector connector = basicConnector(connectorTemplate, connectorSettings);
+        final Connector connector = basicConnector(connectorTemplate, connectorSettings, modelInfo);
 
         final OasPaths paths = model.paths;
         final AtomicInteger total = new AtomicInteger(0);
@@ -157,20 +168,28 @@ public class OpenApiConnectorGenerator extends ConnectorGenerator {
         }
     }
 
-    private Connector basicConnector(final ConnectorTemplate connectorTemplate, final ConnectorSettings connectorSettings) {
-        final OpenApiModelInfo info = parseSpecification(connectorSettings, APIValidationContext.NONE);
-
+    private Connector basicConnector(final ConnectorTemplate connectorTemplate, final ConnectorSettings connectorSettings, final OpenApiModelInfo info) {
         // could be either JSON of the Swagger specification or a URL to one
         final String specification = requiredSpecification(connectorSettings);
 
-        if (specification.startsWith("http")) {
+        final boolean fromUrl = specification.startsWith("http");
+        if (fromUrl) {
             Extension urlExtension = new Extension();
             urlExtension.name = OasModelHelper.URL_EXTENSION;
             urlExtension.value = URI.create(specification);
             info.getModel().addExtension(OasModelHelper.URL_EXTENSION, urlExtension);
         }
 
-        final Connector baseConnector = baseConnectorFrom(connectorTemplate, connectorSettings);
+        // name and description are determined from the already parsed model
+        final ConnectorSettings settingsWithNameAndDescription = new ConnectorSettings.Builder()
+            .createFrom(connectorSettings)
+            .name(ofNullable(connectorSettings.getName())
+                .orElseGet(() -> determineConnectorName(connectorTemplate, connectorSettings, info.getModel())))
+            .description(ofNullable(connectorSettings.getDescription())
+                .orElseGet(() -> determineConnectorDescription(connectorTemplate, connectorSettings, info.getModel())))
+            .build();
+
+        final Connector baseConnector = baseConnectorFrom(connectorTemplate, settingsWithNameAndDescription);
 
         final Connector.Builder builder = new Connector.Builder().createFrom(baseConnector);
 
@@ -202,22 +221,30 @@ public class OpenApiConnectorGenerator extends ConnectorGenerator {
             });
         });
 
+        if (fromUrl) {
+            // the URL is needed only to determine the properties, the model is
+            // used further to generate the actions and the specification
+            info.getModel().removeExtension(OasModelHelper.URL_EXTENSION);
+        }
+
         return builder.build();
     }
 
     final Connector configureConnector(final ConnectorTemplate connectorTemplate, final Connector connector,
                                        final ConnectorSettings connectorSettings) {
+        return configureConnector(connector, parseSpecification(connectorSettings, APIValidationContext.NONE));
+    }
 
+    private Connector configureConnector(final Connector connector, final OpenApiModelInfo info) {
         final Connector.Builder builder = new Connector.Builder().createFrom(connector);
 
-        final OpenApiModelInfo info = parseSpecification(connectorSettings, APIValidationContext.NONE);
         final OasDocument openApiDoc = info.getModel();
         addGlobalParameters(builder, info);
 
         final OasPaths paths = ofNullable(openApiDoc.paths)
                                    .orElse(openApiDoc.createPaths());
         final String connectorId = connector.getId().orElseThrow(() -> new IllegalArgumentException("Missing connector identifier"));
-        final List<ConnectorAction> actions = new ArrayList<>();
+        final List<OasOperation> operations = new ArrayList<>();
         final Map<String, Integer> operationIdCounts = new HashMap<>();
         for (final OasPathItem path : OasModelHelper.getPathItems(paths)) {
             final Map<String, OasOperation> operationMap = OasModelHelper.getOperationMap(path);
@@ -243,23 +270,27 @@ public class OpenApiConnectorGenerator extends ConnectorGenerator {
                     }
                 }
 
-                final ConnectorDescriptor descriptor = createDescriptor(connectorId, info, operation);
-
-                final OperationDescription description = OasModelHelper.operationDescriptionOf(openApiDoc, operation, (m, p) -> "Send " + m + " request to " + p);
-
-                final ConnectorAction action = new ConnectorAction.Builder()
-                    .id(createActionId(connectorId, operation))
-                    .name(description.name)
-                    .description(description.description)
-                    .pattern(Action.Pattern.To)
-                    .descriptor(descriptor).tags(OasModelHelper.sanitizeTags(operation.tags).distinct().collect(Collectors.toList()))
-                    .build();
-
-                actions.add(action);
+                operations.add(operation);
             }
         }
 
-        actions.sort(ActionComparator.INSTANCE);
+        // with the operation identifiers assigned the actions of large
+        // specifications are created in parallel, they only read the model
+        // and the resolved JSON graph, and are sorted afterwards
+        final Stream<OasOperation> operationStream;
+        if (operations.size() > PARALLEL_ACTIONS_THRESHOLD) {
+            // resolved once up front rather than by the first worker
+            info.getResolvedJsonGraph();
+            operationStream = operations.parallelStream();
+        } else {
+            operationStream = operations.stream();
+        }
+
+        final List<ConnectorAction> actions = operationStream
+            .map(operation -> createAction(connectorId, info, operation))
+            .sorted(ActionComparator.INSTANCE)
+            .collect(Collectors.toList());
+
         builder.addAllActions(actions);
 
         builder.putConfiguredProperty("specification", SpecificationOptimizer.minimizeForComponent(openApiDoc));
@@ -267,11 +298,28 @@ public class OpenApiConnectorGenerator extends ConnectorGenerator {
         return builder.build();
     }
 
+    private ConnectorAction createAction(final String connectorId, final OpenApiModelInfo info, final OasOperation operation) {
+        final ConnectorDescriptor descriptor = createDescriptor(connectorId, info, operation);
+
+        final OperationDescription description = OasModelHelper.operationDescriptionOf(info.getModel(), operation, (m, p) -> "Send " + m + " request to " + p);
+
+        return new ConnectorAction.Builder()
+            .id(createActionId(connectorId, operation))
+            .name(description.name)
+            .description(description.description)
+            .pattern(Action.Pattern.To)
+            .descriptor(descriptor).tags(OasModelHelper.sanitizeTags(operation.tags).distinct().collect(Collectors.toList()))
+            .build();
+    }
+
     @Override
     protected final String determineConnectorDescription(final ConnectorTemplate connectorTemplate,
         final ConnectorSettings connectorSettings) {
-        final OasDocument openApiDoc = parseSpecification(connectorSettings, APIValidationContext.NONE).getModel();
+        return determineConnectorDescription(connectorTemplate, connectorSettings, parseSpecification(connectorSettings, APIValidationContext.NONE).getModel());
+    }
 
+    private String determineConnectorDescription(final ConnectorTemplate connectorTemplate, final ConnectorSettings connectorSettings,
+        final OasDocument openApiDoc) {
         final Info info = openApiDoc.info;
         if (info == null) {
             return super.determineConnectorDescription(connectorTemplate, connectorSettings);
@@ -288,12 +336,13 @@ public class OpenApiConnectorGenerator extends ConnectorGenerator {
     @Override
     protected final String determineConnectorName(final ConnectorTemplate connectorTemplate, final ConnectorSettings connectorSettings) {
         final OpenApiModelInfo modelInfo = parseSpecification(connectorSettings, APIValidationContext.NONE);
-        if (!modelInfo.getErrors().isEmpty()) {
-            throw new IllegalArgumentException("Given OpenAPI specification contains errors: " + modelInfo);
-        }
+        requireNoErrors(modelInfo);
 
-        final OasDocument openApiDoc = modelInfo.getModel();
+        return determineConnectorName(connectorTemplate, connectorSettings, modelInfo.getModel());
+    }
 
+    private String determineConnectorName(final ConnectorTemplate connectorTemplate, final ConnectorSettings connectorSettings,
+        final OasDocument openApiDoc) {
         final Info info = openApiDoc.info;
         if (info == null) {
             return super.determineConnectorName(connectorTemplate, connectorSettings);
@@ -320,6 +369,12 @@ public class OpenApiConnectorGenerator extends ConnectorGenerator {
         }
     }
 
+    private static void requireNoErrors(final OpenApiModelInfo modelInfo) {
+        if (!modelInfo.getErrors().isEmpty()) {
+            throw new IllegalArgumentException("Given OpenAPI specification contains errors: " + modelInfo);
+        }
+    }
+
     private static String createActionId(final String connectorId, final OasOperation operation) {
         return connectorId + ":" + operation.operationId;
     }
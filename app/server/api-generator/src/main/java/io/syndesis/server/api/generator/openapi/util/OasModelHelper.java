@@ -32,6 +32,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import io.apicurio.datamodels.core.models.Extension;
+import io.apicurio.datamodels.core.models.Node;
 import io.apicurio.datamodels.openapi.models.IOasPropertySchema;
 import io.apicurio.datamodels.openapi.models.OasDocument;
 import io.apicurio.datamodels.openapi.models.OasOperation;
@@ -55,22 +56,21 @@ public final class OasModelHelper {
 
     public static OperationDescription operationDescriptionOf(final OasDocument openApiDoc, final OasOperation operation,
                                                               final BiFunction<String, String, String> consumer) {
+        // operations read from a document know their path item, which saves
+        // looking through all paths for each operation
+        final Node parent = operation.parent();
+        if (parent instanceof OasPathItem && operation.getMethod() != null
+            && getOperationMap((OasPathItem) parent).get(operation.getMethod()) == operation) {
+            return operationDescriptionOf(operation, operation.getMethod(), ((OasPathItem) parent).getPath(), consumer);
+        }
+
         final List<OasPathItem> pathItems = getPathItems(openApiDoc.paths);
         for (OasPathItem pathEntry : pathItems) {
             final String path = pathEntry.getPath();
             final Map<String, OasOperation> operations = getOperationMap(pathEntry);
             for (Map.Entry<String, OasOperation> operationEntry : operations.entrySet()) {
                 if (operationEntry.getValue().equals(operation)) {
-                    final String method = operationEntry.getKey().toUpperCase(Locale.US);
-
-                    final String specifiedSummary = trimToNull(operation.summary);
-                    final String specifiedDescription = trimToNull(operation.description);
-
-                    final String name = ofNullable(toLiteralNull(specifiedSummary)).orElseGet(() -> method + " " + path);
-                    final String description = ofNullable(toLiteralNull(specifiedDescription))
-                        .orElseGet(() -> consumer.apply(method, path));
-
-                    return new OperationDescription(name, description);
+                    return operationDescriptionOf(operation, operationEntry.getKey(), path, consumer);
                 }
             }
         }
@@ -78,6 +78,20 @@ public final class OasModelHelper {
         throw new IllegalArgumentException(String.format("Unable to find operation '%s' in given paths in OpenAPI document", operation.operationId));
     }
 
+    private static OperationDescription operationDescriptionOf(final OasOperation operation, final String operationMethod, final String path,
+                                                               final BiFunction<String, String, String> consumer) {
+        final String method = operationMethod.toUpperCase(Locale.US);
+
+        final String specifiedSummary = trimToNull(operation.summary);
+        final String specifiedDescription = trimToNull(operation.description);
+
+        final String name = ofNullable(toLiteralNull(specifiedSummary)).orElseGet(() -> method + " " + path);
+        final String description = ofNullable(toLiteralNull(specifiedDescription))
+            .orElseGet(() -> consumer.apply(method, path));
+
+        return new OperationDescription(name, description);
+    }
+
     /**
      * Iterate through list of generic path items and collect path items of given type.
      * @param paths given path items.
@@ -55,9 +55,14 @@ public final class OpenApiModelParser {
     public static OpenApiModelInfo parse(final String specification, final APIValidationContext validationContext) {
         final OpenApiModelInfo.Builder resultBuilder = new OpenApiModelInfo.Builder();
 
+        // the specification is read into a JSON tree once, the tree is used
+        // for the resolved specification, version detection, schema
+        // validation and finally consumed when reading the document model
+        final JsonNode tree;
         final String resolvedSpecification;
         try {
-            resolvedSpecification = resolve(specification);
+            tree = resolve(specification);
+            resolvedSpecification = JsonUtils.writer().writeValueAsString(tree);
             resultBuilder.resolvedSpecification(resolvedSpecification);
         } catch (final Exception e) {
             LOG.debug("Unable to resolve OpenAPI document\n{}\n", specification, e);
@@ -67,19 +72,6 @@ public final class OpenApiModelParser {
                 .build();
         }
 
-        final JsonNode tree;
-        try {
-            tree = JsonUtils.reader().readTree(resolvedSpecification);
-        } catch (final IOException e) {
-            return new OpenApiModelInfo.Builder()
-                .addError(new Violation.Builder()
-                    .property("")
-                    .error("unreadable-document")
-                    .message("Unable to read OpenAPI document: " + e.getMessage())
-                    .build())
-                .build();
-        }
-
         OpenApiVersion openApiVersion = getOpenApiVersion(tree);
         if (openApiVersion == null) {
             return new OpenApiModelInfo.Builder()
@@ -92,7 +84,12 @@ public final class OpenApiModelParser {
                 .build();
         }
 
-        final Document parsed = Library.readDocumentFromJSONString(resolvedSpecification);
+        if (validationContext != APIValidationContext.NONE) {
+            // needs to happen before the tree is consumed by the reader
+            validateJsonSchema(tree, resultBuilder, openApiVersion);
+        }
+
+        final Document parsed = Library.readDocument(tree);
         if (!(parsed instanceof OasDocument)) {
             LOG.debug("Unable to read OpenAPI document\n{}\n", specification);
             return resultBuilder
@@ -105,16 +102,6 @@ public final class OpenApiModelParser {
 
         resultBuilder.model((OasDocument) parsed);
         if (validationContext != APIValidationContext.NONE) {
-            try {
-                validateJsonSchema(convertToJson(resolvedSpecification), resultBuilder, openApiVersion, parsed.getClass());
-            } catch (IOException e) {
-                return resultBuilder
-                    .addError(new Violation.Builder()
-                        .error("error")
-                        .property("")
-                        .message("Unable to read OpenAPI document from: '" + StringUtils.abbreviate(resolvedSpecification, 100)).build())
-                    .build();
-            }
             return applyValidationRules(validationContext, resultBuilder.build(), openApiVersion);
         }
         return resultBuilder.build();
@@ -132,8 +119,7 @@ public final class OpenApiModelParser {
         }
     }
 
-    private static void validateJsonSchema(JsonNode jsonNode, OpenApiModelInfo.Builder resultBuilder,
-                                           OpenApiVersion openApiVersion, Class<?> documentType) {
+    private static void validateJsonSchema(JsonNode jsonNode, OpenApiModelInfo.Builder resultBuilder, OpenApiVersion openApiVersion) {
         switch (openApiVersion) {
             case V2:
                 new Oas20SchemaValidator().validateJSonSchema(jsonNode, resultBuilder);
@@ -142,7 +128,7 @@ public final class OpenApiModelParser {
                 new Oas30SchemaValidator().validateJSonSchema(jsonNode, resultBuilder);
                 break;
             default:
-                throw new IllegalStateException(String.format("Unable to determine proper schema validator for OpenAPI document type '%s'", documentType));
+                throw new IllegalStateException(String.format("Unable to determine proper schema validator for OpenAPI version '%s'", openApiVersion));
         }
     }
 
@@ -165,7 +151,7 @@ public final class OpenApiModelParser {
     }
 
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
-    private static String resolve(final String specification) throws Exception {
+    private static JsonNode resolve(final String specification) throws Exception {
         final String specificationToUse;
         if (specification.toLowerCase(Locale.US).startsWith("http")) {
             specificationToUse = resolve(new URL(specification));
@@ -173,9 +159,7 @@ public final class OpenApiModelParser {
             specificationToUse = specification;
         }
 
-        final JsonNode node = convertToJson(specificationToUse);
-
-        return JsonUtils.writer().writeValueAsString(node);
+        return convertToJson(specificationToUse);
     }
 
     public static String resolve(URL url) {
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.api.generator.openapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.syndesis.common.model.DataShape;
+import io.syndesis.common.model.action.ConnectorAction;
+import io.syndesis.common.model.action.ConnectorDescriptor;
+import io.syndesis.common.model.connection.Connector;
+import io.syndesis.common.model.connection.ConnectorSettings;
+import io.syndesis.common.util.json.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenApiConnectorGeneratorLargeSpecificationTest {
+
+    private static final int OPERATIONS = 200;
+
+    private static final int DEFINITIONS = 20;
+
+    private final OpenApiConnectorGenerator generator;
+
+    public OpenApiConnectorGeneratorLargeSpecificationTest() {
+        try (InputStream stream = OpenApiConnectorGeneratorLargeSpecificationTest.class.getResourceAsStream("/META-INF/syndesis/connector/rest-swagger.json")) {
+            generator = new OpenApiConnectorGenerator(JsonUtils.readFromStream(stream, Connector.class));
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void shouldGenerateActionsForAllOperations() {
+        final Connector generated = generator.generate(ApiConnectorTemplate.SWAGGER_TEMPLATE, createSettings());
+
+        final List<ConnectorAction> actions = generated.getActions();
+        assertThat(actions).hasSize(OPERATIONS);
+
+        for (final ConnectorAction action : actions) {
+            // all operations share the same operationId, they are made unique
+            // in the order of the paths
+            final int index = Integer.parseInt(action.getName().replaceAll("POST /resources(\\d+)/\\{id\\}", "$1"));
+            final String operationId = index == 0 ? "operation" : "operation" + index;
+
+            assertThat(action.getId()).hasValueSatisfying(id -> assertThat(id).endsWith(":" + operationId));
+
+            final ConnectorDescriptor descriptor = action.getDescriptor();
+            assertThat(descriptor.getConfiguredProperties()).containsEntry("operationId", operationId);
+            assertThat(descriptor.getInputDataShape()).map(DataShape::getSpecification)
+                .hasValueSatisfying(specification -> assertThat(specification).contains("\"property" + index % DEFINITIONS + "\""));
+            assertThat(descriptor.getOutputDataShape()).map(DataShape::getSpecification)
+                .hasValueSatisfying(specification -> assertThat(specification).contains("\"property" + (index + 1) % DEFINITIONS + "\""));
+        }
+    }
+
+    @Test
+    public void shouldGenerateActionsInSameOrderOnEveryRun() {
+        final List<String> first = actionsOf(generator.generate(ApiConnectorTemplate.SWAGGER_TEMPLATE, createSettings()));
+        final List<String> second = actionsOf(generator.generate(ApiConnectorTemplate.SWAGGER_TEMPLATE, createSettings()));
+
+        assertThat(first).isEqualTo(second);
+    }
+
+    private static List<String> actionsOf(final Connector connector) {
+        final String connectorId = connector.getId().get();
+
+        return connector.getActions().stream()
+            .map(a -> a.getId().get().replace(connectorId, "") + " " + a.getName() + " " + a.getDescriptor().getInputDataShape().get().getSpecification())
+            .collect(Collectors.toList());
+    }
+
+    private static ConnectorSettings createSettings() {
+        final ObjectNode specification = JsonNodeFactory.instance.objectNode();
+        specification.put("swagger", "2.0");
+        specification.putObject("info").put("title", "Large").put("version", "1.0");
+        specification.put("host", "localhost");
+        specification.putArray("schemes").add("http");
+
+        final ObjectNode paths = specification.putObject("paths");
+        for (int i = 0; i < OPERATIONS; i++) {
+            final ObjectNode operation = paths.putObject("/resources" + i + "/{id}").putObject("post");
+            operation.put("operationId", "operation");
+            operation.putArray("consumes").add("application/json");
+            operation.putArray("produces").add("application/json");
+            operation.putArray("parameters")
+                .add(JsonNodeFactory.instance.objectNode().put("name", "id").put("in", "path").put("required", true).put("type", "string"))
+                .add(JsonNodeFactory.instance.objectNode().put("name", "body").put("in", "body")
+                    .set("schema", reference(i % DEFINITIONS)));
+            operation.putObject("responses").putObject("200").put("description", "OK")
+                .set("schema", reference((i + 1) % DEFINITIONS));
+        }
+
+        final ObjectNode definitions = specification.putObject("definitions");
+        for (int i = 0; i < DEFINITIONS; i++) {
+            final ObjectNode properties = definitions.putObject("Definition" + i).put("type", "object").putObject("properties");
+            properties.putObject("property" + i).put("type", "string");
+            properties.putObject("count").put("type", "integer");
+        }
+
+        return new ConnectorSettings.Builder()
+            .putConfiguredProperty("specification", specification.toString())
+            .build();
+    }
+
+    private static ObjectNode reference(final int definition) {
+        return JsonNodeFactory.instance.objectNode().put("$ref", "#/definitions/Definition" + definition);
+    }
+}
@@ -27,6 +27,8 @@ public class ControllersConfigurationProperties {
     private int maxIntegrationsPerUser = 1;
     private int maxDeploymentsPerUser = 1;
     private int integrationStateCheckInterval = 60;
+    private int integrationControllerWorkers = 4;
+    private int maxConcurrentBuilds = 2;
 
     public int getMaxIntegrationsPerUser() {
         return maxIntegrationsPerUser;
@@ -51,4 +53,20 @@ public class ControllersConfigurationProperties {
     public int getIntegrationStateCheckInterval() {
         return integrationStateCheckInterval;
     }
+
+    public int getIntegrationControllerWorkers() {
+        return integrationControllerWorkers;
+    }
+
+    public void setIntegrationControllerWorkers(int integrationControllerWorkers) {
+        this.integrationControllerWorkers = integrationControllerWorkers;
+    }
+
+    public int getMaxConcurrentBuilds() {
+        return maxConcurrentBuilds;
+    }
+
+    public void setMaxConcurrentBuilds(int maxConcurrentBuilds) {
+        this.maxConcurrentBuilds = maxConcurrentBuilds;
+    }
 }
@@ -25,6 +25,15 @@ public interface StateChangeHandler {
 
     Set<IntegrationDeploymentState> getTriggerStates();
 
+    /**
+     * Long running handlers, like the ones building integrations, are
+     * limited in how many run at the same time and do not hold up the
+     * others.
+     */
+    default boolean isLongRunning() {
+        return false;
+    }
+
     default StateUpdate execute(IntegrationDeployment integrationDeployment) {
         return null;
     }
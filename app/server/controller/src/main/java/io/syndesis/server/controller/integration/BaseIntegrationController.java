@@ -16,14 +16,19 @@
 package io.syndesis.server.controller.integration;
 
 import java.io.IOException;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.syndesis.common.model.ChangeEvent;
 import io.syndesis.common.model.Kind;
 import io.syndesis.common.model.integration.IntegrationDeployment;
@@ -44,8 +49,13 @@ import org.slf4j.LoggerFactory;
 /**
  * This class tracks changes to Integrations and attempts to process them so that
  * their current status matches their desired status.
+ * <p>
+ * Work for different integrations runs concurrently, work for the same
+ * integration runs in order. Status checks and handlers that are not long
+ * running go ahead of builds, of which only a limited number run at the same
+ * time.
  */
-public abstract class BaseIntegrationController implements BackendController {
+public abstract class BaseIntegrationController implements BackendController, MeterBinder {
     private static final Logger LOG = LoggerFactory.getLogger(BaseIntegrationController.class);
 
     private static final String EVENT_BUS_ID = "integration-deployment-controller";
@@ -56,7 +66,7 @@ public abstract class BaseIntegrationController implements BackendController {
     private final Set<String> scheduledChecks = ConcurrentHashMap.newKeySet();
     private final ControllersConfigurationProperties properties;
 
-    private ExecutorService executor;
+    private volatile KeyedWorkQueue workQueue;
     private ScheduledExecutorService scheduler;
 
     protected BaseIntegrationController(OpenShiftService openShiftService, DataManager dataManager, EventBus eventBus,
@@ -94,7 +104,7 @@ public abstract class BaseIntegrationController implements BackendController {
 
     @SuppressWarnings("FutureReturnValueIgnored")
     protected void doStart() {
-        executor = Executors.newSingleThreadExecutor(Threads.newThreadFactory("Integration Controller"));
+        workQueue = new KeyedWorkQueue("Integration Controller", properties.getIntegrationControllerWorkers(), properties.getMaxConcurrentBuilds());
         scheduler = Executors.newScheduledThreadPool(2, Threads.newThreadFactory("Integration Controller Scheduler"));
 
         scheduler.scheduleAtFixedRate(this::scanIntegrationsForWork, 0, properties.getIntegrationStateCheckInterval(), TimeUnit.SECONDS);
@@ -105,14 +115,14 @@ public abstract class BaseIntegrationController implements BackendController {
         eventBus.unsubscribe(EVENT_BUS_ID);
 
         scheduler.shutdownNow();
-        executor.shutdownNow();
+        workQueue.shutdownNow();
         try {
             boolean schedulerStopped = false;
             boolean executorStopped = false;
 
             do {
                 schedulerStopped = scheduler.awaitTermination(10, TimeUnit.SECONDS);
-                executorStopped = executor.awaitTermination(10, TimeUnit.SECONDS);
+                executorStopped = workQueue.awaitTermination(10, TimeUnit.SECONDS);
             } while (!schedulerStopped && !executorStopped);
         } catch (final InterruptedException e) {
             LOG.warn("Unable to cleanly stop: {}", e.getMessage());
@@ -120,8 +130,38 @@ public abstract class BaseIntegrationController implements BackendController {
         }
     }
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // the metrics are bound before the controller is started, and the
+        // work queue only exists while it runs
+        Gauge.builder("syndesis.controller.integration.queued", this, c -> c.measure(KeyedWorkQueue::getQueued)).register(registry);
+        for (KeyedWorkQueue.Lane lane : KeyedWorkQueue.Lane.values()) {
+            Gauge.builder("syndesis.controller.integration.ready", this, c -> c.measure(q -> q.getReady(lane)))
+                .tag("lane", lane.name().toLowerCase(Locale.US))
+                .register(registry);
+        }
+        Gauge.builder("syndesis.controller.integration.running", this, c -> c.measure(KeyedWorkQueue::getRunning)).register(registry);
+        Gauge.builder("syndesis.controller.integration.builds.running", this, c -> c.measure(KeyedWorkQueue::getHeavyRunning)).register(registry);
+        FunctionCounter.builder("syndesis.controller.integration.started", this, c -> c.measure(KeyedWorkQueue::getStarted)).register(registry);
+        FunctionCounter.builder("syndesis.controller.integration.wait", this, c -> c.measure(KeyedWorkQueue::getWaitNanos))
+            .baseUnit("nanoseconds")
+            .register(registry);
+        Gauge.builder("syndesis.controller.integration.wait.max", this, c -> c.measure(KeyedWorkQueue::getMaxWaitNanos))
+            .baseUnit("nanoseconds")
+            .register(registry);
+    }
+
+    private double measure(ToDoubleFunction<KeyedWorkQueue> value) {
+        final KeyedWorkQueue queue = workQueue;
+        if (queue == null) {
+            return 0;
+        }
+
+        return value.applyAsDouble(queue);
+    }
+
     protected void checkIntegrationStatusIfNotAlreadyInProgress(String id) {
-        executor.execute(() -> {
+        workQueue.submit(getIntegrationKey(id), KeyedWorkQueue.Lane.PRIORITY, () -> {
             IntegrationDeployment integrationDeployment = dataManager.fetch(IntegrationDeployment.class, id);
             if( integrationDeployment != null) {
                 String scheduledKey = getIntegrationMarkerKey(integrationDeployment);
@@ -162,9 +202,7 @@ public abstract class BaseIntegrationController implements BackendController {
 
     private void scanIntegrationsForWork() {
         LOG.info("Checking integrations for their status.");
-        executor.execute(
-            () -> dataManager.fetchIds(IntegrationDeployment.class).forEach(this::checkIntegrationStatusIfNotAlreadyInProgress)
-        );
+        dataManager.fetchIds(IntegrationDeployment.class).forEach(this::checkIntegrationStatusIfNotAlreadyInProgress);
     }
 
     private void checkIntegrationStatus(IntegrationDeployment integrationDeployment) {
@@ -197,7 +235,8 @@ public abstract class BaseIntegrationController implements BackendController {
 
     void callStateChangeHandler(StateChangeHandler handler, IntegrationDeployment integrationDeployment) {
         String integrationDeploymentId = integrationDeployment.getId().get();
-        executor.execute(() -> {
+        KeyedWorkQueue.Lane lane = handler.isLongRunning() ? KeyedWorkQueue.Lane.HEAVY : KeyedWorkQueue.Lane.PRIORITY;
+        workQueue.submit(getIntegrationKey(integrationDeploymentId), lane, () -> {
             String checkKey = getIntegrationMarkerKey(integrationDeployment);
             scheduledChecks.add(checkKey);
 
@@ -255,16 +294,25 @@ public abstract class BaseIntegrationController implements BackendController {
     @SuppressWarnings("FutureReturnValueIgnored")
     protected void reschedule(String integrationId, String checkKey) {
         LOG.debug("Reschedule IntegrationDeployment check, id:{}, keys: {}", integrationId, scheduledChecks);
-        scheduler.schedule(() -> {
+        scheduler.schedule(() -> workQueue.submit(getIntegrationKey(integrationId), KeyedWorkQueue.Lane.PRIORITY, () -> {
                 IntegrationDeployment i = dataManager.fetch(IntegrationDeployment.class, integrationId);
                 LOG.debug("Trigger checkIntegrationStatus, id:{}", integrationId);
                 checkIntegrationStatus(i);
-            },
+            }),
             properties.getIntegrationStateCheckInterval(),
             TimeUnit.SECONDS
         );
     }
 
+    /**
+     * Work is ordered per integration, the deployment ids are made of the
+     * integration id and the deployment version.
+     */
+    private static String getIntegrationKey(String integrationDeploymentId) {
+        final int separator = integrationDeploymentId.lastIndexOf(IntegrationDeployment.COMPOSITE_ID_SEPARATOR);
+        return separator > 0 ? integrationDeploymentId.substring(0, separator) : integrationDeploymentId;
+    }
+
     private static String getIntegrationMarkerKey(IntegrationDeployment integrationDeployment) {
         return integrationDeployment.getTargetState() +
                ":" +
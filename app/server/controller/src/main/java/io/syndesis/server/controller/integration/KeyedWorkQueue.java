@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.controller.integration;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.syndesis.common.util.thread.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs work concurrently across keys while the work submitted for one key
+ * runs one at a time, in the order it was submitted.
+ * <p>
+ * Each task is submitted to a {@link Lane}. Keys with a {@link Lane#PRIORITY}
+ * task next in line are picked before the heavy ones, and at most
+ * {@code maxHeavy} {@link Lane#HEAVY} tasks run at the same time. There is
+ * always at least one more worker than heavy tasks allowed, so cheap work
+ * never waits for long running work of other keys.
+ */
+final class KeyedWorkQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(KeyedWorkQueue.class);
+
+    enum Lane {
+        /**
+         * Cheap work, like status checks or removing a deployment.
+         */
+        PRIORITY,
+        /**
+         * Long running work, like building an integration, limited in
+         * concurrency.
+         */
+        HEAVY
+    }
+
+    private static final class Task {
+        final Lane lane;
+        final Runnable work;
+        final long submitted = System.nanoTime();
+
+        Task(Lane lane, Runnable work) {
+            this.lane = lane;
+            this.work = work;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    // work waiting, per key, the key being run is not in any of the ready queues
+    private final Map<String, ArrayDeque<Task>> pending = new HashMap<>();
+    private final Map<Lane, ArrayDeque<String>> ready = new EnumMap<>(Lane.class);
+
+    private final int maxHeavy;
+    private final int workers;
+    private final ExecutorService executor;
+
+    private int queued;
+    private int running;
+    private int heavyRunning;
+
+    private long started;
+    private long waitNanos;
+    private long maxWaitNanos;
+
+    KeyedWorkQueue(String name, int workers, int maxHeavy) {
+        if (maxHeavy < 1) {
+            throw new IllegalArgumentException("At least one heavy task needs to be able to run");
+        }
+
+        for (Lane lane : Lane.values()) {
+            ready.put(lane, new ArrayDeque<>());
+        }
+
+        this.maxHeavy = maxHeavy;
+        this.workers = Math.max(workers, maxHeavy + 1);
+        executor = Executors.newFixedThreadPool(this.workers, Threads.newThreadFactory(name));
+        for (int i = 0; i < this.workers; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    void submit(String key, Lane lane, Runnable work) {
+        lock.lock();
+        try {
+            final ArrayDeque<Task> tasks = pending.get(key);
+            if (tasks == null) {
+                final ArrayDeque<Task> first = new ArrayDeque<>();
+                first.add(new Task(lane, work));
+                pending.put(key, first);
+                ready.get(lane).add(key);
+            } else {
+                // either the key is running, or it is already in a ready queue
+                tasks.add(new Task(lane, work));
+            }
+            queued++;
+
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Number of tasks waiting to run.
+     */
+    int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of keys with work waiting to run in the given lane.
+     */
+    int getReady(Lane lane) {
+        lock.lock();
+        try {
+            return ready.get(lane).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getHeavyRunning() {
+        lock.lock();
+        try {
+            return heavyRunning;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of tasks that started running.
+     */
+    long getStarted() {
+        lock.lock();
+        try {
+            return started;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Total time tasks waited before they started running.
+     */
+    long getWaitNanos() {
+        lock.lock();
+        try {
+            return waitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Longest time a task waited before it started running.
+     */
+    long getMaxWaitNanos() {
+        lock.lock();
+        try {
+            return maxWaitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final String key;
+                final Task task;
+
+                lock.lockInterruptibly();
+                try {
+                    String next;
+                    while ((next = nextKey()) == null) {
+                        available.await();
+                    }
+                    key = next;
+                    task = pending.get(key).poll();
+
+                    queued--;
+                    running++;
+                    if (task.lane == Lane.HEAVY) {
+                        heavyRunning++;
+                    }
+
+                    final long waited = System.nanoTime() - task.submitted;
+                    started++;
+                    waitNanos += waited;
+                    maxWaitNanos = Math.max(maxWaitNanos, waited);
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    task.work.run();
+                } catch (RuntimeException e) {
+                    LOG.error("Failure while processing work for {}", key, e);
+                } finally {
+                    done(key, task);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // needs to be called with the lock held
+    private String nextKey() {
+        final String priority = ready.get(Lane.PRIORITY).poll();
+        if (priority != null) {
+            return priority;
+        }
+
+        if (heavyRunning < maxHeavy) {
+            return ready.get(Lane.HEAVY).poll();
+        }
+
+        return null;
+    }
+
+    private void done(String key, Task task) {
+        lock.lock();
+        try {
+            running--;
+            if (task.lane == Lane.HEAVY) {
+                heavyRunning--;
+            }
+
+            final ArrayDeque<Task> tasks = pending.get(key);
+            final Task next = tasks.peek();
+            if (next == null) {
+                pending.remove(key);
+            } else {
+                ready.get(next.lane).add(key);
+            }
+
+            // a heavy slot or a key might have become available
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
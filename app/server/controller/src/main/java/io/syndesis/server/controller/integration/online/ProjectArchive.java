@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.controller.integration.online;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import io.syndesis.common.util.Strings;
+
+/**
+ * Generated project tar kept in a temporary file, along with the SHA-256 of
+ * its content. The project generator writes entries in a fixed order with
+ * fixed timestamps, so projects generated from the same integration have the
+ * same hash.
+ */
+final class ProjectArchive implements Closeable {
+
+    private final Path file;
+
+    private final String hash;
+
+    private ProjectArchive(Path file, String hash) {
+        this.file = file;
+        this.hash = hash;
+    }
+
+    static ProjectArchive of(InputStream tar) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported", e);
+        }
+
+        final Path file = Files.createTempFile("syndesis-project-", ".tar");
+        try (InputStream in = new DigestInputStream(tar, digest)) {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        return new ProjectArchive(file, Strings.hex(digest.digest()));
+    }
+
+    String getHash() {
+        return hash;
+    }
+
+    InputStream open() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
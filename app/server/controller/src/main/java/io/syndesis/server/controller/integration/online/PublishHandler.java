@@ -19,13 +19,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.syndesis.common.model.integration.Integration;
 import io.syndesis.common.model.integration.IntegrationDeployment;
 import io.syndesis.common.model.integration.IntegrationDeploymentError;
@@ -49,10 +56,20 @@ import org.springframework.stereotype.Component;
 @Qualifier("s2i")
 @Component()
 @ConditionalOnProperty(value = "controllers.integration", havingValue = "s2i", matchIfMissing = true)
-public class PublishHandler extends BaseOnlineHandler implements StateChangeHandler {
+public class PublishHandler extends BaseOnlineHandler implements StateChangeHandler, MeterBinder {
+
+    // recorded in the steps done of the deployment along with the built image
+    static final String PROJECT_HASH_STEP = "projectHash";
+    static final String BUILD_MILLIS_STEP = "buildMillis";
 
     private final IntegrationProjectGenerator projectGenerator;
     private final List<DeploymentDataCustomizer> customizers;
+
+    private final AtomicLong buildCacheHits = new AtomicLong();
+    private final AtomicLong buildCacheMisses = new AtomicLong();
+    private final AtomicLong buildMillis = new AtomicLong();
+    private final AtomicLong buildMillisSaved = new AtomicLong();
+
     PublishHandler(
         OpenShiftService openShiftService,
         IntegrationDao iDao,
@@ -72,6 +89,27 @@ public class PublishHandler extends BaseOnlineHandler implements StateChangeHand
         return Collections.singleton(IntegrationDeploymentState.Published);
     }
 
+    @Override
+    public boolean isLongRunning() {
+        return true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("syndesis.controller.integration.build.cache", buildCacheHits, AtomicLong::get)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("syndesis.controller.integration.build.cache", buildCacheMisses, AtomicLong::get)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("syndesis.controller.integration.build.time", buildMillis, AtomicLong::get)
+            .baseUnit("milliseconds")
+            .register(registry);
+        FunctionCounter.builder("syndesis.controller.integration.build.time.saved", buildMillisSaved, AtomicLong::get)
+            .baseUnit("milliseconds")
+            .register(registry);
+    }
+
     @Override
     public StateUpdate execute(final IntegrationDeployment integrationDeployment) {
         StateUpdate updateViaValidation = getValidator().validate(integrationDeployment);
@@ -97,7 +135,7 @@ public class PublishHandler extends BaseOnlineHandler implements StateChangeHand
 
             DeploymentData deploymentData = createDeploymentData(integration, integrationDeployment);
             String buildLabel = "buildv" + deploymentData.getVersion();
-            stepOncePerformer.perform(buildLabel, this::build, deploymentData);
+            stepOncePerformer.perform(buildLabel, (d, data, errorHandler) -> build(d, data, errorHandler, stepOncePerformer), deploymentData);
 
             if (stepOncePerformer.hasError()) {
                 logError(integrationDeployment, "[ERROR] Build failed with {} - {}",
@@ -165,16 +203,76 @@ public class PublishHandler extends BaseOnlineHandler implements StateChangeHand
     // =============================================================================
     // Various steps to perform:
 
-    private String build(IntegrationDeployment integration, DeploymentData data, IntegrationErrorHandler errorHandler)  {
-        InputStream tarInputStream = createProjectFiles(integration.getSpec(), errorHandler);
-        logInfo(integration, "Created project files and starting build");
-        try {
-            return getOpenShiftService().build(integration.getSpec().getName(), data, tarInputStream);
-        } catch (InterruptedException e) {
+    private String build(IntegrationDeployment integration, DeploymentData data, IntegrationErrorHandler errorHandler, BuildStepOncePerformer performer)  {
+        try (ProjectArchive project = ProjectArchive.of(createProjectFiles(integration.getSpec(), errorHandler))) {
+            final String hash = project.getHash();
+
+            final Optional<IntegrationDeployment> previous = findBuiltWith(integration, hash);
+            if (previous.isPresent()) {
+                final int version = previous.get().getVersion();
+                final Optional<String> image = getOpenShiftService().reuseImage(integration.getSpec().getName(), version, data);
+                if (image.isPresent()) {
+                    logInfo(integration, "Project files unchanged since version {}, reusing its image", version);
+
+                    final String tookMillis = previous.get().getStepsDone().getOrDefault(BUILD_MILLIS_STEP, "0");
+                    buildCacheHits.incrementAndGet();
+                    buildMillisSaved.addAndGet(parseMillis(tookMillis));
+                    performer.record(PROJECT_HASH_STEP, hash);
+                    performer.record(BUILD_MILLIS_STEP, tookMillis);
+
+                    return image.get();
+                }
+
+                logInfo(integration, "Image built for version {} is not available anymore", version);
+            }
+
+            buildCacheMisses.incrementAndGet();
+            logInfo(integration, "Created project files and starting build");
+
+            final long start = System.nanoTime();
+            final String image;
+            try (InputStream tarInputStream = project.open()) {
+                image = getOpenShiftService().build(integration.getSpec().getName(), data, tarInputStream);
+            }
+            final long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            buildMillis.addAndGet(tookMillis);
+
+            if (image != null) {
+                performer.record(PROJECT_HASH_STEP, hash);
+                performer.record(BUILD_MILLIS_STEP, Long.toString(tookMillis));
+            }
+
+            return image;
+        } catch (IOException | InterruptedException e) {
             throw SyndesisServerException.launderThrowable(e);
         }
     }
 
+    /**
+     * Finds the latest other deployment of the integration that built an
+     * image from the project files with the given hash.
+     */
+    private Optional<IntegrationDeployment> findBuiltWith(IntegrationDeployment deployment, String hash) {
+        final String integrationId = deployment.getIntegrationId().orElseThrow(() -> new IllegalStateException("IntegrationDeployment should have an integrationId"));
+        final IntegrationDeploymentDao dao = getIntegrationDeploymentDao();
+
+        return dao.fetchIdsByPropertyValue("integrationId", integrationId).stream()
+            .map(dao::fetch)
+            .filter(Objects::nonNull)
+            .filter(d -> d.getVersion() != deployment.getVersion())
+            .filter(d -> hash.equals(d.getStepsDone().get(PROJECT_HASH_STEP)))
+            .filter(d -> d.getStepsDone().containsKey("buildv" + d.getVersion()))
+            .max(Comparator.comparingInt(IntegrationDeployment::getVersion));
+    }
+
+    private static long parseMillis(String millis) {
+        try {
+            return Long.parseLong(millis);
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+    }
+
     private String deploy(IntegrationDeployment integration, DeploymentData data) {
         logInfo(integration, "Starting deployment");
         String revision = getOpenShiftService().deploy(integration.getSpec().getName(), data);
@@ -297,6 +395,10 @@ public class PublishHandler extends BaseOnlineHandler implements StateChangeHand
             }
         }
 
+        void record(String step, String value) {
+            stepsPerformed.put(step, value);
+        }
+
         boolean hasError() {
             return error != null;
         }
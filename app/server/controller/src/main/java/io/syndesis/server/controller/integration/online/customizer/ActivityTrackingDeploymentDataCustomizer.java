@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.controller.integration.online.customizer;
+
+import io.syndesis.common.model.integration.IntegrationDeployment;
+import io.syndesis.common.util.SignedTokens;
+import io.syndesis.common.util.Strings;
+import io.syndesis.server.openshift.DeploymentData;
+import io.syndesis.server.openshift.OpenShiftService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configures the integration to send its activity tracking events to the
+ * server, with a token issued to the integration, instead of logging them
+ * for the server to scrape from the pod logs.
+ */
+@Component
+@ConditionalOnProperty(value = "controllers.dblogging.enabled", havingValue = "true", matchIfMissing = true)
+public final class ActivityTrackingDeploymentDataCustomizer implements DeploymentDataCustomizer {
+
+    static final String APPLICATION_PROPERTIES = "application.properties";
+
+    static final String ENDPOINT_PROPERTY = "syndesis.integration.runtime.logging.tracker.endpoint";
+
+    static final String TOKEN_PROPERTY = "syndesis.integration.runtime.logging.tracker.token";
+
+    private final String endpoint;
+
+    private final String key;
+
+    public ActivityTrackingDeploymentDataCustomizer(
+            @Value("${controllers.dblogging.ingestion.endpoint:}") String endpoint,
+            @Value("${encrypt.key:}") String key) {
+        this.endpoint = endpoint;
+        this.key = key;
+    }
+
+    @Override
+    public DeploymentData customize(final DeploymentData data, final IntegrationDeployment integrationDeployment) {
+        if (Strings.isEmptyOrBlank(endpoint) || Strings.isEmptyOrBlank(key) || !integrationDeployment.getIntegrationId().isPresent()) {
+            return data;
+        }
+
+        final String integrationId = integrationDeployment.getIntegrationId().get();
+        final String token = SignedTokens.sign(key, OpenShiftService.ACTIVITY_TRACKING_TOKEN_PURPOSE, integrationId);
+
+        final StringBuilder properties = new StringBuilder(data.getSecret().getOrDefault(APPLICATION_PROPERTIES, ""));
+        if (properties.length() > 0 && properties.charAt(properties.length() - 1) != '\n') {
+            properties.append('\n');
+        }
+
+        // the pod name is known only once the pod runs
+        properties.append(ENDPOINT_PROPERTY).append('=').append(endpoint).append("${HOSTNAME}\n");
+        properties.append(TOKEN_PROPERTY).append('=').append(token).append('\n');
+
+        return new DeploymentData.Builder()
+            .createFrom(data)
+            .addSecretEntry(APPLICATION_PROPERTIES, properties.toString())
+            .build();
+    }
+}
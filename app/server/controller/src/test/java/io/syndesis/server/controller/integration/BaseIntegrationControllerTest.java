@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.controller.integration;
+
+import java.util.Collections;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.syndesis.common.model.integration.IntegrationDeployment;
+import io.syndesis.common.model.integration.IntegrationDeploymentState;
+import io.syndesis.common.util.EventBus;
+import io.syndesis.server.controller.ControllersConfigurationProperties;
+import io.syndesis.server.controller.StateChangeHandlerProvider;
+import io.syndesis.server.dao.manager.DataManager;
+import io.syndesis.server.openshift.OpenShiftService;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BaseIntegrationControllerTest {
+
+    @Test
+    public void shouldReportMetricsBeforeStarted() {
+        final StateChangeHandlerProvider handlers = mock(StateChangeHandlerProvider.class);
+        when(handlers.getStatusChangeHandlers()).thenReturn(Collections.emptyList());
+
+        final BaseIntegrationController controller = new BaseIntegrationController(mock(OpenShiftService.class), mock(DataManager.class),
+            mock(EventBus.class), handlers, new ControllersConfigurationProperties()) {
+            @Override
+            public void start() {
+                doStart();
+            }
+
+            @Override
+            public void stop() {
+                doStop();
+            }
+
+            @Override
+            protected IntegrationDeploymentState determineState(IntegrationDeployment integrationDeployment) {
+                return IntegrationDeploymentState.Unpublished;
+            }
+        };
+
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        controller.bindTo(registry);
+
+        assertThat(registry.get("syndesis.controller.integration.queued").gauge().value()).isZero();
+        assertThat(registry.get("syndesis.controller.integration.ready").tag("lane", "heavy").gauge().value()).isZero();
+        assertThat(registry.get("syndesis.controller.integration.started").functionCounter().count()).isZero();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.controller.integration;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.syndesis.server.controller.integration.KeyedWorkQueue.Lane;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyedWorkQueueTest {
+
+    private final KeyedWorkQueue queue = new KeyedWorkQueue("test", 4, 1);
+
+    @AfterEach
+    public void shutdown() throws InterruptedException {
+        queue.shutdownNow();
+        assertThat(queue.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldRunWorkOfOneKeyInOrder() throws InterruptedException {
+        final List<Integer> a = new CopyOnWriteArrayList<>();
+        final List<Integer> b = new CopyOnWriteArrayList<>();
+        final AtomicInteger concurrentA = new AtomicInteger();
+        final AtomicInteger maxConcurrentA = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(200);
+
+        for (int i = 0; i < 100; i++) {
+            final int n = i;
+            final Lane lane = Lane.values()[i % Lane.values().length];
+            queue.submit("a", lane, () -> {
+                maxConcurrentA.accumulateAndGet(concurrentA.incrementAndGet(), Math::max);
+                a.add(n);
+                concurrentA.decrementAndGet();
+                done.countDown();
+            });
+            queue.submit("b", Lane.PRIORITY, () -> {
+                b.add(n);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(a).isSorted().hasSize(100);
+        assertThat(b).isSorted().hasSize(100);
+        assertThat(maxConcurrentA).hasValue(1);
+        assertThat(queue.getStarted()).isEqualTo(200);
+        assertThat(queue.getQueued()).isZero();
+    }
+
+    @Test
+    public void shouldLimitHeavyWorkAndRunPriorityWorkMeanwhile() throws InterruptedException {
+        final CountDownLatch building = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch built = new CountDownLatch(2);
+
+        for (String key : new String[] {"a", "b"}) {
+            queue.submit(key, Lane.HEAVY, () -> {
+                building.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                built.countDown();
+            });
+        }
+
+        assertThat(building.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // the second build waits for the first one, while other work goes on
+        final CountDownLatch checked = new CountDownLatch(1);
+        queue.submit("c", Lane.PRIORITY, checked::countDown);
+        assertThat(checked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(queue.getHeavyRunning()).isEqualTo(1);
+        assertThat(queue.getReady(Lane.HEAVY)).isEqualTo(1);
+        assertThat(queue.getQueued()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(built.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldKeepWorkingAfterFailures() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+
+        queue.submit("a", Lane.PRIORITY, () -> {
+            throw new IllegalStateException("expected");
+        });
+        queue.submit("a", Lane.PRIORITY, done::countDown);
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.controller.integration.online;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProjectArchiveTest {
+
+    @Test
+    public void shouldHashContent() throws IOException {
+        try (ProjectArchive archive = ProjectArchive.of(stream("hello"))) {
+            assertThat(archive.getHash()).isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+
+            try (BufferedReader content = new BufferedReader(new InputStreamReader(archive.open(), StandardCharsets.UTF_8))) {
+                assertThat(content.readLine()).isEqualTo("hello");
+                assertThat(content.readLine()).isNull();
+            }
+        }
+    }
+
+    @Test
+    public void shouldHashSameContentTheSame() throws IOException {
+        try (ProjectArchive first = ProjectArchive.of(stream("project"));
+             ProjectArchive second = ProjectArchive.of(stream("project"));
+             ProjectArchive other = ProjectArchive.of(stream("changed project"))) {
+            assertThat(first.getHash()).isEqualTo(second.getHash());
+            assertThat(first.getHash()).isNotEqualTo(other.getHash());
+        }
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
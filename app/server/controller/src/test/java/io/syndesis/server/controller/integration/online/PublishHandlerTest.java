@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.controller.integration.online;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import io.syndesis.common.model.integration.Integration;
+import io.syndesis.common.model.integration.IntegrationDeployment;
+import io.syndesis.integration.api.IntegrationProjectGenerator;
+import io.syndesis.server.controller.StateUpdate;
+import io.syndesis.server.controller.integration.IntegrationPublishValidator;
+import io.syndesis.server.dao.IntegrationDao;
+import io.syndesis.server.dao.IntegrationDeploymentDao;
+import io.syndesis.server.openshift.DeploymentData;
+import io.syndesis.server.openshift.OpenShiftService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PublishHandlerTest {
+
+    private static final byte[] PROJECT = "project files".getBytes(StandardCharsets.UTF_8);
+
+    private static final Integration INTEGRATION = new Integration.Builder()
+        .id("integration-id")
+        .name("Integration")
+        .build();
+
+    private final OpenShiftService openShiftService = mock(OpenShiftService.class);
+
+    private final IntegrationDeploymentDao deploymentDao = mock(IntegrationDeploymentDao.class);
+
+    private final IntegrationProjectGenerator projectGenerator = mock(IntegrationProjectGenerator.class);
+
+    private PublishHandler handler;
+
+    private String projectHash;
+
+    @BeforeEach
+    public void setUp() throws IOException, InterruptedException {
+        handler = new PublishHandler(openShiftService, mock(IntegrationDao.class), deploymentDao, projectGenerator,
+            Collections.emptyList(), mock(IntegrationPublishValidator.class));
+
+        when(projectGenerator.generate(eq(INTEGRATION), any())).thenAnswer(invocation -> new ByteArrayInputStream(PROJECT));
+        when(projectGenerator.generateApplicationProperties(INTEGRATION)).thenReturn(new Properties());
+        when(openShiftService.build(eq("Integration"), any(), any())).thenReturn("built-image");
+
+        try (ProjectArchive archive = ProjectArchive.of(new ByteArrayInputStream(PROJECT))) {
+            projectHash = archive.getHash();
+        }
+    }
+
+    @Test
+    public void shouldReuseImageBuiltFromSameProject() throws InterruptedException {
+        givenDeployments(deployment(1, builtWith(1, projectHash)), deployment(3, builtWith(3, "other")));
+        when(openShiftService.reuseImage(eq("Integration"), eq(1), any())).thenReturn(Optional.of("reused-image"));
+
+        final StateUpdate update = handler.execute(deployment(2, Collections.emptyMap()));
+
+        verify(openShiftService, never()).build(any(), any(), any());
+        assertThat(update.getStepsPerformed())
+            .containsEntry("buildv2", "reused-image")
+            .containsEntry(PublishHandler.PROJECT_HASH_STEP, projectHash)
+            .containsEntry(PublishHandler.BUILD_MILLIS_STEP, "1000");
+    }
+
+    @Test
+    public void shouldBuildWhenNoDeploymentBuiltSameProject() throws InterruptedException {
+        givenDeployments(deployment(1, builtWith(1, "other")));
+
+        final StateUpdate update = handler.execute(deployment(2, Collections.emptyMap()));
+
+        verify(openShiftService, never()).reuseImage(any(), anyInt(), any());
+        verify(openShiftService).build(eq("Integration"), any(DeploymentData.class), any());
+        assertThat(update.getStepsPerformed())
+            .containsEntry("buildv2", "built-image")
+            .containsEntry(PublishHandler.PROJECT_HASH_STEP, projectHash);
+    }
+
+    @Test
+    public void shouldBuildWhenImageCannotBeReused() throws InterruptedException {
+        givenDeployments(deployment(1, builtWith(1, projectHash)));
+        when(openShiftService.reuseImage(eq("Integration"), eq(1), any())).thenReturn(Optional.empty());
+
+        final StateUpdate update = handler.execute(deployment(2, Collections.emptyMap()));
+
+        verify(openShiftService).reuseImage(eq("Integration"), eq(1), any());
+        verify(openShiftService).build(eq("Integration"), any(DeploymentData.class), any());
+        assertThat(update.getStepsPerformed())
+            .containsEntry("buildv2", "built-image")
+            .containsEntry(PublishHandler.PROJECT_HASH_STEP, projectHash);
+    }
+
+    private void givenDeployments(IntegrationDeployment... deployments) {
+        when(deploymentDao.fetchIdsByPropertyValue("integrationId", "integration-id")).thenAnswer(invocation -> {
+            final HashSet<String> ids = new HashSet<>();
+            for (IntegrationDeployment deployment : deployments) {
+                ids.add(deployment.getId().get());
+            }
+            return ids;
+        });
+
+        for (IntegrationDeployment deployment : deployments) {
+            when(deploymentDao.fetch(deployment.getId().get())).thenReturn(deployment);
+        }
+    }
+
+    private static Map<String, String> builtWith(int version, String hash) {
+        final Map<String, String> stepsDone = new HashMap<>();
+        stepsDone.put("buildv" + version, "image-" + version);
+        stepsDone.put("deploy", "1");
+        stepsDone.put(PublishHandler.PROJECT_HASH_STEP, hash);
+        stepsDone.put(PublishHandler.BUILD_MILLIS_STEP, "1000");
+
+        return stepsDone;
+    }
+
+    private static IntegrationDeployment deployment(int version, Map<String, String> stepsDone) {
+        return new IntegrationDeployment.Builder()
+            .id(IntegrationDeployment.compositeId("integration-id", version))
+            .version(version)
+            .userId("user")
+            .spec(INTEGRATION)
+            .stepsDone(stepsDone)
+            .build();
+    }
+}
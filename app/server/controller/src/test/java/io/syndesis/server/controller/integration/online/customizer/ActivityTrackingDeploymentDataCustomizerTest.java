@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.controller.integration.online.customizer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Optional;
+import java.util.Properties;
+
+import io.syndesis.common.model.integration.Integration;
+import io.syndesis.common.model.integration.IntegrationDeployment;
+import io.syndesis.common.util.SignedTokens;
+import io.syndesis.server.openshift.DeploymentData;
+import io.syndesis.server.openshift.OpenShiftService;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ActivityTrackingDeploymentDataCustomizerTest {
+
+    final IntegrationDeployment deployment = new IntegrationDeployment.Builder()
+        .integrationId(Optional.of("i-integration"))
+        .spec(new Integration.Builder().build())
+        .build();
+
+    @Test
+    public void shouldConfigureTheActivityTracker() throws IOException {
+        final ActivityTrackingDeploymentDataCustomizer customizer = new ActivityTrackingDeploymentDataCustomizer("http://syndesis-server/api/v1/activity/pods/", "key");
+
+        final DeploymentData data = customizer.customize(DeploymentData.builder().addSecretEntry("application.properties", "existing=value").build(), deployment);
+
+        final Properties properties = new Properties();
+        properties.load(new StringReader(data.getSecret().get("application.properties")));
+
+        assertThat(properties).containsEntry("existing", "value");
+        assertThat(properties).containsEntry(ActivityTrackingDeploymentDataCustomizer.ENDPOINT_PROPERTY, "http://syndesis-server/api/v1/activity/pods/${HOSTNAME}");
+        assertThat(SignedTokens.verify("key", OpenShiftService.ACTIVITY_TRACKING_TOKEN_PURPOSE, properties.getProperty(ActivityTrackingDeploymentDataCustomizer.TOKEN_PROPERTY)))
+            .contains("i-integration");
+    }
+
+    @Test
+    public void shouldNotConfigureTheActivityTrackerWithoutEndpointOrKey() {
+        assertThat(new ActivityTrackingDeploymentDataCustomizer("", "key").customize(DeploymentData.builder().build(), deployment).getSecret()).isEmpty();
+        assertThat(new ActivityTrackingDeploymentDataCustomizer("http://syndesis-server/api/v1/activity/pods/", "").customize(DeploymentData.builder().build(), deployment).getSecret()).isEmpty();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.syndesis.server.dao.manager;
 
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -51,6 +53,28 @@ public interface DataAccessObject<T extends WithId<T>> {
      */
     Set<String> fetchIdsByPropertyValue(String property, String propertyValue);
 
+    /**
+     * Fetches all ids that have all of the specified properties with the given values.
+     * @param propertyValues The property names mapped to their values.
+     * @return               All identifiers matching every property and value combination.
+     */
+    default Set<String> fetchIdsByPropertyValues(Map<String, String> propertyValues) {
+        Set<String> matchingIds = null;
+        for (Map.Entry<String, String> propertyValue : propertyValues.entrySet()) {
+            Set<String> ids = fetchIdsByPropertyValue(propertyValue.getKey(), propertyValue.getValue());
+            if (matchingIds == null) {
+                matchingIds = new HashSet<>(ids);
+            } else {
+                matchingIds.retainAll(ids);
+            }
+            if (matchingIds.isEmpty()) {
+                // short circuit
+                break;
+            }
+        }
+        return matchingIds == null ? new HashSet<>() : matchingIds;
+    }
+
     /**
      * Fetches all ids.
      * @return All identifiers
@@ -23,7 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -267,14 +267,7 @@ public class DataManager implements DataAccessObjectRegistry {
         boolean daoExists = getDataAccessObject(model) != null;
         Cache<String, T> cache = caches.getCache(kind.getModelName(), daoExists);
 
-        T value = cache.get(id);
-        if ( value == null) {
-            value = doWithDataAccessObject(model, d -> d.fetch(id));
-            if (value != null) {
-                cache.put(id, value);
-            }
-        }
-        return value;
+        return cache.computeIfAbsent(id, key -> doWithDataAccessObject(model, d -> d.fetch(key)));
     }
 
     public <K extends WithId<K>> Optional<K> fetchByPropertyValue(Class<K> type, String property, String value) {
@@ -299,21 +292,17 @@ public class DataManager implements DataAccessObjectRegistry {
                 "Found: " + additionalPropValues.length);
         }
 
-        return doWithDataAccessObject(model, d -> {
-            Set<String> matchingIds = new HashSet<>(d.fetchIdsByPropertyValue(property, value));
-            for (int i = 0; i < additionalPropValues.length - 1; i += 2) {
-                if (matchingIds.isEmpty()) {
-                    // short circuit
-                    return matchingIds;
-                }
+        if (additionalPropValues.length == 0) {
+            return fetchIdsByPropertyValue(model, property, value);
+        }
 
-                String propKey = additionalPropValues[i];
-                String propValue = additionalPropValues[i + 1];
-                Set<String> ids = d.fetchIdsByPropertyValue(propKey, propValue);
-                matchingIds.retainAll(ids);
-            }
-            return matchingIds;
-        });
+        final Map<String, String> propertyValues = new LinkedHashMap<>();
+        propertyValues.put(property, value);
+        for (int i = 0; i < additionalPropValues.length - 1; i += 2) {
+            propertyValues.put(additionalPropValues[i], additionalPropValues[i + 1]);
+        }
+
+        return doWithDataAccessObject(model, d -> d.fetchIdsByPropertyValues(propertyValues));
     }
 
     public <T extends WithId<T>> Set<String> fetchIdsByPropertyValue(Class<T> model, String property, String value) {
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.dao.manager.operators;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.syndesis.common.model.ListResult;
+import io.syndesis.common.model.WithResourceId;
+
+/**
+ * Filters by a set of ids.
+ * @param <T> The type of the elements in the filtered list.
+ */
+public final class IdsFilter<T extends WithResourceId> implements Function<ListResult<T>, ListResult<T>> {
+
+    private final Set<String> ids;
+
+    /**
+     * Creates the filter with the ids to keep.
+     * @param ids the ids to match
+     */
+    public IdsFilter(Collection<String> ids) {
+        this.ids = Collections.unmodifiableSet(new LinkedHashSet<>(ids));
+    }
+
+    /**
+     * Applies the filter to the provided list.
+     * @param result The result to filter.
+     * @return  all entries with one of the ids
+     */
+    @Override
+    public ListResult<T> apply(ListResult<T> result) {
+        List<T> list = result.getItems().stream()
+            .filter(x ->
+                x.getId().filter(ids::contains).isPresent()
+            )
+            .collect(Collectors.toList());
+        return new ListResult.Builder<T>().createFrom(result).items(list).build();
+    }
+
+    public Set<String> getIds() {
+        return ids;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.dao.manager.operators;
+
+/**
+ * Operator keeping a page of the elements, data access objects can fetch just
+ * that page from the store when the preceding operators were evaluated there
+ * as well.
+ */
+public interface PageOperator {
+
+    /**
+     * Returns the index of the first element of the page.
+     */
+    int getOffset();
+
+    /**
+     * Returns the maximum number of elements of the page.
+     */
+    int getLimit();
+}
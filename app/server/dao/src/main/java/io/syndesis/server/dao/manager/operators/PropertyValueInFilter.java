@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.dao.manager.operators;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.syndesis.common.model.ListResult;
+
+/**
+ * Filters by the value of a property being one of the given values, data
+ * access objects can evaluate it in the store if the property is indexed.
+ * @param <T> The type of the elements in the filtered list.
+ */
+public final class PropertyValueInFilter<T> implements Function<ListResult<T>, ListResult<T>> {
+
+    private final String property;
+
+    private final Function<T, Optional<String>> accessor;
+
+    private final Set<String> values;
+
+    /**
+     * Creates the filter on the property.
+     * @param property the name of the property, as stored
+     * @param accessor reads the property from the elements, to filter a fetched list
+     * @param values the values to match
+     */
+    public PropertyValueInFilter(String property, Function<T, Optional<String>> accessor, Collection<String> values) {
+        this.property = property;
+        this.accessor = accessor;
+        this.values = Collections.unmodifiableSet(new LinkedHashSet<>(values));
+    }
+
+    /**
+     * Applies the filter to the provided list.
+     * @param result The result to filter.
+     * @return  all entries whose property has one of the values
+     */
+    @Override
+    public ListResult<T> apply(ListResult<T> result) {
+        List<T> list = result.getItems().stream()
+            .filter(x ->
+                accessor.apply(x).filter(values::contains).isPresent()
+            )
+            .collect(Collectors.toList());
+        return new ListResult.Builder<T>().createFrom(result).items(list).build();
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Set<String> getValues() {
+        return values;
+    }
+}
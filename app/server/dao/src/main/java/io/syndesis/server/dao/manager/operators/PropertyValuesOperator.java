@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.dao.manager.operators;
+
+import java.util.Map;
+
+/**
+ * Operator keeping the elements whose properties are equal to the given
+ * values, data access objects can evaluate it in the store instead of on the
+ * fetched list.
+ */
+public interface PropertyValuesOperator {
+
+    /**
+     * Returns the values, compared as strings, the properties of the kept
+     * elements are equal to, an empty map when the operator keeps all elements.
+     * Returns {@code null} when the operator filters on anything else, so it
+     * needs to be applied to the fetched list.
+     */
+    Map<String, String> getPropertyValues();
+}
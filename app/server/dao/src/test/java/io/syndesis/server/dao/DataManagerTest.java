@@ -41,6 +41,7 @@ import org.springframework.core.io.ResourceLoader;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -151,6 +152,7 @@ public class DataManagerTest {
         @SuppressWarnings("unchecked")
         final DataAccessObject<Extension> extensionDao = mock(DataAccessObject.class);
         when(extensionDao.getType()).thenReturn(Extension.class);
+        when(extensionDao.fetchIdsByPropertyValues(anyMap())).thenCallRealMethod();
         dataManager.registerDataAccessObject(extensionDao);
 
         when(extensionDao.fetchIdsByPropertyValue("prop1", "value1"))
@@ -169,6 +171,7 @@ public class DataManagerTest {
         @SuppressWarnings("unchecked")
         final DataAccessObject<Extension> extensionDao = mock(DataAccessObject.class);
         when(extensionDao.getType()).thenReturn(Extension.class);
+        when(extensionDao.fetchIdsByPropertyValues(anyMap())).thenCallRealMethod();
         dataManager.registerDataAccessObject(extensionDao);
 
         when(extensionDao.fetchIdsByPropertyValue("prop1", "value1"))
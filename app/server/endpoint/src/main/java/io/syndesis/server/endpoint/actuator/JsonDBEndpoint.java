@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.endpoint.actuator;
+
+import java.util.Locale;
+import java.util.Map;
+
+import io.syndesis.server.jsondb.Filter;
+import io.syndesis.server.jsondb.GetOptions;
+import io.syndesis.server.jsondb.impl.SqlJsonDB;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+
+/**
+ * Explains how JsonDB queries are executed, i.e. which indexes a filter uses
+ * and the database plan for it, to help find queries that end up scanning.
+ */
+@Configuration
+@Endpoint(id = "jsondb")
+@ConditionalOnBean(SqlJsonDB.class)
+@ConditionalOnProperty(value = "management.endpoints.jsondb.enabled", havingValue = "true", matchIfMissing = true)
+public class JsonDBEndpoint {
+
+    private final SqlJsonDB jsondb;
+
+    public JsonDBEndpoint(SqlJsonDB jsondb) {
+        this.jsondb = jsondb;
+    }
+
+    @ReadOperation
+    public Map<String, Object> explain(String path, @Nullable String field, @Nullable String op, @Nullable String value) {
+        final GetOptions options = new GetOptions();
+        if (field != null) {
+            final Filter.Op filterOp = op == null ? Filter.Op.EQ : Filter.Op.valueOf(op.toUpperCase(Locale.US));
+            options.filter(Filter.child(field, filterOp, value));
+        }
+
+        return jsondb.explain(path, options);
+    }
+}
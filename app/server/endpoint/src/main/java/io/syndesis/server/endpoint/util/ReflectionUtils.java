@@ -15,8 +15,15 @@
  */
 package io.syndesis.server.endpoint.util;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Locale;
+import java.util.function.Function;
 
 public final class ReflectionUtils {
     private ReflectionUtils() {
@@ -43,6 +50,32 @@ public final class ReflectionUtils {
         return superClass != null ? getGetMethodOfType(superClass, fieldName, types) : null;
     }
 
+    /**
+     * Creates a function invoking the given getter. The function is generated
+     * once, like the one of a method reference, so that calling it does not go
+     * through reflection. Falls back to invoking the getter reflectively when
+     * the function can't be generated.
+     */
+    @SuppressWarnings({"unchecked", "PMD.AvoidCatchingThrowable"})
+    static <T, R> Function<T, R> accessor(Method getter) {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle handle = lookup.unreflect(getter);
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class), handle, handle.type().wrap());
+
+            return (Function<T, R>) site.getTarget().invoke();
+        } catch (Throwable ignored) {
+            return o -> {
+                try {
+                    return (R) getter.invoke(o);
+                } catch (InvocationTargetException | IllegalAccessException e) {
+                    throw new IllegalArgumentException("Cannot extract value from " + getter + " for object " + o, e);
+                }
+            };
+        }
+    }
+
     static Method extractMethod(Class<?> clazz, String fieldName, Class<?>... types) {
         try {
             Method method = clazz.getDeclaredMethod("get" + fieldName.substring(0, 1).toUpperCase(Locale.US) + fieldName.substring(1));
@@ -16,19 +16,25 @@
 package io.syndesis.server.endpoint.util;
 
 import io.syndesis.common.model.ListResult;
+import io.syndesis.server.dao.manager.operators.PropertyValuesOperator;
 import io.syndesis.server.endpoint.v1.util.PredicateFilter;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
-public class ReflectiveFilterer<T> implements Function<ListResult<T>, ListResult<T>> {
+public class ReflectiveFilterer<T> implements Function<ListResult<T>, ListResult<T>>, PropertyValuesOperator {
 
     private final List<PredicateFilter<T>> predicateFilters;
 
+    // equality filters on String properties, that the data store can evaluate
+    private final Map<String, String> stringPropertyValues = new LinkedHashMap<>();
+
     public ReflectiveFilterer(Class<T> modelClass, List<FilterOptionsParser.Filter> filters) {
         predicateFilters = new ArrayList<>(filters.size());
         for (FilterOptionsParser.Filter f : filters) {
@@ -56,37 +62,35 @@ public class ReflectiveFilterer<T> implements Function<ListResult<T>, ListResult
         return intermediate;
     }
 
-    @SuppressWarnings("PMD.CyclomaticComplexity")
+    /**
+     * Returns the values of the equality filters when all of them are on
+     * String properties, so that the data store can evaluate them.
+     */
+    @Override
+    public Map<String, String> getPropertyValues() {
+        if (stringPropertyValues.size() != predicateFilters.size()) {
+            return null;
+        }
+
+        return Collections.unmodifiableMap(stringPropertyValues);
+    }
+
     private PredicateFilter<T> equalityFilter(final Class<T> modelClass, final String property, final String value) {
         Method stringGetMethod = ReflectionUtils.getGetMethodOfType(modelClass, property, String.class);
         if (stringGetMethod != null) {
-            return new PredicateFilter<>(o -> {
-                try {
-                    return value.equals(stringGetMethod.invoke(o));
-                } catch (InvocationTargetException | IllegalAccessException e) {
-                    throw new IllegalArgumentException("Cannot extract String value from " + stringGetMethod + " for object " + o, e);
-                }
-            });
+            Function<T, String> getter = ReflectionUtils.accessor(stringGetMethod);
+            stringPropertyValues.put(property, value);
+            return new PredicateFilter<>(o -> value.equals(getter.apply(o)));
         }
         Method optionalStringGetMethod = ReflectionUtils.getGetMethodOfType(modelClass, property, Optional.class);
         if (optionalStringGetMethod != null) {
-            return new PredicateFilter<>(o -> {
-                try {
-                    return Optional.ofNullable(value).equals(((Optional<?>) optionalStringGetMethod.invoke(o)).map(Object::toString));
-                } catch (InvocationTargetException | IllegalAccessException e) {
-                    throw new IllegalArgumentException("Cannot extract String value from " + optionalStringGetMethod + " for object " + o, e);
-                }
-            });
+            Function<T, Optional<?>> getter = ReflectionUtils.accessor(optionalStringGetMethod);
+            return new PredicateFilter<>(o -> Optional.ofNullable(value).equals(getter.apply(o).map(Object::toString)));
         }
         Method objectGetMethod = ReflectionUtils.getGetMethodOfType(modelClass, property, Object.class);
         if (objectGetMethod != null) {
-            return new PredicateFilter<>(o -> {
-                try {
-                    return value.equals(Optional.ofNullable(objectGetMethod.invoke(o)).map(Object::toString).orElse(null));
-                } catch (InvocationTargetException | IllegalAccessException e) {
-                    throw new IllegalArgumentException("Cannot extract Object value from " + objectGetMethod + " for object " + o, e);
-                }
-            });
+            Function<T, Object> getter = ReflectionUtils.accessor(objectGetMethod);
+            return new PredicateFilter<>(o -> value.equals(Optional.ofNullable(getter.apply(o)).map(Object::toString).orElse(null)));
         }
         throw new IllegalArgumentException(String.format("Cannot find field %s in %s as field", property, modelClass.getName()));
     }
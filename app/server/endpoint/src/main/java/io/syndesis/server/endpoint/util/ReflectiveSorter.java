@@ -15,7 +15,6 @@
  */
 package io.syndesis.server.endpoint.util;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -23,11 +22,17 @@ import java.util.List;
 import java.util.function.Function;
 
 import io.syndesis.common.model.ListResult;
+import io.syndesis.server.dao.manager.operators.SortOperator;
 
 /**
- * Generic comparator which sorts based on fields. Fields are retrieved by reflections
+ * Generic comparator which sorts based on fields. Fields are retrieved by
+ * getters found by reflection, invoked through generated accessors.
  */
-public class ReflectiveSorter<T> implements Function<ListResult<T>, ListResult<T>>, Comparator<T> {
+public class ReflectiveSorter<T> implements Function<ListResult<T>, ListResult<T>>, Comparator<T>, SortOperator {
+
+    private final String sortField;
+
+    private final boolean descending;
 
     private Comparator<T> delegate;
 
@@ -42,14 +47,15 @@ public class ReflectiveSorter<T> implements Function<ListResult<T>, ListResult<T
     }
 
     public ReflectiveSorter(Class<T> modelClass, SortOptions options) {
-        String sortField = options.getSortField();
+        sortField = options.getSortField();
+        descending = sortField != null && options.getSortDirection() == SortOptions.SortDirection.DESC;
         if (sortField == null) {
             // No sorting
             delegate = null;
         } else {
             delegate = createDelegateComparator(modelClass, sortField);
 
-            if (options.getSortDirection() == SortOptions.SortDirection.DESC) {
+            if (descending) {
                 delegate = delegate.reversed();
             }
         }
@@ -72,13 +78,8 @@ public class ReflectiveSorter<T> implements Function<ListResult<T>, ListResult<T
     private Comparator<T> getStringComparator(Class<T> modelClass, String fieldName) {
         Method stringGetMethod = ReflectionUtils.getGetMethodOfType(modelClass, fieldName, String.class);
         if (stringGetMethod != null) {
-            return Comparator.comparing(k -> {
-                try {
-                    return (String) stringGetMethod.invoke(k);
-                } catch (InvocationTargetException | IllegalAccessException e) {
-                    throw new IllegalArgumentException("Cannot extract String value from " + stringGetMethod + " for object " + k, e);
-                }
-            });
+            Function<T, String> getter = ReflectionUtils.accessor(stringGetMethod);
+            return Comparator.comparing(getter);
         }
         return null;
     }
@@ -86,13 +87,8 @@ public class ReflectiveSorter<T> implements Function<ListResult<T>, ListResult<T
     private Comparator<T> getIntComparator(Class<T> modelClass, String fieldName) {
         Method intGetMethod = ReflectionUtils.getGetMethodOfType(modelClass, fieldName, int.class, Integer.class);
         if (intGetMethod != null) {
-            return Comparator.comparingInt(k -> {
-                        try {
-                            return (Integer) intGetMethod.invoke(k);
-                        } catch (InvocationTargetException | IllegalAccessException e) {
-                            throw new IllegalArgumentException("Cannot extract int value from " + intGetMethod + " for object " + k, e);
-                        }
-            });
+            Function<T, Integer> getter = ReflectionUtils.accessor(intGetMethod);
+            return Comparator.comparingInt(getter::apply);
         }
         return null;
     }
@@ -103,4 +99,14 @@ public class ReflectiveSorter<T> implements Function<ListResult<T>, ListResult<T
         return delegate.compare(o1,o2);
     }
 
+    @Override
+    public String getSortProperty() {
+        return sortField;
+    }
+
+    @Override
+    public boolean isDescending() {
+        return descending;
+    }
+
 }
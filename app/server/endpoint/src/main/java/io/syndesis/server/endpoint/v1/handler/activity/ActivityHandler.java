@@ -15,10 +15,17 @@
  */
 package io.syndesis.server.endpoint.v1.handler.activity;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -28,6 +35,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import io.syndesis.common.util.IOStreams;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,12 +49,20 @@ import org.springframework.stereotype.Component;
 @Component
 public class ActivityHandler {
 
+    // batches of the integration pods are far below these
+    static final long MAX_INGESTED_REQUEST_SIZE = 1024 * 1024;
+    static final long MAX_INGESTED_EVENTS_SIZE = 8 * 1024 * 1024;
+
+    private static final String BEARER = "Bearer ";
+
     private static final Logger LOG = LoggerFactory.getLogger(ActivityHandler.class);
     private final Optional<ActivityTrackingService> service;
+    private final Optional<ActivityIngestionService> ingestion;
 
-    public ActivityHandler(Optional<ActivityTrackingService> resource) {
+    public ActivityHandler(Optional<ActivityTrackingService> resource, Optional<ActivityIngestionService> ingestion) {
         resource.ifPresent(svc -> LOG.info("ActivityTracking: {}", svc.getClass().getName()));
         this.service = resource;
+        this.ingestion = ingestion;
     }
 
     @GET
@@ -70,4 +86,85 @@ public class ActivityHandler {
         return service.get().getActivities(integrationId, from, limit);
     }
 
+    /**
+     * Receives the events sent by an integration pod, the pod authenticates
+     * with the token issued to its integration. The body is read, up to
+     * a limit, before it is handed over so that slow clients do not hold up
+     * the ingestion of the pod.
+     */
+    @POST
+    @Consumes({"application/x-ndjson", MediaType.TEXT_PLAIN})
+    @Path(value = "/pods/{pod}")
+    public void ingest(
+        @PathParam("pod") String pod,
+        @HeaderParam("Authorization") String authorization,
+        @HeaderParam("Content-Encoding") String encoding,
+        @HeaderParam("Content-Length") Long length,
+        InputStream events
+    ) throws IOException {
+        if( !ingestion.isPresent() ) {
+            throw new WebApplicationException(Response.Status.NOT_IMPLEMENTED);
+        }
+
+        final String token = authorization != null && authorization.startsWith(BEARER) ? authorization.substring(BEARER.length()) : null;
+        final String integrationId = ingestion.get().authenticate(token)
+            .orElseThrow(() -> new WebApplicationException(Response.Status.UNAUTHORIZED));
+
+        if (length != null && length > MAX_INGESTED_REQUEST_SIZE) {
+            throw new WebApplicationException(Response.Status.REQUEST_ENTITY_TOO_LARGE);
+        }
+
+        final InputStream limited = new LimitedInputStream(events, MAX_INGESTED_REQUEST_SIZE);
+        final InputStream decoded = "gzip".equalsIgnoreCase(encoding) ? new LimitedInputStream(new GZIPInputStream(limited), MAX_INGESTED_EVENTS_SIZE) : limited;
+        final byte[] body = IOStreams.readBytes(decoded);
+
+        if (!ingestion.get().ingest(integrationId, pod, new ByteArrayInputStream(body))) {
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Fails the request once more than the given number of bytes is read.
+     */
+    static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read >= 0) {
+                consumed(1);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                consumed(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            consumed(skipped);
+            return skipped;
+        }
+
+        private void consumed(long count) {
+            remaining -= count;
+            if (remaining < 0) {
+                throw new WebApplicationException(Response.Status.REQUEST_ENTITY_TOO_LARGE);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.endpoint.v1.handler.activity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Receives activity tracking events shipped by the integration pods, in the
+ * same {@code <timestamp> <json>} line format as the pod logs.
+ */
+public interface ActivityIngestionService {
+    /**
+     * Returns the id of the integration the token was issued to, or empty
+     * if the token is not valid.
+     */
+    Optional<String> authenticate(String token);
+
+    /**
+     * Ingests the new line delimited events of the given pod, returns
+     * {@code false} if the pod is not a running pod of the integration.
+     */
+    boolean ingest(String integrationId, String podName, InputStream events) throws IOException;
+}
@@ -22,20 +22,14 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import io.syndesis.common.model.ListResult;
-import io.syndesis.common.model.bulletin.IntegrationBulletinBoard;
 import io.syndesis.common.model.integration.Flow;
 import io.syndesis.common.model.integration.Integration;
 import io.syndesis.common.model.integration.IntegrationDeployment;
 import io.syndesis.common.model.integration.IntegrationDeploymentOverview;
 import io.syndesis.common.model.integration.IntegrationDeploymentState;
-import io.syndesis.common.model.integration.IntegrationEndpoint;
 import io.syndesis.common.model.integration.IntegrationOverview;
 import io.syndesis.common.model.integration.Step;
 import io.syndesis.server.dao.manager.DataManager;
-import io.syndesis.server.dao.manager.operators.IdPrefixFilter;
-import io.syndesis.server.dao.manager.operators.ReverseFilter;
-import io.syndesis.server.endpoint.v1.util.DataManagerSupport;
 import io.syndesis.server.openshift.ExposureHelper;
 import org.springframework.stereotype.Component;
 
@@ -50,13 +44,32 @@ class IntegrationOverviewHelper {
         this.exposureHelper = exposureHelper;
     }
 
-    @SuppressWarnings("PMD.NPathComplexity")
     IntegrationOverview toCurrentIntegrationOverview(final Integration integration) {
+        return toCurrentIntegrationOverview(integration, IntegrationResources.of(dataManager, Collections.singletonList(integration)));
+    }
+
+    /**
+     * Overviews of the given integrations, the resources they reference are
+     * fetched once for all of them.
+     */
+    List<IntegrationOverview> toCurrentIntegrationOverviews(final List<Integration> integrations) {
+        final IntegrationResources resources = IntegrationResources.of(dataManager, integrations);
+
+        final List<IntegrationOverview> overviews = new ArrayList<>(integrations.size());
+        for (final Integration integration : integrations) {
+            overviews.add(toCurrentIntegrationOverview(integration, resources));
+        }
+
+        return overviews;
+    }
+
+    @SuppressWarnings("PMD.NPathComplexity")
+    private IntegrationOverview toCurrentIntegrationOverview(final Integration integration, final IntegrationResources resources) {
         final String id = integration.getId().get();
         final IntegrationOverview.Builder builder = new IntegrationOverview.Builder().createFrom(integration);
 
         // add board
-        DataManagerSupport.fetchBoard(dataManager, IntegrationBulletinBoard.class, id).ifPresent(builder::board);
+        resources.board(id).ifPresent(builder::board);
 
         // Defaults
         builder.isDraft(true);
@@ -88,12 +101,11 @@ class IntegrationOverviewHelper {
             // the new style.
         } else {
             // get the latest flows, connections and steps
-            builder.flows(integration.getFlows().stream().map(f -> UpdatesHelper.toCurrentFlow(f, dataManager))
+            builder.flows(integration.getFlows().stream().map(f -> UpdatesHelper.toCurrentFlow(f, resources))
                 .collect(Collectors.toList()));
         }
 
-        final ListResult<IntegrationDeployment> deployments = dataManager.fetchAll(IntegrationDeployment.class,
-                new IdPrefixFilter<>(id + ":"), ReverseFilter.getInstance());
+        final List<IntegrationDeployment> deployments = resources.deployments(id);
 
         final List<IntegrationDeployment> activeDeployments = new ArrayList<>();
         for (final IntegrationDeployment deployment : deployments) {
@@ -132,16 +144,12 @@ class IntegrationOverviewHelper {
             if (exposedDeployment.getId().isPresent()) {
                 builder.managementUrl(Optional.ofNullable(exposureHelper.getManagementUrl(integration.getExposure())));
 
-                final IntegrationEndpoint endpoint = dataManager.fetch(IntegrationEndpoint.class,
-                    exposedDeployment.getId().get());
-                if (endpoint != null) {
-                    builder.url(endpoint.getUrl());
-                }
+                resources.endpoint(exposedDeployment.getId().get()).ifPresent(endpoint -> builder.url(endpoint.getUrl()));
             }
-        } else if (!deployments.getItems().isEmpty()) {
+        } else if (!deployments.isEmpty()) {
             // set overview status to latest deployment because there is no active deployment
-            builder.targetState(deployments.getItems().get(0).getTargetState());
-            builder.currentState(deployments.getItems().get(0).getCurrentState());
+            builder.targetState(deployments.get(0).getTargetState());
+            builder.currentState(deployments.get(0).getCurrentState());
         }
 
         return builder.build();
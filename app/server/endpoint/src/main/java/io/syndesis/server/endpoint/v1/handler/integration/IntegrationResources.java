@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.endpoint.v1.handler.integration;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.syndesis.common.model.bulletin.IntegrationBulletinBoard;
+import io.syndesis.common.model.connection.Connection;
+import io.syndesis.common.model.connection.Connector;
+import io.syndesis.common.model.extension.Extension;
+import io.syndesis.common.model.integration.Integration;
+import io.syndesis.common.model.integration.IntegrationDeployment;
+import io.syndesis.common.model.integration.IntegrationEndpoint;
+import io.syndesis.server.dao.manager.DataManager;
+import io.syndesis.server.dao.manager.operators.IdsFilter;
+import io.syndesis.server.dao.manager.operators.PropertyValueInFilter;
+import io.syndesis.server.dao.manager.operators.ReverseFilter;
+
+/**
+ * Resources referenced by the integrations handled in one request. Each
+ * resource is fetched at most once and shared by all the integrations, and
+ * only the resources of those integrations are fetched. The deployments,
+ * bulletin boards and endpoints of all the integrations are each read with a
+ * single query, on first use: deployments by the indexed integration id,
+ * bulletin boards by the indexed target resource id and endpoints by the ids
+ * of the deployments. Everything else is fetched by id.
+ * <p>
+ * Not thread safe, meant to be used by the thread handling the request.
+ */
+final class IntegrationResources {
+
+    private final DataManager dataManager;
+
+    private final Set<String> integrationIds;
+
+    private final Map<String, Optional<Connection>> connections = new HashMap<>();
+
+    private final Map<String, Optional<Connector>> connectors = new HashMap<>();
+
+    private Map<String, List<IntegrationDeployment>> deployments;
+
+    private Map<String, IntegrationBulletinBoard> boards;
+
+    private Map<String, IntegrationEndpoint> endpoints;
+
+    private Map<String, List<Extension>> installedExtensions;
+
+    private IntegrationResources(final DataManager dataManager, final Set<String> integrationIds) {
+        this.dataManager = dataManager;
+        this.integrationIds = integrationIds;
+    }
+
+    static IntegrationResources of(final DataManager dataManager, final Collection<Integration> integrations) {
+        final Set<String> integrationIds = new LinkedHashSet<>();
+        for (final Integration integration : integrations) {
+            integration.getId().ifPresent(integrationIds::add);
+        }
+
+        return new IntegrationResources(dataManager, integrationIds);
+    }
+
+    Optional<Connection> connection(final String id) {
+        return connections.computeIfAbsent(id, k -> Optional.ofNullable(dataManager.fetch(Connection.class, k)));
+    }
+
+    Optional<Connector> connector(final String id) {
+        return connectors.computeIfAbsent(id, k -> Optional.ofNullable(dataManager.fetch(Connector.class, k)));
+    }
+
+    /**
+     * The installed extension with the given extension id, empty if there is
+     * none or if more than one is marked as installed.
+     */
+    Optional<Extension> installedExtension(final String extensionId) {
+        if (installedExtensions == null) {
+            installedExtensions = dataManager.fetchAllByPropertyValue(Extension.class, "status", Extension.Status.Installed.name())
+                .collect(Collectors.groupingBy(Extension::getExtensionId));
+        }
+
+        final List<Extension> installed = installedExtensions.getOrDefault(extensionId, Collections.emptyList());
+
+        // This could happen if errors happened while activating an extension
+        // leading more than one extension marked as installed
+        if (installed.size() != 1) {
+            return Optional.empty();
+        }
+
+        return Optional.of(installed.get(0));
+    }
+
+    /**
+     * Deployments of the integration, latest first.
+     */
+    List<IntegrationDeployment> deployments(final String integrationId) {
+        if (deployments == null) {
+            deployments = dataManager.fetchAll(IntegrationDeployment.class,
+                new PropertyValueInFilter<>("integrationId", IntegrationDeployment::getIntegrationId, integrationIds),
+                ReverseFilter.getInstance()).getItems().stream()
+                .collect(Collectors.groupingBy(d -> d.getIntegrationId().orElse("")));
+        }
+
+        return deployments.getOrDefault(integrationId, Collections.emptyList());
+    }
+
+    Optional<IntegrationBulletinBoard> board(final String integrationId) {
+        if (boards == null) {
+            boards = new HashMap<>();
+            for (final IntegrationBulletinBoard board : dataManager.fetchAll(IntegrationBulletinBoard.class,
+                new PropertyValueInFilter<>("targetResourceId", b -> Optional.ofNullable(b.getTargetResourceId()), integrationIds))) {
+                boards.putIfAbsent(board.getTargetResourceId(), board);
+            }
+        }
+
+        return Optional.ofNullable(boards.get(integrationId));
+    }
+
+    Optional<IntegrationEndpoint> endpoint(final String deploymentId) {
+        if (endpoints == null) {
+            final Set<String> deploymentIds = new HashSet<>();
+            for (final String integrationId : integrationIds) {
+                deployments(integrationId).forEach(d -> d.getId().ifPresent(deploymentIds::add));
+            }
+
+            endpoints = new HashMap<>();
+            if (!deploymentIds.isEmpty()) {
+                for (final IntegrationEndpoint endpoint : dataManager.fetchAll(IntegrationEndpoint.class, new IdsFilter<>(deploymentIds))) {
+                    endpoint.getId().ifPresent(id -> endpoints.put(id, endpoint));
+                }
+            }
+        }
+
+        return Optional.ofNullable(endpoints.get(deploymentId));
+    }
+}
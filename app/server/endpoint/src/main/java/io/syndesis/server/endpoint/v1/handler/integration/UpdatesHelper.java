@@ -18,7 +18,6 @@ package io.syndesis.server.endpoint.v1.handler.integration;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.MapDifference;
@@ -36,7 +35,6 @@ import io.syndesis.common.model.connection.Connector;
 import io.syndesis.common.model.extension.Extension;
 import io.syndesis.common.model.integration.Flow;
 import io.syndesis.common.model.integration.Step;
-import io.syndesis.server.dao.manager.DataManager;
 
 final class UpdatesHelper {
 
@@ -44,51 +42,38 @@ final class UpdatesHelper {
         // helper class
     }
 
-    static Optional<Connection> toCurrentConnection(final Connection c, final DataManager dataManager) {
-        final Connection connection = dataManager.fetch(Connection.class, c.getId().get());
-        if (connection == null) {
+    static Optional<Connection> toCurrentConnection(final Connection c, final IntegrationResources resources) {
+        final Optional<Connection> connection = resources.connection(c.getId().get());
+        if (!connection.isPresent()) {
             // this may happen when a connection has been deleted
             return Optional.empty();
         }
 
-        final Connector connector = dataManager.fetch(Connector.class, c.getConnectorId());
-        if (connector == null) {
+        final Optional<Connector> connector = resources.connector(c.getConnectorId());
+        if (!connector.isPresent()) {
             // this may happen when the related connector has been deleted
             return Optional.empty();
         }
 
-        return Optional.of(new Connection.Builder().createFrom(connection).connector(connector).build());
+        return Optional.of(new Connection.Builder().createFrom(connection.get()).connector(connector).build());
     }
 
-    static Optional<Extension> toCurrentExtension(final Extension e, final DataManager dataManager) {
-        // Try to lookup the active extensions
-        final Set<String> ids = dataManager.fetchIdsByPropertyValue(Extension.class, "extensionId", e.getExtensionId(),
-            "status", Extension.Status.Installed.name());
-
-        // This could happen if an extension has been deleted
-        if (ids.isEmpty()) {
-            return Optional.empty();
-        }
-
-        // This could happen if errors happened while activating an extension
-        // leading more than one extension marked as installed
-        if (ids.size() > 1) {
-            return Optional.empty();
-        }
-
-        return Optional.ofNullable(dataManager.fetch(Extension.class, ids.iterator().next()));
+    static Optional<Extension> toCurrentExtension(final Extension e, final IntegrationResources resources) {
+        // Try to lookup the active extension, this could fail if the
+        // extension has been deleted
+        return resources.installedExtension(e.getExtensionId());
     }
 
-    static Flow toCurrentFlow(final Flow f, final DataManager dataManager) {
+    static Flow toCurrentFlow(final Flow f, final IntegrationResources resources) {
         return new Flow.Builder().createFrom(f)
-            .connections(f.getConnections().stream().map(c -> toCurrentConnection(c, dataManager))
+            .connections(f.getConnections().stream().map(c -> toCurrentConnection(c, resources))
                 .filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList()))
-            .steps(f.getSteps().stream().map(s -> toCurrentSteps(s, dataManager)).collect(Collectors.toList())).build();
+            .steps(f.getSteps().stream().map(s -> toCurrentSteps(s, resources)).collect(Collectors.toList())).build();
     }
 
-    static Step toCurrentSteps(final Step step, final DataManager dataManager) {
+    static Step toCurrentSteps(final Step step, final IntegrationResources resources) {
         // actualize the connection
-        final Optional<Connection> connection = step.getConnection().flatMap(c -> toCurrentConnection(c, dataManager));
+        final Optional<Connection> connection = step.getConnection().flatMap(c -> toCurrentConnection(c, resources));
 
         // A connection has been deleted
         if (step.getConnection().isPresent() && !connection.isPresent()) {
@@ -97,7 +82,7 @@ final class UpdatesHelper {
         }
 
         // actualize the extension
-        final Optional<Extension> extension = step.getExtension().flatMap(e -> toCurrentExtension(e, dataManager));
+        final Optional<Extension> extension = step.getExtension().flatMap(e -> toCurrentExtension(e, resources));
 
         // An extension has been deleted
         if (step.getExtension().isPresent() && !extension.isPresent()) {
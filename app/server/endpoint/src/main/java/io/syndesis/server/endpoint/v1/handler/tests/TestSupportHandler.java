@@ -22,6 +22,8 @@ import io.syndesis.common.util.backend.BackendController;
 import io.syndesis.common.util.cache.CacheManager;
 import io.syndesis.server.dao.manager.DataAccessObject;
 import io.syndesis.server.dao.manager.DataManager;
+import io.syndesis.server.jsondb.impl.DocumentCache;
+import io.syndesis.server.jsondb.impl.SqlJsonDB;
 import io.syndesis.server.openshift.OpenShiftService;
 
 import org.skife.jdbi.v2.DBI;
@@ -64,12 +66,15 @@ public class TestSupportHandler {
 
     private final DBI dbi;
 
+    private final SqlJsonDB jsondb;
+
     private final CacheManager cacheManager;
 
     private final Collection<BackendController> controllers;
 
-    public TestSupportHandler(DBI dbi, DataManager dataMgr, CacheManager cacheManager, List<DataAccessObject<?>> daos, OpenShiftService openShiftService, Collection<BackendController> controllers) {
+    public TestSupportHandler(DBI dbi, SqlJsonDB jsondb, DataManager dataMgr, CacheManager cacheManager, List<DataAccessObject<?>> daos, OpenShiftService openShiftService, Collection<BackendController> controllers) {
         this.dbi = dbi;
+        this.jsondb = jsondb;
         this.dataMgr = dataMgr;
         this.cacheManager = cacheManager;
         this.controllers = controllers;
@@ -138,6 +143,11 @@ public class TestSupportHandler {
             return null;
         });
         cacheManager.evictAll();
+
+        final DocumentCache documentCache = jsondb.getDocumentCache();
+        if (documentCache != null) {
+            documentCache.invalidateAll();
+        }
     }
 
     private void startControllers() {
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.endpoint.v1.handler.activity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import io.syndesis.common.util.IOStreams;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class ActivityHandlerTest {
+
+    final ActivityIngestionService ingestion = mock(ActivityIngestionService.class);
+
+    final ActivityHandler handler = new ActivityHandler(Optional.empty(), Optional.of(ingestion));
+
+    @Test
+    public void shouldIngestEventsOfAuthenticatedPods() throws IOException {
+        when(ingestion.authenticate("token")).thenReturn(Optional.of("my-integration"));
+        when(ingestion.ingest(eq("my-integration"), eq("my-pod"), any())).thenReturn(true);
+
+        final byte[] events = "2018-01-12T21:22:02.068338027Z {}\n".getBytes(StandardCharsets.UTF_8);
+        final byte[] compressed = gzip(events);
+
+        handler.ingest("my-pod", "Bearer token", "gzip", (long) compressed.length, new ByteArrayInputStream(compressed));
+
+        final ArgumentCaptor<InputStream> ingested = ArgumentCaptor.forClass(InputStream.class);
+        verify(ingestion).ingest(eq("my-integration"), eq("my-pod"), ingested.capture());
+        assertThat(IOStreams.readBytes(ingested.getValue())).isEqualTo(events);
+    }
+
+    @Test
+    public void shouldRejectUnauthenticatedPods() throws IOException {
+        when(ingestion.authenticate(any())).thenReturn(Optional.empty());
+
+        assertStatus(() -> handler.ingest("my-pod", null, null, null, new ByteArrayInputStream(new byte[0])), Response.Status.UNAUTHORIZED);
+        assertStatus(() -> handler.ingest("my-pod", "Basic token", null, null, new ByteArrayInputStream(new byte[0])), Response.Status.UNAUTHORIZED);
+
+        verify(ingestion, times(2)).authenticate(null);
+        verifyNoMoreInteractions(ingestion);
+    }
+
+    @Test
+    public void shouldRejectTooLargeBodies() throws IOException {
+        when(ingestion.authenticate("token")).thenReturn(Optional.of("my-integration"));
+
+        final byte[] plain = new byte[(int) ActivityHandler.MAX_INGESTED_REQUEST_SIZE + 1];
+        final byte[] bomb = gzip(new byte[(int) ActivityHandler.MAX_INGESTED_EVENTS_SIZE + 1]);
+        assertThat((long) bomb.length).isLessThan(ActivityHandler.MAX_INGESTED_REQUEST_SIZE);
+
+        assertStatus(() -> handler.ingest("my-pod", "Bearer token", null, (long) plain.length, new ByteArrayInputStream(plain)), Response.Status.REQUEST_ENTITY_TOO_LARGE);
+        assertStatus(() -> handler.ingest("my-pod", "Bearer token", null, null, new ByteArrayInputStream(plain)), Response.Status.REQUEST_ENTITY_TOO_LARGE);
+        assertStatus(() -> handler.ingest("my-pod", "Bearer token", "gzip", (long) bomb.length, new ByteArrayInputStream(bomb)), Response.Status.REQUEST_ENTITY_TOO_LARGE);
+
+        verify(ingestion, never()).ingest(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void shouldRespondWithNotFoundForUnknownPods() throws IOException {
+        when(ingestion.authenticate("token")).thenReturn(Optional.of("my-integration"));
+        when(ingestion.ingest(eq("my-integration"), eq("other-pod"), any())).thenReturn(false);
+
+        assertStatus(() -> handler.ingest("other-pod", "Bearer token", null, null, new ByteArrayInputStream(new byte[0])), Response.Status.NOT_FOUND);
+    }
+
+    interface Ingestion {
+        void ingest() throws IOException;
+    }
+
+    private static void assertStatus(Ingestion ingestion, Response.Status status) {
+        assertThatThrownBy(ingestion::ingest)
+            .isInstanceOfSatisfying(WebApplicationException.class, e -> assertThat(e.getResponse().getStatus()).isEqualTo(status.getStatusCode()));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
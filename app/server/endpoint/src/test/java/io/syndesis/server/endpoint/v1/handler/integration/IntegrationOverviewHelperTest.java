@@ -15,22 +15,32 @@
  */
 package io.syndesis.server.endpoint.v1.handler.integration;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 
 import io.syndesis.common.model.ListResult;
+import io.syndesis.common.model.WithId;
 import io.syndesis.common.model.action.StepAction;
+import io.syndesis.common.model.bulletin.IntegrationBulletinBoard;
+import io.syndesis.common.model.connection.Connection;
+import io.syndesis.common.model.connection.Connector;
 import io.syndesis.common.model.integration.Flow;
 import io.syndesis.common.model.integration.Integration;
 import io.syndesis.common.model.integration.IntegrationDeployment;
 import io.syndesis.common.model.integration.IntegrationDeploymentState;
+import io.syndesis.common.model.integration.IntegrationEndpoint;
 import io.syndesis.common.model.integration.IntegrationOverview;
 import io.syndesis.common.model.integration.Step;
 import io.syndesis.server.dao.manager.DataManager;
 import io.syndesis.server.openshift.ExposureHelper;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 
 import com.google.common.collect.Sets;
 
@@ -38,6 +48,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -51,6 +64,12 @@ public class IntegrationOverviewHelperTest {
 
     final IntegrationOverviewHelper handler = new IntegrationOverviewHelper(dataManager, exposueHelper);
 
+    @BeforeEach
+    public void nothingStored() {
+        givenStored(IntegrationBulletinBoard.class);
+        givenStored(IntegrationEndpoint.class);
+    }
+
     @Test
     public void shouldNotSetManagementUrlIfEmpty() {
         Integration integration = new Integration.Builder().id(INTEGRATION_ID).build();
@@ -116,4 +135,82 @@ public class IntegrationOverviewHelperTest {
 
         assertThat(integrationOverview.getExposureMeans()).isEqualTo(Collections.emptySet());
     }
+
+    @Test
+    public void shouldFetchReferencedResourcesOnceForAllIntegrations() {
+        final Connector connector = new Connector.Builder().id("connector").build();
+        final Connection connection = new Connection.Builder().id("connection").connectorId("connector").build();
+        final Integration first = integrationUsing("first", connection);
+        final Integration second = integrationUsing("second", connection);
+        final Integration third = integrationUsing("third", connection);
+
+        givenStored(IntegrationDeployment.class,
+            deployment(first, 1, IntegrationDeploymentState.Unpublished),
+            deployment(first, 2, IntegrationDeploymentState.Published),
+            deployment(second, 1, IntegrationDeploymentState.Unpublished),
+            deployment(new Integration.Builder().id("other").build(), 1, IntegrationDeploymentState.Published));
+        givenStored(IntegrationEndpoint.class,
+            new IntegrationEndpoint.Builder().id("first:2").protocol("https").host("first.example.com").build(),
+            new IntegrationEndpoint.Builder().id("other:1").protocol("https").host("other.example.com").build());
+        givenStored(IntegrationBulletinBoard.class,
+            new IntegrationBulletinBoard.Builder().id("board").targetResourceId("second").build(),
+            new IntegrationBulletinBoard.Builder().id("other-board").targetResourceId("other").build());
+        when(dataManager.fetch(Connection.class, "connection")).thenReturn(connection);
+        when(dataManager.fetch(Connector.class, "connector")).thenReturn(connector);
+
+        final List<IntegrationOverview> overviews = handler.toCurrentIntegrationOverviews(Arrays.asList(first, second, third));
+
+        assertThat(overviews).hasSize(3);
+        assertThat(overviews.get(0).getCurrentState()).isEqualTo(IntegrationDeploymentState.Published);
+        assertThat(overviews.get(0).getDeploymentVersion()).hasValue(2);
+        assertThat(overviews.get(0).getUrl()).hasValue("https://first.example.com");
+        assertThat(overviews.get(1).getCurrentState()).isEqualTo(IntegrationDeploymentState.Unpublished);
+        assertThat(overviews.get(1).getDeployments()).hasSize(1);
+        assertThat(overviews.get(1).getBoard().getId()).hasValue("board");
+        assertThat(overviews.get(2).getDeployments()).isEmpty();
+        assertThat(overviews).allSatisfy(overview -> assertThat(overview.getFlows().get(0).getConnections())
+            .allSatisfy(c -> assertThat(c.getConnector()).hasValue(connector)));
+
+        verify(dataManager, times(1)).fetch(Connector.class, "connector");
+        verify(dataManager, times(1)).fetch(Connection.class, "connection");
+        // one query per kind, for the listed integrations only
+        verify(dataManager, times(1)).fetchAll(eq(IntegrationDeployment.class), any(), any());
+        verify(dataManager, times(1)).fetchAll(eq(IntegrationEndpoint.class), any());
+        verify(dataManager, times(1)).fetchAll(eq(IntegrationBulletinBoard.class), any());
+        verify(dataManager, never()).fetchAll(IntegrationDeployment.class);
+        verify(dataManager, never()).fetchAll(IntegrationEndpoint.class);
+        verify(dataManager, never()).fetchAll(IntegrationBulletinBoard.class);
+        verify(dataManager, never()).fetch(eq(IntegrationEndpoint.class), any());
+        verify(dataManager, never()).fetchAll(Connection.class);
+    }
+
+    /**
+     * Stubs the data manager to hold the given items, the operators passed
+     * to fetchAll are applied to them.
+     */
+    @SafeVarargs
+    private final <T extends WithId<T>> void givenStored(final Class<T> type, final T... items) {
+        final Answer<ListResult<T>> answer = invocation -> {
+            ListResult<T> result = ListResult.of(items);
+            for (final Object operator : Arrays.copyOfRange(invocation.getArguments(), 1, invocation.getArguments().length)) {
+                @SuppressWarnings("unchecked")
+                final Function<ListResult<T>, ListResult<T>> function = (Function<ListResult<T>, ListResult<T>>) operator;
+                result = function.apply(result);
+            }
+            return result;
+        };
+        when(dataManager.fetchAll(eq(type), any())).thenAnswer(answer);
+        when(dataManager.fetchAll(eq(type), any(), any())).thenAnswer(answer);
+    }
+
+    private static Integration integrationUsing(final String id, final Connection connection) {
+        return new Integration.Builder().id(id).name(id)
+            .addFlow(new Flow.Builder().id(id + "-flow").addConnection(connection).build())
+            .build();
+    }
+
+    private static IntegrationDeployment deployment(final Integration integration, final int version, final IntegrationDeploymentState state) {
+        return new IntegrationDeployment.Builder().spec(integration).version(version).currentState(state).targetState(state)
+            .id(IntegrationDeployment.compositeId(integration.getId().get(), version)).build();
+    }
 }
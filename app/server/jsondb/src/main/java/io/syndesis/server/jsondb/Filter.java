@@ -29,6 +29,11 @@ public interface Filter {
         GT,
         LTE,
         GTE,
+        /**
+         * Matches string values starting with the given value, evaluated as
+         * a range scan over the index.
+         */
+        PREFIX,
     }
 
     static Filter and(Filter ...filters) {
@@ -15,6 +15,8 @@
  */
 package io.syndesis.server.jsondb;
 
+import java.util.Set;
+
 import io.syndesis.common.model.ToJson;
 
 /**
@@ -36,6 +38,7 @@ public class GetOptions implements ToJson, Cloneable {
     private String endAt;
     private String endBefore;
     private Integer limitToFirst;
+    private Set<String> keys;
     private Order order = Order.ASC;
     private Filter filter;
 
@@ -117,6 +120,19 @@ public class GetOptions implements ToJson, Cloneable {
         return this;
     }
 
+    public Set<String> keys() {
+        return keys;
+    }
+
+    /**
+     * Only the entries with one of the given keys, in addition to the range
+     * and filter.
+     */
+    public GetOptions keys(Set<String> keys) {
+        this.keys = keys;
+        return this;
+    }
+
     public Order order() {
         return order;
     }
@@ -20,6 +20,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -51,6 +54,55 @@ public interface JsonDB {
      */
     Set<String> fetchIdsByPropertyValue(String collectionPath, String property, String value);
 
+    /**
+     * Fetches all paths that hold all of the given property values.
+     * The returned paths are in the form of {@code /<collection>/:<id>}.
+     */
+    default Set<String> fetchIdsByPropertyValues(String collectionPath, Map<String, String> propertyValues) {
+        Set<String> matching = null;
+        for (Map.Entry<String, String> propertyValue : propertyValues.entrySet()) {
+            Set<String> ids = fetchIdsByPropertyValue(collectionPath, propertyValue.getKey(), propertyValue.getValue());
+            if (matching == null) {
+                matching = new HashSet<>(ids);
+            } else {
+                matching.retainAll(ids);
+            }
+            if (matching.isEmpty()) {
+                break;
+            }
+        }
+        return matching == null ? new HashSet<>() : matching;
+    }
+
+    /**
+     * Fetches all paths of the collection entries matching the given filter,
+     * all fields used in the filter need to be indexed.
+     * The returned paths are in the form of {@code /<collection>/:<id>}.
+     */
+    Set<String> fetchIdsByFilter(String collectionPath, Filter filter);
+
+    /**
+     * Lists the keys of the entries directly below the path that match the
+     * filter and range of the options, in their order, without reading the
+     * entries. The first {@code offset} keys are skipped and at most
+     * {@link GetOptions#limitToFirst()} keys are returned.
+     */
+    List<String> fetchKeys(String path, GetOptions options, int offset);
+
+    /**
+     * Counts the entries directly below the path that match the filter and
+     * range of the options, without reading the entries.
+     */
+    int countKeys(String path, GetOptions options);
+
+    /**
+     * Checks if the property of the collection entries is indexed, so that it
+     * can be used in a {@link GetOptions#filter(Filter) filter}.
+     */
+    default boolean isIndexed(String collectionPath, String property) {
+        return false;
+    }
+
     /**
      * Generates a sortable unique id as described at:
      * https://firebase.googleblog.com/2015/02/the-2120-ways-to-ensure-unique_68.html
@@ -16,8 +16,11 @@
 package io.syndesis.server.jsondb.dao;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -36,6 +39,12 @@ import io.syndesis.common.util.SyndesisServerException;
 import io.syndesis.common.util.json.JsonUtils;
 import io.syndesis.server.dao.manager.DataAccessObject;
 import io.syndesis.server.dao.manager.operators.IdPrefixFilter;
+import io.syndesis.server.dao.manager.operators.IdsFilter;
+import io.syndesis.server.dao.manager.operators.PageOperator;
+import io.syndesis.server.dao.manager.operators.PropertyValueInFilter;
+import io.syndesis.server.dao.manager.operators.PropertyValuesOperator;
+import io.syndesis.server.dao.manager.operators.SortOperator;
+import io.syndesis.server.jsondb.Filter;
 import io.syndesis.server.jsondb.GetOptions;
 import io.syndesis.server.jsondb.JsonDB;
 
@@ -82,14 +91,20 @@ public abstract class JsonDbDao<T extends WithId<T>> implements DataAccessObject
     }
 
     @Override
-    @SuppressWarnings({"unchecked", "PMD.CyclomaticComplexity"})
+    @SuppressWarnings({"unchecked", "PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
     public ListResult<T> fetchAll(Function<ListResult<T>, ListResult<T>>... operators) {
         try {
 
             GetOptions options = new GetOptions();
+            List<Filter> filters = new ArrayList<>();
+            PageOperator page = null;
 
-            // Try to convert operators to equivalent DB queries.
+            // Try to convert operators to equivalent DB queries. Filters and
+            // pages can only be evaluated by the DB if all the operators
+            // before them were as well, as the operators left are applied on
+            // the fetched list.
             if( operators!=null ) {
+                boolean inMemory = false;
                 for (int i = 0; i < operators.length; i++) {
                     Function<ListResult<T>, ListResult<T>> operator = operators[i];
                     if( operator.getClass() == IdPrefixFilter.class ) {
@@ -97,10 +112,44 @@ public abstract class JsonDbDao<T extends WithId<T>> implements DataAccessObject
                         options.startAt(":"+filter.getPrefix());
                         options.endAt(":"+filter.getPrefix());
                         operators[i] = null; // Take it out of the list.
+                    } else if( operator instanceof SortOperator && ((SortOperator) operator).getSortProperty() == null ) {
+                        operators[i] = null; // Keeps the order of the DB.
+                    } else if( !inMemory && operator instanceof PropertyValuesOperator && addIndexedFilters((PropertyValuesOperator) operator, filters) ) {
+                        operators[i] = null;
+                    } else if( !inMemory && operator.getClass() == IdsFilter.class && options.keys() == null ) {
+                        Set<String> keys = new LinkedHashSet<>();
+                        ((IdsFilter<T>) operator).getIds().forEach(id -> keys.add(":" + id));
+                        options.keys(keys);
+                        operators[i] = null;
+                    } else if( !inMemory && operator.getClass() == PropertyValueInFilter.class && addIndexedFilter((PropertyValueInFilter<T>) operator, filters, options) ) {
+                        operators[i] = null;
+                    } else if( !inMemory && operator instanceof PageOperator ) {
+                        page = (PageOperator) operator;
+                        operators[i] = null;
+                        inMemory = true;
+                    } else {
+                        inMemory = true;
                     }
                 }
             }
 
+            if( !filters.isEmpty() ) {
+                options.filter(filters.size() == 1 ? filters.get(0) : Filter.and(filters.toArray(new Filter[0])));
+            }
+
+            Integer totalCount = null;
+            if( page != null ) {
+                // Resolve the page to the key of its first entry, so that
+                // only the entries of the page need to be read
+                totalCount = jsondb.countKeys(getCollectionPath(), options);
+                List<String> first = jsondb.fetchKeys(getCollectionPath(), options.clone().limitToFirst(1), page.getOffset());
+                if( first.isEmpty() ) {
+                    return applyInMemory(new ListResult.Builder<T>().totalCount(totalCount).build(), operators);
+                }
+                options.startAt(first.get(0));
+                options.limitToFirst(page.getLimit());
+            }
+
             // get the data out..
             byte[] json = jsondb.getAsByteArray(getCollectionPath(), options);
             ListResult<T> result;
@@ -111,23 +160,62 @@ public abstract class JsonDbDao<T extends WithId<T>> implements DataAccessObject
                 MapType mapType = typeFactory.constructMapType(LinkedHashMap.class, String.class, getType());
                 LinkedHashMap<String, T> map = reader.forType(mapType).readValue(json);
 
-                result = ListResult.of(map.values());
+                result = new ListResult.Builder<T>().items(map.values()).totalCount(totalCount == null ? map.size() : totalCount).build();
             } else {
                 result = ListResult.of(Collections.<T>emptyList());
             }
 
-            if (operators == null) {
-                return result;
+            return applyInMemory(result, operators);
+        } catch (@SuppressWarnings("PMD.AvoidCatchingGenericException") RuntimeException|IOException|CloneNotSupportedException e) {
+            throw SyndesisServerException.launderThrowable(e);
+        }
+    }
+
+    private static <T> ListResult<T> applyInMemory(ListResult<T> fetched, Function<ListResult<T>, ListResult<T>>[] operators) {
+        if (operators == null) {
+            return fetched;
+        }
+
+        ListResult<T> result = fetched;
+        for (Function<ListResult<T>, ListResult<T>> operator : operators) {
+            if( operator!=null ) {
+                result = operator.apply(result);
             }
-            for (Function<ListResult<T>, ListResult<T>> operator : operators) {
-                if( operator!=null ) {
-                    result = operator.apply(result);
-                }
+        }
+        return result;
+    }
+
+    private boolean addIndexedFilters(PropertyValuesOperator operator, List<Filter> filters) {
+        Map<String, String> propertyValues = operator.getPropertyValues();
+        if( propertyValues == null ) {
+            return false;
+        }
+
+        for (String property : propertyValues.keySet()) {
+            if( !jsondb.isIndexed(getCollectionPath(), property) ) {
+                return false;
             }
-            return result;
-        } catch (@SuppressWarnings("PMD.AvoidCatchingGenericException") RuntimeException|IOException e) {
-            throw SyndesisServerException.launderThrowable(e);
         }
+
+        propertyValues.forEach((property, value) -> filters.add(Filter.child(property, Filter.Op.EQ, value)));
+        return true;
+    }
+
+    private boolean addIndexedFilter(PropertyValueInFilter<T> operator, List<Filter> filters, GetOptions options) {
+        if( !jsondb.isIndexed(getCollectionPath(), operator.getProperty()) ) {
+            return false;
+        }
+
+        if( operator.getValues().isEmpty() ) {
+            // no entry can match, an empty key set selects nothing
+            options.keys(Collections.emptySet());
+            return true;
+        }
+
+        filters.add(Filter.or(operator.getValues().stream()
+            .map(value -> Filter.child(operator.getProperty(), Filter.Op.EQ, value))
+            .toArray(Filter[]::new)));
+        return true;
     }
 
     @Override
@@ -154,6 +242,15 @@ public abstract class JsonDbDao<T extends WithId<T>> implements DataAccessObject
             .stream().map(path -> path.substring(path.indexOf(':') + 1)).collect(Collectors.toSet());
     }
 
+    @Override
+    public Set<String> fetchIdsByPropertyValues(final Map<String, String> propertyValues) {
+        final Map<String, String> dbPropertyValues = new LinkedHashMap<>();
+        propertyValues.forEach((property, value) -> dbPropertyValues.put(property.replace('.', '/'), value));
+
+        return jsondb.fetchIdsByPropertyValues(getCollectionPath(), dbPropertyValues)
+            .stream().map(path -> path.substring(path.indexOf(':') + 1)).collect(Collectors.toSet());
+    }
+
     @Override
     public T create(T entity) {
         try {
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.jsondb.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.syndesis.server.jsondb.GetOptions;
+
+/**
+ * Holds the reassembled JSON documents read from the {@code jsondb} table, so
+ * that hot collections can be served without querying and rebuilding the JSON
+ * tree from individual records.
+ *
+ * Entries are invalidated whenever a path that is an ancestor or a descendant
+ * of the cached path is modified. A version number is captured before reading
+ * from the database and a read result is only stored if no invalidation
+ * happened in the meantime, that way a slow reader cannot store a stale
+ * document after a concurrent write has committed.
+ */
+public final class DocumentCache {
+
+    private final List<String> cacheablePaths;
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long version;
+
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private static final class Entry {
+        final String dbPath;
+        final byte[] data;
+
+        Entry(String dbPath, byte[] data) {
+            this.dbPath = dbPath;
+            this.data = data;
+        }
+    }
+
+    /**
+     * @param cacheablePaths the collections (e.g. {@code /integrations}) whose
+     *            documents should be cached, reads of other paths bypass the
+     *            cache
+     * @param maxEntries maximum number of cached documents
+     * @param maxBytes maximum total size of the cached documents
+     */
+    public DocumentCache(Collection<String> cacheablePaths, int maxEntries, long maxBytes) {
+        this.cacheablePaths = new ArrayList<>(cacheablePaths.size());
+        for (String path : cacheablePaths) {
+            this.cacheablePaths.add(JsonRecordSupport.convertToDBPath(path));
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cache key for the given read or {@code null} if the read
+     * cannot be cached.
+     */
+    String keyFor(String dbPath, GetOptions options) {
+        if (options != null && (options.filter() != null || options.keys() != null || options.callback() != null)) {
+            return null;
+        }
+
+        boolean cacheable = false;
+        for (String cacheablePath : cacheablePaths) {
+            if (dbPath.startsWith(cacheablePath)) {
+                cacheable = true;
+                break;
+            }
+        }
+
+        if (!cacheable) {
+            return null;
+        }
+
+        if (options == null) {
+            return dbPath;
+        }
+
+        return dbPath + '?' + options.prettyPrint()
+            + ',' + options.depth()
+            + ',' + options.startAfter()
+            + ',' + options.startAt()
+            + ',' + options.endAt()
+            + ',' + options.endBefore()
+            + ',' + options.limitToFirst()
+            + ',' + options.order();
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    byte[] get(String key) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.data;
+    }
+
+    /**
+     * Stores the document unless the cache was invalidated after the given
+     * version was obtained.
+     */
+    synchronized void put(String key, String dbPath, byte[] data, long readVersion) {
+        if (readVersion != version || data.length > maxBytes) {
+            return;
+        }
+
+        final Entry previous = entries.put(key, new Entry(dbPath, data));
+        if (previous != null) {
+            totalBytes -= previous.data.length;
+        }
+        totalBytes += data.length;
+
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+            totalBytes -= eldest.next().data.length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Drops all cached documents that contain or are contained in the given
+     * path.
+     */
+    public synchronized void invalidate(String path) {
+        final String dbPath = JsonRecordSupport.convertToDBPath(path);
+        version++;
+        invalidations.increment();
+
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.dbPath.startsWith(dbPath) || dbPath.startsWith(entry.dbPath)) {
+                totalBytes -= entry.data.length;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations.increment();
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    public Map<String, Long> stats() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits());
+        stats.put("misses", misses());
+        stats.put("evictions", evictions());
+        stats.put("invalidations", invalidations());
+        stats.put("size", (long) size());
+        stats.put("bytes", sizeInBytes());
+        return stats;
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.jsondb.impl;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.PreparedBatch;
+import org.skife.jdbi.v2.Query;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.tweak.ResultSetMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.syndesis.server.jsondb.JsonDBException;
+
+/**
+ * Writes the records of a JSON document to the {@code jsondb} table by
+ * computing the difference to the records already stored for the same path.
+ * Unchanged records are left alone, changed ones are updated, and only the
+ * new records are inserted in bulk; using {@code COPY FROM STDIN} on
+ * PostgreSQL and multi-row {@code INSERT} statements on other databases.
+ */
+final class JsonRecordWriter implements Consumer<JsonRecord> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonRecordWriter.class);
+
+    private static final int INSERT_BUFFER_SIZE = 1000;
+
+    private static final int ROWS_PER_INSERT_STATEMENT = 100;
+
+    private final Handle handle;
+
+    private final boolean copySupported;
+
+    private final WriteStatistics statistics;
+
+    private final List<JsonRecord> inserts = new ArrayList<>();
+
+    private PreparedBatch updates;
+
+    private Map<String, JsonRecord> existing;
+
+    private long start;
+
+    private long inserted;
+
+    private long updated;
+
+    private long unchanged;
+
+    JsonRecordWriter(Handle handle, SqlJsonDB.DatabaseKind databaseKind, WriteStatistics statistics) {
+        this.handle = handle;
+        this.copySupported = databaseKind == SqlJsonDB.DatabaseKind.PostgreSQL && isPostgreSQLConnection(handle.getConnection());
+        this.statistics = statistics;
+    }
+
+    /**
+     * Starts replacing the value at the given path, loads the records
+     * currently stored for it and any scalar values stored at its parents.
+     */
+    void begin(String baseDBPath) {
+        start = System.nanoTime();
+        inserted = 0;
+        updated = 0;
+        unchanged = 0;
+
+        final List<String> parameters = new ArrayList<>();
+        final String where = SqlJsonDB.recordsForSetCondition(baseDBPath, parameters);
+
+        final Query<Map<String, Object>> query = handle.createQuery("SELECT path, value, ovalue, idx FROM jsondb WHERE " + where);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.bind(i, parameters.get(i));
+        }
+
+        existing = new HashMap<>();
+        for (JsonRecord record : query.map(StoredRecordMapper.INSTANCE).list()) {
+            existing.put(record.getPath(), record);
+        }
+    }
+
+    @Override
+    public void accept(JsonRecord record) {
+        final JsonRecord previous = existing.remove(record.getPath());
+
+        if (previous == null) {
+            inserts.add(record);
+            if (inserts.size() >= INSERT_BUFFER_SIZE) {
+                flushInserts();
+            }
+        } else if (isSame(previous, record)) {
+            unchanged++;
+        } else {
+            if (updates == null) {
+                updates = handle.prepareBatch("UPDATE jsondb SET value = :value, ovalue = :ovalue, idx = :idx WHERE path = :path");
+            }
+            updates.bind("path", record.getPath())
+                .bind("value", record.getValue())
+                .bind("ovalue", record.getOValue())
+                .bind("idx", record.getIndex())
+                .add();
+            updated++;
+        }
+    }
+
+    /**
+     * Removes the records that were not part of the new value and writes any
+     * pending changes.
+     */
+    void end() {
+        final long deleted = existing.size();
+        if (!existing.isEmpty()) {
+            final PreparedBatch deletes = handle.prepareBatch("DELETE FROM jsondb WHERE path = :path");
+            for (String path : existing.keySet()) {
+                deletes.bind("path", path).add();
+            }
+            deletes.execute();
+            existing.clear();
+        }
+
+        flushInserts();
+
+        if (updates != null) {
+            updates.execute();
+            updates = null;
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        statistics.record(inserted, updated, deleted, unchanged, elapsed);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Wrote {} inserted, {} updated, {} deleted and {} unchanged records in {} ms", inserted, updated, deleted, unchanged, elapsed / 1_000_000);
+        }
+    }
+
+    private void flushInserts() {
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        if (copySupported) {
+            copyInserts();
+        } else {
+            for (int i = 0; i < inserts.size(); i += ROWS_PER_INSERT_STATEMENT) {
+                insert(inserts.subList(i, Math.min(i + ROWS_PER_INSERT_STATEMENT, inserts.size())));
+            }
+        }
+
+        inserted += inserts.size();
+        inserts.clear();
+    }
+
+    private void insert(List<JsonRecord> records) {
+        final StringBuilder sql = new StringBuilder(64 + records.size() * 10);
+        sql.append("INSERT INTO jsondb (path, value, ovalue, idx) VALUES ");
+
+        final Object[] parameters = new Object[records.size() * 4];
+        int p = 0;
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append("(?,?,?,?)");
+
+            final JsonRecord record = records.get(i);
+            parameters[p++] = record.getPath();
+            parameters[p++] = record.getValue();
+            parameters[p++] = record.getOValue();
+            parameters[p++] = record.getIndex();
+        }
+
+        handle.update(sql.toString(), parameters);
+    }
+
+    private void copyInserts() {
+        final StringBuilder data = new StringBuilder(inserts.size() * 64);
+        final List<JsonRecord> notCopyable = new ArrayList<>();
+
+        for (JsonRecord record : inserts) {
+            // the text COPY format cannot represent the NUL character used
+            // to mark null values
+            if (containsNul(record.getValue()) || containsNul(record.getOValue())) {
+                notCopyable.add(record);
+                continue;
+            }
+
+            appendCopyValue(data, record.getPath()).append('\t');
+            appendCopyValue(data, record.getValue()).append('\t');
+            appendCopyValue(data, record.getOValue()).append('\t');
+            appendCopyValue(data, record.getIndex()).append('\n');
+        }
+
+        try {
+            final PGConnection connection = handle.getConnection().unwrap(PGConnection.class);
+            connection.getCopyAPI().copyIn("COPY jsondb (path, value, ovalue, idx) FROM STDIN", new StringReader(data.toString()));
+        } catch (SQLException | IOException e) {
+            throw new JsonDBException(e);
+        }
+
+        for (int i = 0; i < notCopyable.size(); i += ROWS_PER_INSERT_STATEMENT) {
+            insert(notCopyable.subList(i, Math.min(i + ROWS_PER_INSERT_STATEMENT, notCopyable.size())));
+        }
+    }
+
+    static StringBuilder appendCopyValue(StringBuilder builder, String value) {
+        if (value == null) {
+            return builder.append("\\N");
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            default:
+                builder.append(c);
+            }
+        }
+
+        return builder;
+    }
+
+    private static boolean containsNul(String value) {
+        return value != null && value.indexOf('\u0000') >= 0;
+    }
+
+    private static boolean isSame(JsonRecord a, JsonRecord b) {
+        return Objects.equals(a.getValue(), b.getValue())
+            && Objects.equals(a.getOValue(), b.getOValue())
+            && Objects.equals(a.getIndex(), b.getIndex());
+    }
+
+    private static boolean isPostgreSQLConnection(Connection connection) {
+        try {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException | NoClassDefFoundError ignored) {
+            return false;
+        }
+    }
+
+    private static class StoredRecordMapper implements ResultSetMapper<JsonRecord> {
+        private static final StoredRecordMapper INSTANCE = new StoredRecordMapper();
+
+        @Override
+        public JsonRecord map(int index, ResultSet r, StatementContext ctx) throws SQLException {
+            return JsonRecord.of(r.getString("path"), r.getString("value"), r.getString("ovalue"), r.getString("idx"));
+        }
+    }
+}
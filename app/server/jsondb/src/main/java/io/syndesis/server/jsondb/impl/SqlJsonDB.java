@@ -21,6 +21,7 @@ import static io.syndesis.server.jsondb.impl.Strings.prefix;
 import static io.syndesis.server.jsondb.impl.Strings.suffix;
 import static io.syndesis.server.jsondb.impl.Strings.trimSuffix;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -34,6 +35,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,7 +47,6 @@ import java.util.stream.Collectors;
 
 import org.skife.jdbi.v2.DBI;
 import org.skife.jdbi.v2.Handle;
-import org.skife.jdbi.v2.PreparedBatch;
 import org.skife.jdbi.v2.Query;
 import org.skife.jdbi.v2.ResultIterator;
 import org.skife.jdbi.v2.StatementContext;
@@ -64,6 +65,7 @@ import io.syndesis.common.util.EventBus;
 import io.syndesis.common.util.KeyGenerator;
 import io.syndesis.common.util.SyndesisServerException;
 import io.syndesis.common.util.TransactedEventBus;
+import io.syndesis.server.jsondb.Filter;
 import io.syndesis.server.jsondb.GetOptions;
 import io.syndesis.server.jsondb.JsonDB;
 import io.syndesis.server.jsondb.JsonDBException;
@@ -88,6 +90,8 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
     private final EventBus bus;
     private final Collection<Index> indexes;
     private final Set<String> indexPaths = new HashSet<>();
+    private DocumentCache documentCache;
+    private final WriteStatistics writeStatistics = new WriteStatistics();
 
     // These values are used to compute a seq key
     private DatabaseKind databaseKind = DatabaseKind.PostgreSQL;
@@ -162,8 +166,49 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
     }
 
     @Override
-    @SuppressWarnings({"PMD.ExcessiveMethodLength", "PMD.NPathComplexity"})
     public Consumer<OutputStream> getAsStreamingOutput(String path, GetOptions options) {
+        final DocumentCache cache = documentCache;
+        if (cache == null) {
+            return getAsStreamingOutputFromDatabase(path, options);
+        }
+
+        final String baseDBPath = JsonRecordSupport.convertToDBPath(path);
+        final String key = cache.keyFor(baseDBPath, options);
+        if (key == null) {
+            return getAsStreamingOutputFromDatabase(path, options);
+        }
+
+        final byte[] cached = cache.get(key);
+        if (cached != null) {
+            return output -> {
+                try {
+                    output.write(cached);
+                } catch (IOException e) {
+                    throw new JsonDBException(e);
+                }
+            };
+        }
+
+        final long version = cache.version();
+        final Consumer<OutputStream> fromDatabase = getAsStreamingOutputFromDatabase(path, options);
+        if (fromDatabase == null) {
+            return null;
+        }
+
+        return output -> {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            fromDatabase.accept(buffer);
+            final byte[] data = buffer.toByteArray();
+            cache.put(key, baseDBPath, data, version);
+            try {
+                output.write(data);
+            } catch (IOException e) {
+                throw new JsonDBException(e);
+            }
+        };
+    }
+
+    private Consumer<OutputStream> getAsStreamingOutputFromDatabase(String path, GetOptions options) {
 
         GetOptions o;
         if (options != null) {
@@ -174,98 +219,12 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
 
         // Lets normalize the path a bit
         String baseDBPath = JsonRecordSupport.convertToDBPath(path);
-        String like = baseDBPath + "%";
-        GetOptions.Order order = o.order();
-        if( order == null ) {
-            order = GetOptions.Order.ASC;
-        }
 
         Consumer<OutputStream> result = null;
         final Handle h = dbi.open();
         try {
 
-            StringBuilder sql = new StringBuilder(250);
-            // Creating the iterator could fail with a runtime exception,
-            ArrayList<Consumer<Query<Map<String, Object>>>> binds = new ArrayList<>();
-
-            if( o.filter() == null ) {
-                sql.append("select path,value,ovalue from jsondb where path LIKE :like");
-            } else {
-                sql.append("SELECT path,value,ovalue FROM jsondb A INNER JOIN (");
-                SqlExpressionBuilder.create(this, o.filter(), baseDBPath).build(sql, binds);
-                sql.append(") B ON A.path LIKE B.match_path||'%'");
-            }
-
-            if (o.startAfter() != null) {
-                String startAfter = validateKey(o.startAfter());
-                if (o.order() == GetOptions.Order.DESC) {
-                    sql.append(" and path <= :startAfter");
-                    binds.add(query -> {
-                        String bindPath = baseDBPath + startAfter;
-                        query.bind("startAfter", bindPath);
-                    });
-                } else {
-                    sql.append(" and path >= :startAfter");
-                    binds.add(query -> {
-                        String bindPath = baseDBPath + incrementKey(startAfter);
-                        query.bind("startAfter", bindPath);
-                    });
-                }
-            }
-            if (o.startAt() != null) {
-                String startAt = validateKey(o.startAt());
-                if (o.order() == GetOptions.Order.DESC) {
-                    sql.append(" and path < :startAt");
-                    binds.add(query -> {
-                        String bindPath = baseDBPath + incrementKey(startAt);
-                        query.bind("startAt", bindPath);
-                    });
-                } else {
-                    sql.append(" and path >= :startAt");
-                    binds.add(query -> {
-                        String bindPath = baseDBPath + startAt;
-                        query.bind("startAt", bindPath);
-                    });
-                }
-            }
-            if (o.endAt() != null) {
-                String endAt = validateKey(o.endAt());
-                if (o.order() == GetOptions.Order.DESC) {
-                    sql.append(" and path > :endAt");
-                    binds.add(query -> {
-                        String value = baseDBPath + endAt;
-                        query.bind("endAt", value);
-                    });
-                } else {
-                    sql.append(" and path < :endAt");
-                    binds.add(query -> {
-                        String bindPath = baseDBPath + incrementKey(endAt);
-                        query.bind("endAt", bindPath);
-                    });
-                }
-            }
-            if (o.endBefore() != null) {
-                String endBefore = validateKey(o.endBefore());
-                if (o.order() == GetOptions.Order.DESC) {
-                    sql.append(" and path >= :endBefore");
-                    binds.add(query -> {
-                        String value = baseDBPath + incrementKey(endBefore);
-                        query.bind("endBefore", value);
-                    });
-                } else {
-                    sql.append(" and path < :endBefore");
-                    binds.add(query -> {
-                        String value = baseDBPath + endBefore;
-                        query.bind("endBefore", value);
-                    });
-                }
-            }
-
-            sql.append(" order by path ").append(order);
-            Query<Map<String, Object>> query = h.createQuery(sql.toString()).bind("like", like);
-            for (Consumer<Query<Map<String, Object>>> bind : binds) {
-                bind.accept(query);
-            }
+            Query<Map<String, Object>> query = createQuery(h, "", baseDBPath, o);
             ResultIterator<JsonRecord> iterator = query.map(JsonRecordMapper.INSTANCE).iterator();
 
             try {
@@ -299,6 +258,255 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
         return result;
     }
 
+    private Query<Map<String, Object>> createQuery(Handle h, String statementPrefix, String baseDBPath, GetOptions o) {
+        ArrayList<Consumer<Query<Map<String, Object>>>> binds = new ArrayList<>();
+        String sql = createSql(baseDBPath, o, binds);
+
+        Query<Map<String, Object>> query = h.createQuery(statementPrefix + sql).bind("like", baseDBPath + "%");
+        for (Consumer<Query<Map<String, Object>>> bind : binds) {
+            bind.accept(query);
+        }
+        return query;
+    }
+
+    private String createSql(String baseDBPath, GetOptions o, ArrayList<Consumer<Query<Map<String, Object>>>> binds) {
+        GetOptions.Order order = o.order();
+        if( order == null ) {
+            order = GetOptions.Order.ASC;
+        }
+
+        StringBuilder sql = new StringBuilder(250);
+
+        if( o.filter() == null ) {
+            sql.append("select path,value,ovalue from jsondb where path LIKE :like");
+        } else {
+            sql.append("SELECT path,value,ovalue FROM jsondb A INNER JOIN (");
+            SqlExpressionBuilder.create(this, o.filter(), baseDBPath).build(sql, binds);
+            sql.append(") B ON A.path LIKE B.match_path||'%'");
+        }
+
+        appendRange(sql, "path", baseDBPath, o, binds);
+
+        sql.append(" order by path ").append(order);
+        return sql.toString();
+    }
+
+    @SuppressWarnings("PMD.NPathComplexity")
+    private static void appendRange(StringBuilder sql, String column, String baseDBPath, GetOptions o, ArrayList<Consumer<Query<Map<String, Object>>>> binds) {
+        if (o.startAfter() != null) {
+            String startAfter = validateKey(o.startAfter());
+            if (o.order() == GetOptions.Order.DESC) {
+                sql.append(" and ").append(column).append(" <= :startAfter");
+                binds.add(query -> {
+                    String bindPath = baseDBPath + startAfter;
+                    query.bind("startAfter", bindPath);
+                });
+            } else {
+                sql.append(" and ").append(column).append(" >= :startAfter");
+                binds.add(query -> {
+                    String bindPath = baseDBPath + incrementKey(startAfter);
+                    query.bind("startAfter", bindPath);
+                });
+            }
+        }
+        if (o.startAt() != null) {
+            String startAt = validateKey(o.startAt());
+            if (o.order() == GetOptions.Order.DESC) {
+                sql.append(" and ").append(column).append(" < :startAt");
+                binds.add(query -> {
+                    String bindPath = baseDBPath + incrementKey(startAt);
+                    query.bind("startAt", bindPath);
+                });
+            } else {
+                sql.append(" and ").append(column).append(" >= :startAt");
+                binds.add(query -> {
+                    String bindPath = baseDBPath + startAt;
+                    query.bind("startAt", bindPath);
+                });
+            }
+        }
+        if (o.endAt() != null) {
+            String endAt = validateKey(o.endAt());
+            if (o.order() == GetOptions.Order.DESC) {
+                sql.append(" and ").append(column).append(" > :endAt");
+                binds.add(query -> {
+                    String value = baseDBPath + endAt;
+                    query.bind("endAt", value);
+                });
+            } else {
+                sql.append(" and ").append(column).append(" < :endAt");
+                binds.add(query -> {
+                    String bindPath = baseDBPath + incrementKey(endAt);
+                    query.bind("endAt", bindPath);
+                });
+            }
+        }
+        if (o.endBefore() != null) {
+            String endBefore = validateKey(o.endBefore());
+            if (o.order() == GetOptions.Order.DESC) {
+                sql.append(" and ").append(column).append(" >= :endBefore");
+                binds.add(query -> {
+                    String value = baseDBPath + incrementKey(endBefore);
+                    query.bind("endBefore", value);
+                });
+            } else {
+                sql.append(" and ").append(column).append(" < :endBefore");
+                binds.add(query -> {
+                    String value = baseDBPath + endBefore;
+                    query.bind("endBefore", value);
+                });
+            }
+        }
+        if (o.keys() != null) {
+            appendKeys(sql, column, baseDBPath, o.keys(), binds);
+        }
+    }
+
+    private static void appendKeys(StringBuilder sql, String column, String baseDBPath, Set<String> keys, ArrayList<Consumer<Query<Map<String, Object>>>> binds) {
+        if (keys.isEmpty()) {
+            sql.append(" and 1 = 0");
+            return;
+        }
+
+        // the paths of an entry sort between its key followed by '/' and
+        // its key followed by the next character, '0'
+        int i = 0;
+        sql.append(" and (");
+        for (String key : keys) {
+            String lower = baseDBPath + validateKey(key) + "/";
+            String bindLower = "key" + i + "from";
+            String bindUpper = "key" + i + "to";
+            if (i > 0) {
+                sql.append(" or ");
+            }
+            sql.append('(').append(column).append(" >= :").append(bindLower)
+                .append(" and ").append(column).append(" < :").append(bindUpper).append(')');
+            binds.add(query -> {
+                query.bind(bindLower, lower);
+                query.bind(bindUpper, incrementKey(lower));
+            });
+            i++;
+        }
+        sql.append(')');
+    }
+
+    @Override
+    public List<String> fetchKeys(String path, GetOptions options, int offset) {
+        GetOptions o = options == null ? new GetOptions() : options;
+        String baseDBPath = JsonRecordSupport.convertToDBPath(path);
+
+        ArrayList<Consumer<Query<Map<String, Object>>>> binds = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(250).append("SELECT DISTINCT ");
+        appendKeySource(sql, baseDBPath, o, binds);
+        sql.append(" order by entry_key ").append(o.order() == null ? GetOptions.Order.ASC : o.order());
+        if (o.limitToFirst() != null) {
+            sql.append(" limit ").append(o.limitToFirst().intValue());
+        }
+        if (offset > 0) {
+            sql.append(" offset ").append(offset);
+        }
+
+        final AtomicReference<List<String>> ret = new AtomicReference<>();
+        withTransaction(dbi -> {
+            Query<Map<String, Object>> query = dbi.createQuery(sql.toString()).bind("like", baseDBPath + "%");
+            for (Consumer<Query<Map<String, Object>>> bind : binds) {
+                bind.accept(query);
+            }
+
+            // the keys are selected with their trailing slash, so that they
+            // sort in the same order as the paths of their entries
+            ret.set(query.map(StringColumnMapper.INSTANCE).list().stream()
+                .map(key -> trimSuffix(key, "/"))
+                .collect(Collectors.toList()));
+        });
+
+        return ret.get();
+    }
+
+    @Override
+    public int countKeys(String path, GetOptions options) {
+        GetOptions o = options == null ? new GetOptions() : options;
+        String baseDBPath = JsonRecordSupport.convertToDBPath(path);
+
+        ArrayList<Consumer<Query<Map<String, Object>>>> binds = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(250).append("SELECT COUNT(*) FROM (SELECT DISTINCT ");
+        appendKeySource(sql, baseDBPath, o, binds);
+        sql.append(") K");
+
+        final AtomicReference<Integer> ret = new AtomicReference<>();
+        withTransaction(dbi -> {
+            Query<Map<String, Object>> query = dbi.createQuery(sql.toString()).bind("like", baseDBPath + "%");
+            for (Consumer<Query<Map<String, Object>>> bind : binds) {
+                bind.accept(query);
+            }
+            ret.set(query.map(IntegerColumnMapper.PRIMITIVE).first());
+        });
+
+        return ret.get();
+    }
+
+    /**
+     * Selects the keys below the base path, as {@code entry_key}, from the
+     * paths of the entries or, with a filter, from the paths the filter
+     * matched. Only the first path segment below the base path is kept.
+     */
+    private void appendKeySource(StringBuilder sql, String baseDBPath, GetOptions o, ArrayList<Consumer<Query<Map<String, Object>>>> binds) {
+        String column = o.filter() == null ? "path" : "match_path";
+        String remainder = "substr(" + column + ", " + (baseDBPath.length() + 1) + ")";
+        if (databaseKind == DatabaseKind.H2) {
+            sql.append("split_part('/', ").append(remainder).append(", 1)");
+        } else {
+            sql.append("split_part(").append(remainder).append(", '/', 1)");
+        }
+        sql.append("||'/' as entry_key FROM ");
+
+        if (o.filter() == null) {
+            sql.append("jsondb");
+        } else {
+            sql.append('(');
+            SqlExpressionBuilder.create(this, o.filter(), baseDBPath).build(sql, binds);
+            sql.append(") B");
+        }
+        sql.append(" where ").append(column).append(" LIKE :like");
+        appendRange(sql, column, baseDBPath, o, binds);
+    }
+
+    /**
+     * Describes how the database would execute {@link #getAsStreamingOutput(String, GetOptions)}
+     * for the given path and options: the generated SQL, the indexes the filter
+     * relies on and the plan reported by the database's {@code EXPLAIN}.
+     */
+    public Map<String, Object> explain(String path, GetOptions options) {
+        GetOptions o = options == null ? new GetOptions() : options;
+        String baseDBPath = JsonRecordSupport.convertToDBPath(path);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("path", baseDBPath);
+        result.put("sql", createSql(baseDBPath, o, new ArrayList<>()));
+
+        List<String> used = new ArrayList<>();
+        collectIndexPaths(o.filter(), baseDBPath, used);
+        result.put("indexes", used);
+
+        try (Handle h = dbi.open()) {
+            result.put("plan", createQuery(h, "EXPLAIN ", baseDBPath, o).map(StringColumnMapper.INSTANCE).list());
+        } catch (@SuppressWarnings("PMD.AvoidCatchingGenericException") RuntimeException e) {
+            LOG.debug("Unable to explain query for path: {}", path, e);
+            result.put("error", e.getMessage());
+        }
+
+        return result;
+    }
+
+    private static void collectIndexPaths(Filter filter, String baseDBPath, List<String> indexPaths) {
+        if (filter instanceof ChildFilter) {
+            indexPaths.add(baseDBPath + "#" + ((ChildFilter) filter).field());
+        } else if (filter instanceof LogicalFilter) {
+            for (Filter child : ((LogicalFilter) filter).filters()) {
+                collectIndexPaths(child, baseDBPath, indexPaths);
+            }
+        }
+    }
 
     @Override
     public boolean delete(String path) {
@@ -308,6 +516,7 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
         withTransaction(dbi -> {
             rc[0] = deleteJsonRecords(dbi, baseDBPath, like) > 0;
         });
+        invalidateCache(path);
         if( bus!=null && rc[0] ) {
             bus.broadcast("jsondb-deleted", prefix(trimSuffix(path, "/"), "/"));
         }
@@ -316,6 +525,9 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
 
     public void executeNative(final String sql, final Object... parameters) {
         withTransaction(handle -> handle.execute(sql, parameters));
+        if (documentCache != null) {
+            documentCache.invalidateAll();
+        }
     }
 
     @Override
@@ -357,6 +569,58 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
         }
     }
 
+    @Override
+    public Set<String> fetchIdsByPropertyValues(final String collectionPath, final Map<String, String> propertyValues) {
+        String path = prefix(trimSuffix(collectionPath, "/"), "/");
+
+        List<Filter> filters = new ArrayList<>(propertyValues.size());
+        for (Map.Entry<String, String> propertyValue : propertyValues.entrySet()) {
+            if (!indexPaths.contains(path + "/#" + propertyValue.getKey())) {
+                return JsonDB.super.fetchIdsByPropertyValues(collectionPath, propertyValues);
+            }
+            filters.add(Filter.child(propertyValue.getKey(), Filter.Op.EQ, propertyValue.getValue()));
+        }
+
+        if (filters.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        return fetchIdsByFilter(collectionPath, filters.size() == 1 ? filters.get(0) : Filter.and(filters.toArray(new Filter[0])));
+    }
+
+    @Override
+    public boolean isIndexed(final String collectionPath, final String property) {
+        return indexPaths.contains(prefix(trimSuffix(collectionPath, "/"), "/") + "/#" + property);
+    }
+
+    @Override
+    public Set<String> fetchIdsByFilter(final String collectionPath, final Filter filter) {
+        String baseDBPath = JsonRecordSupport.convertToDBPath(collectionPath);
+
+        StringBuilder sql = new StringBuilder(250);
+        ArrayList<Consumer<Query<Map<String, Object>>>> binds = new ArrayList<>();
+        SqlExpressionBuilder.create(this, filter, baseDBPath).build(sql, binds);
+
+        final AtomicReference<Set<String>> ret = new AtomicReference<>();
+        withTransaction(dbi -> {
+            Query<Map<String, Object>> query = dbi.createQuery(sql.toString());
+            for (Consumer<Query<Map<String, Object>>> bind : binds) {
+                bind.accept(query);
+            }
+
+            // the match paths point at the matching property, so we keep
+            // only the first path segment below the collection
+            Set<String> ids = new HashSet<>();
+            for (String matchPath : query.map(StringColumnMapper.INSTANCE).list()) {
+                int end = matchPath.indexOf('/', baseDBPath.length());
+                ids.add(end < 0 ? matchPath : matchPath.substring(0, end));
+            }
+            ret.set(ids);
+        });
+
+        return ret.get();
+    }
+
     protected Set<String> fetchIdsByPropertyValueFullTableScan(final String collectionPath, final String property, final String value) {
         final String pathRegex = collectionPath + "/:[^/]+/" + property;
 
@@ -390,66 +654,20 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
         return key;
     }
 
-    static class BatchManager {
-
-        private final Handle dbi;
-        private long batchSize;
-        private PreparedBatch insertBatch;
-
-        BatchManager(Handle dbi) {
-            this.dbi = dbi;
-        }
-
-        public void deleteRecordsForSet(String baseDBPath) {
-            String like = baseDBPath + "%";
-            deleteJsonRecords(dbi, baseDBPath, like);
-        }
-
-        public Consumer<JsonRecord> createSetConsumer() {
-            return r -> {
-                PreparedBatch insert = getInsertBatch();
-                insert.bind("path", r.getPath())
-                    .bind("value", r.getValue())
-                    .bind("ovalue", r.getOValue())
-                    .bind("idx", r.getIndex())
-                    .add();
-
-                batchSize += r.getPath().length() + r.getValue().length();
-                if (batchSize > 512 * 1024) { // Write the batch once we have enough data.
-                    insert.execute();
-                    batchSize = 0;
-                }
-            };
-        }
-
-        public PreparedBatch getInsertBatch() {
-            if (insertBatch == null) {
-                insertBatch = dbi.prepareBatch("INSERT into jsondb (path, value, ovalue, idx) values (:path, :value, :ovalue, :idx)");
-            }
-            return insertBatch;
-        }
-
-        public void flush() {
-            if (batchSize > 0 && insertBatch != null) {
-                insertBatch.execute();
-
-            }
-        }
-    }
-
     @Override
     public void set(String path, InputStream body) {
         withTransaction(dbi -> {
-            BatchManager mb = new BatchManager(dbi);
+            JsonRecordWriter writer = new JsonRecordWriter(dbi, databaseKind, writeStatistics);
             String baseDBPath = JsonRecordSupport.convertToDBPath(path);
-            mb.deleteRecordsForSet(baseDBPath);
+            writer.begin(baseDBPath);
             try {
-                JsonRecordSupport.jsonStreamToRecords(indexPaths, baseDBPath, body, mb.createSetConsumer());
+                JsonRecordSupport.jsonStreamToRecords(indexPaths, baseDBPath, body, writer);
             } catch (IOException e) {
                 throw new JsonDBException(e);
             }
-            mb.flush();
+            writer.end();
         });
+        invalidateCache(path);
         if( bus!=null ) {
             bus.broadcast("jsondb-updated", prefix(trimSuffix(path, "/"), "/"));
         }
@@ -460,7 +678,7 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
         ArrayList<String> updatePaths = new ArrayList<>();
         withTransaction(dbi -> {
             try {
-                BatchManager mb = new BatchManager(dbi);
+                JsonRecordWriter writer = new JsonRecordWriter(dbi, databaseKind, writeStatistics);
 
                 try (JsonParser jp = new JsonFactory().createParser(is)) {
                     JsonToken nextToken = jp.nextToken();
@@ -481,26 +699,29 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
                         String key = suffix(path, "/")+jp.getCurrentName();
                         updatePaths.add(key);
                         String baseDBPath = JsonRecordSupport.convertToDBPath(key);
-                        mb.deleteRecordsForSet(baseDBPath);
+                        writer.begin(baseDBPath);
 
                         try {
-                            JsonRecordSupport.jsonStreamToRecords(indexPaths, jp, baseDBPath, mb.createSetConsumer());
+                            JsonRecordSupport.jsonStreamToRecords(indexPaths, jp, baseDBPath, writer);
                         } catch (IOException e) {
                             throw new JsonDBException(e);
                         }
+                        writer.end();
                     }
 
                     nextToken = jp.nextToken();
                     if (nextToken != null) {
                         throw new JsonParseException(jp, "Document did not terminate as expected.");
                     }
-                    mb.flush();
                 }
             } catch (IOException e) {
                 throw new JsonDBException(e);
             }
 
         });
+        for (String updatePath : updatePaths) {
+            invalidateCache(updatePath);
+        }
         if( bus!=null ) {
             for (String updatePath : updatePaths) {
                 bus.broadcast("jsondb-updated", prefix(trimSuffix(updatePath, "/"), "/"));
@@ -509,21 +730,34 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
     }
 
 
+    private void invalidateCache(String path) {
+        if (documentCache != null) {
+            documentCache.invalidate(path);
+        }
+    }
+
     private static int deleteJsonRecords(Handle dbi, String baseDBPath, String like) {
+        ArrayList<String> queryParams = new ArrayList<>();
+        String sql = "DELETE FROM jsondb WHERE " + recordsForSetCondition(baseDBPath, queryParams);
 
+        return dbi.update(sql, queryParams.toArray());
+    }
+
+    /**
+     * Builds the condition matching the records replaced when setting the
+     * given path: the records under the path and any values stored at its
+     * parents.
+     */
+    static String recordsForSetCondition(String baseDBPath, List<String> queryParams) {
         ArrayList<String> expressions = new ArrayList<>();
-        ArrayList<String> queryParams = new ArrayList<>();
         for (String p : getAllParentPaths(baseDBPath)) {
             expressions.add("path = ?");
             queryParams.add(p);
         }
         expressions.add("path LIKE ?");
-        queryParams.add(like);
+        queryParams.add(baseDBPath + "%");
 
-        StringBuilder sql = new StringBuilder("DELETE FROM jsondb WHERE ");
-        sql.append(String.join(" OR ", expressions));
-
-        return dbi.update(sql.toString(), queryParams.toArray());
+        return String.join(" OR ", expressions);
     }
 
     private static Deque<String> getAllParentPaths(String baseDBPath) {
@@ -576,6 +810,23 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
         return indexPaths;
     }
 
+    public WriteStatistics getWriteStatistics() {
+        return writeStatistics;
+    }
+
+    public DocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
+    /**
+     * Enables caching of the documents read from the database. Changes made
+     * through this instance invalidate the affected entries, changes made
+     * directly to the {@code jsondb} table must not target the cached paths.
+     */
+    public void setDocumentCache(DocumentCache documentCache) {
+        this.documentCache = documentCache;
+    }
+
     public DatabaseKind getDatabaseKind() {
         return databaseKind;
     }
@@ -605,6 +856,11 @@ public class SqlJsonDB implements JsonDB, WithGlobalTransaction {
                     }
 
                     throw SyndesisServerException.launderThrowable(e);
+                } finally {
+                    // changes made within the transaction are not tracked
+                    if (documentCache != null) {
+                        documentCache.invalidateAll();
+                    }
                 }
             } catch (SQLException e) {
                 throw SyndesisServerException.launderThrowable(e);
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.jsondb.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the records written by {@link SqlJsonDB}.
+ */
+public final class WriteStatistics {
+
+    private final LongAdder inserted = new LongAdder();
+
+    private final LongAdder updated = new LongAdder();
+
+    private final LongAdder deleted = new LongAdder();
+
+    private final LongAdder unchanged = new LongAdder();
+
+    private final LongAdder time = new LongAdder();
+
+    void record(long inserted, long updated, long deleted, long unchanged, long nanos) {
+        this.inserted.add(inserted);
+        this.updated.add(updated);
+        this.deleted.add(deleted);
+        this.unchanged.add(unchanged);
+        this.time.add(nanos);
+    }
+
+    public long inserted() {
+        return inserted.sum();
+    }
+
+    public long updated() {
+        return updated.sum();
+    }
+
+    public long deleted() {
+        return deleted.sum();
+    }
+
+    public long unchanged() {
+        return unchanged.sum();
+    }
+
+    /**
+     * Total time spent writing, in nanoseconds.
+     */
+    public long time() {
+        return time.sum();
+    }
+
+    /**
+     * Average number of records processed per second, including the records
+     * that were found to be unchanged.
+     */
+    public double rowsPerSecond() {
+        final long nanos = time();
+        if (nanos == 0) {
+            return 0;
+        }
+
+        return (double) (inserted() + updated() + deleted() + unchanged()) * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+}
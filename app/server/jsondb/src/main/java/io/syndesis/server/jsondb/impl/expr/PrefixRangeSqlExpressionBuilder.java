@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.jsondb.impl.expr;
+
+import static io.syndesis.server.jsondb.impl.JsonRecordSupport.STRING_VALUE_PREFIX;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.skife.jdbi.v2.Query;
+
+/**
+ * Renders the bounds of a string prefix match as {@code :lower AND value < :upper}
+ * so that it's served by a range scan on the {@code (idx, value)} index
+ * instead of a {@code LIKE} that can't use it with bound parameters.
+ */
+class PrefixRangeSqlExpressionBuilder extends SqlExpressionBuilder {
+    private final String prefix;
+
+    public PrefixRangeSqlExpressionBuilder(Object prefix) {
+        this.prefix = STRING_VALUE_PREFIX + String.valueOf(prefix);
+    }
+
+    @Override
+    public void build(StringBuilder sql, ArrayList<Consumer<Query<Map<String, Object>>>> binds, AtomicInteger bindCounter) {
+        int b1 = bindCounter.incrementAndGet();
+        int b2 = bindCounter.incrementAndGet();
+        sql.append(":f").append(b1).append(" AND value < :f").append(b2);
+        binds.add(query -> {
+            query.bind("f" + b1, prefix);
+            query.bind("f" + b2, upperBound(prefix));
+        });
+    }
+
+    static String upperBound(String prefix) {
+        char[] chars = prefix.toCharArray();
+        chars[chars.length - 1]++;
+        return new String(chars);
+    }
+}
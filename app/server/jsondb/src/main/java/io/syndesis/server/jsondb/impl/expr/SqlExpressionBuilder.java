@@ -56,6 +56,9 @@ public abstract class SqlExpressionBuilder {
             throw new JsonDBException("You can only filter on fields that are indexed.");
         }
         PropertySqlExpressionBuilder left = new PropertySqlExpressionBuilder(idx);
+        if( filter.op() == Filter.Op.PREFIX ) {
+            return new BinarySqlExpressionBuilder(db, left, " >= ", new PrefixRangeSqlExpressionBuilder(filter.value()));
+        }
         LiteralSqlExpressionBuilder right = new LiteralSqlExpressionBuilder(filter.value());
         return new BinarySqlExpressionBuilder(db, left, toSqlOp(filter.op()), right);
     }
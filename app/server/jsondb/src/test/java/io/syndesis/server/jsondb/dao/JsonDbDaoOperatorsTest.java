@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.jsondb.dao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.syndesis.common.model.ListResult;
+import io.syndesis.common.model.integration.Integration;
+import io.syndesis.server.dao.manager.operators.IdsFilter;
+import io.syndesis.server.dao.manager.operators.PageOperator;
+import io.syndesis.server.dao.manager.operators.PropertyValueInFilter;
+import io.syndesis.server.dao.manager.operators.PropertyValuesOperator;
+import io.syndesis.server.jsondb.CloseableJsonDB;
+import io.syndesis.server.jsondb.impl.Index;
+import io.syndesis.server.jsondb.impl.MemorySqlJsonDB;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SuppressWarnings("unchecked")
+public class JsonDbDaoOperatorsTest {
+
+    private CloseableJsonDB jsondb;
+
+    private JsonDbDao<Integration> dao;
+
+    @BeforeEach
+    public void createIntegrations() {
+        jsondb = MemorySqlJsonDB.create(Collections.singletonList(new Index("/integrations", "name")));
+        dao = new JsonDbDao<Integration>(jsondb) {
+            @Override
+            public Class<Integration> getType() {
+                return Integration.class;
+            }
+        };
+
+        for (int i = 0; i < 50; i++) {
+            dao.create(new Integration.Builder()
+                .id(String.format("i-%03d", i))
+                .name(i % 2 == 0 ? "even" : "odd")
+                .build());
+        }
+    }
+
+    @AfterEach
+    public void closeDatabase() throws IOException {
+        jsondb.close();
+    }
+
+    @Test
+    public void shouldFetchOnlyThePageFromTheDatabase() {
+        final Page page = new Page(20, 10);
+
+        final ListResult<Integration> result = dao.fetchAll(page);
+
+        assertThat(ids(result)).containsExactly("i-020", "i-021", "i-022", "i-023", "i-024", "i-025", "i-026", "i-027", "i-028", "i-029");
+        assertThat(result.getTotalCount()).isEqualTo(50);
+        assertThat(page.applied).isFalse();
+    }
+
+    @Test
+    public void shouldFetchNothingPastTheLastPage() {
+        final ListResult<Integration> result = dao.fetchAll(new Page(60, 10));
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getTotalCount()).isEqualTo(50);
+    }
+
+    @Test
+    public void shouldFilterOnIndexedPropertiesInTheDatabase() {
+        final PropertyValues odd = new PropertyValues(Collections.singletonMap("name", "odd"));
+        final Page page = new Page(0, 3);
+
+        final ListResult<Integration> result = dao.fetchAll(odd, page);
+
+        assertThat(ids(result)).containsExactly("i-001", "i-003", "i-005");
+        assertThat(result.getTotalCount()).isEqualTo(25);
+        assertThat(odd.applied).isFalse();
+        assertThat(page.applied).isFalse();
+    }
+
+    @Test
+    public void shouldFilterOnPropertiesNotIndexedInMemory() {
+        final PropertyValues described = new PropertyValues(Collections.singletonMap("description", "none"));
+        final Page page = new Page(0, 3);
+
+        final ListResult<Integration> result = dao.fetchAll(described, page);
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(described.applied).isTrue();
+        assertThat(page.applied).isTrue();
+    }
+
+    @Test
+    public void shouldFetchOnlyTheGivenIdsFromTheDatabase() {
+        final ListResult<Integration> result = dao.fetchAll(new IdsFilter<>(Arrays.asList("i-007", "i-003", "i-042", "i-100")));
+
+        assertThat(ids(result)).containsExactly("i-003", "i-007", "i-042");
+        assertThat(dao.fetchAll(new IdsFilter<>(Collections.emptyList())).getItems()).isEmpty();
+    }
+
+    @Test
+    public void shouldFilterOnIndexedPropertyValuesInTheDatabase() {
+        final PropertyValueInFilter<Integration> named = new PropertyValueInFilter<>("name", i -> Optional.of(i.getName()), Arrays.asList("odd", "none"));
+        final Page page = new Page(1, 2);
+
+        final ListResult<Integration> result = dao.fetchAll(named, page);
+
+        assertThat(ids(result)).containsExactly("i-003", "i-005");
+        assertThat(result.getTotalCount()).isEqualTo(25);
+        assertThat(page.applied).isFalse();
+        assertThat(dao.fetchAll(new PropertyValueInFilter<>("name", i -> Optional.of(i.getName()), Collections.emptyList())).getItems()).isEmpty();
+    }
+
+    @Test
+    public void shouldFilterOnPropertyValuesNotIndexedInMemory() {
+        final PropertyValueInFilter<Integration> described = new PropertyValueInFilter<>("description", Integration::getDescription, Collections.singletonList("none"));
+
+        assertThat(dao.fetchAll(described).getItems()).isEmpty();
+    }
+
+    @Test
+    public void shouldPageInMemoryAfterOperatorsAppliedInMemory() {
+        final Function<ListResult<Integration>, ListResult<Integration>> reverse = result -> {
+            final List<Integration> reversed = new ArrayList<>(result.getItems());
+            Collections.reverse(reversed);
+            return ListResult.of(reversed);
+        };
+        final Page page = new Page(0, 2);
+
+        final ListResult<Integration> result = dao.fetchAll(reverse, page);
+
+        assertThat(ids(result)).containsExactly("i-049", "i-048");
+        assertThat(page.applied).isTrue();
+    }
+
+    private static List<String> ids(ListResult<Integration> result) {
+        return result.getItems().stream().map(i -> i.getId().get()).collect(Collectors.toList());
+    }
+
+    private static final class Page implements Function<ListResult<Integration>, ListResult<Integration>>, PageOperator {
+        private final int offset;
+
+        private final int limit;
+
+        private boolean applied;
+
+        Page(int offset, int limit) {
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        @Override
+        public ListResult<Integration> apply(ListResult<Integration> result) {
+            applied = true;
+            final List<Integration> items = result.getItems();
+            return new ListResult.Builder<Integration>().createFrom(result)
+                .items(items.subList(Math.min(offset, items.size()), Math.min(offset + limit, items.size())))
+                .build();
+        }
+
+        @Override
+        public int getOffset() {
+            return offset;
+        }
+
+        @Override
+        public int getLimit() {
+            return limit;
+        }
+    }
+
+    private static final class PropertyValues implements Function<ListResult<Integration>, ListResult<Integration>>, PropertyValuesOperator {
+        private final Map<String, String> propertyValues;
+
+        private boolean applied;
+
+        PropertyValues(Map<String, String> propertyValues) {
+            this.propertyValues = propertyValues;
+        }
+
+        @Override
+        public ListResult<Integration> apply(ListResult<Integration> result) {
+            applied = true;
+            return ListResult.of(result.getItems().stream()
+                .filter(i -> propertyValues.entrySet().stream().allMatch(e -> "name".equals(e.getKey()) && e.getValue().equals(i.getName())))
+                .collect(Collectors.toList()));
+        }
+
+        @Override
+        public Map<String, String> getPropertyValues() {
+            return propertyValues;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.jsondb.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.skife.jdbi.v2.DBI;
+
+import io.syndesis.server.jsondb.Filter;
+import io.syndesis.server.jsondb.GetOptions;
+
+public class DocumentCacheTest {
+
+    private SqlJsonDB jsondb;
+
+    private DocumentCache cache;
+
+    @BeforeEach
+    public void before() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:document-cache;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        DBI dbi = new DBI(ds);
+
+        jsondb = new SqlJsonDB(dbi, null, Collections.singletonList(new Index("/integrations", "name")));
+        try {
+            jsondb.dropTables();
+        } catch (Exception e) {
+        }
+        jsondb.createTables();
+
+        cache = new DocumentCache(Arrays.asList("/integrations", "/connections"), 10, 1024 * 1024);
+        jsondb.setDocumentCache(cache);
+    }
+
+    @Test
+    public void shouldServeRepeatedReadsFromCache() {
+        jsondb.set("/integrations/:1", "{\"name\":\"one\"}");
+
+        assertThat(jsondb.getAsString("/integrations")).isEqualTo("{\":1\":{\"name\":\"one\"}}");
+        assertThat(jsondb.getAsString("/integrations")).isEqualTo("{\":1\":{\"name\":\"one\"}}");
+
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldInvalidateParentsAndChildrenOnChange() {
+        jsondb.set("/integrations/:1", "{\"name\":\"one\"}");
+        assertThat(jsondb.getAsString("/integrations")).isEqualTo("{\":1\":{\"name\":\"one\"}}");
+        assertThat(jsondb.getAsString("/integrations/:1")).isEqualTo("{\"name\":\"one\"}");
+        assertThat(cache.size()).isEqualTo(2);
+
+        jsondb.update("/integrations/:1", "{\"name\":\"uno\"}");
+        assertThat(cache.size()).isZero();
+        assertThat(jsondb.getAsString("/integrations")).isEqualTo("{\":1\":{\"name\":\"uno\"}}");
+
+        jsondb.set("/integrations/:2", "{\"name\":\"two\"}");
+        assertThat(jsondb.getAsString("/integrations")).isEqualTo("{\":1\":{\"name\":\"uno\"},\":2\":{\"name\":\"two\"}}");
+
+        jsondb.delete("/integrations");
+        assertThat(jsondb.getAsString("/integrations")).isNull();
+    }
+
+    @Test
+    public void shouldKeepUnrelatedEntriesOnChange() {
+        jsondb.set("/integrations/:1", "{\"name\":\"one\"}");
+        jsondb.set("/connections/:1", "{\"name\":\"one\"}");
+        jsondb.getAsString("/integrations");
+        jsondb.getAsString("/connections");
+
+        jsondb.set("/connections/:2", "{\"name\":\"two\"}");
+
+        assertThat(cache.size()).isEqualTo(1);
+        jsondb.getAsString("/integrations");
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDistinguishOptions() {
+        jsondb.set("/integrations/:1", "{\"name\":\"one\"}");
+        jsondb.set("/integrations/:2", "{\"name\":\"two\"}");
+
+        assertThat(jsondb.getAsString("/integrations", new GetOptions().depth(1))).isEqualTo("{\":1\":true,\":2\":true}");
+        assertThat(jsondb.getAsString("/integrations", new GetOptions().startAt(":2"))).isEqualTo("{\":2\":{\"name\":\"two\"}}");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldBypassCacheForUncachedPathsAndFilters() {
+        jsondb.set("/activity/:1", "{\"name\":\"one\"}");
+        jsondb.set("/integrations/:1", "{\"name\":\"one\"}");
+
+        jsondb.getAsString("/activity");
+        jsondb.getAsString("/integrations", new GetOptions().filter(Filter.child("name", Filter.Op.EQ, "one")));
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.misses()).isZero();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        for (int i = 0; i < 12; i++) {
+            jsondb.set("/integrations/:" + i, "{\"name\":\"" + i + "\"}");
+        }
+
+        for (int i = 0; i < 12; i++) {
+            jsondb.getAsString("/integrations/:" + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.evictions()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotStoreReadsRacingWithInvalidation() {
+        final long version = cache.version();
+        cache.invalidate("/integrations/:1");
+        cache.put("/integrations/:1/", "/integrations/:1/", new byte[] {'{', '}'}, version);
+
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -23,8 +23,10 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -683,6 +685,91 @@ public class JsonDBTest {
 
     }
 
+    @Test
+    public void testFetchIdsByFilter() throws IOException {
+        jsondb.set("/users/u1", mapper.writeValueAsString(map(
+            "name", "alice",
+            "age", 9
+        )));
+        jsondb.set("/users/u2", mapper.writeValueAsString(map(
+            "name", "alfred",
+            "age", 10
+        )));
+        jsondb.set("/users/u3", mapper.writeValueAsString(map(
+            "name", "bob",
+            "age", 21
+        )));
+
+        assertThat(jsondb.fetchIdsByFilter("/users", Filter.child("name", Op.PREFIX, "al"))).containsOnly("/users/u1", "/users/u2");
+        assertThat(jsondb.fetchIdsByFilter("/users", Filter.child("name", Op.PREFIX, "alf"))).containsOnly("/users/u2");
+        assertThat(jsondb.fetchIdsByFilter("/users", Filter.child("name", Op.PREFIX, "c"))).isEmpty();
+        assertThat(jsondb.fetchIdsByFilter("/users", Filter.and(
+            Filter.child("age", Op.GTE, 10), Filter.child("age", Op.LT, 100)
+        ))).containsOnly("/users/u2", "/users/u3");
+
+        Map<String, String> propertyValues = new LinkedHashMap<>();
+        propertyValues.put("name", "bob");
+        propertyValues.put("age", "21");
+        assertThat(jsondb.fetchIdsByPropertyValues("/users", propertyValues)).isEmpty();
+        propertyValues.remove("age");
+        assertThat(jsondb.fetchIdsByPropertyValues("/users", propertyValues)).containsOnly("/users/u3");
+
+        assertThat(jsondb.getAsString("/users", new GetOptions().filter(
+            Filter.child("name", Op.PREFIX, "alf")
+        ))).isEqualTo(
+            "{\"u2\":{\"age\":10,\"name\":\"alfred\"}}"
+        );
+
+        assertThatExceptionOfType(JsonDBException.class)
+            .isThrownBy(() -> jsondb.fetchIdsByFilter("/users", Filter.child("email", Op.EQ, "bob@example.com")))
+            .withMessage("You can only filter on fields that are indexed.");
+    }
+
+    @Test
+    public void testFetchKeys() throws IOException {
+        for (String key : Arrays.asList("u1", "u1-a", "u2", "u3")) {
+            jsondb.set("/users/" + key, mapper.writeValueAsString(map(
+                "name", "user " + key,
+                "address", map("city", "Springfield")
+            )));
+        }
+
+        // keys sort like the paths of their entries, u1/ after u1-a/
+        assertThat(jsondb.fetchKeys("/users", new GetOptions(), 0)).containsExactly("u1-a", "u1", "u2", "u3");
+        assertThat(jsondb.fetchKeys("/users", new GetOptions().limitToFirst(2), 1)).containsExactly("u1", "u2");
+        assertThat(jsondb.fetchKeys("/users", new GetOptions().order(GetOptions.Order.DESC).limitToFirst(1), 0)).containsExactly("u3");
+        assertThat(jsondb.fetchKeys("/users", new GetOptions().startAt("u2"), 0)).containsExactly("u2", "u3");
+        assertThat(jsondb.fetchKeys("/users", new GetOptions(), 4)).isEmpty();
+        assertThat(jsondb.countKeys("/users", new GetOptions())).isEqualTo(4);
+        assertThat(jsondb.countKeys("/users", new GetOptions().startAfter("u1"))).isEqualTo(2);
+
+        GetOptions filtered = new GetOptions().filter(Filter.child("name", Op.GT, "user u1-a"));
+        assertThat(jsondb.fetchKeys("/users", filtered, 0)).containsExactly("u2", "u3");
+        assertThat(jsondb.fetchKeys("/users", filtered.limitToFirst(1), 1)).containsExactly("u3");
+        assertThat(jsondb.countKeys("/users", filtered)).isEqualTo(2);
+
+        GetOptions someKeys = new GetOptions().keys(new LinkedHashSet<>(Arrays.asList("u1", "u3", "u4")));
+        assertThat(jsondb.getAsString("/users", someKeys.depth(1))).isEqualTo("{\"u1\":true,\"u3\":true}");
+        assertThat(jsondb.fetchKeys("/users", someKeys, 0)).containsExactly("u1", "u3");
+        assertThat(jsondb.countKeys("/users", new GetOptions().keys(Collections.emptySet()))).isZero();
+
+        assertThat(jsondb.fetchKeys("/pair", new GetOptions(), 0)).isEmpty();
+        assertThat(jsondb.countKeys("/pair", new GetOptions())).isZero();
+    }
+
+    @Test
+    public void testExplain() {
+        Map<String, Object> explained = jsondb.explain("/users", new GetOptions().filter(
+            Filter.and(Filter.child("name", Op.PREFIX, "a"), Filter.child("age", Op.GT, 9))
+        ));
+
+        assertThat(explained).containsEntry("path", "/users/");
+        assertThat(explained.get("indexes")).isEqualTo(Arrays.asList("/users/#name", "/users/#age"));
+        assertThat((String) explained.get("sql")).contains("INTERSECT");
+        assertThat((List<?>) explained.get("plan")).isNotEmpty();
+        assertThat(explained).doesNotContainKey("error");
+    }
+
     // Helper method to help construct maps with concise syntax
     private HashMap<String, Object> map(Object... values) {
         HashMap<String, Object> rc = new HashMap<String, Object>() {
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.jsondb.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.skife.jdbi.v2.DBI;
+
+public class JsonRecordWriterTest {
+
+    private SqlJsonDB jsondb;
+
+    @BeforeEach
+    public void before() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:record-writer;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        DBI dbi = new DBI(ds);
+
+        jsondb = new SqlJsonDB(dbi, null, Collections.singletonList(new Index("/users", "name")));
+        try {
+            jsondb.dropTables();
+        } catch (Exception e) {
+        }
+        jsondb.createTables();
+    }
+
+    @Test
+    public void shouldOnlyWriteChangedRecords() {
+        jsondb.set("/users/:1", "{\"name\":\"Bob\",\"age\":30,\"tags\":[\"a\",\"b\"]}");
+
+        WriteStatistics statistics = jsondb.getWriteStatistics();
+        assertThat(statistics.inserted()).isEqualTo(4);
+
+        jsondb.set("/users/:1", "{\"name\":\"Bob\",\"age\":31,\"tags\":[\"a\"],\"nick\":null}");
+
+        assertThat(statistics.inserted()).isEqualTo(5);
+        assertThat(statistics.updated()).isEqualTo(1);
+        assertThat(statistics.deleted()).isEqualTo(1);
+        assertThat(statistics.unchanged()).isEqualTo(2);
+        assertThat(jsondb.getAsString("/users/:1")).isEqualTo("{\"age\":31,\"name\":\"Bob\",\"nick\":null,\"tags\":[\"a\"]}");
+        assertThat(jsondb.fetchIdsByPropertyValue("/users", "name", "Bob")).containsOnly("/users/:1");
+    }
+
+    @Test
+    public void shouldReplaceScalarParents() {
+        jsondb.set("/users/:1", "\"scalar\"");
+        jsondb.set("/users/:1/name", "\"Bob\"");
+
+        assertThat(jsondb.getAsString("/users/:1")).isEqualTo("{\"name\":\"Bob\"}");
+        assertThat(jsondb.getWriteStatistics().deleted()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldInsertLargeDocuments() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 2500; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"k").append(i).append("\":").append(i);
+        }
+        json.append('}');
+
+        jsondb.set("/large", json.toString());
+
+        assertThat(jsondb.getWriteStatistics().inserted()).isEqualTo(2500);
+        assertThat(jsondb.getAsString("/large/k2499")).isEqualTo("2499");
+    }
+
+    @Test
+    public void shouldEscapeCopyValues() {
+        assertThat(JsonRecordWriter.appendCopyValue(new StringBuilder(), null).toString()).isEqualTo("\\N");
+        assertThat(JsonRecordWriter.appendCopyValue(new StringBuilder(), "a\tb\nc\\d\r").toString()).isEqualTo("a\\tb\\nc\\\\d\\r");
+    }
+}
@@ -19,9 +19,12 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -36,15 +39,22 @@ import javax.annotation.PreDestroy;
 
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.syndesis.common.util.DurationConverter;
+import io.syndesis.common.util.SignedTokens;
+import io.syndesis.common.util.Strings;
 import io.syndesis.common.util.backend.BackendController;
 import io.syndesis.common.util.json.JsonUtils;
+import io.syndesis.server.endpoint.v1.handler.activity.ActivityIngestionService;
 import io.syndesis.server.jsondb.GetOptions;
 import io.syndesis.server.jsondb.JsonDB;
 import io.syndesis.server.jsondb.impl.JsonRecordSupport;
 import io.syndesis.server.jsondb.impl.SqlJsonDB;
+import io.syndesis.server.logging.jsondb.store.ActivityStore;
+import io.syndesis.server.openshift.KubernetesResourceCache;
 import io.syndesis.server.openshift.OpenShiftService;
+import io.syndesis.server.openshift.ResourceCache;
 import org.skife.jdbi.v2.DBI;
 import org.skife.jdbi.v2.PreparedBatch;
 import org.slf4j.Logger;
@@ -62,16 +72,23 @@ import static io.syndesis.common.util.thread.Threads.newThreadFactory;
 @Service
 @ConditionalOnProperty(value = "controllers.dblogging.enabled", havingValue = "true", matchIfMissing = true)
 @SuppressWarnings({"PMD.DoNotUseThreads", "PMD.ModifiedCyclomaticComplexity", "PMD.StdCyclomaticComplexity", "PMD.CyclomaticComplexity", "PMD.GodClass"})
-public class ActivityTrackingController implements BackendController, Closeable {
+public class ActivityTrackingController implements BackendController, ActivityIngestionService, Closeable {
 
     static final String IDLE_THREAD_NAME = "Logs Controller [idle]";
 
+    static final String EXCHANGES_PATH = "/exchanges/";
+
     private static final Logger LOG = LoggerFactory.getLogger(ActivityTrackingController.class);
 
     private final DBI dbi;
     private final KubernetesClient client;
     private final Map<String, PodLogMonitor> podHandlers = new ConcurrentHashMap<>();
+    private final Map<String, PodLogMonitor> podIngestors = new ConcurrentHashMap<>();
     private final JsonDB jsondb;
+    private final ActivityStore activityStore;
+    private final ResourceCache<Pod> podCache;
+    private final AtomicBoolean pollScheduled = new AtomicBoolean();
+    private Runnable removePodListener;
     private ScheduledExecutorService scheduler;
     private ExecutorService executor;
 
@@ -80,20 +97,28 @@ public class ActivityTrackingController implements BackendController, Closeable
     protected final LinkedBlockingDeque<BatchOperation> eventQueue = new LinkedBlockingDeque<>(1000);
     protected final AtomicBoolean stopped = new AtomicBoolean();
 
-    /** The number of retained activity log items */
+    /** The number of retained activities per integration */
     private int retention = 50;
-    /** Logs older than this will not be processed */
+    /** Logs older than this will not be processed, activities older than this are dropped */
     private Duration retentionTime = Duration.ofDays(1);
     private Duration cleanUpInterval = Duration.ofMinutes(15);
     private Duration startupDelay = Duration.ofSeconds(15);
     private SqlJsonDB.DatabaseKind databaseKind;
+    private String ingestionKey;
+
+    public ActivityTrackingController(JsonDB jsondb, DBI dbi, KubernetesClient client, ActivityStore activityStore) {
+        this(jsondb, dbi, client, activityStore, Optional.empty());
+    }
 
     @Autowired
-    public ActivityTrackingController(JsonDB jsondb, DBI dbi, KubernetesClient client) {
+    public ActivityTrackingController(JsonDB jsondb, DBI dbi, KubernetesClient client, ActivityStore activityStore,
+                                      Optional<KubernetesResourceCache> resourceCache) {
         this.jsondb = jsondb;
         this.dbi = dbi;
+        this.activityStore = activityStore;
         this.client = client;
         this.kubernetesSupport = new KubernetesSupport(client);
+        this.podCache = resourceCache.map(KubernetesResourceCache::pods).orElse(null);
     }
     @Override
     public void start() {
@@ -110,6 +135,16 @@ public class ActivityTrackingController implements BackendController, Closeable
         scheduler.scheduleWithFixedDelay(this::pollPods, startupDelay.getSeconds(), 5, TimeUnit.SECONDS);
         scheduler.scheduleWithFixedDelay(this::cleanupLogs, startupDelay.toMillis(), cleanUpInterval.toMillis(), TimeUnit.MILLISECONDS);
 
+        if (podCache != null) {
+            // pick up started and stopped integration pods without waiting
+            // for the next poll, changes in a burst are handled by one poll
+            removePodListener = podCache.addListener((action, pod) -> {
+                if (isIntegrationPod(pod) && pollScheduled.compareAndSet(false, true)) {
+                    scheduler.schedule(this::pollPods, 1, TimeUnit.SECONDS);
+                }
+            });
+        }
+
         // Lets find out the type of DB we are working with.
         dbi.inTransaction((x, status) -> {
             String dbName = x.getConnection().getMetaData().getDatabaseProductName();
@@ -125,6 +160,32 @@ public class ActivityTrackingController implements BackendController, Closeable
             }
             return null;
         });
+
+        migrateActivities();
+    }
+
+    /**
+     * Activities used to be stored in the jsondb table, moves them to the
+     * activity store where they are dropped with the rest once they are past
+     * the retention.
+     */
+    void migrateActivities() {
+        try {
+            @SuppressWarnings("unchecked")
+            final Map<String, Map<String, String>> activities = dbGet(HashMap.class, "/activity/exchanges");
+            if (activities != null) {
+                dbi.inTransaction((conn, status) -> {
+                    activityStore.write(conn, activities);
+                    return null;
+                });
+                LOG.info("Moved the activities of {} integrations to the activity store", activities.size());
+            }
+
+            jsondb.delete("/activity/exchanges");
+            jsondb.delete("/activity/integrations");
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Unable to move the activities stored in jsondb, will retry on restart", e);
+        }
     }
 
     public void cleanupLogs() {
@@ -133,44 +194,22 @@ public class ActivityTrackingController implements BackendController, Closeable
         try {
             LOG.info("Purging old activity logs");
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> hashMap = dbGet(HashMap.class, "/activity/integrations");
-            if( hashMap!=null ) {
-                for (String integrationId : hashMap.keySet()) {
-                    String integrationPath = "/activity/exchanges/" + integrationId + "/%";
-                    int count = deleteKeepingRetention(integrationPath);
-                    LOG.info("deleted {} transactions for integration: {}", count, integrationId);
-                }
-            }
-        } catch (IOException e) {
+            int count = activityStore.dropOlderThan(Instant.now().minus(retentionTime));
+            LOG.info("dropped {} days of activities", count);
+
+            count = activityStore.dropExceeding(retention);
+            LOG.info("deleted {} activities over the retained {} per integration", count, retention);
+        } catch (RuntimeException e) {
             LOG.error("Unexpected Error occurred.", e);
         } finally {
             Thread.currentThread().setName("Logs Controller Scheduler [idle]");
         }
     }
 
-    /**
-     * TODO: push this into the jsondb API.
-     */
-    int deleteKeepingRetention(String path) {
-        return dbi.inTransaction((conn, status) -> {
-            final String skipLocked = databaseKind == SqlJsonDB.DatabaseKind.PostgreSQL ? "FOR KEY SHARE SKIP LOCKED " : "";
-
-            final String sql = "DELETE FROM jsondb WHERE path IN ("
-                + "SELECT path "
-                + "FROM jsondb "
-                + "WHERE path LIKE ? "
-                + "ORDER BY path DESC "
-                + skipLocked
-                + "OFFSET ? ROWS"
-                + ")";
-
-            return conn.update(sql, path, retention);
-        });
-    }
-
     private void writeBatch(Map<String, Object> batch) {
         dbi.inTransaction((conn, status) -> {
+            Map<String, Map<String, String>> activities = new TreeMap<>();
+
             final String sql;
             if( databaseKind == SqlJsonDB.DatabaseKind.PostgreSQL ) {
                 // Lets update if the record exists.
@@ -184,15 +223,17 @@ public class ActivityTrackingController implements BackendController, Closeable
 
             PreparedBatch insert = conn.prepareBatch(sql);
             for (Map.Entry<String, Object> entry : batch.entrySet()) {
+                if (entry.getKey().startsWith(EXCHANGES_PATH)) {
+                    // /exchanges/<integration>/<exchange>
+                    String[] ids = entry.getKey().substring(EXCHANGES_PATH.length()).split("/", 2);
+                    activities.computeIfAbsent(ids[0], i -> new TreeMap<>()).put(ids[1], (String) entry.getValue());
+                    continue;
+                }
+
                 String key = "/activity" + entry.getKey() + "/";
                 String value = null;
                 String ovalue = null;
-                if( key.startsWith("/activity/exchanges" )) {
-                    value = JsonRecordSupport.STRING_VALUE_PREFIX + (String)entry.getValue();
-                } else if ( key.startsWith("/activity/integrations" )) {
-                    ovalue = "true";
-                    value = String.valueOf(JsonRecordSupport.TRUE_VALUE_PREFIX);
-                } else if ( key.startsWith("/activity/pods" )) {
+                if ( key.startsWith("/activity/pods" )) {
                     PodLogState p = (PodLogState) entry.getValue();
                     key += "time/"; //NOPMD
                     value = JsonRecordSupport.STRING_VALUE_PREFIX+p.time;
@@ -203,6 +244,7 @@ public class ActivityTrackingController implements BackendController, Closeable
                     .bind("ovalue", ovalue)
                     .add();
             }
+            activityStore.write(conn, activities);
             return insert.execute();
         });
     }
@@ -221,6 +263,11 @@ public class ActivityTrackingController implements BackendController, Closeable
 
         kubernetesSupport.cancelAllRequests();
 
+        if (removePodListener != null) {
+            removePodListener.run();
+            removePodListener = null;
+        }
+
         scheduler.shutdownNow();
         executor.shutdown();
         try {
@@ -242,6 +289,7 @@ public class ActivityTrackingController implements BackendController, Closeable
 
     private void pollPods() {
         Thread.currentThread().setName("Logs Controller Scheduler [running]: pollPods");
+        pollScheduled.set(false);
         try {
             // clear the marks
             for (PodLogMonitor handler : podHandlers.values()) {
@@ -279,6 +327,9 @@ public class ActivityTrackingController implements BackendController, Closeable
                 }
             }
 
+            // Events sent by pods are assembled into activities only as long as the pod is running
+            podIngestors.keySet().retainAll(podHandlers.keySet());
+
             @SuppressWarnings("unchecked")
             Map<String, Object> pods = dbGet(HashMap.class, "/activity/pods"); //NOPMD
             if (pods != null) {
@@ -304,18 +355,99 @@ public class ActivityTrackingController implements BackendController, Closeable
         return monitor;
     }
 
+    @Override
+    public Optional<String> authenticate(String token) {
+        if (Strings.isEmptyOrBlank(ingestionKey)) {
+            return Optional.empty();
+        }
+
+        return SignedTokens.verify(ingestionKey, OpenShiftService.ACTIVITY_TRACKING_TOKEN_PURPOSE, token);
+    }
+
+    /**
+     * Processes activity tracking events sent by the pod, the events of
+     * a pod are processed sequentially as the activities are assembled
+     * from them. The pod is looked up once, when it sends its first events.
+     */
+    @Override
+    public boolean ingest(String integrationId, String podName, InputStream events) throws IOException {
+        if (stopped.get()) {
+            return false;
+        }
+
+        PodLogMonitor ingestor = podIngestors.get(podName);
+        if (ingestor == null) {
+            final Pod pod = getIntegrationPod(podName);
+            if (pod == null) {
+                return false;
+            }
+
+            ingestor = podIngestors.computeIfAbsent(podName, n -> createIngestor(pod));
+        }
+
+        if (!integrationId.equals(ingestor.integrationId)) {
+            return false;
+        }
+
+        synchronized (ingestor) {
+            new LogLineReader().read(events, stopped::get, ingestor::processLine);
+        }
+
+        return true;
+    }
+
+    protected PodLogMonitor createIngestor(Pod pod) {
+        final PodLogMonitor ingestor = new PodLogMonitor(this, pod);
+
+        LOG.info("Ingesting activities sent by pod: {}", ingestor.podName);
+
+        return ingestor;
+    }
+
+    protected Pod getIntegrationPod(String name) {
+        final Pod pod = getPod(name);
+        if (pod == null || !"Running".equals(pod.getStatus().getPhase())) {
+            return null;
+        }
+
+        if (!isIntegrationPod(pod)) {
+            return null;
+        }
+
+        return pod;
+    }
+
     protected PodList listPods() {
+        if (podCache != null && podCache.isSynced()) {
+            return new PodListBuilder()
+                .withItems(podCache.list(Collections.singletonMap(OpenShiftService.COMPONENT_LABEL, "integration")))
+                .build();
+        }
+
         return client.pods().withLabel(OpenShiftService.COMPONENT_LABEL, "integration").list();
     }
 
     protected boolean isPodRunning(String name) {
-        Pod pod = client.pods().withName(name).get();
+        Pod pod = getPod(name);
         if (pod == null) {
             return false;
         }
         return "Running".equals(pod.getStatus().getPhase());
     }
 
+    private Pod getPod(String name) {
+        if (podCache != null && podCache.isSynced()) {
+            return podCache.get(name).orElse(null);
+        }
+
+        return client.pods().withName(name).get();
+    }
+
+    private static boolean isIntegrationPod(Pod pod) {
+        final Map<String, String> labels = pod.getMetadata().getLabels();
+        return labels != null && "integration".equals(labels.get(OpenShiftService.COMPONENT_LABEL));
+    }
+
     protected void watchLog(String podName, Consumer<InputStream> handler, String sinceTime) throws IOException {
         kubernetesSupport.watchLog(podName, handler, sinceTime, executor);
     }
@@ -421,6 +553,15 @@ public class ActivityTrackingController implements BackendController, Closeable
         this.startupDelay = new DurationConverter().convert(startupDelay);
     }
 
+    /**
+     * Key the tokens issued to the integrations for sending their activity
+     * tracking events are signed with.
+     */
+    @Value("${encrypt.key:}")
+    public void setIngestionKey(String ingestionKey) {
+        this.ingestionKey = ingestionKey;
+    }
+
     public int getRetention() {
         return retention;
     }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.logging.jsondb.controller;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.syndesis.common.util.json.JsonUtils;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * A structured activity tracking log line, like:
+ * {@code 2018-06-06T21:54:36.30603486Z {"exchange":"i-LEM51uGKc6IuIjvR95Vz","status":"begin"}}.
+ * <p>
+ * Lines are parsed straight from the bytes read from the pod log with a
+ * streaming JSON parser; the well known fields are picked out and only the
+ * remaining ones, if any, are kept as a JSON tree.
+ */
+final class LogLine {
+
+    private static final JsonFactory JSON_FACTORY = JsonUtils.reader().getFactory();
+
+    // length of the timestamp up to the fraction of seconds: 2018-06-06T21:54:36.
+    private static final int TIMESTAMP_PREFIX_LENGTH = 20;
+
+    String time;
+    String exchange;
+    String id;
+    String step;
+    String message;
+    String failure;
+    String status;
+    Number duration;
+    Boolean failed;
+
+    /**
+     * Fields that are not one of the well known fields, {@code null} if there
+     * were none.
+     */
+    ObjectNode other;
+
+    private LogLine() {
+        // created by parse
+    }
+
+    /**
+     * Parses the line, returns {@code null} if the line is not a structured
+     * log line, or if the well known fields have unexpected types.
+     * @throws IOException if the JSON part of the line is not valid JSON
+     */
+    static LogLine parse(byte[] line, int length) throws IOException {
+        int end = length;
+        while (end > 0 && isWhitespace(line[end - 1])) {
+            end--;
+        }
+
+        final int jsonStart = jsonStart(line, end);
+        if (jsonStart < 0 || line[end - 1] != '}' || containsLineTerminator(line, jsonStart, end)) {
+            return null;
+        }
+
+        final LogLine parsed = new LogLine();
+        parsed.time = new String(line, 0, jsonStart - 1, US_ASCII);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(line, jsonStart, end - jsonStart)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if (!parsed.read(field, value, parser)) {
+                    return null;
+                }
+            }
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Fields of an exchange level line that are kept as activity metadata,
+     * {@code null} if there are none.
+     */
+    ObjectNode exchangeFields() {
+        ObjectNode fields = other;
+        fields = with(fields, "message", message);
+        fields = with(fields, "failure", failure);
+        if (duration != null) {
+            fields = fields == null ? JsonNodeFactory.instance.objectNode() : fields;
+            if (duration instanceof Double || duration instanceof Float) {
+                fields.put("duration", duration.doubleValue());
+            } else {
+                fields.put("duration", duration.longValue());
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Fields of a step level line that are kept as a step event,
+     * {@code null} if there are none.
+     */
+    ObjectNode stepFields() {
+        ObjectNode fields = with(other, "status", status);
+        if (failed != null) {
+            fields = fields == null ? JsonNodeFactory.instance.objectNode() : fields;
+            fields.put("failed", failed);
+        }
+        return fields;
+    }
+
+    private static ObjectNode with(ObjectNode fields, String name, String value) {
+        if (value == null) {
+            return fields;
+        }
+        final ObjectNode ret = fields == null ? JsonNodeFactory.instance.objectNode() : fields;
+        ret.put(name, value);
+        return ret;
+    }
+
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private boolean read(String field, JsonToken value, JsonParser parser) throws IOException {
+        switch (field) {
+        case "exchange":
+        case "id":
+        case "step":
+        case "message":
+        case "failure":
+        case "status":
+            if (value != JsonToken.VALUE_STRING && value != JsonToken.VALUE_NULL) {
+                return false;
+            }
+            setText(field, value == JsonToken.VALUE_NULL ? null : parser.getText());
+            return true;
+        case "duration":
+            if (!value.isNumeric() && value != JsonToken.VALUE_NULL) {
+                return false;
+            }
+            duration = value == JsonToken.VALUE_NULL ? null : parser.getNumberValue();
+            return true;
+        case "failed":
+            if (!value.isBoolean() && value != JsonToken.VALUE_NULL) {
+                return false;
+            }
+            failed = value == JsonToken.VALUE_NULL ? null : parser.getBooleanValue();
+            return true;
+        default:
+            if (other == null) {
+                other = JsonNodeFactory.instance.objectNode();
+            }
+            final JsonNode node = JsonUtils.reader().readTree(parser);
+            other.set(field, node);
+            return true;
+        }
+    }
+
+    private void setText(String field, String text) {
+        switch (field) {
+        case "exchange":
+            exchange = text;
+            break;
+        case "id":
+            id = text;
+            break;
+        case "step":
+            step = text;
+            break;
+        case "message":
+            message = text;
+            break;
+        case "failure":
+            failure = text;
+            break;
+        default:
+            status = text;
+        }
+    }
+
+    /**
+     * Checks for the {@code yyyy-MM-ddTHH:mm:ss.SSSZ } prefix and returns the
+     * index of the opening brace of the JSON that follows it, or -1.
+     */
+    private static int jsonStart(byte[] line, int length) {
+        if (length < TIMESTAMP_PREFIX_LENGTH + 4) {
+            return -1;
+        }
+
+        final String pattern = "dddd-dd-ddTdd:dd:dd.";
+        for (int i = 0; i < TIMESTAMP_PREFIX_LENGTH; i++) {
+            final char expected = pattern.charAt(i);
+            final byte actual = line[i];
+            if (expected == 'd' ? !isDigit(actual) : actual != expected) {
+                return -1;
+            }
+        }
+
+        int i = TIMESTAMP_PREFIX_LENGTH;
+        while (i < length && isDigit(line[i])) {
+            i++;
+        }
+
+        if (i == TIMESTAMP_PREFIX_LENGTH || i + 2 >= length || line[i] != 'Z' || line[i + 1] != ' ' || line[i + 2] != '{') {
+            return -1;
+        }
+
+        return i + 2;
+    }
+
+    private static boolean containsLineTerminator(byte[] line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line[i] == '\n' || line[i] == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.logging.jsondb.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Splits a log stream into lines, reading it in chunks and handing each
+ * line to the {@link LineHandler} from a reused buffer. Really long lines
+ * are cut to avoid blowing up our memory, as the cut line is most likely
+ * a JSON value the closing terminator {@code "}} is appended to it.
+ */
+final class LogLineReader {
+
+    static final int MAX_LINE_LENGTH = 1024 * 10;
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * Receives the lines, the buffer is reused for the next line once this
+     * method returns.
+     */
+    @FunctionalInterface
+    interface LineHandler {
+        void onLine(byte[] line, int length) throws IOException;
+    }
+
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    // one byte over the maximum line length triggers the cut, plus the terminator
+    private final byte[] line = new byte[MAX_LINE_LENGTH + 3];
+
+    private int length;
+
+    /**
+     * Reads lines from the stream until it ends or {@code stopped} returns
+     * {@code true}; a last line not terminated by a new line is not handled.
+     */
+    void read(InputStream is, BooleanSupplier stopped, LineHandler handler) throws IOException {
+        while (!stopped.getAsBoolean()) {
+            final int read = is.read(chunk);
+            if (read < 0) {
+                break;
+            }
+
+            int position = 0;
+            while (position < read) {
+                final int limit = Math.min(read, position + MAX_LINE_LENGTH + 1 - length);
+                final int newLine = indexOfNewLine(chunk, position, limit);
+
+                if (newLine >= 0) {
+                    append(position, newLine + 1);
+                    position = newLine + 1;
+                    handle(handler);
+                } else {
+                    append(position, limit);
+                    position = limit;
+                    if (length > MAX_LINE_LENGTH) {
+                        line[length++] = '"';
+                        line[length++] = '}';
+                        handle(handler);
+                    }
+                }
+            }
+        }
+    }
+
+    private void append(int from, int to) {
+        System.arraycopy(chunk, from, line, length, to - from);
+        length += to - from;
+    }
+
+    private void handle(LineHandler handler) throws IOException {
+        try {
+            handler.onLine(line, length);
+        } finally {
+            length = 0;
+        }
+    }
+
+    private static int indexOfNewLine(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -15,7 +15,6 @@
  */
 package io.syndesis.server.logging.jsondb.controller;
 
-import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -27,10 +26,9 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.syndesis.common.util.KeyGenerator;
 import io.syndesis.common.util.json.JsonUtils;
@@ -44,16 +42,12 @@ import org.slf4j.LoggerFactory;
 
 import static io.syndesis.server.jsondb.impl.JsonRecordSupport.validateKey;
 import static java.lang.String.format;
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 @SuppressWarnings("PMD.GodClass")
 class PodLogMonitor implements Consumer<InputStream> {
 
     private static final Logger LOG = LoggerFactory.getLogger(ActivityTrackingController.class);
 
-    // matches log lines like: 2018-06-06T21:54:36.30603486Z {"exchange":"i-LEM51uGKc6IuIjvR95Vz","status":"begin"}
-    private static final Pattern LOG_LINE_REGEX = Pattern.compile("^(\\d\\d\\d\\d\\-\\d\\d\\-\\d\\dT\\d\\d:\\d\\d:\\d\\d\\.\\d+Z) (\\{.*\\})\\s*");
-
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final ActivityTrackingController logsController;
     protected final AtomicBoolean markInOpenshift = new AtomicBoolean(true);
@@ -136,28 +130,7 @@ class PodLogMonitor implements Consumer<InputStream> {
     }
 
     void processLogStream(final InputStream is) throws IOException, InterruptedException {
-        ByteArrayOutputStream line = new ByteArrayOutputStream();
-        int c;
-
-        while (!logsController.stopped.get()) {
-            c = is.read();
-            if (c < 0) {
-                break;
-            }
-
-            line.write(c);
-            // cut really long lines to avoid blowing up our memory.
-            if (line.size() > 1024 * 10) {
-                // as the string is prematurely cut, add the closing terminator to the json value
-                line.write("\"}".getBytes(UTF_8));
-                c = '\n';
-            }
-
-            if (c == '\n') {
-                processLine(new String(line.toByteArray(), UTF_8));
-                line.reset();
-            }
-        }
+        new LogLineReader().read(is, logsController.stopped::get, this::processLine);
 
         if (!logsController.stopped.get()) {
             if (logsController.isPodRunning(podName)) {
@@ -174,7 +147,7 @@ class PodLogMonitor implements Consumer<InputStream> {
         Activity activity = new Activity();
         ArrayList<ActivityStep> doneSteps = new ArrayList<>();
         Map<String, ActivityStep> activeSteps = new LinkedHashMap<>();
-        Map<String, Object> metadata = new HashMap<>();
+        ObjectNode metadata = JsonNodeFactory.instance.objectNode();
 
         public ActivityStep getStep(String step, String id) throws IOException {
             ActivityStep rc = activeSteps.get(step);
@@ -202,21 +175,16 @@ class PodLogMonitor implements Consumer<InputStream> {
         return data;
     }
 
-    void processLine(String line) throws IOException {
-        // Does it look like a data of json structured output?
-        Matcher matcher = LOG_LINE_REGEX.matcher(line);
-        if (!matcher.matches()) {
-            return;
-        }
-
-        String time = matcher.group(1);
-        String data = matcher.group(2);
+    void processLine(byte[] line, int length) throws IOException {
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> json = JsonUtils.reader().forType(HashMap.class).readValue(data); //NOPMD
+            // Does it look like a data of json structured output?
+            LogLine logLine = LogLine.parse(line, length);
+            if (logLine == null) {
+                return;
+            }
 
             // are the required fields set?
-            String exchange = validate((String) json.remove("exchange"));
+            String exchange = validate(logLine.exchange);
             if (exchange == null) {
                 // This log entry is not valid json format
                 return;
@@ -227,19 +195,18 @@ class PodLogMonitor implements Consumer<InputStream> {
                 // This log entry is too old.. don't process it..
                 return;
             }
-            InflightData inflightData = getInflightData(exchange, time);
+            InflightData inflightData = getInflightData(exchange, logLine.time);
 
-            String id = validate((String) json.remove("id"));
-            String step = (String) json.remove("step");
-            if (step == null) {
+            String id = validate(logLine.id);
+            if (logLine.step == null) {
                 // Looks like an exchange level logging event.
-                processLogLineExchange(json, inflightData, exchange, time);
+                processLogLineExchange(logLine, inflightData, exchange);
             } else {
                 // Looks like a step level logging event.
-                processLogLineStep(json, inflightData, step, id);
+                processLogLineStep(logLine, inflightData, id);
             }
 
-        } catch (JsonDBException | ClassCastException | IOException ignored) {
+        } catch (JsonDBException | IOException ignored) {
             /// log record not in the expected format.
         } catch (InterruptedException e) {
             final InterruptedIOException rethrow = new InterruptedIOException(e.getMessage());
@@ -248,9 +215,10 @@ class PodLogMonitor implements Consumer<InputStream> {
         }
     }
 
-    private static void processLogLineStep(Map<String, Object> json, InflightData inflightData, String step, String id) throws IOException {
+    private static void processLogLineStep(LogLine logLine, InflightData inflightData, String id) throws IOException {
+        String step = logLine.step;
         ActivityStep as = inflightData.getStep(step, id);
-        String message = (String) json.remove("message");
+        String message = logLine.message;
         if (message != null) {
             if (as.getMessages() == null) {
                 as.setMessages(new ArrayList<>());
@@ -258,21 +226,22 @@ class PodLogMonitor implements Consumer<InputStream> {
             as.getMessages().add(message);
         }
 
-        String failure = (String) json.remove("failure");
+        String failure = logLine.failure;
         if (failure != null) {
             as.setFailure(failure);
         }
 
-        Number duration = (Number) json.remove("duration");
+        Number duration = logLine.duration;
         if (duration != null) {
             as.setDuration(duration.longValue());
         }
 
-        if (!json.isEmpty()) {
+        ObjectNode event = logLine.stepFields();
+        if (event != null) {
             if (as.getEvents() == null) {
                 as.setEvents(new ArrayList<>());
             }
-            as.getEvents().add(toJsonNode(json));
+            as.getEvents().add(event);
         }
 
         if (duration != null) {
@@ -288,25 +257,29 @@ class PodLogMonitor implements Consumer<InputStream> {
         }
     }
 
-    private void processLogLineExchange(Map<String, Object> json, InflightData inflightData, String exchange, String time) throws IOException, InterruptedException {
-        Boolean failed = (Boolean) json.remove("failed");
+    private void processLogLineExchange(LogLine logLine, InflightData inflightData, String exchange) throws IOException, InterruptedException {
+        Boolean failed = logLine.failed;
         if (failed != null) {
             inflightData.activity.setFailed(failed);
         }
-        String status = (String) json.remove("status");
-        inflightData.metadata.putAll(json);
+        String status = logLine.status;
+        ObjectNode metadata = logLine.exchangeFields();
+        if (metadata != null) {
+            inflightData.metadata.setAll(metadata);
+        }
         if (status != null) {
             inflightData.activity.setStatus(status);
             if ("done".equals(status)) {
                 inflightData.activity.setSteps(inflightData.doneSteps);
-                if (!inflightData.metadata.isEmpty()) {
-                    inflightData.activity.setMetadata(toJsonNode(inflightData.metadata));
+                if (inflightData.metadata.size() > 0) {
+                    inflightData.activity.setMetadata(inflightData.metadata);
                 }
 
                 String activityAsString = JsonUtils.writer().writeValueAsString(inflightData.activity);
                 String transactionPath = format("/exchanges/%s/%s", integrationId, exchange);
                 inflightActivities.remove(exchange);
 
+                String time = logLine.time;
                 logsController.eventQueue.put(batch -> {
                     // Do as little as possible in here, single thread processes the event queue.
                     batch.put(transactionPath, activityAsString);
@@ -321,15 +294,13 @@ class PodLogMonitor implements Consumer<InputStream> {
         return System.currentTimeMillis();
     }
 
-    private static JsonNode toJsonNode(Map<String, Object> json) throws IOException {
-        return JsonUtils.reader().readTree(JsonUtils.writer().writeValueAsString(json));
-    }
-
     private void trackState(String time, Map<String, Object> batch) {
-        state.time = time;
-        String podStatPath = "/pods/" + podName;
-        batch.put(podStatPath, state);
-        batch.put("/integrations/" + integrationId, Boolean.TRUE);
+        // there is no log position to keep when events are ingested from the pod
+        if (state != null) {
+            state.time = time;
+            String podStatPath = "/pods/" + podName;
+            batch.put(podStatPath, state);
+        }
     }
 
     private static String validate(String value) {
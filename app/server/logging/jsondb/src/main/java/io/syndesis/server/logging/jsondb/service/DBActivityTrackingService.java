@@ -15,12 +15,9 @@
  */
 package io.syndesis.server.logging.jsondb.service;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import io.syndesis.common.util.json.JsonUtils;
 import org.slf4j.Logger;
@@ -28,13 +25,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 import io.syndesis.server.endpoint.v1.handler.activity.Activity;
 import io.syndesis.server.endpoint.v1.handler.activity.ActivityTrackingService;
-import io.syndesis.server.jsondb.GetOptions;
-import io.syndesis.server.jsondb.JsonDB;
 import io.syndesis.server.logging.jsondb.controller.ActivityTrackingController;
+import io.syndesis.server.logging.jsondb.store.ActivityStore;
 
 /**
  * Implements a dblogging service for the Activity JAXRS service.
@@ -44,17 +38,15 @@ import io.syndesis.server.logging.jsondb.controller.ActivityTrackingController;
 public class DBActivityTrackingService implements ActivityTrackingService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ActivityTrackingController.class);
-    private final JsonDB jsondb;
+    private final ActivityStore activityStore;
 
-    public DBActivityTrackingService(final JsonDB jsondb) {
-        this.jsondb = jsondb;
+    public DBActivityTrackingService(final ActivityStore activityStore) {
+        this.activityStore = activityStore;
     }
 
     @Override
     public List<Activity> getActivities(String integrationId, String from, Integer requestedLimit) throws IOException {
 
-        String path = "/activity/exchanges/" + integrationId;
-
         int limit = 10;
         if( requestedLimit != null ) {
             limit = requestedLimit;
@@ -63,31 +55,18 @@ public class DBActivityTrackingService implements ActivityTrackingService {
             limit = 1000; // max out to 1000 per request.
         }
 
-        GetOptions options = new GetOptions()
-            .order(GetOptions.Order.DESC) // reverse the order since we want most recent exchanges first.
-            .startAfter(from).limitToFirst(limit); // allow paging
-
-        byte[] data = jsondb.getAsByteArray(path, options);
-        if( data == null )  {
-            return new ArrayList<>();
-        }
-
-        JsonNode map = JsonUtils.reader().readTree(new ByteArrayInputStream(data));
+        // most recent exchanges first, the next page starts after the last activity of the previous one
         List<Activity> rc = new ArrayList<>();
-
-        Iterator<Map.Entry<String, JsonNode>> i = map.fields();
-        while (i.hasNext()) {
-            Map.Entry<String, JsonNode> entry = i.next();
+        for (String value : activityStore.fetch(integrationId, from, limit)) {
             try {
-                String value = entry.getValue().textValue();
                 Activity activity = JsonUtils.reader().forType(Activity.class).readValue(value);
                 if (activity.getSteps() == null){
                     activity.setSteps(new ArrayList<>());
                 }
                 rc.add(activity);
-            } catch (RuntimeException ignored) {
+            } catch (IOException | RuntimeException ignored) {
                 // We could get stuff like class cast exceptions..
-                LOG.debug("Could convert entry: {}", entry, ignored);
+                LOG.debug("Could convert entry: {}", value, ignored);
             }
         }
         return rc;
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.logging.jsondb.store;
+
+import java.io.IOException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+import io.syndesis.common.util.KeyGenerator;
+import io.syndesis.server.jsondb.impl.SqlJsonDB;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.PreparedBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the activities (exchanges) of integrations in their own tables, one
+ * table per day, rather than in the jsondb table that holds the
+ * configuration. The day of an activity is taken from the time encoded in
+ * its key, so activities can be read newest first, a page at a time, by
+ * walking the day tables backwards from the key of the last activity read.
+ * Retention drops whole day tables instead of deleting rows, only the
+ * activities over the number kept per integration are deleted.
+ */
+@Component
+public class ActivityStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActivityStore.class);
+
+    static final String SEGMENT_PREFIX = "activity_";
+
+    private static final Pattern SEGMENT_TABLE = Pattern.compile(SEGMENT_PREFIX + "\\d{8}", Pattern.CASE_INSENSITIVE);
+
+    private static final DateTimeFormatter SEGMENT_DAY = DateTimeFormatter.ofPattern("uuuuMMdd", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final DBI dbi;
+
+    // days, formatted as uuuuMMdd, that have a table
+    private final NavigableSet<String> segments = new ConcurrentSkipListSet<>();
+
+    private volatile SqlJsonDB.DatabaseKind databaseKind;
+
+    public ActivityStore(DBI dbi) {
+        this.dbi = dbi;
+    }
+
+    /**
+     * Adds or replaces the activities, keyed by integration id and then by
+     * activity id, as part of the transaction of the given handle.
+     */
+    public void write(Handle handle, Map<String, Map<String, String>> activities) throws IOException {
+        initialize(handle);
+
+        final Map<String, PreparedBatch> batches = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> integration : activities.entrySet()) {
+            for (Map.Entry<String, String> activity : integration.getValue().entrySet()) {
+                final String segment = segmentOf(activity.getKey());
+                final PreparedBatch batch = batches.computeIfAbsent(segment, s -> handle.prepareBatch(upsert(createSegment(s))));
+                batch
+                    .bind("integration", integration.getKey())
+                    .bind("id", activity.getKey())
+                    .bind("value", activity.getValue())
+                    .add();
+            }
+        }
+
+        for (PreparedBatch batch : batches.values()) {
+            batch.execute();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} activities of the integration, most recent
+     * first, starting after the activity with the {@code before} id if given.
+     */
+    public List<String> fetch(String integrationId, String before, int limit) throws IOException {
+        final String last = before == null ? null : segmentOf(before);
+
+        return dbi.inTransaction((handle, status) -> {
+            initialize(handle);
+
+            final List<String> activities = new ArrayList<>(limit);
+            final NavigableSet<String> candidates = last == null ? segments.descendingSet() : segments.headSet(last, true).descendingSet();
+            for (String segment : candidates) {
+                if (activities.size() >= limit) {
+                    break;
+                }
+
+                final StringBuilder sql = new StringBuilder("SELECT value FROM ").append(table(segment)).append(" WHERE integration = :integration");
+                if (before != null) {
+                    sql.append(" AND id < :before");
+                }
+                sql.append(" ORDER BY id DESC LIMIT ").append(limit - activities.size());
+
+                activities.addAll(handle.createQuery(sql.toString())
+                    .bind("integration", integrationId)
+                    .bind("before", before)
+                    .mapTo(String.class)
+                    .list());
+            }
+
+            return activities;
+        });
+    }
+
+    /**
+     * Drops the tables holding only activities older than the given time,
+     * returns the number of tables dropped.
+     */
+    public int dropOlderThan(Instant time) {
+        final String oldest = SEGMENT_DAY.format(time);
+
+        return dbi.inTransaction((handle, status) -> {
+            initialize(handle);
+
+            int dropped = 0;
+            for (String segment : new ArrayList<>(segments.headSet(oldest, false))) {
+                handle.execute("DROP TABLE IF EXISTS " + table(segment));
+                segments.remove(segment);
+                dropped++;
+            }
+
+            return dropped;
+        });
+    }
+
+    /**
+     * Deletes all but the {@code retention} most recent activities of each
+     * integration, returns the number of activities deleted.
+     */
+    public int dropExceeding(int retention) {
+        return dbi.inTransaction((handle, status) -> {
+            initialize(handle);
+
+            // activities of each integration in the newer tables
+            final Map<String, Integer> newer = new HashMap<>();
+            int deleted = 0;
+            for (String segment : segments.descendingSet()) {
+                final String table = table(segment);
+                final List<Map<String, Object>> counts = handle.select("SELECT integration, COUNT(*) AS activities FROM " + table + " GROUP BY integration");
+                for (Map<String, Object> count : counts) {
+                    final String integration = (String) count.get("integration");
+                    final int activities = ((Number) count.get("activities")).intValue();
+                    final int kept = newer.getOrDefault(integration, 0);
+                    newer.put(integration, kept + activities);
+
+                    if (kept + activities <= retention) {
+                        continue;
+                    }
+
+                    if (kept >= retention) {
+                        deleted += handle.update("DELETE FROM " + table + " WHERE integration = ?", integration);
+                        continue;
+                    }
+
+                    final String oldestKept = handle.createQuery("SELECT id FROM " + table + " WHERE integration = :integration ORDER BY id DESC LIMIT 1 OFFSET " + (retention - kept - 1))
+                        .bind("integration", integration)
+                        .mapTo(String.class)
+                        .first();
+                    deleted += handle.update("DELETE FROM " + table + " WHERE integration = ? AND id < ?", integration, oldestKept);
+                }
+            }
+
+            return deleted;
+        });
+    }
+
+    private synchronized void initialize(Handle handle) {
+        if (databaseKind != null) {
+            return;
+        }
+
+        try {
+            final DatabaseMetaData metaData = handle.getConnection().getMetaData();
+            SqlJsonDB.DatabaseKind kind = SqlJsonDB.DatabaseKind.valueOf(metaData.getDatabaseProductName());
+            // CockroachDB uses the PostgreSQL driver.. so need to look a little closer.
+            if (kind == SqlJsonDB.DatabaseKind.PostgreSQL) {
+                final String version = handle.createQuery("SELECT VERSION()").mapTo(String.class).first();
+                if (version.startsWith("CockroachDB")) {
+                    kind = SqlJsonDB.DatabaseKind.CockroachDB;
+                }
+            }
+
+            try (ResultSet tables = metaData.getTables(null, null, "%", new String[] {"TABLE"})) {
+                while (tables.next()) {
+                    final String name = tables.getString("TABLE_NAME");
+                    if (SEGMENT_TABLE.matcher(name).matches()) {
+                        segments.add(name.substring(SEGMENT_PREFIX.length()));
+                    }
+                }
+            }
+
+            LOG.info("Found {} activity tables", segments.size());
+            databaseKind = kind;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not determine the existing activity tables", e);
+        }
+    }
+
+    // tables are created in their own transaction so that a rolled back
+    // write does not leave a table behind in the segments that is not there
+    private String createSegment(String segment) {
+        if (segments.contains(segment)) {
+            return segment;
+        }
+
+        final String columns;
+        if (databaseKind == SqlJsonDB.DatabaseKind.PostgreSQL) {
+            columns = "integration VARCHAR COLLATE \"C\" NOT NULL, id VARCHAR COLLATE \"C\" NOT NULL, value VARCHAR";
+        } else {
+            columns = "integration VARCHAR NOT NULL, id VARCHAR NOT NULL, value VARCHAR";
+        }
+        dbi.useHandle(h -> h.execute("CREATE TABLE IF NOT EXISTS " + table(segment) + " (" + columns + ", PRIMARY KEY (integration, id))"));
+        segments.add(segment);
+
+        return segment;
+    }
+
+    private String upsert(String segment) {
+        if (databaseKind == SqlJsonDB.DatabaseKind.PostgreSQL) {
+            return "INSERT INTO " + table(segment) + " (integration, id, value) VALUES (:integration, :id, :value) "
+                + "ON CONFLICT (integration, id) DO UPDATE SET value = :value";
+        } else if (databaseKind == SqlJsonDB.DatabaseKind.H2) {
+            return "MERGE INTO " + table(segment) + " (integration, id, value) KEY (integration, id) VALUES (:integration, :id, :value)";
+        }
+
+        return "INSERT INTO " + table(segment) + " (integration, id, value) VALUES (:integration, :id, :value)";
+    }
+
+    private static String segmentOf(String activityId) throws IOException {
+        return SEGMENT_DAY.format(Instant.ofEpochMilli(KeyGenerator.getKeyTimeMillis(activityId)));
+    }
+
+    private static String table(String segment) {
+        return SEGMENT_PREFIX + segment;
+    }
+}
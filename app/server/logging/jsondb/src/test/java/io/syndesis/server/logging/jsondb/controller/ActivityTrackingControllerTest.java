@@ -20,9 +20,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -30,6 +36,8 @@ import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodList;
@@ -37,10 +45,11 @@ import io.fabric8.kubernetes.api.model.PodListBuilder;
 import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.syndesis.common.util.KeyGenerator;
+import io.syndesis.common.util.SignedTokens;
 import io.syndesis.common.util.json.JsonUtils;
-import io.syndesis.server.jsondb.GetOptions;
 import io.syndesis.server.jsondb.JsonDB;
 import io.syndesis.server.jsondb.impl.SqlJsonDB;
+import io.syndesis.server.logging.jsondb.store.ActivityStore;
 import io.syndesis.server.openshift.OpenShiftService;
 
 import org.h2.jdbcx.JdbcDataSource;
@@ -64,8 +73,8 @@ public class ActivityTrackingControllerTest {
 
         private final long time;
 
-        private StubbedController(JsonDB jsondb, DBI dbi, KubernetesClient client, InputStream podLogs, long time) {
-            super(jsondb, dbi, client);
+        private StubbedController(JsonDB jsondb, DBI dbi, KubernetesClient client, ActivityStore activityStore, InputStream podLogs, long time) {
+            super(jsondb, dbi, client, activityStore);
             this.podLogs = podLogs;
             this.time = time;
         }
@@ -107,10 +116,21 @@ public class ActivityTrackingControllerTest {
                 }
             };
         }
+
+        @Override
+        protected Pod getIntegrationPod(String name) {
+            return listPods().getItems().stream().filter(p -> p.getMetadata().getName().equals(name)).findFirst().orElse(null);
+        }
+
+        @Override
+        protected PodLogMonitor createIngestor(Pod pod) {
+            return createLogMonitor(pod);
+        }
     }
 
     private SqlJsonDB jsondb;
     private DBI dbi;
+    private ActivityStore activityStore;
 
     private KubernetesClient client;
 
@@ -121,6 +141,7 @@ public class ActivityTrackingControllerTest {
         this.dbi = new DBI(ds);
         this.jsondb = new SqlJsonDB(dbi, null);
         this.jsondb.createTables();
+        this.activityStore = new ActivityStore(dbi);
 
         client = mock(KubernetesClient.class);
         when(client.getConfiguration()).thenReturn(new ConfigBuilder().withMasterUrl("http://master").build());
@@ -129,60 +150,128 @@ public class ActivityTrackingControllerTest {
     @AfterEach
     public void destroyEverything() {
         jsondb.dropTables();
+        activityStore.dropOlderThan(Instant.parse("3000-01-01T00:00:00Z"));
     }
 
     @Test
     public void testLogsController() throws IOException {
-        final String expectedDBState = resource("logs-controller-db.json").trim();
+        final JsonNode expected = JsonUtils.reader().readTree(resource("logs-controller-db.json")).get("activity");
         final String podLogs = resource("test-pod-x23x.txt");
         final InputStream podLogsStream = new ByteArrayInputStream(podLogs.getBytes(StandardCharsets.UTF_8));
 
-        try (ActivityTrackingController controller = new StubbedController(jsondb, dbi, client, podLogsStream, ZonedDateTime.parse("2018-01-12T21:22:02.068338027Z").toInstant().toEpochMilli())) {
+        try (ActivityTrackingController controller = new StubbedController(jsondb, dbi, client, activityStore, podLogsStream, ZonedDateTime.parse("2018-01-12T21:22:02.068338027Z").toInstant().toEpochMilli())) {
 
             controller.setStartupDelay("0 seconds");
-            controller.setRetention(Integer.MAX_VALUE);
             controller.open();
 
-            // Eventually all the log data should make it into the jsondb
+            // Eventually all the log data should make it into the activity store
             given().await()
                 .atMost(20, SECONDS)
                 .pollInterval(1, SECONDS)
                 .untilAsserted(() -> {
-                    String db = jsondb.getAsString("/", new GetOptions().prettyPrint(true));
-                    assertThat(db).isEqualTo(expectedDBState);
+                    assertThat(activities("my-integration")).isEqualTo(expected.get("exchanges").get("my-integration"));
+                    assertThat(JsonUtils.reader().readTree(jsondb.getAsString("/activity"))).isEqualTo(JsonUtils.reader().readTree("{\"pods\":" + expected.get("pods") + "}"));
                 });
         }
 
     }
 
     @Test
-    public void shouldRetainLastRetainActivityLogs() throws IOException {
+    public void shouldIngestEventsSentByPods() throws IOException {
+        final JsonNode expected = JsonUtils.reader().readTree(resource("logs-controller-db.json")).get("activity").get("exchanges").get("my-integration");
+        final byte[] events = resource("test-pod-x23x.txt").getBytes(StandardCharsets.UTF_8);
+        final InputStream noPodLogs = new ByteArrayInputStream(new byte[0]);
+
+        try (ActivityTrackingController controller = new StubbedController(jsondb, dbi, client, activityStore, noPodLogs, ZonedDateTime.parse("2018-01-12T21:22:02.068338027Z").toInstant().toEpochMilli())) {
+
+            controller.setStartupDelay("0 seconds");
+            controller.open();
+
+            assertThat(controller.ingest("my-integration", "unknown-pod", new ByteArrayInputStream(events))).isFalse();
+            assertThat(controller.ingest("other-integration", "test-pod-x23x", new ByteArrayInputStream(events))).isFalse();
+
+            // send the events in two batches, cut in the middle of an exchange
+            final int half = events.length / 2;
+            final int cut = indexOf(events, (byte) '\n', half) + 1;
+            assertThat(controller.ingest("my-integration", "test-pod-x23x", new ByteArrayInputStream(events, 0, cut))).isTrue();
+            assertThat(controller.ingest("my-integration", "test-pod-x23x", new ByteArrayInputStream(events, cut, events.length - cut))).isTrue();
+
+            given().await()
+                .atMost(20, SECONDS)
+                .pollInterval(1, SECONDS)
+                .untilAsserted(() -> assertThat(activities("my-integration")).isEqualTo(expected));
+        }
+    }
+
+    @Test
+    public void shouldAuthenticateTokensIssuedToIntegrations() {
+        final ActivityTrackingController controller = new ActivityTrackingController(jsondb, dbi, client, activityStore);
+        final String token = SignedTokens.sign("key", OpenShiftService.ACTIVITY_TRACKING_TOKEN_PURPOSE, "my-integration");
+
+        assertThat(controller.authenticate(token)).isEmpty();
+
+        controller.setIngestionKey("key");
+        assertThat(controller.authenticate(token)).contains("my-integration");
+        assertThat(controller.authenticate(SignedTokens.sign("other key", OpenShiftService.ACTIVITY_TRACKING_TOKEN_PURPOSE, "my-integration"))).isEmpty();
+        assertThat(controller.authenticate(null)).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepActivitiesWithinRetentionTime() throws IOException {
+        // activities of three days ago, past the retention time
+        final long threeDaysAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(3);
+        final Map<String, String> old = new TreeMap<>();
+        old.put(KeyGenerator.recreateKey(threeDaysAgo, 0, 0), "{\"id\":\"old\"}");
+        dbi.useHandle(h -> activityStore.write(h, Collections.singletonMap("my-integration", old)));
+        assertThat(activityStore.fetch("my-integration", null, 10)).hasSize(1);
+
         try (InputStream podLogsStream = logStream(1100);
-            ActivityTrackingController controller = new StubbedController(jsondb, dbi, client, podLogsStream, System.currentTimeMillis())) {
+            ActivityTrackingController controller = new StubbedController(jsondb, dbi, client, activityStore, podLogsStream, System.currentTimeMillis())) {
 
             controller.setStartupDelay("0 seconds");
             controller.setCleanUpInterval("15 minutes");
+            controller.setRetention(1000);
             controller.open();
 
-            // Eventually all the log data should make it into the jsondb
+            // Eventually all the log data should make it into the activity store, next to the old activity
             given().await()
                 .atMost(20, SECONDS)
                 .pollInterval(1, SECONDS)
-                .untilAsserted(() -> {
-                    final String json = jsondb.getAsString("/", new GetOptions().prettyPrint(true));
-                    assertThat(json).isNotNull();
-                    final JsonNode tree = JsonUtils.reader().readTree(json);
-                    assertThat(tree.get("activity").get("exchanges").get("my-integration").size()).isGreaterThan(1000);
-                });
+                .untilAsserted(() -> assertThat(activityStore.fetch("my-integration", null, 2000)).hasSize(1 + 1100));
 
+            final List<String> newest = activityStore.fetch("my-integration", null, 1000);
             controller.cleanupLogs();
-            final String json = jsondb.getAsString("/", new GetOptions().prettyPrint(true));
-            assertThat(json).isNotNull();
-            final JsonNode tree = JsonUtils.reader().readTree(json);
-            assertThat(tree.get("activity").get("exchanges").get("my-integration").size()).isLessThanOrEqualTo(controller.getRetention());
+
+            // the old day is dropped and only the 1000 newest activities are kept
+            final List<String> kept = activityStore.fetch("my-integration", null, 2000);
+            assertThat(kept).hasSize(1000).isEqualTo(newest).doesNotContain("{\"id\":\"old\"}");
         }
     }
 
+    @Test
+    public void shouldMoveActivitiesStoredInJsonDB() throws IOException {
+        final String id = KeyGenerator.createKey();
+        final String activity = "{\"id\":\"" + id + "\",\"status\":\"done\"}";
+        jsondb.set("/activity/exchanges", JsonUtils.writer().writeValueAsBytes(
+            Collections.singletonMap("my-integration", Collections.singletonMap(id, activity))));
+        jsondb.set("/activity/integrations", "{\"my-integration\":true}".getBytes(StandardCharsets.UTF_8));
+
+        final ActivityTrackingController controller = new ActivityTrackingController(jsondb, dbi, client, activityStore);
+        controller.migrateActivities();
+
+        assertThat(activityStore.fetch("my-integration", null, 10)).containsExactly(activity);
+        assertThat(jsondb.exists("/activity/exchanges")).isFalse();
+        assertThat(jsondb.exists("/activity/integrations")).isFalse();
+    }
+
+    private ObjectNode activities(String integrationId) throws IOException {
+        final ObjectNode activities = JsonNodeFactory.instance.objectNode();
+        for (String activity : activityStore.fetch(integrationId, null, 1000)) {
+            activities.put(JsonUtils.reader().readTree(activity).get("id").textValue(), activity);
+        }
+        return activities;
+    }
+
     private static String timestamp() {
         return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
     }
@@ -225,6 +314,15 @@ public class ActivityTrackingControllerTest {
         return podLogsStream;
     }
 
+    private static int indexOf(byte[] bytes, byte b, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private static String resource(String file) throws IOException {
         try (InputStream is = requireNonNull(ActivityTrackingControllerTest.class.getClassLoader().getResourceAsStream(file)) ) {
             ByteArrayOutputStream os = new ByteArrayOutputStream();
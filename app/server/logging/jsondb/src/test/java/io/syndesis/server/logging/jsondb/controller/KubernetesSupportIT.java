@@ -35,6 +35,7 @@ import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.NamespacedKubernetesClient;
 import io.syndesis.server.jsondb.JsonDB;
+import io.syndesis.server.logging.jsondb.store.ActivityStore;
 import io.syndesis.server.openshift.OpenShiftService;
 
 import org.junit.jupiter.api.AfterEach;
@@ -111,7 +112,7 @@ public class KubernetesSupportIT {
             // only for the log endpoint, so we need to stub out some of the
             // calls that would go to the live server and replace the
             // PodLogMonitor with test version
-            final ActivityTrackingController controller = new ActivityTrackingController(jsondb, dbi, client) {
+            final ActivityTrackingController controller = new ActivityTrackingController(jsondb, dbi, client, mock(ActivityStore.class)) {
                 @Override
                 protected boolean isPodRunning(String name) {
                     return true;
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.logging.jsondb.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.syndesis.common.util.json.JsonUtils;
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogLineTest {
+
+    // the format matched by the previous, regular expression based, implementation
+    private static final Pattern LOG_LINE_REGEX = Pattern.compile("^(\\d\\d\\d\\d\\-\\d\\d\\-\\d\\dT\\d\\d:\\d\\d:\\d\\d\\.\\d+Z) (\\{.*\\})\\s*");
+
+    @Test
+    public void shouldParseStructuredLines() throws IOException {
+        final LogLine step = parse("2018-01-12T21:22:02.068338027Z {\"exchange\":\"i-L38cZ51d1L876xV4vEFz\",\"step\":\"s2\",\"id\":\"i-L38cZ5Jd1L876xV4vEGz\",\"duration\":582977,\"status\":\"x\",\"extra\":{\"a\":[1,2]}}\n");
+
+        assertThat(step.time).isEqualTo("2018-01-12T21:22:02.068338027Z");
+        assertThat(step.exchange).isEqualTo("i-L38cZ51d1L876xV4vEFz");
+        assertThat(step.step).isEqualTo("s2");
+        assertThat(step.id).isEqualTo("i-L38cZ5Jd1L876xV4vEGz");
+        assertThat(step.duration.longValue()).isEqualTo(582977L);
+        assertThat(step.stepFields().toString()).isEqualTo("{\"extra\":{\"a\":[1,2]},\"status\":\"x\"}");
+
+        final LogLine exchange = parse("2018-01-12T21:22:02.068338027Z {\"exchange\":\"i-L38cZ51d1L876xV4vEFz\",\"status\":\"done\",\"failed\":true}");
+        assertThat(exchange.status).isEqualTo("done");
+        assertThat(exchange.failed).isTrue();
+        assertThat(exchange.exchangeFields()).isNull();
+    }
+
+    @Test
+    public void shouldIgnoreUnstructuredLines() throws IOException {
+        assertThat(parse("2018-01-12T21:22:02.068338027Z Starting the Java application\n")).isNull();
+        assertThat(parse("2018-01-12T21:22:02Z {\"exchange\":\"i-L38cZ51d1L876xV4vEFz\"}\n")).isNull();
+        assertThat(parse("{\"exchange\":\"i-L38cZ51d1L876xV4vEFz\"}\n")).isNull();
+        assertThat(parse("2018-01-12T21:22:02.068338027Z {\"exchange\":\"i-L38cZ51d1L876xV4vEFz\"} trailing\n")).isNull();
+        assertThat(parse("2018-01-12T21:22:02.068338027Z {\"exchange\":42}\n")).isNull();
+        assertThat(parse("2018-01-12T21:22:02.068338027Z {\"exchange\":\"x\",\"duration\":\"long\"}\n")).isNull();
+        assertThat(parse("2018-01-12T21:22:02.068338027Z\n")).isNull();
+    }
+
+    @Test
+    public void shouldMatchRegularExpressionParsingOfCapturedLog() throws IOException {
+        final byte[] log = resource("test-pod-x23x.txt");
+
+        final List<String> expected = new ArrayList<>();
+        for (String line : splitLikeBefore(log)) {
+            expected.add(parseLikeBefore(line));
+        }
+
+        final List<String> actual = new ArrayList<>();
+        new LogLineReader().read(new ByteArrayInputStream(log), () -> false, (line, length) -> {
+            final LogLine parsed = LogLine.parse(line, length);
+            actual.add(parsed == null ? null : describe(parsed));
+        });
+
+        assertThat(actual).hasSize(expected.size()).isEqualTo(expected);
+        assertThat(actual).filteredOn(v -> v != null).hasSize(17);
+    }
+
+    @Test
+    public void shouldSplitAndCutLinesAcrossChunks() throws IOException {
+        final StringBuilder log = new StringBuilder();
+        log.append("first\n");
+        for (int i = 0; i < 3 * LogLineReader.MAX_LINE_LENGTH; i++) {
+            log.append((char) ('a' + i % 26));
+        }
+        log.append("\nlast\nunterminated");
+        final byte[] bytes = log.toString().getBytes(UTF_8);
+
+        final List<String> lines = new ArrayList<>();
+        // return a few bytes per read to exercise lines spanning several reads
+        final InputStream trickle = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+        new LogLineReader().read(trickle, () -> false, (line, length) -> lines.add(new String(line, 0, length, UTF_8)));
+
+        assertThat(lines).isEqualTo(splitLikeBefore(bytes));
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(1)).hasSize(LogLineReader.MAX_LINE_LENGTH + 3).endsWith("\"}");
+    }
+
+    private static LogLine parse(String line) throws IOException {
+        final byte[] bytes = line.getBytes(UTF_8);
+        return LogLine.parse(bytes, bytes.length);
+    }
+
+    private static String describe(LogLine line) {
+        return Arrays.asList(line.time, line.exchange, line.id, line.step, line.message, line.failure, line.status,
+            line.duration == null ? null : line.duration.longValue(), line.failed).toString();
+    }
+
+    // the line splitting of the previous implementation, reading a byte at a time
+    private static List<String> splitLikeBefore(byte[] log) {
+        final List<String> lines = new ArrayList<>();
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (byte b : log) {
+            int c = b;
+            line.write(c);
+            if (line.size() > 1024 * 10) {
+                line.write('"');
+                line.write('}');
+                c = '\n';
+            }
+
+            if (c == '\n') {
+                lines.add(new String(line.toByteArray(), UTF_8));
+                line.reset();
+            }
+        }
+        return lines;
+    }
+
+    private static String parseLikeBefore(String line) throws IOException {
+        final Matcher matcher = LOG_LINE_REGEX.matcher(line);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> json = JsonUtils.reader().forType(HashMap.class).readValue(matcher.group(2));
+        final Number duration = (Number) json.get("duration");
+        return Arrays.asList(matcher.group(1), json.get("exchange"), json.get("id"), json.get("step"), json.get("message"), json.get("failure"),
+            json.get("status"), duration == null ? null : duration.longValue(), json.get("failed")).toString();
+    }
+
+    private static byte[] resource(String file) throws IOException {
+        try (InputStream is = requireNonNull(LogLineTest.class.getClassLoader().getResourceAsStream(file))) {
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = is.read(buffer)) >= 0) {
+                os.write(buffer, 0, read);
+            }
+            return os.toByteArray();
+        }
+    }
+}
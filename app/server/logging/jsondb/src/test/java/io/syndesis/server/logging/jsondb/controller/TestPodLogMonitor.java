@@ -16,6 +16,7 @@
 package io.syndesis.server.logging.jsondb.controller;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Phaser;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -33,8 +34,8 @@ public class TestPodLogMonitor extends PodLogMonitor {
     }
 
     @Override
-    void processLine(String line) throws IOException {
-        final int number = Integer.parseInt(line.trim());
+    void processLine(byte[] line, int length) throws IOException {
+        final int number = Integer.parseInt(new String(line, 0, length, StandardCharsets.UTF_8).trim());
         counter.set(number);
         if (number > 20) {
             phaser.arrive();
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.logging.jsondb.store;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.syndesis.common.util.KeyGenerator;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.skife.jdbi.v2.DBI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ActivityStoreTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private static final long START = Instant.parse("2018-01-12T10:00:00Z").toEpochMilli();
+
+    private DBI dbi;
+
+    private ActivityStore store;
+
+    @BeforeEach
+    public void before() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:activity-store;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        dbi = new DBI(ds);
+        store = new ActivityStore(dbi);
+    }
+
+    @AfterEach
+    public void after() {
+        store.dropOlderThan(Instant.parse("3000-01-01T00:00:00Z"));
+    }
+
+    @Test
+    public void shouldPageThroughActivitiesAcrossDays() throws IOException {
+        // three activities a day over three days, for two integrations
+        final List<String> ids = new ArrayList<>();
+        final Map<String, String> a = new TreeMap<>();
+        final Map<String, String> b = new TreeMap<>();
+        for (int i = 0; i < 9; i++) {
+            final String id = KeyGenerator.recreateKey(START + i / 3 * DAY + i, 0, i);
+            ids.add(id);
+            a.put(id, "a" + i);
+            b.put(id, "b" + i);
+        }
+
+        final Map<String, Map<String, String>> activities = new TreeMap<>();
+        activities.put("a", a);
+        activities.put("b", b);
+        dbi.useHandle(h -> store.write(h, activities));
+
+        assertThat(store.fetch("a", null, 4)).containsExactly("a8", "a7", "a6", "a5");
+        assertThat(store.fetch("a", ids.get(5), 4)).containsExactly("a4", "a3", "a2", "a1");
+        assertThat(store.fetch("a", ids.get(1), 4)).containsExactly("a0");
+        assertThat(store.fetch("a", ids.get(0), 4)).isEmpty();
+        assertThat(store.fetch("b", null, 100)).hasSize(9);
+        assertThat(store.fetch("c", null, 100)).isEmpty();
+    }
+
+    @Test
+    public void shouldReplaceActivities() throws IOException {
+        final String id = KeyGenerator.recreateKey(START, 0, 0);
+
+        dbi.useHandle(h -> store.write(h, Collections.singletonMap("a", Collections.singletonMap(id, "begin"))));
+        dbi.useHandle(h -> store.write(h, Collections.singletonMap("a", Collections.singletonMap(id, "done"))));
+
+        assertThat(store.fetch("a", null, 10)).containsExactly("done");
+    }
+
+    @Test
+    public void shouldDropWholeDays() throws IOException {
+        final Map<String, String> a = new TreeMap<>();
+        a.put(KeyGenerator.recreateKey(START, 0, 0), "day 1");
+        a.put(KeyGenerator.recreateKey(START + DAY, 0, 0), "day 2");
+        a.put(KeyGenerator.recreateKey(START + 2 * DAY, 0, 0), "day 3");
+        dbi.useHandle(h -> store.write(h, Collections.singletonMap("a", a)));
+
+        // the first day ends before, the second day after the retention cut
+        assertThat(store.dropOlderThan(Instant.ofEpochMilli(START + DAY))).isEqualTo(1);
+        assertThat(store.fetch("a", null, 10)).containsExactly("day 3", "day 2");
+
+        // the tables are found again after a restart
+        assertThat(new ActivityStore(dbi).fetch("a", null, 10)).containsExactly("day 3", "day 2");
+    }
+
+    @Test
+    public void shouldKeepTheMostRecentActivitiesOfEachIntegration() throws IOException {
+        // four activities a day over three days for a, one for b
+        final Map<String, String> a = new TreeMap<>();
+        for (int i = 0; i < 12; i++) {
+            a.put(KeyGenerator.recreateKey(START + i / 4 * DAY + i, 0, i), "a" + i);
+        }
+        final Map<String, Map<String, String>> activities = new TreeMap<>();
+        activities.put("a", a);
+        activities.put("b", Collections.singletonMap(KeyGenerator.recreateKey(START, 0, 0), "b0"));
+        dbi.useHandle(h -> store.write(h, activities));
+
+        // the cut falls in the middle of the second day
+        assertThat(store.dropExceeding(6)).isEqualTo(6);
+        assertThat(store.fetch("a", null, 100)).containsExactly("a11", "a10", "a9", "a8", "a7", "a6");
+        assertThat(store.fetch("b", null, 100)).containsExactly("b0");
+
+        assertThat(store.dropExceeding(6)).isZero();
+    }
+}
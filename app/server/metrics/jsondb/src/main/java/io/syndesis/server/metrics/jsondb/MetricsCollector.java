@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -41,6 +42,8 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.internal.readiness.Readiness;
 import io.syndesis.server.dao.manager.DataManager;
 import io.syndesis.server.jsondb.JsonDB;
+import io.syndesis.server.openshift.KubernetesResourceCache;
+import io.syndesis.server.openshift.ResourceCache;
 import io.syndesis.common.model.integration.Integration;
 import io.syndesis.common.model.metrics.IntegrationMetricsSummary;
 
@@ -52,6 +55,7 @@ public class MetricsCollector implements Runnable, Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(MetricsCollector.class);
 
     private final KubernetesClient kubernetes;
+    private final ResourceCache<Pod> podCache;
     private final DataManager dataManager;
     private final RawMetricsHandler rmh;
     private final IntegrationMetricsHandler imh;
@@ -59,10 +63,15 @@ public class MetricsCollector implements Runnable, Closeable {
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
     private final ExecutorService executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("metrics-collector"));
 
-    @Autowired
     public MetricsCollector(DataManager dataManager, JsonDB jsonDB, KubernetesClient kubernetes) {
+        this(dataManager, jsonDB, kubernetes, Optional.empty());
+    }
+
+    @Autowired
+    public MetricsCollector(DataManager dataManager, JsonDB jsonDB, KubernetesClient kubernetes, Optional<KubernetesResourceCache> resourceCache) {
         this.dataManager = dataManager;
         this.kubernetes = kubernetes;
+        this.podCache = resourceCache.map(KubernetesResourceCache::pods).orElse(null);
         this.rmh = new JsonDBRawMetrics(jsonDB);
         this.imh = new IntegrationMetricsHandler(dataManager);
     }
@@ -84,11 +93,24 @@ public class MetricsCollector implements Runnable, Closeable {
     }
 
 
+    private List<Pod> listIntegrationPods() {
+        if (podCache != null && podCache.isSynced()) {
+            return podCache.list(MetricsCollector::hasIntegrationLabel);
+        }
+
+        return kubernetes.pods().withLabel("integration").list().getItems();
+    }
+
+    private static boolean hasIntegrationLabel(Pod pod) {
+        final Map<String, String> labels = pod.getMetadata().getLabels();
+        return labels != null && labels.containsKey("integration");
+    }
+
     @Override
     public void run() {
         LOGGER.debug("Collecting metrics for active integration pods.");
         try {
-            List<Pod> integrationPodList = kubernetes.pods().withLabel("integration").list().getItems();
+            List<Pod> integrationPodList = listIntegrationPods();
             Set<String> livePods = new HashSet<>();
             for (Pod pod : integrationPodList) {
                 livePods.add(pod.getMetadata().getName());
@@ -34,8 +34,10 @@ import io.syndesis.common.model.metrics.IntegrationDeploymentMetrics;
 import io.syndesis.common.model.metrics.IntegrationMetricsSummary;
 import io.syndesis.common.util.CollectionsUtils;
 import io.syndesis.server.endpoint.metrics.MetricsProvider;
+import io.syndesis.server.openshift.KubernetesResourceCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
@@ -66,6 +68,8 @@ public class PrometheusMetricsProviderImpl implements MetricsProvider {
 
     private final NamespacedOpenShiftClient openShiftClient;
 
+    private final KubernetesResourceCache resourceCache;
+
     static final Map<String,String> LABELS = CollectionsUtils.immutableMapOf(
         "syndesis.io/app", "syndesis",
         "syndesis.io/component", "syndesis-server"
@@ -76,6 +80,12 @@ public class PrometheusMetricsProviderImpl implements MetricsProvider {
     private volatile HttpClient httpClient;
 
     protected PrometheusMetricsProviderImpl(PrometheusConfigurationProperties config, NamespacedOpenShiftClient openShiftClient) {
+        this(config, openShiftClient, Optional.empty());
+    }
+
+    @Autowired
+    protected PrometheusMetricsProviderImpl(PrometheusConfigurationProperties config, NamespacedOpenShiftClient openShiftClient,
+                                            Optional<KubernetesResourceCache> resourceCache) {
         this.serviceName = config.getService();
         this.integrationIdLabel = config.getIntegrationIdLabel();
         this.deploymentVersionLabel = config.getDeploymentVersionLabel();
@@ -84,6 +94,7 @@ public class PrometheusMetricsProviderImpl implements MetricsProvider {
         this.metricsHistoryRange = config.getMetricsHistoryRange();
         this.topIntegrationsCount = config.getTopIntegrationsCount();
         this.openShiftClient = openShiftClient;
+        this.resourceCache = resourceCache.orElse(null);
     }
 
     @PostConstruct
@@ -169,12 +180,20 @@ public class PrometheusMetricsProviderImpl implements MetricsProvider {
                 .build();
     }
 
+    private List<Pod> listServerPods() {
+        if (resourceCache != null && resourceCache.pods().isSynced()) {
+            return resourceCache.pods().list(LABELS);
+        }
+
+        return openShiftClient.pods().withLabelSelector(SELECTOR).list().getItems();
+    }
+
     @Override
     public IntegrationMetricsSummary getTotalIntegrationMetricsSummary() {
         final Optional<Long> totalMessages = getSummaryMetricValue(METRIC_TOTAL, Long.class, "sum");
         final Optional<Long> failedMessages = getSummaryMetricValue(METRIC_FAILED, Long.class, "sum");
 
-        final List<Pod> serverList = openShiftClient.pods().withLabelSelector(SELECTOR).list().getItems();
+        final List<Pod> serverList = listServerPods();
         final Optional<Instant> startTime;
         if (!serverList.isEmpty()) {
             startTime = Optional.of(Instant.parse(serverList.get(0).getStatus().getStartTime()));
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.openshift;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.client.NamespacedOpenShiftClient;
+import io.syndesis.common.util.thread.Threads;
+
+/**
+ * Watch based caches of the pods and builds in the namespace of the client,
+ * shared by the server subsystems so that they do not each poll the API
+ * server.
+ */
+public class KubernetesResourceCache implements AutoCloseable {
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ResourceCache<Pod> pods;
+
+    private final ResourceCache<Build> builds;
+
+    public KubernetesResourceCache(NamespacedOpenShiftClient client, long retryMillis) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Threads.newThreadFactory("Kubernetes Resource Cache"));
+
+        final String namespace = client.getNamespace();
+        pods = new ResourceCache<>("pods", client.pods().inNamespace(namespace), scheduler, retryMillis);
+        builds = new ResourceCache<>("builds", client.builds().inNamespace(namespace), scheduler, retryMillis);
+    }
+
+    public void start() {
+        pods.start();
+        builds.start();
+    }
+
+    @Override
+    public void close() {
+        pods.close();
+        builds.close();
+
+        scheduler.shutdownNow();
+    }
+
+    public ResourceCache<Pod> pods() {
+        return pods;
+    }
+
+    public ResourceCache<Build> builds() {
+        return builds;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package io.syndesis.server.openshift;
 
+import java.util.Optional;
+
 import io.fabric8.openshift.client.DefaultOpenShiftClient;
 import io.fabric8.openshift.client.NamespacedOpenShiftClient;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -34,10 +36,17 @@ public class OpenShiftConfiguration {
         return new DefaultOpenShiftClient(openShiftConfigurationProperties.getOpenShiftClientConfiguration());
     }
 
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(value = {"openshift.enabled", "openshift.resource-cache-enabled"}, matchIfMissing = true, havingValue = "true")
+    public KubernetesResourceCache kubernetesResourceCache(NamespacedOpenShiftClient openShiftClient, OpenShiftConfigurationProperties openShiftConfigurationProperties) {
+        return new KubernetesResourceCache(openShiftClient, openShiftConfigurationProperties.getPollingInterval());
+    }
+
     @Bean
     @ConditionalOnProperty(value = "openshift.enabled", matchIfMissing = true, havingValue = "true")
-    public OpenShiftService openShiftService(NamespacedOpenShiftClient openShiftClient, OpenShiftConfigurationProperties openShiftConfigurationProperties) {
-        return new OpenShiftServiceImpl(openShiftClient, openShiftConfigurationProperties);
+    public OpenShiftService openShiftService(NamespacedOpenShiftClient openShiftClient, OpenShiftConfigurationProperties openShiftConfigurationProperties,
+                                             Optional<KubernetesResourceCache> resourceCache) {
+        return new OpenShiftServiceImpl(openShiftClient, openShiftConfigurationProperties, resourceCache.orElse(null));
     }
 
     @Bean
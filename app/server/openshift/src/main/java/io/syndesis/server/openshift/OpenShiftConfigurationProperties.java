@@ -53,6 +53,8 @@ public class OpenShiftConfigurationProperties {
     private int maximumRetries = 3;
     private long pollingInterval = 5000;
 
+    private boolean resourceCacheEnabled = true;
+
     private Map<String, String> buildNodeSelector;
 
     private int integrationLivenessProbeInitialDelaySeconds;
@@ -179,6 +181,14 @@ public class OpenShiftConfigurationProperties {
         this.pollingInterval = pollingInterval;
     }
 
+    public boolean isResourceCacheEnabled() {
+        return resourceCacheEnabled;
+    }
+
+    public void setResourceCacheEnabled(boolean resourceCacheEnabled) {
+        this.resourceCacheEnabled = resourceCacheEnabled;
+    }
+
     public Map<String, String> getBuildNodeSelector() {
         return buildNodeSelector;
     }
@@ -49,6 +49,8 @@ public interface OpenShiftService {
     String USERNAME_LABEL = "syndesis.io/username";
     String COMPONENT_LABEL = "syndesis.io/component";
 
+    String ACTIVITY_TRACKING_TOKEN_PURPOSE = "syndesis.io/activity-tracking";
+
     int INTEGRATION_SERVICE_PORT = 8080;
 
     /**
@@ -60,6 +62,18 @@ public interface OpenShiftService {
      */
     String build(String name, DeploymentData data, InputStream tarInputStream) throws InterruptedException;
 
+    /**
+     * Tags the image built for an earlier version with the version of the
+     * given deployment data, so that it can be deployed without building it
+     * again
+     * @param name name of the build
+     * @param fromVersion the version the image was built for
+     * @param data the deployment data to use
+     * @return the image reference, or empty if the image is not available
+     *         anymore or could not be tagged
+     */
+    Optional<String> reuseImage(String name, int fromVersion, DeploymentData data);
+
     /**
      * Perform a deployment
      * @param data the deployment data to use
@@ -56,6 +56,7 @@ import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
 import io.fabric8.openshift.api.model.DeploymentConfigStatus;
 import io.fabric8.openshift.api.model.DeploymentTriggerPolicyBuilder;
 import io.fabric8.openshift.api.model.DoneableDeploymentConfig;
+import io.fabric8.openshift.api.model.ImageStreamTag;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteSpec;
 import io.fabric8.openshift.api.model.User;
@@ -103,10 +104,16 @@ public class OpenShiftServiceImpl implements OpenShiftService {
 
     private final NamespacedOpenShiftClient openShiftClient;
     private final OpenShiftConfigurationProperties config;
+    private final KubernetesResourceCache resourceCache;
 
     public OpenShiftServiceImpl(NamespacedOpenShiftClient openShiftClient, OpenShiftConfigurationProperties config) {
+        this(openShiftClient, config, null);
+    }
+
+    public OpenShiftServiceImpl(NamespacedOpenShiftClient openShiftClient, OpenShiftConfigurationProperties config, KubernetesResourceCache resourceCache) {
         this.openShiftClient = openShiftClient;
         this.config = config;
+        this.resourceCache = resourceCache;
     }
 
     @Override
@@ -125,6 +132,39 @@ public class OpenShiftServiceImpl implements OpenShiftService {
         }
     }
 
+    @Override
+    public Optional<String> reuseImage(String name, int fromVersion, DeploymentData deploymentData) {
+        final String sName = openshiftName(name);
+        final ImageStreamTag built = openShiftClient.imageStreamTags().withName(sName + ":" + fromVersion).get();
+        if (built == null || built.getImage() == null) {
+            // image stream was removed or the tag pruned
+            return Optional.empty();
+        }
+
+        try {
+            // tag by digest, the tag of the version that built it could move
+            openShiftClient.imageStreamTags().createOrReplaceWithNew()
+                .withNewMetadata()
+                    .withName(sName + ":" + deploymentData.getVersion())
+                    .addToLabels(deploymentData.getLabels())
+                    .addToAnnotations(deploymentData.getAnnotations())
+                .endMetadata()
+                .withNewTag()
+                    .withNewFrom()
+                        .withKind("ImageStreamImage")
+                        .withName(sName + "@" + built.getImage().getMetadata().getName())
+                    .endFrom()
+                .endTag()
+                .done();
+        } catch (KubernetesClientException e) {
+            // the caller builds the image instead
+            LOGGER.warn("Unable to tag the image of {} version {} as version {}: {}", sName, fromVersion, deploymentData.getVersion(), e.getMessage());
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(built.getImage().getDockerImageReference());
+    }
+
     @Override
     public String deploy(String name, DeploymentData deploymentData) {
         final String sanitizedName = openshiftName(name);
@@ -655,12 +695,22 @@ public class OpenShiftServiceImpl implements OpenShiftService {
     }
 
     private Build waitForBuild(Build r, long timeout, TimeUnit timeUnit) throws InterruptedException {
+        if (isBuildFinished(r)) {
+            return r;
+        }
+
+        if (resourceCache != null && resourceCache.builds().isSynced()) {
+            // react to the build status changes as they are watched
+            return resourceCache.builds().await(r.getMetadata().getName(), OpenShiftServiceImpl::isBuildFinished, timeout, timeUnit)
+                .orElseThrow(() -> SyndesisServerException.launderThrowable(new TimeoutException("Timed out waiting for build completion.")));
+        }
+
         long end = System.currentTimeMillis() + timeUnit.toMillis(timeout);
         Build next = r;
 
         int retriesLeft = config.getMaximumRetries();
         while ( System.currentTimeMillis() < end) {
-            if (next.getStatus() != null && ("Complete".equals(next.getStatus().getPhase()) || "Failed".equals(next.getStatus().getPhase()))) {
+            if (isBuildFinished(next)) {
                 return next;
             }
             try {
@@ -673,6 +723,11 @@ public class OpenShiftServiceImpl implements OpenShiftService {
         throw SyndesisServerException.launderThrowable(new TimeoutException("Timed out waiting for build completion."));
     }
 
+    static boolean isBuildFinished(Build build) {
+        return build != null && build.getStatus() != null
+            && ("Complete".equals(build.getStatus().getPhase()) || "Failed".equals(build.getStatus().getPhase()));
+    }
+
     private IntegrationScheduling loadIntegrationScheduling() {
         IntegrationScheduling integrationScheduling = null;
         try {
@@ -91,6 +91,12 @@ public class OpenShiftServiceNoOp implements OpenShiftService {
         return null;
     }
 
+    @Override
+    public Optional<String> reuseImage(String name, int fromVersion, DeploymentData data) {
+        // Empty no-op just for testing
+        return Optional.empty();
+    }
+
     @Override
     public String deploy(String name, DeploymentData data) {
         // Empty no-op just for testing
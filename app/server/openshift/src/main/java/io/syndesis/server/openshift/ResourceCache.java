@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.openshift;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.WatchListDeletable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local copy of the resources of one kind, kept up to date by watching them.
+ * <p>
+ * The resources are listed once and then watched from the listed resource
+ * version, when the watch is closed by the API server, for instance because
+ * the resource version is too old, the resources are listed and watched
+ * again. Listeners are notified of every change, including the ones found by
+ * listing again. Until the first list succeeded the cache is not
+ * {@link #isSynced() synced} and users should ask the API server instead.
+ */
+public final class ResourceCache<T extends HasMetadata> {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceCache.class);
+
+    private final String kind;
+    private final WatchListDeletable<T, ? extends KubernetesResourceList<T>, Boolean, Watch, Watcher<T>> operation;
+    private final ScheduledExecutorService scheduler;
+    private final long retryMillis;
+
+    private final Map<String, T> resources = new ConcurrentHashMap<>();
+    private final List<BiConsumer<Watcher.Action, T>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Watch watch;
+    private volatile boolean synced;
+    private volatile boolean closed;
+
+    ResourceCache(String kind, WatchListDeletable<T, ? extends KubernetesResourceList<T>, Boolean, Watch, Watcher<T>> operation,
+                  ScheduledExecutorService scheduler, long retryMillis) {
+        this.kind = kind;
+        this.operation = operation;
+        this.scheduler = scheduler;
+        this.retryMillis = retryMillis;
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public Optional<T> get(String name) {
+        return Optional.ofNullable(resources.get(name));
+    }
+
+    public List<T> list() {
+        return new ArrayList<>(resources.values());
+    }
+
+    /**
+     * Resources that have all of the given labels.
+     */
+    public List<T> list(Map<String, String> labels) {
+        return list(resource -> hasLabels(resource, labels));
+    }
+
+    public List<T> list(Predicate<T> filter) {
+        final List<T> matching = new ArrayList<>();
+        for (T resource : resources.values()) {
+            if (filter.test(resource)) {
+                matching.add(resource);
+            }
+        }
+
+        return matching;
+    }
+
+    /**
+     * Registers a listener for changes to the resources, returns the
+     * runnable that unregisters it.
+     */
+    public Runnable addListener(BiConsumer<Watcher.Action, T> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Waits for the named resource to satisfy the condition, returns empty
+     * when that does not happen within the timeout.
+     */
+    public Optional<T> await(String name, Predicate<T> condition, long timeout, TimeUnit unit) throws InterruptedException {
+        final CompletableFuture<T> found = new CompletableFuture<>();
+        final Runnable remove = addListener((action, resource) -> {
+            if (action != Watcher.Action.DELETED && name.equals(resource.getMetadata().getName()) && condition.test(resource)) {
+                found.complete(resource);
+            }
+        });
+
+        try {
+            get(name).filter(condition).ifPresent(found::complete);
+
+            return Optional.of(found.get(timeout, unit));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            remove.run();
+        }
+    }
+
+    void start() {
+        scheduler.execute(this::sync);
+    }
+
+    void close() {
+        closed = true;
+
+        final Watch current = watch;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    static boolean hasLabels(HasMetadata resource, Map<String, String> labels) {
+        final Map<String, String> actual = resource.getMetadata().getLabels();
+        if (labels.isEmpty()) {
+            return true;
+        }
+
+        if (actual == null) {
+            return false;
+        }
+
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            if (!Objects.equals(actual.get(label.getKey()), label.getValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private void sync() {
+        if (closed) {
+            return;
+        }
+
+        try {
+            final KubernetesResourceList<T> current = operation.list();
+
+            final Set<String> names = new HashSet<>();
+            for (T resource : current.getItems()) {
+                final String name = resource.getMetadata().getName();
+                names.add(name);
+
+                final T previous = resources.put(name, resource);
+                if (previous == null) {
+                    notifyListeners(Watcher.Action.ADDED, resource);
+                } else if (!Objects.equals(previous.getMetadata().getResourceVersion(), resource.getMetadata().getResourceVersion())) {
+                    notifyListeners(Watcher.Action.MODIFIED, resource);
+                }
+            }
+
+            for (T resource : new ArrayList<>(resources.values())) {
+                if (!names.contains(resource.getMetadata().getName())) {
+                    resources.remove(resource.getMetadata().getName());
+                    notifyListeners(Watcher.Action.DELETED, resource);
+                }
+            }
+
+            synced = true;
+            watch = operation.watch(current.getMetadata().getResourceVersion(), new CacheWatcher());
+            LOG.debug("Watching {} {} from resource version {}", names.size(), kind, current.getMetadata().getResourceVersion());
+        } catch (RuntimeException e) {
+            // retry on any failure, otherwise the cache would never sync
+            LOG.warn("Unable to list and watch {}, retrying in {}ms: {}", kind, retryMillis, e.getMessage());
+            LOG.debug("Unable to list and watch {}", kind, e);
+            scheduler.schedule(this::sync, retryMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void notifyListeners(Watcher.Action action, T resource) {
+        for (BiConsumer<Watcher.Action, T> listener : listeners) {
+            try {
+                listener.accept(action, resource);
+            } catch (RuntimeException e) {
+                LOG.warn("Listener failed on {} of {} {}", action, kind, resource.getMetadata().getName(), e);
+            }
+        }
+    }
+
+    private final class CacheWatcher implements Watcher<T> {
+        @Override
+        public void eventReceived(Action action, T resource) {
+            if (action == Action.ERROR) {
+                LOG.warn("Received error while watching {}", kind);
+                return;
+            }
+
+            if (action == Action.DELETED) {
+                resources.remove(resource.getMetadata().getName());
+            } else {
+                resources.put(resource.getMetadata().getName(), resource);
+            }
+
+            notifyListeners(action, resource);
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (closed) {
+                return;
+            }
+
+            // the watch could not be reconnected, changes could have been
+            // missed so list again
+            LOG.info("Watch on {} closed, listing again: {}", kind, cause == null ? "" : cause.getMessage());
+            scheduler.execute(ResourceCache.this::sync);
+        }
+    }
+}
@@ -34,6 +34,8 @@ import io.fabric8.kubernetes.api.model.ServiceBuilder;
 import io.fabric8.kubernetes.api.model.StatusBuilder;
 import io.fabric8.openshift.api.model.DeploymentConfig;
 import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
+import io.fabric8.openshift.api.model.ImageStreamTag;
+import io.fabric8.openshift.api.model.ImageStreamTagBuilder;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.api.model.RouteBuilder;
 import io.fabric8.openshift.client.NamespacedOpenShiftClient;
@@ -462,6 +464,70 @@ public class OpenShiftServiceImplTest {
         assertThat(issuedRequests).contains(Request.with("DELETE", "/apis/build.openshift.io/v1/namespaces/test/buildconfigs/i-integration"));
     }
 
+    @Test
+    public void shouldReuseImageBuiltForEarlierVersion() {
+        expectImageStreamTag("i-integration:1", builtImageStreamTag());
+        server.expect()
+            .post()
+            .withPath("/apis/image.openshift.io/v1/namespaces/test/imagestreamtags")
+            .andReturn(201, new ImageStreamTag())
+            .once();
+
+        final DeploymentData deploymentData = new DeploymentData.Builder()
+            .withVersion(2)
+            .addLabel("syndesis.io/deployment-version", "2")
+            .build();
+
+        assertThat(service.reuseImage("integration", 1, deploymentData)).contains("172.30.1.1:5000/syndesis/i-integration@sha256:cafe");
+
+        final ImageStreamTag expectedTag = new ImageStreamTagBuilder()
+            .withNewMetadata()
+                .withName("i-integration:2")
+                .addToLabels(deploymentData.getLabels())
+                .addToAnnotations(deploymentData.getAnnotations())
+            .endMetadata()
+            .withNewTag()
+                .withNewFrom()
+                    .withKind("ImageStreamImage")
+                    .withName("i-integration@sha256:cafe")
+                .endFrom()
+            .endTag()
+            .build();
+
+        final List<Request> issuedRequests = gatherRequests();
+        assertThat(issuedRequests).contains(Request.with("POST", "/apis/image.openshift.io/v1/namespaces/test/imagestreamtags", expectedTag));
+    }
+
+    @Test
+    public void shouldNotReuseMissingImage() {
+        server.expect()
+            .get()
+            .withPath("/apis/image.openshift.io/v1/namespaces/test/imagestreamtags/i-integration:1")
+            .andReturn(404, new StatusBuilder().withCode(404).build())
+            .once();
+
+        final DeploymentData deploymentData = new DeploymentData.Builder().withVersion(2).build();
+
+        assertThat(service.reuseImage("integration", 1, deploymentData)).isEmpty();
+
+        final List<Request> issuedRequests = gatherRequests();
+        assertThat(issuedRequests).noneMatch(r -> "POST".equals(r.method));
+    }
+
+    @Test
+    public void shouldNotReuseImageThatCannotBeTagged() {
+        expectImageStreamTag("i-integration:1", builtImageStreamTag());
+        server.expect()
+            .post()
+            .withPath("/apis/image.openshift.io/v1/namespaces/test/imagestreamtags")
+            .andReturn(500, new StatusBuilder().withCode(500).build())
+            .always();
+
+        final DeploymentData deploymentData = new DeploymentData.Builder().withVersion(2).build();
+
+        assertThat(service.reuseImage("integration", 1, deploymentData)).isEmpty();
+    }
+
     DeploymentConfigBuilder baseDeploymentFor(final String name, final DeploymentData deploymentData) {
         return new DeploymentConfigBuilder()
             .withNewMetadata()
@@ -581,6 +647,28 @@ public class OpenShiftServiceImplTest {
             .always();
     }
 
+    void expectImageStreamTag(final String name, final ImageStreamTag imageStreamTag) {
+        server.expect()
+            .get()
+            .withPath("/apis/image.openshift.io/v1/namespaces/test/imagestreamtags/" + name)
+            .andReturn(200, imageStreamTag)
+            .always();
+    }
+
+    static ImageStreamTag builtImageStreamTag() {
+        return new ImageStreamTagBuilder()
+            .withNewMetadata()
+                .withName("i-integration:1")
+            .endMetadata()
+            .withNewImage()
+                .withNewMetadata()
+                    .withName("sha256:cafe")
+                .endMetadata()
+                .withDockerImageReference("172.30.1.1:5000/syndesis/i-integration@sha256:cafe")
+            .endImage()
+            .build();
+    }
+
     List<Request> gatherRequests() {
         final List<Request> issued = new ArrayList<>();
         RecordedRequest taken;
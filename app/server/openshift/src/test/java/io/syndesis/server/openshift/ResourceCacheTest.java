@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.openshift;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.BuildListBuilder;
+import io.fabric8.openshift.client.NamespacedOpenShiftClient;
+import io.fabric8.openshift.client.server.mock.OpenShiftMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceCacheTest {
+
+    private static final String PODS = "/api/v1/namespaces/test/pods";
+
+    private static final String BUILDS = "/apis/build.openshift.io/v1/namespaces/test/builds";
+
+    private OpenShiftMockServer server;
+
+    private NamespacedOpenShiftClient client;
+
+    private KubernetesResourceCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        server = new OpenShiftMockServer(false);
+        server.init();
+        client = server.createOpenShiftClient();
+
+        server.expect().get().withPath(PODS)
+            .andReturn(200, new PodListBuilder()
+                .withNewMetadata().withResourceVersion("1").endMetadata()
+                .withItems(pod("i-first", "integration", "1"), pod("syndesis-server", "server", "1"))
+                .build())
+            .always();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.close();
+        client.close();
+        server.destroy();
+    }
+
+    @Test
+    public void shouldListExistingResources() throws InterruptedException {
+        server.expect().withPath(PODS + "?resourceVersion=1&watch=true")
+            .andUpgradeToWebSocket().open().done().always();
+
+        start();
+        awaitSynced(cache.pods());
+
+        assertThat(cache.pods().list()).hasSize(2);
+        assertThat(cache.pods().list(Collections.singletonMap("syndesis.io/component", "integration")))
+            .extracting(p -> p.getMetadata().getName()).containsOnly("i-first");
+        assertThat(cache.pods().get("syndesis-server")).isPresent();
+        assertThat(cache.pods().get("missing")).isNotPresent();
+    }
+
+    @Test
+    public void shouldNotifyListenersOfChanges() throws InterruptedException {
+        server.expect().withPath(PODS + "?resourceVersion=1&watch=true")
+            .andUpgradeToWebSocket().open()
+            .waitFor(500).andEmit(new WatchEvent(pod("i-second", "integration", "2"), "ADDED"))
+            .waitFor(1000).andEmit(new WatchEvent(pod("i-first", "integration", "3"), "DELETED"))
+            .done().once();
+
+        start();
+        awaitSynced(cache.pods());
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        cache.pods().addListener((action, pod) -> events.add(action + " " + pod.getMetadata().getName()));
+
+        final List<String> removedEvents = new CopyOnWriteArrayList<>();
+        final Runnable remove = cache.pods().addListener((action, pod) -> removedEvents.add(action + " " + pod.getMetadata().getName()));
+        remove.run();
+
+        final Optional<Pod> added = cache.pods().await("i-second", p -> true, 5, TimeUnit.SECONDS);
+        assertThat(added).isPresent();
+
+        awaitGone(cache.pods(), "i-first");
+
+        assertThat(events).containsExactly("ADDED i-second", "DELETED i-first");
+        assertThat(removedEvents).isEmpty();
+        assertThat(cache.pods().get("syndesis-server")).isPresent();
+    }
+
+    @Test
+    public void shouldAwaitBuildCompletion() throws InterruptedException {
+        server.expect().get().withPath(BUILDS)
+            .andReturn(200, new BuildListBuilder()
+                .withNewMetadata().withResourceVersion("5").endMetadata()
+                .withItems(build("Running", "5"))
+                .build())
+            .always();
+        server.expect().withPath(BUILDS + "?resourceVersion=5&watch=true")
+            .andUpgradeToWebSocket().open()
+            .waitFor(500).andEmit(new WatchEvent(build("Complete", "6"), "MODIFIED"))
+            .done().once();
+
+        start();
+        awaitSynced(cache.builds());
+
+        assertThat(cache.builds().await("i-build-1", OpenShiftServiceImpl::isBuildFinished, 10, TimeUnit.MILLISECONDS)).isNotPresent();
+
+        final Optional<Build> finished = cache.builds().await("i-build-1", OpenShiftServiceImpl::isBuildFinished, 5, TimeUnit.SECONDS);
+        assertThat(finished).hasValueSatisfying(b -> assertThat(b.getStatus().getPhase()).isEqualTo("Complete"));
+    }
+
+    @Test
+    public void shouldRetryAfterUnexpectedFailure() throws InterruptedException {
+        // a build without metadata fails the first sync with a NullPointerException
+        server.expect().get().withPath(BUILDS)
+            .andReturn(200, new BuildListBuilder()
+                .withNewMetadata().withResourceVersion("5").endMetadata()
+                .withItems(new BuildBuilder().withNewStatus().withPhase("Running").endStatus().build())
+                .build())
+            .once();
+        server.expect().get().withPath(BUILDS)
+            .andReturn(200, new BuildListBuilder()
+                .withNewMetadata().withResourceVersion("6").endMetadata()
+                .withItems(build("Complete", "6"))
+                .build())
+            .always();
+        server.expect().withPath(BUILDS + "?resourceVersion=6&watch=true")
+            .andUpgradeToWebSocket().open().done().always();
+
+        start();
+        awaitSynced(cache.builds());
+
+        assertThat(cache.builds().get("i-build-1")).isPresent();
+    }
+
+    private void start() {
+        cache = new KubernetesResourceCache(client, 100);
+        cache.start();
+    }
+
+    private static void awaitSynced(ResourceCache<?> resourceCache) throws InterruptedException {
+        final long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!resourceCache.isSynced() && System.currentTimeMillis() < until) {
+            Thread.sleep(10);
+        }
+
+        assertThat(resourceCache.isSynced()).isTrue();
+    }
+
+    private static void awaitGone(ResourceCache<?> resourceCache, String name) throws InterruptedException {
+        final long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (resourceCache.get(name).isPresent() && System.currentTimeMillis() < until) {
+            Thread.sleep(10);
+        }
+
+        assertThat(resourceCache.get(name)).isNotPresent();
+    }
+
+    private static Build build(String phase, String resourceVersion) {
+        return new BuildBuilder()
+            .withNewMetadata().withName("i-build-1").withResourceVersion(resourceVersion).endMetadata()
+            .withNewStatus().withPhase(phase).endStatus()
+            .build();
+    }
+
+    private static Pod pod(String name, String component, String resourceVersion) {
+        return new PodBuilder()
+            .withNewMetadata()
+                .withName(name)
+                .withResourceVersion(resourceVersion)
+                .addToLabels("syndesis.io/component", component)
+            .endMetadata()
+            .withNewStatus().withPhase("Running").endStatus()
+            .build();
+    }
+}
@@ -15,12 +15,25 @@
  */
 package io.syndesis.server.runtime;
 
+import java.util.Collections;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.syndesis.common.model.Kind;
 import io.syndesis.common.util.cache.CacheManager;
+import io.syndesis.common.util.cache.ConcurrentLRUCacheManager;
 import io.syndesis.common.util.cache.LRUCacheManager;
+import io.syndesis.common.util.json.JsonUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class CacheConfiguration {
@@ -28,9 +41,52 @@ public class CacheConfiguration {
     @Value("${cache.max.entries}")
     private int maxEntries;
 
+    /**
+     * Either {@code concurrent} for {@link ConcurrentLRUCacheManager} or
+     * {@code lru} for {@link LRUCacheManager}.
+     */
+    @Value("${cache.kind:concurrent}")
+    private String kind;
+
     @Bean
     @ConditionalOnMissingBean
-    public CacheManager syndesisCacheManager() {
-        return new LRUCacheManager(maxEntries);
+    public CacheManager syndesisCacheManager(Environment environment) {
+        if ("lru".equals(kind)) {
+            return new LRUCacheManager(maxEntries);
+        }
+
+        // maximum size in bytes of the JSON representation of cached values per cache name
+        final Map<String, Long> maxBytes = Binder.get(environment)
+            .bind("cache.max.bytes", Bindable.mapOf(String.class, Long.class))
+            .orElse(Collections.emptyMap());
+
+        return new ConcurrentLRUCacheManager(maxEntries, maxBytes, CacheConfiguration::jsonSize);
+    }
+
+    @Bean
+    public MeterBinder syndesisCacheMetrics(CacheManager cacheManager) {
+        return registry -> {
+            if (!(cacheManager instanceof ConcurrentLRUCacheManager)) {
+                return;
+            }
+
+            final ConcurrentLRUCacheManager manager = (ConcurrentLRUCacheManager) cacheManager;
+            for (Kind kind : Kind.values()) {
+                final String name = kind.getModelName();
+                FunctionCounter.builder("syndesis.cache.requests", manager, m -> m.stats(name).getHits()).tag("cache", name).tag("result", "hit").register(registry);
+                FunctionCounter.builder("syndesis.cache.requests", manager, m -> m.stats(name).getMisses()).tag("cache", name).tag("result", "miss").register(registry);
+                FunctionCounter.builder("syndesis.cache.evictions", manager, m -> m.stats(name).getEvictions()).tag("cache", name).register(registry);
+                Gauge.builder("syndesis.cache.hit.ratio", manager, m -> m.stats(name).getHitRatio()).tag("cache", name).register(registry);
+                Gauge.builder("syndesis.cache.load.time", manager, m -> m.stats(name).getAverageLoadTimeNanos()).tag("cache", name).baseUnit("nanoseconds").register(registry);
+            }
+        };
+    }
+
+    private static long jsonSize(Object value) {
+        try {
+            return JsonUtils.writer().writeValueAsBytes(value).length;
+        } catch (JsonProcessingException e) {
+            return 0;
+        }
     }
 }
@@ -15,19 +15,26 @@
  */
 package io.syndesis.server.runtime;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.syndesis.common.util.IndexedProperty;
+import io.syndesis.server.jsondb.impl.DocumentCache;
 import io.syndesis.server.jsondb.impl.Index;
 import io.syndesis.server.jsondb.impl.SqlJsonDB;
+import io.syndesis.server.jsondb.impl.WriteStatistics;
 import io.syndesis.common.model.Kind;
 import io.syndesis.common.model.validation.UniqueProperty;
 import org.skife.jdbi.v2.DBI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +45,18 @@ import java.util.Optional;
 public class DataStoreConfiguration {
     private static final Logger LOG = LoggerFactory.getLogger(Migrations.class);
 
+    @Value("${jsondb.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${jsondb.cache.paths:/integrations,/connections,/connectors}")
+    private String[] cachePaths;
+
+    @Value("${jsondb.cache.max-entries:1000}")
+    private int cacheMaxEntries;
+
+    @Value("${jsondb.cache.max-bytes:67108864}")
+    private long cacheMaxBytes;
+
     @Bean
     @Autowired
     @SuppressWarnings("PMD.EmptyCatchBlock")
@@ -67,6 +86,9 @@ public class DataStoreConfiguration {
         }
 
         SqlJsonDB jsondb = new SqlJsonDB(dbi, null, indexes);
+        if (cacheEnabled) {
+            jsondb.setDocumentCache(new DocumentCache(Arrays.asList(cachePaths), cacheMaxEntries, cacheMaxBytes));
+        }
         try {
             jsondb.createTables();
         } catch (@SuppressWarnings("PMD.AvoidCatchingGenericException") Exception ignore) {
@@ -75,6 +97,30 @@ public class DataStoreConfiguration {
         return jsondb;
     }
 
+    @Bean
+    public MeterBinder jsonDBMetrics(SqlJsonDB jsondb) {
+        return registry -> {
+            final WriteStatistics writes = jsondb.getWriteStatistics();
+            FunctionCounter.builder("jsondb.records.written", writes, WriteStatistics::inserted).tag("operation", "insert").register(registry);
+            FunctionCounter.builder("jsondb.records.written", writes, WriteStatistics::updated).tag("operation", "update").register(registry);
+            FunctionCounter.builder("jsondb.records.written", writes, WriteStatistics::deleted).tag("operation", "delete").register(registry);
+            FunctionCounter.builder("jsondb.records.written", writes, WriteStatistics::unchanged).tag("operation", "unchanged").register(registry);
+            Gauge.builder("jsondb.records.rate", writes, WriteStatistics::rowsPerSecond).baseUnit("rows/s").register(registry);
+
+            final DocumentCache cache = jsondb.getDocumentCache();
+            if (cache == null) {
+                return;
+            }
+
+            FunctionCounter.builder("jsondb.cache.requests", cache, DocumentCache::hits).tag("result", "hit").register(registry);
+            FunctionCounter.builder("jsondb.cache.requests", cache, DocumentCache::misses).tag("result", "miss").register(registry);
+            FunctionCounter.builder("jsondb.cache.evictions", cache, DocumentCache::evictions).register(registry);
+            FunctionCounter.builder("jsondb.cache.invalidations", cache, DocumentCache::invalidations).register(registry);
+            Gauge.builder("jsondb.cache.size", cache, DocumentCache::size).register(registry);
+            Gauge.builder("jsondb.cache.bytes", cache, DocumentCache::sizeInBytes).register(registry);
+        };
+    }
+
     private static void addIndex(List<Index> indexes, Kind kind, IndexedProperty indexedProperty) {
         if (indexedProperty != null) {
             indexes.add(new Index("/" + kind.getModelName() + "s", indexedProperty.value()));
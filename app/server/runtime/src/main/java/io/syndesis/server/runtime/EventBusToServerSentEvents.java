@@ -69,7 +69,7 @@ public class EventBusToServerSentEvents implements UndertowDeploymentInfoCustomi
             LOG.debug("Principal is: {}", reservation.getPrincipal());
             connection.send("connected", "message", null, null);
             connection.setKeepAliveTime(25*1000);
-            bus.subscribe(subscriptionId, (type, data)->{
+            bus.subscribeClient(subscriptionId, (type, data)->{
                 if( connection.isOpen() ) {
                     connection.send(data, type, null, null);
                 } else {
@@ -87,7 +87,7 @@ public class EventBusToWebSocket extends EventBusToServerSentEvents {
             LOG.debug("Principal is: {}", reservation.getPrincipal());
             connection.send("connected", "message", null, null);
             connection.setKeepAliveTime(25*1000);
-            bus.subscribe(subscriptionId, (type, data) -> {
+            bus.subscribeClient(subscriptionId, (type, data) -> {
                 if (connection.isOpen()) {
                     connection.send(data, type, null, null);
                 } else {
@@ -113,7 +113,7 @@ public class EventBusToWebSocket extends EventBusToServerSentEvents {
             }
             LOG.debug("Principal is: {}", reservation.getPrincipal());
             send(channel, "message", "connected");
-            bus.subscribe(subscriptionId, (type, data) -> {
+            bus.subscribeClient(subscriptionId, (type, data) -> {
                 if (channel.isOpen()) {
                     send(channel, type, data);
                 } else {
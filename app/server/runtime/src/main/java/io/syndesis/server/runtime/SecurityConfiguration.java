@@ -51,6 +51,11 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         "/actuator/health"
     };
 
+    // integration pods send their activity tracking events, they do not go
+    // through the OAuth proxy and authenticate with the token the server
+    // issued to the integration, checked by the ActivityHandler
+    private static final String ACTIVITY_INGESTION_PATH = "/api/v1/activity/pods/*";
+
     @Override
     protected void configure(AuthenticationManagerBuilder authenticationManagerBuilder) {
         authenticationManagerBuilder.authenticationProvider(authenticationProvider());
@@ -67,12 +72,14 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .antMatchers(HttpMethod.OPTIONS).permitAll()
             .antMatchers(COMMON_NON_SECURED_PATHS).permitAll()
             .antMatchers(HttpMethod.GET, "/api/v1/credentials/callback").permitAll()
+            .antMatchers(HttpMethod.POST, ACTIVITY_INGESTION_PATH).permitAll()
             .antMatchers("/api/v1/**").hasRole("AUTHENTICATED")
             .anyRequest().permitAll();
 
         http.csrf()
             .ignoringAntMatchers(COMMON_NON_SECURED_PATHS)
             .ignoringAntMatchers("/api/v1/credentials/callback")
+            .ignoringAntMatchers(ACTIVITY_INGESTION_PATH)
             .ignoringAntMatchers("/api/v1/atlas/**")
             .csrfTokenRepository(new SyndesisCsrfRepository());
     }
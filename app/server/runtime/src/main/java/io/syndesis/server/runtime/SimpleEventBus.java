@@ -15,32 +15,152 @@
  */
 package io.syndesis.server.runtime;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.annotation.PreDestroy;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.syndesis.common.util.EventBus;
+import io.syndesis.common.util.thread.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
  * A simple event bus to abstract registering/sending Server Sent Events to browser clients
  * which have a subscribed to events.  This could potentially be implemented using a messaging broker.
+ * <p>
+ * When created with a queue size, events are not delivered on the publishing thread: each
+ * subscriber gets a queue that is drained, in order, by a dispatcher thread. Duplicate
+ * {@code change-event}s still waiting in a subscriber's queue are coalesced.
+ * <p>
+ * Only client subscriptions, the browsers subscribed over SSE or WebSockets, have bounded
+ * queues and are handled according to the {@link SlowConsumerPolicy} when they can't keep
+ * up; they are drained by a shared pool of dispatcher threads. The server's own
+ * subscribers get unbounded queues, are never disconnected and each has its own
+ * dispatcher thread so that clients can't hold up their events.
  */
 @Component
-public class SimpleEventBus implements EventBus {
+public class SimpleEventBus implements EventBus, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SimpleEventBus.class);
+
+    /**
+     * What to do with an event for a subscriber whose queue is full.
+     */
+    public enum SlowConsumerPolicy {
+        /** discard the oldest queued event to make room for the new one */
+        DROP_OLDEST,
+        /** discard the new event */
+        DROP_NEWEST,
+        /** remove the subscription and discard its queued events */
+        DISCONNECT
+    }
 
     private final ConcurrentHashMap<String, Subscription> subscriptions = new ConcurrentHashMap<>();
 
+    private final ConcurrentHashMap<String, SubscriberQueue> queues = new ConcurrentHashMap<>();
+
+    private final int queueSize;
+
+    private final long coalesceWindowNanos;
+
+    private final SlowConsumerPolicy slowConsumerPolicy;
+
+    private final ExecutorService dispatcher;
+
+    private final ExecutorService internalDispatcher;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder disconnected = new LongAdder();
+
+    private final LongAdder dispatched = new LongAdder();
+
+    private final LongAdder dispatchLatency = new LongAdder();
+
+    /**
+     * Creates an event bus that delivers events on the publishing thread.
+     */
+    public SimpleEventBus() {
+        this(0, 0, 0, SlowConsumerPolicy.DROP_OLDEST);
+    }
+
+    @Autowired
+    public SimpleEventBus(@Value("${eventbus.queue-size:0}") int queueSize,
+                          @Value("${eventbus.dispatchers:2}") int dispatchers,
+                          @Value("${eventbus.coalesce-window-ms:250}") long coalesceWindowMillis,
+                          @Value("${eventbus.slow-consumer-policy:drop-oldest}") String slowConsumerPolicy) {
+        this(queueSize, dispatchers, coalesceWindowMillis, SlowConsumerPolicy.valueOf(slowConsumerPolicy.toUpperCase(Locale.US).replace('-', '_')));
+    }
+
+    public SimpleEventBus(int queueSize, int dispatchers, long coalesceWindowMillis, SlowConsumerPolicy slowConsumerPolicy) {
+        this.queueSize = queueSize;
+        this.coalesceWindowNanos = TimeUnit.MILLISECONDS.toNanos(coalesceWindowMillis);
+        this.slowConsumerPolicy = slowConsumerPolicy;
+
+        if (queueSize > 0) {
+            dispatcher = Executors.newFixedThreadPool(Math.max(1, dispatchers), Threads.newThreadFactory("Event Bus Dispatcher"));
+            // a queue is drained by one task at a time, so this has a thread per internal subscriber at most
+            internalDispatcher = Executors.newCachedThreadPool(Threads.newThreadFactory("Event Bus Internal Dispatcher"));
+        } else {
+            dispatcher = null;
+            internalDispatcher = null;
+        }
+    }
+
     @Override
     public Subscription subscribe(String subscriberId, Subscription handler) {
+        if (dispatcher != null) {
+            queues.put(subscriberId, new SubscriberQueue(subscriberId, handler, new LinkedBlockingQueue<>(), internalDispatcher));
+        }
         return subscriptions.put(subscriberId, handler);
     }
+
+    @Override
+    public Subscription subscribeClient(String subscriberId, Subscription handler) {
+        if (dispatcher != null) {
+            queues.put(subscriberId, new SubscriberQueue(subscriberId, handler, new ArrayBlockingQueue<>(queueSize), dispatcher));
+        }
+        return subscriptions.put(subscriberId, handler);
+    }
+
     @Override
     public Subscription unsubscribe(String subscriberId) {
+        queues.remove(subscriberId);
         return subscriptions.remove(subscriberId);
     }
 
     @Override
     public void broadcast(String event, String data) {
+        if (dispatcher != null) {
+            for (SubscriberQueue queue : queues.values()) {
+                queue.enqueue(event, data);
+            }
+            return;
+        }
+
         for (Map.Entry<String, Subscription> entry : subscriptions.entrySet()) {
             entry.getValue().onEvent(event, data);
         }
@@ -48,11 +168,261 @@ public class SimpleEventBus implements EventBus {
 
     @Override
     public void send(String subscriberId, String event, String data) {
+        if (dispatcher != null) {
+            SubscriberQueue queue = queues.get(subscriberId);
+            if (queue != null) {
+                queue.enqueue(event, data);
+            }
+            return;
+        }
+
         Subscription sub = subscriptions.get(subscriberId);
         if( sub!=null ) {
             sub.onEvent(event, data);
         }
     }
 
+    /**
+     * Statistics of each subscriber's queue, keyed by subscriber id; empty
+     * when events are delivered on the publishing thread.
+     */
+    public Map<String, SubscriberStats> subscriberStats() {
+        if (queues.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, SubscriberStats> stats = new HashMap<>();
+        for (SubscriberQueue queue : queues.values()) {
+            stats.put(queue.subscriberId, queue.stats());
+        }
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("syndesis.eventbus.subscribers", subscriptions, Map::size).register(registry);
+        Gauge.builder("syndesis.eventbus.lag", this, SimpleEventBus::totalLag).register(registry);
+        Gauge.builder("syndesis.eventbus.lag.max", this, SimpleEventBus::maxLag).register(registry);
+        FunctionCounter.builder("syndesis.eventbus.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("syndesis.eventbus.coalesced", coalesced, LongAdder::sum).register(registry);
+        FunctionCounter.builder("syndesis.eventbus.disconnected", disconnected, LongAdder::sum).register(registry);
+        FunctionCounter.builder("syndesis.eventbus.dispatched", dispatched, LongAdder::sum).register(registry);
+        Gauge.builder("syndesis.eventbus.dispatch.latency", this, SimpleEventBus::averageDispatchLatencyNanos).baseUnit("nanoseconds").register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+            internalDispatcher.shutdownNow();
+        }
+    }
+
+    private long totalLag() {
+        long lag = 0;
+        for (SubscriberQueue queue : queues.values()) {
+            lag += queue.events.size();
+        }
+        return lag;
+    }
+
+    private long maxLag() {
+        long lag = 0;
+        for (SubscriberQueue queue : queues.values()) {
+            lag = Math.max(lag, queue.events.size());
+        }
+        return lag;
+    }
+
+    private double averageDispatchLatencyNanos() {
+        long count = dispatched.sum();
+        return count == 0 ? 0 : (double) dispatchLatency.sum() / count;
+    }
+
+    /**
+     * Point in time statistics of a subscriber's queue.
+     */
+    public static final class SubscriberStats {
+        private final long lag;
+        private final long dropped;
+        private final long coalesced;
+        private final long dispatched;
+        private final long maxDispatchLatencyNanos;
+
+        SubscriberStats(long lag, long dropped, long coalesced, long dispatched, long maxDispatchLatencyNanos) {
+            this.lag = lag;
+            this.dropped = dropped;
+            this.coalesced = coalesced;
+            this.dispatched = dispatched;
+            this.maxDispatchLatencyNanos = maxDispatchLatencyNanos;
+        }
+
+        /** number of events waiting to be delivered */
+        public long getLag() {
+            return lag;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        public long getDispatched() {
+            return dispatched;
+        }
+
+        /** longest time from publishing an event to its delivery */
+        public long getMaxDispatchLatencyNanos() {
+            return maxDispatchLatencyNanos;
+        }
+    }
+
+    private static final class QueuedEvent {
+        final String event;
+        final String data;
+        final long enqueued;
+
+        QueuedEvent(String event, String data, long enqueued) {
+            this.event = event;
+            this.data = data;
+            this.enqueued = enqueued;
+        }
+    }
+
+    private final class SubscriberQueue implements Runnable {
+        // events delivered before giving other subscribers a turn on the dispatcher
+        static final int MAX_EVENTS_PER_TURN = 64;
+
+        final String subscriberId;
+        final Subscription subscription;
+        final BlockingQueue<QueuedEvent> events;
+        final ExecutorService executor;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // payloads of change events waiting in the queue, with the time they were enqueued
+        final Map<String, Long> pendingChanges = new ConcurrentHashMap<>();
+
+        final LongAdder subscriberDropped = new LongAdder();
+        final LongAdder subscriberCoalesced = new LongAdder();
+        final LongAdder subscriberDispatched = new LongAdder();
+        final AtomicLong maxLatency = new AtomicLong();
 
+        SubscriberQueue(String subscriberId, Subscription subscription, BlockingQueue<QueuedEvent> events, ExecutorService executor) {
+            this.subscriberId = subscriberId;
+            this.subscription = subscription;
+            this.events = events;
+            this.executor = executor;
+        }
+
+        void enqueue(String event, String data) {
+            final long now = System.nanoTime();
+
+            if (Type.CHANGE_EVENT.equals(event) && data != null) {
+                Long pendingSince = pendingChanges.putIfAbsent(data, now);
+                if (pendingSince != null && now - pendingSince < coalesceWindowNanos) {
+                    subscriberCoalesced.increment();
+                    coalesced.increment();
+                    return;
+                }
+                pendingChanges.put(data, now);
+            }
+
+            final QueuedEvent queued = new QueuedEvent(event, data, now);
+            while (!events.offer(queued)) {
+                if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT) {
+                    disconnect();
+                    return;
+                }
+
+                drop();
+                if (slowConsumerPolicy == SlowConsumerPolicy.DROP_NEWEST) {
+                    return;
+                }
+
+                QueuedEvent oldest = events.poll();
+                if (oldest != null) {
+                    forget(oldest);
+                }
+            }
+
+            schedule();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    LOG.debug("Event bus is shut down, not delivering events to: {}", subscriberId);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                QueuedEvent queued;
+                int delivered = 0;
+                while (delivered++ < MAX_EVENTS_PER_TURN && (queued = events.poll()) != null) {
+                    forget(queued);
+                    try {
+                        subscription.onEvent(queued.event, queued.data);
+                    } catch (@SuppressWarnings("PMD.AvoidCatchingGenericException") RuntimeException e) {
+                        LOG.warn("Subscriber {} failed to handle event: {}", subscriberId, queued.event, e);
+                    }
+
+                    final long latency = System.nanoTime() - queued.enqueued;
+                    subscriberDispatched.increment();
+                    dispatched.increment();
+                    dispatchLatency.add(latency);
+                    maxLatency.accumulateAndGet(latency, Math::max);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+
+            // events could have been added after the last poll but before
+            // we cleared the scheduled flag, or were left for the next turn
+            if (!events.isEmpty()) {
+                schedule();
+            }
+        }
+
+        void forget(QueuedEvent queued) {
+            if (Type.CHANGE_EVENT.equals(queued.event) && queued.data != null) {
+                pendingChanges.remove(queued.data, queued.enqueued);
+            }
+        }
+
+        void drop() {
+            subscriberDropped.increment();
+            dropped.increment();
+        }
+
+        void disconnect() {
+            if (queues.remove(subscriberId, this)) {
+                subscriptions.remove(subscriberId, subscription);
+                disconnected.increment();
+                LOG.warn("Disconnecting subscriber {}, it is not keeping up with {} queued events", subscriberId, events.size());
+            }
+            drop();
+            events.clear();
+            pendingChanges.clear();
+
+            // let the client know that it needs to resubscribe
+            try {
+                dispatcher.execute(() -> subscription.onEvent("error", "Disconnected: too many pending events"));
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Event bus is shut down, not notifying: {}", subscriberId);
+            }
+        }
+
+        SubscriberStats stats() {
+            return new SubscriberStats(events.size(), subscriberDropped.sum(), subscriberCoalesced.sum(), subscriberDispatched.sum(), maxLatency.get());
+        }
+    }
 }
@@ -15,13 +15,18 @@
  */
 package io.syndesis.server.runtime;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import io.syndesis.common.util.EventBus;
+import io.syndesis.server.runtime.SimpleEventBus.SlowConsumerPolicy;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Used to test the SimpleEventBus
@@ -84,4 +89,169 @@ public class SimpleEventBusTest {
         assertEquals("data", sub2[1]);
     }
 
+    @Test
+    public void testAsyncBroadcastDoesNotBlockPublisher() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        List<String> received = new CopyOnWriteArrayList<>();
+        SimpleEventBus eventBus = new SimpleEventBus(16, 2, 0, SlowConsumerPolicy.DROP_OLDEST);
+        try {
+            eventBus.subscribe("a", (event, data) -> {
+                awaitQuietly(release);
+                received.add(data);
+                done.countDown();
+            });
+
+            eventBus.broadcast("text", "1");
+            eventBus.broadcast("text", "2");
+            eventBus.send("a", "text", "3");
+
+            // the subscriber is still blocked, yet the publisher returned
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertThat(received).containsExactly("1", "2", "3");
+            assertThat(eventBus.subscriberStats().get("a").getDispatched()).isEqualTo(3);
+        } finally {
+            eventBus.shutdown();
+        }
+    }
+
+    @Test
+    public void testCoalescesQueuedChangeEvents() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        SimpleEventBus eventBus = new SimpleEventBus(16, 1, 60_000, SlowConsumerPolicy.DROP_OLDEST);
+        try {
+            eventBus.subscribe("a", (event, data) -> {
+                awaitQuietly(release);
+                received.add(data);
+            });
+
+            eventBus.broadcast("text", "block");
+            eventBus.broadcast(EventBus.Type.CHANGE_EVENT, "x");
+            eventBus.broadcast(EventBus.Type.CHANGE_EVENT, "x");
+            eventBus.broadcast(EventBus.Type.CHANGE_EVENT, "y");
+            eventBus.broadcast(EventBus.Type.CHANGE_EVENT, "x");
+            release.countDown();
+
+            awaitDispatched(eventBus, "a", 3);
+            assertThat(received).containsExactly("block", "x", "y");
+            assertThat(eventBus.subscriberStats().get("a").getCoalesced()).isEqualTo(2);
+        } finally {
+            eventBus.shutdown();
+        }
+    }
+
+    @Test
+    public void testDropsOldestEventsOfSlowConsumers() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        SimpleEventBus eventBus = new SimpleEventBus(2, 1, 0, SlowConsumerPolicy.DROP_OLDEST);
+        try {
+            eventBus.subscribeClient("a", (event, data) -> {
+                blocked.countDown();
+                awaitQuietly(release);
+                received.add(data);
+            });
+
+            eventBus.send("a", "text", "0");
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i <= 4; i++) {
+                eventBus.send("a", "text", String.valueOf(i));
+            }
+            assertThat(eventBus.subscriberStats().get("a").getLag()).isEqualTo(2);
+            release.countDown();
+
+            awaitDispatched(eventBus, "a", 3);
+            assertThat(received).containsExactly("0", "3", "4");
+            assertThat(eventBus.subscriberStats().get("a").getDropped()).isEqualTo(2);
+        } finally {
+            eventBus.shutdown();
+        }
+    }
+
+    @Test
+    public void testDisconnectsSlowConsumers() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch notified = new CountDownLatch(1);
+        SimpleEventBus eventBus = new SimpleEventBus(1, 2, 0, SlowConsumerPolicy.DISCONNECT);
+        try {
+            eventBus.subscribeClient("a", (event, data) -> {
+                if ("error".equals(event)) {
+                    notified.countDown();
+                    return;
+                }
+                blocked.countDown();
+                awaitQuietly(release);
+            });
+
+            eventBus.send("a", "text", "0");
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            eventBus.send("a", "text", "1");
+            eventBus.send("a", "text", "2");
+
+            assertTrue(notified.await(5, TimeUnit.SECONDS));
+            assertThat(eventBus.subscriberStats()).doesNotContainKey("a");
+            assertThat(eventBus.unsubscribe("a")).isNull();
+        } finally {
+            release.countDown();
+            eventBus.shutdown();
+        }
+    }
+
+    @Test
+    public void testInternalSubscribersReceiveEveryEventOfABurst() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1000);
+        CountDownLatch after = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        SimpleEventBus eventBus = new SimpleEventBus(2, 1, 0, SlowConsumerPolicy.DISCONNECT);
+        try {
+            // a client that is not keeping up
+            eventBus.subscribeClient("client", (event, data) -> awaitQuietly(release));
+            eventBus.subscribe("controller", (event, data) -> {
+                if ("after".equals(data)) {
+                    after.countDown();
+                    return;
+                }
+                received.add(data);
+                done.countDown();
+            });
+
+            for (int i = 0; i < 1000; i++) {
+                eventBus.broadcast(EventBus.Type.CHANGE_EVENT, String.valueOf(i));
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertThat(received).hasSize(1000);
+            assertThat(received.get(999)).isEqualTo("999");
+            assertThat(eventBus.subscriberStats()).doesNotContainKey("client");
+            assertThat(eventBus.subscriberStats().get("controller").getDropped()).isZero();
+
+            // and keeps on receiving events after the burst
+            eventBus.broadcast(EventBus.Type.CHANGE_EVENT, "after");
+            assertTrue(after.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            eventBus.shutdown();
+        }
+    }
+
+    private static void awaitDispatched(SimpleEventBus eventBus, String subscriberId, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (eventBus.subscriberStats().get(subscriberId).getDispatched() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2016 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.syndesis.server.update.controller;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.syndesis.common.model.integration.Integration;
+
+/**
+ * Reverse index from connections, connectors, extensions and integration
+ * names to the integrations that reference them, so that handlers can
+ * recompute only the integrations affected by a change instead of scanning
+ * all of them.
+ * <p>
+ * The index is built from a full scan of the integrations and then kept up to
+ * date from the integration change events. It is not thread safe, handlers
+ * use it from the single thread of the {@link ResourceUpdateController}.
+ */
+public final class DependencyIndex {
+
+    private final Map<String, References> byIntegration = new HashMap<>();
+
+    private final Map<String, Set<String>> byConnection = new HashMap<>();
+
+    private final Map<String, Set<String>> byConnector = new HashMap<>();
+
+    private final Map<String, Set<String>> byExtension = new HashMap<>();
+
+    private final Map<String, Set<String>> byName = new HashMap<>();
+
+    private boolean built;
+
+    /**
+     * The resources referenced by one integration.
+     */
+    public static final class References {
+        static final References NONE = new References(null, Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+
+        private final String name;
+
+        private final Set<String> connectionIds;
+
+        private final Set<String> connectorIds;
+
+        private final Set<String> extensionIds;
+
+        References(String name, Set<String> connectionIds, Set<String> connectorIds, Set<String> extensionIds) {
+            this.name = name;
+            this.connectionIds = connectionIds;
+            this.connectorIds = connectorIds;
+            this.extensionIds = extensionIds;
+        }
+
+        static References of(Integration integration) {
+            return new References(integration.getName(), integration.getConnectionIds(), integration.getUsedConnectorIds(), integration.getExtensionIds());
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Set<String> getConnectionIds() {
+            return connectionIds;
+        }
+
+        public Set<String> getConnectorIds() {
+            return connectorIds;
+        }
+
+        public Set<String> getExtensionIds() {
+            return extensionIds;
+        }
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Replaces the content of the index with the references of the given
+     * integrations.
+     */
+    public void rebuild(Collection<Integration> integrations) {
+        byIntegration.clear();
+        byConnection.clear();
+        byConnector.clear();
+        byExtension.clear();
+        byName.clear();
+
+        for (Integration integration : integrations) {
+            if (integration.getId().isPresent()) {
+                add(integration.getId().get(), References.of(integration));
+            }
+        }
+
+        built = true;
+    }
+
+    /**
+     * Indexes the current references of the integration, returns the
+     * references it had before.
+     */
+    public References update(Integration integration) {
+        final String id = integration.getId().get();
+        final References previous = remove(id);
+        add(id, References.of(integration));
+
+        return previous;
+    }
+
+    /**
+     * Removes the integration from the index, returns the references it had.
+     */
+    public References remove(String integrationId) {
+        final References previous = byIntegration.remove(integrationId);
+        if (previous == null) {
+            return References.NONE;
+        }
+
+        unlink(byName, previous.getName(), integrationId);
+        previous.getConnectionIds().forEach(id -> unlink(byConnection, id, integrationId));
+        previous.getConnectorIds().forEach(id -> unlink(byConnector, id, integrationId));
+        previous.getExtensionIds().forEach(id -> unlink(byExtension, id, integrationId));
+
+        return previous;
+    }
+
+    public Set<String> integrationsUsingConnection(String connectionId) {
+        return lookup(byConnection, connectionId);
+    }
+
+    public Set<String> integrationsUsingConnector(String connectorId) {
+        return lookup(byConnector, connectorId);
+    }
+
+    public Set<String> integrationsUsingExtension(String extensionId) {
+        return lookup(byExtension, extensionId);
+    }
+
+    public Set<String> integrationsNamed(String name) {
+        return lookup(byName, name);
+    }
+
+    private void add(String integrationId, References references) {
+        byIntegration.put(integrationId, references);
+
+        link(byName, references.getName(), integrationId);
+        references.getConnectionIds().forEach(id -> link(byConnection, id, integrationId));
+        references.getConnectorIds().forEach(id -> link(byConnector, id, integrationId));
+        references.getExtensionIds().forEach(id -> link(byExtension, id, integrationId));
+    }
+
+    private static void link(Map<String, Set<String>> index, String key, String integrationId) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(integrationId);
+        }
+    }
+
+    private static void unlink(Map<String, Set<String>> index, String key, String integrationId) {
+        if (key == null) {
+            return;
+        }
+
+        final Set<String> integrationIds = index.get(key);
+        if (integrationIds != null && integrationIds.remove(integrationId) && integrationIds.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static Set<String> lookup(Map<String, Set<String>> index, String key) {
+        final Set<String> integrationIds = index.get(key);
+        if (integrationIds == null) {
+            return Collections.emptySet();
+        }
+
+        return new HashSet<>(integrationIds);
+    }
+}
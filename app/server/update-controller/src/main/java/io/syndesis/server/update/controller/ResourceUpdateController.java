@@ -17,7 +17,9 @@ package io.syndesis.server.update.controller;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -54,6 +56,10 @@ public class ResourceUpdateController {
 
     private final Supplier<ScheduledExecutorService> schedulerCreator;
 
+    private final Map<String, PendingEvent> pending = new LinkedHashMap<>();
+
+    private boolean drainScheduled;
+
     @Autowired
     public ResourceUpdateController(final ResourceUpdateConfiguration configuration, final EventBus eventBus, final List<ResourceUpdateHandler> handlers) {
         this.eventBus = eventBus;
@@ -76,6 +82,17 @@ public class ResourceUpdateController {
 
         if (scheduler.isShutdown()) {
             scheduler = schedulerCreator.get();
+
+            // a drain could have been dropped when the previous scheduler
+            // was shut down
+            final boolean schedule;
+            synchronized (pending) {
+                drainScheduled = !pending.isEmpty();
+                schedule = drainScheduled;
+            }
+            if (schedule) {
+                scheduler.execute(this::drain);
+            }
         }
 
         LOGGER.debug("Subscribing to EventBus");
@@ -129,12 +146,54 @@ public class ResourceUpdateController {
 
         final CompletableFuture<Void> done = new CompletableFuture<>();
         if (changeEvent != null) {
-            scheduler.execute(() -> run(changeEvent, done));
+            enqueue(changeEvent, done);
         }
 
         return done;
     }
 
+    /**
+     * Queues the event for processing. Events received while a batch is
+     * processed are queued together and repeated events for the same
+     * resource are processed once, so bursts of changes, like an import,
+     * do not trigger the handlers for every single change.
+     */
+    private void enqueue(final ChangeEvent event, final CompletableFuture<Void> done) {
+        final boolean schedule;
+        synchronized (pending) {
+            pending.computeIfAbsent(keyOf(event), k -> new PendingEvent()).add(event, done);
+
+            schedule = !drainScheduled;
+            drainScheduled = true;
+        }
+
+        if (schedule) {
+            scheduler.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        final List<PendingEvent> events;
+        synchronized (pending) {
+            events = new ArrayList<>(pending.values());
+            pending.clear();
+            drainScheduled = false;
+        }
+
+        for (final PendingEvent event : events) {
+            try {
+                run(event.event);
+                event.complete(null);
+            } catch (final RuntimeException e) {
+                event.complete(e);
+            }
+        }
+    }
+
+    private static String keyOf(final ChangeEvent event) {
+        return event.getKind().orElse("") + "/" + event.getId().orElse("");
+    }
+
     @SuppressWarnings("FutureReturnValueIgnored")
     final Supplier<ScheduledExecutorService> schedulerConfiguredFrom(final ResourceUpdateConfiguration configuration) {
         return () -> {
@@ -180,18 +239,17 @@ public class ResourceUpdateController {
                     LOGGER.debug("Trigger handler {}", handler);
                     handler.process(event);
 
-                    // At the moment, handlers are not selective but they scan
-                    // resources every time process is invoked so we do not need
-                    // to trigger the handler multiple time.
+                    // Events without an id make the handlers check all
+                    // resources so we do not need to trigger the handler
+                    // multiple time.
                     break;
                 }
             }
         }
     }
 
-    private void run(final ChangeEvent event, final CompletableFuture<Void> done) {
+    private void run(final ChangeEvent event) {
         if (!running.get()) {
-            done.complete(null);
             return;
         }
 
@@ -203,7 +261,26 @@ public class ResourceUpdateController {
                 handler.process(event);
             }
         }
+    }
+
+    private static final class PendingEvent {
+        private final List<CompletableFuture<Void>> waiting = new ArrayList<>();
+
+        private ChangeEvent event;
 
-        done.complete(null);
+        void add(final ChangeEvent latest, final CompletableFuture<Void> done) {
+            event = latest;
+            waiting.add(done);
+        }
+
+        void complete(final Throwable failure) {
+            for (final CompletableFuture<Void> done : waiting) {
+                if (failure == null) {
+                    done.complete(null);
+                } else {
+                    done.completeExceptionally(failure);
+                }
+            }
+        }
     }
 }
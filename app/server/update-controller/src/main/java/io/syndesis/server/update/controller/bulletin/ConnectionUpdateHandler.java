@@ -52,26 +52,58 @@ public class ConnectionUpdateHandler extends AbstractResourceUpdateHandler<Conne
         return event.getKind().map(Kind::from).filter(supportedKinds::contains).isPresent();
     }
 
+    /**
+     * Computes the boards of the connections of the changed connector or of
+     * the changed connection, or of all connections for the periodic checks
+     * that carry no id.
+     */
     @Override
     protected List<ConnectionBulletinBoard> compute(ChangeEvent event) {
         final List<ConnectionBulletinBoard> boards = new ArrayList<>();
         final DataManager dataManager = getDataManager();
-        final List<Connector> connectors = dataManager.fetchAll(Connector.class).getItems();
 
-        for (int i = 0; i < connectors.size(); i++) {
-            final Connector connector = connectors.get(i);
-            final String id = connector.getId().get();
+        if (!event.getId().isPresent()) {
+            final List<Connector> connectors = dataManager.fetchAll(Connector.class).getItems();
 
-            dataManager.fetchAllByPropertyValue(Connection.class, "connectorId", id)
-                .filter(connection -> connection.getConnector().isPresent())
-                .map(connection -> computeBoard(connection, connection.getConnector().get(), connector))
-                .filter(Objects::nonNull)
-                .forEach(boards::add);
+            for (int i = 0; i < connectors.size(); i++) {
+                computeBoards(connectors.get(i), boards);
+            }
+
+            return boards;
+        }
+
+        final String id = event.getId().get();
+        final Kind kind = event.getKind().map(Kind::from).orElse(null);
+
+        if (kind == Kind.Connector) {
+            final Connector connector = dataManager.fetch(Connector.class, id);
+            if (connector != null) {
+                computeBoards(connector, boards);
+            }
+        } else if (kind == Kind.Connection) {
+            final Connection connection = dataManager.fetch(Connection.class, id);
+            if (connection != null && connection.getConnector().isPresent()) {
+                final Connector connector = dataManager.fetch(Connector.class, connection.getConnectorId());
+                if (connector != null) {
+                    final ConnectionBulletinBoard board = computeBoard(connection, connection.getConnector().get(), connector);
+                    if (board != null) {
+                        boards.add(board);
+                    }
+                }
+            }
         }
 
         return boards;
     }
 
+    private void computeBoards(Connector connector, List<ConnectionBulletinBoard> boards) {
+        getDataManager().fetchAllByPropertyValue(Connection.class, "connectorId", connector.getId().get())
+            .filter(connection -> connection.getConnector().isPresent())
+            .map(connection -> computeBoard(connection, connection.getConnector().get(), connector))
+            .filter(Objects::nonNull)
+            .forEach(boards::add);
+    }
+
     ConnectionBulletinBoard computeBoard(Connection connection, Connector oldConnector, Connector newConnector) {
         final DataManager dataManager = getDataManager();
         final String id = connection.getId().get();
@@ -19,8 +19,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -51,6 +53,7 @@ import io.syndesis.common.util.CollectionsUtils;
 import io.syndesis.common.util.KeyGenerator;
 import io.syndesis.server.dao.manager.DataManager;
 import io.syndesis.server.dao.manager.EncryptionComponent;
+import io.syndesis.server.update.controller.DependencyIndex;
 
 /**
  * This class handles updates on {@link Integration} and related resources and
@@ -58,6 +61,7 @@ import io.syndesis.server.dao.manager.EncryptionComponent;
  */
 public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<IntegrationBulletinBoard> {
     private final List<Kind> supportedKinds;
+    private final DependencyIndex index = new DependencyIndex();
 
     public IntegrationUpdateHandler(final DataManager dataManager, final EncryptionComponent encryptionComponent, final Validator validator) {
         super(dataManager, encryptionComponent, validator);
@@ -223,6 +227,15 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
      */
     @Override
     protected List<IntegrationBulletinBoard> compute(final ChangeEvent event) {
+        final Set<String> affected = affectedIntegrations(event);
+        if (affected == null) {
+            return computeAll(event);
+        }
+
+        return computeAffected(event, affected);
+    }
+
+    private List<IntegrationBulletinBoard> computeAll(final ChangeEvent event) {
         final List<IntegrationBulletinBoard> boards = new ArrayList<>();
         final DataManager dataManager = getDataManager();
 
@@ -245,9 +258,66 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
         allIntegrations.addAll(integrations);
         allIntegrations.addAll(deployedIntegrations);
 
+        final boolean integrationChanged = isKind(event, Kind.Integration);
+
         // Now iterate all existing integrations and update them if needed
         for (final Integration integration : integrations) {
-            updateIntegration(event, boards, dataManager, deployments,
+            updateIntegration(integrationChanged, boards, dataManager, deployments,
+                                connections, allIntegrations,
+                                integration);
+        }
+
+        index.rebuild(integrations);
+
+        return boards;
+    }
+
+    /**
+     * Recomputes the boards of the given integrations only. The validation
+     * domain is limited to the integrations, drafts and deployed, sharing a
+     * name with them as name uniqueness is the only domain wide check, a
+     * deployed integration renamed afterwards is caught by the periodic full
+     * check.
+     */
+    private List<IntegrationBulletinBoard> computeAffected(final ChangeEvent event, final Set<String> ids) {
+        final List<IntegrationBulletinBoard> boards = new ArrayList<>();
+        final DataManager dataManager = getDataManager();
+
+        final List<Integration> integrations = fetchIntegrations(ids);
+        if (integrations.isEmpty()) {
+            return boards;
+        }
+
+        final Set<String> domainIds = new HashSet<>(ids);
+        final Set<String> connectionIds = new HashSet<>();
+        for (final Integration integration : integrations) {
+            if (integration.getName() != null) {
+                domainIds.addAll(index.integrationsNamed(integration.getName()));
+            }
+            connectionIds.addAll(integration.getConnectionIds());
+        }
+
+        final List<Integration> domainIntegrations = fetchIntegrations(domainIds);
+        final List<IntegrationDeployment> deployments = new ArrayList<>();
+        for (final String id : domainIds) {
+            dataManager.fetchAllByPropertyValue(IntegrationDeployment.class, "integrationId", id).forEach(deployments::add);
+        }
+
+        final Collection<Integration> allIntegrations = new ArrayList<>(domainIntegrations.size() + deployments.size());
+        allIntegrations.addAll(domainIntegrations);
+        deployments.stream().map(IntegrationDeployment::getSpec).distinct().forEach(allIntegrations::add);
+
+        final List<Connection> connections = connectionIds.stream()
+            .map(id -> dataManager.fetch(Connection.class, id))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        final boolean integrationChanged = isKind(event, Kind.Integration);
+
+        for (final Integration integration : integrations) {
+            // only the connections of the changed integration need to be
+            // re-synced, not the ones of the integrations sharing its name
+            updateIntegration(integrationChanged && integration.getId().equals(event.getId()), boards, dataManager, deployments,
                                 connections, allIntegrations,
                                 integration);
         }
@@ -255,10 +325,74 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
         return boards;
     }
 
+    /**
+     * Determines the integrations whose boards can be altered by the change
+     * using the dependency index, updating the index for changes to
+     * integrations. Returns {@code null} when all integrations need to be
+     * checked: before the index is built and for the periodic checks that
+     * carry no id.
+     */
+    private Set<String> affectedIntegrations(final ChangeEvent event) {
+        if (!index.isBuilt() || !event.getId().isPresent() || !event.getKind().isPresent()) {
+            return null;
+        }
+
+        final String id = event.getId().get();
+        final DataManager dataManager = getDataManager();
+
+        switch (Kind.from(event.getKind().get())) {
+        case Integration:
+            final Integration integration = dataManager.fetch(Integration.class, id);
+            final DependencyIndex.References previous = integration == null ? index.remove(id) : index.update(integration);
+
+            // names need to be unique, so a renamed integration alters the
+            // boards of the integrations having its previous or new name
+            final Set<String> affected = new HashSet<>();
+            affected.add(id);
+            if (previous.getName() != null) {
+                affected.addAll(index.integrationsNamed(previous.getName()));
+            }
+            if (integration != null && integration.getName() != null) {
+                affected.addAll(index.integrationsNamed(integration.getName()));
+            }
+
+            return affected;
+        case Connection:
+            return index.integrationsUsingConnection(id);
+        case Connector:
+            return index.integrationsUsingConnector(id);
+        case Extension:
+            final Extension extension = dataManager.fetch(Extension.class, id);
+            if (extension == null) {
+                return null;
+            }
+
+            return index.integrationsUsingExtension(extension.getExtensionId());
+        default:
+            return null;
+        }
+    }
+
+    private List<Integration> fetchIntegrations(final Set<String> ids) {
+        final List<Integration> integrations = new ArrayList<>(ids.size());
+        for (final String id : ids) {
+            final Integration integration = getDataManager().fetch(Integration.class, id);
+            if (integration != null) {
+                integrations.add(integration);
+            }
+        }
+
+        return integrations;
+    }
+
+    private static boolean isKind(final ChangeEvent event, final Kind kind) {
+        return kind.equals(event.getKind().map(Kind::from).orElse(null));
+    }
+
     /**
      * For each integration existing in the platform, checks the flow (steps) and update it.
      * The message boards {@see IntegrationBulletinBoard} will be updated with any info, warn or error.
-     * @param event change event that triggered this action
+     * @param integrationChanged whether an integration was changed and the connections it uses need to be re-synced
      * @param boards list of bulletin boards
      * @param dataManager helper to get data
      * @param deployments list of integration deployments
@@ -266,7 +400,7 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
      * @param allIntegrations list of all integrations
      * @param integration specific integration we want to update
      */
-    private void updateIntegration(ChangeEvent event, List<IntegrationBulletinBoard> boards, DataManager dataManager,
+    private void updateIntegration(boolean integrationChanged, List<IntegrationBulletinBoard> boards, DataManager dataManager,
                                     List<IntegrationDeployment> deployments, List<Connection> connections,
                                     Collection<Integration> allIntegrations, Integration integration) {
 
@@ -281,7 +415,7 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
 
         // Iterates through the flow to process each step with the connectors and actions.
         // If there is no change, this shouldn't change the integration, in theory.
-        processAndUpdateFlow(event, dataManager, connections, allIntegrations, messages, integration);
+        processAndUpdateFlow(integrationChanged, dataManager, connections, allIntegrations, messages, integration);
         messages.addAll(computeDeploymentDifferences(integration, deployments));
 
         //Update the board to show messages to the user
@@ -323,7 +457,7 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
         return builder;
     }
 
-    private void processAndUpdateFlow(ChangeEvent event, DataManager dataManager, List<Connection> connections,
+    private void processAndUpdateFlow(boolean integrationChanged, DataManager dataManager, List<Connection> connections,
                                         Collection<Integration> allIntegrations, List<LeveledMessage> messages,
                                         Integration integration) {
 
@@ -360,7 +494,7 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
                 messages.addAll(computeValidatorMessages(supplier, intTarget));
 
                 checkAndUpdateExtensions(dataManager, messages, step, supplier);
-                checkAndUpdateConnectors(event, dataManager, connections, messages, step, supplier);
+                checkAndUpdateConnectors(integrationChanged, dataManager, connections, messages, step, supplier);
 
             }
         }
@@ -442,7 +576,7 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
     // **********************
     // Connector Action
     // **********************
-    private void checkAndUpdateConnectors(ChangeEvent event, DataManager dataManager, List<Connection> connections, List<LeveledMessage> messages, Step step, Supplier<LeveledMessage.Builder> supplier) {
+    private void checkAndUpdateConnectors(boolean integrationChanged, DataManager dataManager, List<Connection> connections, List<LeveledMessage> messages, Step step, Supplier<LeveledMessage.Builder> supplier) {
         step.getAction().filter(ConnectorAction.class::isInstance).map(ConnectorAction.class::cast).ifPresent(action -> {
             if (!step.getConnection().isPresent()) {
                 return;
@@ -451,8 +585,7 @@ public class IntegrationUpdateHandler extends AbstractResourceUpdateHandler<Inte
             final Connection connection = step.getConnection().get();
             final Connection dbConnection = getDataManager().fetch(Connection.class, connection.getId().get());
 
-            if (dbConnection != null &&
-                Kind.Integration.equals(event.getKind().map(Kind::from).orElse(null))) {
+            if (dbConnection != null && integrationChanged) {
                 /*
                  * An integration event will create, delete or
                  * update it. This has an impact on associated
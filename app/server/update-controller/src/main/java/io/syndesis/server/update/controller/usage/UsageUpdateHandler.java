@@ -16,6 +16,7 @@
 package io.syndesis.server.update.controller.usage;
 
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +34,7 @@ import io.syndesis.common.model.connection.Connection;
 import io.syndesis.common.model.extension.Extension;
 import io.syndesis.common.model.integration.Integration;
 import io.syndesis.server.dao.manager.DataManager;
+import io.syndesis.server.update.controller.DependencyIndex;
 import io.syndesis.server.update.controller.ResourceUpdateHandler;
 
 import org.slf4j.Logger;
@@ -48,6 +50,8 @@ public final class UsageUpdateHandler implements ResourceUpdateHandler {
 
     private final DataManager dataManager;
 
+    private final DependencyIndex index = new DependencyIndex();
+
     public UsageUpdateHandler(final DataManager dataManager) {
         this.dataManager = dataManager;
     }
@@ -72,6 +76,44 @@ public final class UsageUpdateHandler implements ResourceUpdateHandler {
     void processInternal(final ChangeEvent event) {
         LOG.debug("Processing event: {}", event);
 
+        if (event == null || !event.getId().isPresent() || !index.isBuilt()) {
+            processAll();
+            return;
+        }
+
+        final String id = event.getId().get();
+        final Kind kind = event.getKind().map(Kind::from).orElse(null);
+
+        if (kind == Kind.Integration) {
+            // the integration could have stopped using some connections or
+            // extensions, and started using others
+            final Integration integration = dataManager.fetch(Integration.class, id);
+            final DependencyIndex.References previous = integration == null ? index.remove(id) : index.update(integration);
+
+            final Set<String> connectionIds = new HashSet<>(previous.getConnectionIds());
+            final Set<String> extensionIds = new HashSet<>(previous.getExtensionIds());
+            if (integration != null) {
+                connectionIds.addAll(integration.getConnectionIds());
+                extensionIds.addAll(integration.getExtensionIds());
+            }
+
+            for (final String connectionId : connectionIds) {
+                final Connection connection = dataManager.fetch(Connection.class, connectionId);
+                if (connection != null) {
+                    updateUsage(connection, index.integrationsUsingConnection(connectionId).size(), UsageUpdateHandler::withUpdatedUsage);
+                }
+            }
+
+            extensionIds.forEach(this::updateExtensionUsage);
+        } else if (kind == Kind.Extension) {
+            final Extension extension = dataManager.fetch(Extension.class, id);
+            if (extension != null) {
+                updateExtensionUsage(extension.getExtensionId());
+            }
+        }
+    }
+
+    private void processAll() {
         final ListResult<Integration> integrationsResult = dataManager.fetchAll(Integration.class);
 
         final List<Integration> integrations = integrationsResult.getItems();
@@ -81,6 +123,15 @@ public final class UsageUpdateHandler implements ResourceUpdateHandler {
 
         updateUsageFor(Extension.class, integrations, Integration::getExtensionIds, Extension::getExtensionId,
             UsageUpdateHandler::withUpdatedUsage);
+
+        index.rebuild(integrations);
+    }
+
+    private void updateExtensionUsage(final String extensionId) {
+        final int currentUse = index.integrationsUsingExtension(extensionId).size();
+
+        dataManager.fetchAllByPropertyValue(Extension.class, "extensionId", extensionId)
+            .forEach(extension -> updateUsage(extension, currentUse, UsageUpdateHandler::withUpdatedUsage));
     }
 
     private <T extends WithId<T> & WithUsage> void updateUsageFor(final Class<T> type, final List<Integration> integrations,
@@ -94,13 +145,16 @@ public final class UsageUpdateHandler implements ResourceUpdateHandler {
         for (final T item : allItems) {
             final String id = idFunction.apply(item);
 
-            final int recordedUse = item.getUses();
-            final int currentUse = usage.getOrDefault(id, 0L).intValue();
+            updateUsage(item, usage.getOrDefault(id, 0L).intValue(), usageUpdater);
+        }
+    }
 
-            if (recordedUse != currentUse) {
-                LOG.debug("Updating usage from: {} to: {}", recordedUse, currentUse);
-                dataManager.update(usageUpdater.apply(item, currentUse));
-            }
+    private <T extends WithId<T> & WithUsage> void updateUsage(final T item, final int currentUse, final BiFunction<T, Integer, T> usageUpdater) {
+        final int recordedUse = item.getUses();
+
+        if (recordedUse != currentUse) {
+            LOG.debug("Updating usage from: {} to: {}", recordedUse, currentUse);
+            dataManager.update(usageUpdater.apply(item, currentUse));
         }
     }
 
@@ -15,8 +15,11 @@
  */
 package io.syndesis.server.update.controller;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -30,10 +33,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -71,6 +77,43 @@ public class ResourceUpdateControllerTest {
         }
     }
 
+    @Test
+    public void shouldCoalesceRepeatedEvents() throws InterruptedException, ExecutionException, TimeoutException {
+        reset(handlers);
+
+        final ChangeEvent other = ChangeEvent.of("action", "kind", "other");
+        final CountDownLatch processing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        for (final ResourceUpdateHandler handler : handlers) {
+            when(handler.canHandle(any())).thenReturn(true);
+        }
+        doAnswer(invocation -> {
+            processing.countDown();
+            release.await(1, TimeUnit.SECONDS);
+            return null;
+        }).when(handlers[0]).process(other);
+
+        final CompletableFuture<Void> first = controller.onEventInternal(EventBus.Type.CHANGE_EVENT, JsonUtils.toString(other));
+        assertThat(processing.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // received while the first event is processed
+        final List<CompletableFuture<Void>> burst = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            burst.add(controller.onEventInternal(EventBus.Type.CHANGE_EVENT, JsonUtils.toString(event)));
+        }
+        release.countDown();
+
+        first.get(1, TimeUnit.SECONDS);
+        for (final CompletableFuture<Void> processed : burst) {
+            processed.get(1, TimeUnit.SECONDS);
+        }
+
+        for (final ResourceUpdateHandler handler : handlers) {
+            verify(handler, times(1)).process(event);
+        }
+    }
+
     @BeforeEach
     public void startController() {
         controller.start();
@@ -22,13 +22,18 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.validation.Validator;
 import org.junit.jupiter.api.Test;
 import io.syndesis.common.model.ChangeEvent;
@@ -513,4 +518,50 @@ public class IntegrationUpdateHandlerTest implements StringConstants {
         List<LeveledMessage> messages = board.getMessages();
         assertTrue(messages.isEmpty());
     }
+
+    /**
+     * With 2000 integrations, a change to a connection recomputes only the
+     * boards of the integrations using it, once the dependencies are indexed
+     * by a full check.
+     */
+    @Test
+    public void shouldComputeOnlyIntegrationsAffectedByConnectionChange() {
+        final IntegrationUpdateHandler updateHandler = new IntegrationUpdateHandler(dataManager, null, validator);
+
+        final Connector sqlConnector = newSqlConnector();
+        when(dataManager.fetch(Connector.class, CONNECTOR_ID)).thenReturn(sqlConnector);
+
+        final ListResult.Builder<Connection> connections = new ListResult.Builder<>();
+        for (int c = 0; c < 1000; c++) {
+            final Connection connection = new Connection.Builder().createFrom(newSqlConnection(sqlConnector)).id("connection-" + c).build();
+            connections.addItem(connection);
+            when(dataManager.fetch(Connection.class, "connection-" + c)).thenReturn(connection);
+        }
+        final ListResult<Connection> allConnections = connections.build();
+
+        // every connection is used by two integrations
+        final ListResult.Builder<Integration> integrations = new ListResult.Builder<>();
+        for (int i = 0; i < 2000; i++) {
+            final Integration integration = newSqlIntegration("integration-" + i, allConnections.getItems().get(i % 1000));
+            integrations.addItem(integration);
+            when(dataManager.fetch(Integration.class, "integration-" + i)).thenReturn(integration);
+        }
+
+        when(dataManager.fetchAll(Connection.class)).thenReturn(allConnections);
+        when(dataManager.fetchAll(IntegrationDeployment.class)).thenReturn(ListResult.of(Collections.emptyList()));
+        when(dataManager.fetchAll(Integration.class)).thenReturn(integrations.build());
+
+        final List<IntegrationBulletinBoard> all = updateHandler.compute(new ChangeEvent.Builder().kind("integration").build());
+        assertEquals(2000, all.size());
+
+        final List<IntegrationBulletinBoard> affected = updateHandler.compute(ChangeEvent.of("updated", "connection", "connection-7"));
+        assertEquals(2, affected.size());
+        assertEquals(new HashSet<>(Arrays.asList("integration-7", "integration-1007")),
+            affected.stream().map(IntegrationBulletinBoard::getTargetResourceId).collect(Collectors.toSet()));
+
+        assertTrue(updateHandler.compute(ChangeEvent.of("updated", "connection", "unused")).isEmpty());
+
+        verify(dataManager, times(1)).fetchAll(Integration.class);
+        verify(dataManager, times(1)).fetchAll(Connection.class);
+    }
 }
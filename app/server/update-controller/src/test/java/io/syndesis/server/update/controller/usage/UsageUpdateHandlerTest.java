@@ -16,7 +16,9 @@
 package io.syndesis.server.update.controller.usage;
 
 import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -34,6 +36,7 @@ import java.util.Arrays;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 public class UsageUpdateHandlerTest {
 
@@ -196,6 +199,37 @@ public class UsageUpdateHandlerTest {
         verifyNoMoreInteractions(dataManager);
     }
 
+    @Test
+    public void shouldRecountOnlyTheConnectionsOfTheChangedIntegration() {
+        final Integration usesC1 = testIntegration().withFlowConnections(c1).id("i1").build();
+        final Integration usesC1andC2 = testIntegration().withFlowConnections(c1, c2).id("i2").build();
+        when(dataManager.fetchAll(Integration.class)).thenReturn(ListResult.of(usesC1, usesC1andC2));
+
+        handler.processInternal(new ChangeEvent.Builder().kind("integration").build());
+
+        final Integration usesC3 = testIntegration().withFlowConnections(c3).id("i1").build();
+        when(dataManager.fetch(Integration.class, "i1")).thenReturn(usesC3);
+        when(dataManager.fetch(Connection.class, "c1")).thenReturn(UsageUpdateHandler.withUpdatedUsage(c1, 2));
+        when(dataManager.fetch(Connection.class, "c3")).thenReturn(c3);
+
+        handler.processInternal(ChangeEvent.of("updated", "integration", "i1"));
+
+        verify(dataManager).fetch(Integration.class, "i1");
+        verify(dataManager).fetch(Connection.class, "c1");
+        verify(dataManager).fetch(Connection.class, "c3");
+
+        final ArgumentCaptor<Connection> updated = ArgumentCaptor.forClass(Connection.class);
+        verify(dataManager, times(4)).update(updated.capture());
+        assertThat(updated.getAllValues()).extracting(c -> c.getId().get() + "=" + c.getUses())
+            .containsExactlyInAnyOrder("c1=2", "c2=1", "c1=1", "c3=1");
+
+        // the integrations are fetched only once, for the full count
+        verify(dataManager).fetchAll(Integration.class);
+        verify(dataManager).fetchAll(Connection.class);
+        verify(dataManager).fetchAll(Extension.class);
+        verifyNoMoreInteractions(dataManager);
+    }
+
     @Test
     public void someStepsDoNotUseConnectionsAndShouldNotBeConsidered() {
         final Step stepWithoutConnection = new Step.Builder().build();